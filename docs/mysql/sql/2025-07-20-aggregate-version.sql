@@ -0,0 +1,16 @@
+-- =============================================
+-- 聚合根版本表
+-- Author: LingRJ
+-- Date: 2025-07-20
+-- Description: 用户收藏/评论/收藏馆聚合根没有独立的根记录，版本号单独成表。
+--              保存聚合根时以 version = 期望版本 为条件递增，受影响行数为 0 即版本冲突
+-- =============================================
+
+DROP TABLE IF EXISTS `user_aggregate_version`;
+CREATE TABLE `user_aggregate_version` (
+  `username` varchar(32) NOT NULL COMMENT '用户名',
+  `aggregate_type` varchar(32) NOT NULL COMMENT '聚合根类型(favorites,comments,galleries)',
+  `version` bigint NOT NULL DEFAULT '0' COMMENT '版本号，每次保存递增',
+  `update_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`username`, `aggregate_type`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='用户聚合根版本表';
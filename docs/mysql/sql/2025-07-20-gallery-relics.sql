@@ -0,0 +1,32 @@
+-- =============================================
+-- 收藏馆文物关联表
+-- Author: LingRJ
+-- Date: 2025-07-20
+-- Description: collection_gallery.relics_ids 为逗号分隔字符串，按文物查收藏馆只能 FIND_IN_SET 全表扫描。
+--              收藏馆与文物的关系改为一行一个文物：(relics_id, gallery_id) 支持按文物查收藏馆，
+--              (gallery_id, position) 支持按收藏顺序读取收藏馆内的文物。
+--              双写期间应用同时写入 relics_ids 与本表，查询改读本表；
+--              确认不再有读取 relics_ids 的旧版本后，再执行文件末尾的清理语句
+-- =============================================
+
+DROP TABLE IF EXISTS `gallery_relics`;
+CREATE TABLE `gallery_relics` (
+  `gallery_id` varchar(36) NOT NULL COMMENT '收藏馆唯一标识(UUID)',
+  `relics_id` bigint NOT NULL COMMENT '文物ID',
+  `position` int NOT NULL COMMENT '文物在收藏馆中的顺序，从0开始',
+  `create_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  PRIMARY KEY (`gallery_id`, `relics_id`),
+  KEY `idx_relics_gallery` (`relics_id`, `gallery_id`),
+  KEY `idx_gallery_position` (`gallery_id`, `position`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='收藏馆文物关联表';
+
+-- 回填已有收藏馆的文物，position 保持 relics_ids 中的顺序；同一收藏馆重复的文物只保留第一次出现
+INSERT IGNORE INTO `gallery_relics` (`gallery_id`, `relics_id`, `position`, `create_time`)
+SELECT g.`gallery_id`, r.`relics_id`, r.`ordinal` - 1, g.`create_time`
+FROM `collection_gallery` g,
+     JSON_TABLE(CONCAT('[', g.`relics_ids`, ']'), '$[*]'
+                COLUMNS (`ordinal` FOR ORDINALITY, `relics_id` bigint PATH '$')) r
+WHERE g.`relics_ids` IS NOT NULL AND g.`relics_ids` != '';
+
+-- 双写结束后执行：
+-- ALTER TABLE `collection_gallery` DROP COLUMN `relics_ids`;
@@ -0,0 +1,90 @@
+package com.ling.config;
+
+import com.ling.infrastructure.cache.warmup.CacheWarmUpService;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+
+/**
+ * 缓存配置
+ * @Author: LingRJ
+ * @Description: 配置缓存过期前后台刷新、缓存预热使用的线程池及预热健康检查
+ * @DateTime: 2025/7/20
+ */
+@Configuration
+public class CacheConfig {
+
+    /**
+     * 缓存后台刷新线程池
+     * 刷新是尽力而为的，队列满时直接拒绝，由请求在缓存过期后同步加载
+     * @return 线程池执行器
+     */
+    @Bean("cacheRefreshExecutor")
+    public Executor cacheRefreshExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+        // 核心线程数
+        executor.setCorePoolSize(2);
+
+        // 最大线程数
+        executor.setMaxPoolSize(4);
+
+        // 队列容量
+        executor.setQueueCapacity(200);
+
+        // 线程名前缀
+        executor.setThreadNamePrefix("cache-refresh-");
+
+        // 拒绝策略：抛出异常，由调用方放弃本次刷新
+        executor.setRejectedExecutionHandler(new java.util.concurrent.ThreadPoolExecutor.AbortPolicy());
+
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 缓存预热线程池
+     * 预热任务由限速器控制节奏，队列满时由提交线程自己执行，保证热点集完整加载
+     * @return 线程池执行器
+     */
+    @Bean("cacheWarmUpExecutor")
+    public Executor cacheWarmUpExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(4);
+        executor.setQueueCapacity(1000);
+        executor.setThreadNamePrefix("cache-warmup-");
+
+        // 拒绝策略：由调用线程执行
+        executor.setRejectedExecutionHandler(new java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy());
+
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 缓存预热健康检查，纳入 readiness 分组：启动预热结束前为 OUT_OF_SERVICE
+     */
+    @Bean("cacheWarmUpHealthIndicator")
+    public HealthIndicator cacheWarmUpHealthIndicator(CacheWarmUpService cacheWarmUpService) {
+        return () -> {
+            CacheWarmUpService.WarmUpStatus status = cacheWarmUpService.getStatus();
+            Health.Builder builder = status.isWarm() ? Health.up() : Health.outOfService();
+            return builder.withDetail("state", status.state())
+                    .withDetail("users", status.users())
+                    .withDetail("relics", status.relics())
+                    .withDetail("failures", status.failures())
+                    .withDetail("elapsedMillis", status.elapsedMillis())
+                    .build();
+        };
+    }
+}
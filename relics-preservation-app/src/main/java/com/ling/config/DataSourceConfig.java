@@ -1,36 +1,103 @@
 package com.ling.config;
 
-import org.mybatis.spring.annotation.MapperScan;
+import com.ling.infrastructure.datasource.DataSourcePools;
+import com.ling.infrastructure.datasource.ReadWriteRoutingDataSource;
+import com.ling.infrastructure.datasource.ReplicaLagMonitor;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
-import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 
 import javax.sql.DataSource;
 
 /**
  * @Author: LingRJ
- * @Description: 数据源配置
+ * @Description: 数据源配置，使用 HikariCP 连接池并开启驱动级语句缓存。
+ *               配置从库（datasource.replica.enabled=true）后，只读事务路由到从库，复制延迟超过阈值时回退到主库
  * @DateTime: 2025/6/28 21:30
  **/
+@Slf4j
 @Configuration
+@EnableConfigurationProperties(DataSourcePoolProperties.class)
 public class DataSourceConfig {
 
-    @Primary
-    @Bean("mysqlDataSource")
-    public DataSource mysqlDataSource(
+    @Bean(value = "mysqlPrimaryDataSource", destroyMethod = "close")
+    public HikariDataSource mysqlPrimaryDataSource(
             @Value("${spring.datasource.url}") String url,
             @Value("${spring.datasource.username}") String username,
             @Value("${spring.datasource.password}") String password,
-            @Value("${spring.datasource.driver-class-name}") String driverClassName) {
-        
-        DriverManagerDataSource dataSource = new DriverManagerDataSource();
-        dataSource.setDriverClassName(driverClassName);
-        dataSource.setUrl(url);
-        dataSource.setUsername(username);
-        dataSource.setPassword(password);
-        return dataSource;
+            @Value("${spring.datasource.driver-class-name}") String driverClassName,
+            DataSourcePoolConfigurer poolConfigurer,
+            DataSourcePoolProperties poolProperties) {
+
+        HikariConfig config = DataSourcePools.baseConfig("mysql-pool", driverClassName, url, username, password);
+        DataSourcePools.applyMySqlStatementCache(config);
+        return poolConfigurer.create(config, poolProperties.getMysql());
+    }
+
+    @Bean(value = "mysqlReplicaDataSource", destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "datasource.replica", name = "enabled", havingValue = "true")
+    public HikariDataSource mysqlReplicaDataSource(
+            @Value("${datasource.replica.url}") String url,
+            @Value("${datasource.replica.username:${spring.datasource.username}}") String username,
+            @Value("${datasource.replica.password:${spring.datasource.password}}") String password,
+            @Value("${spring.datasource.driver-class-name}") String driverClassName,
+            DataSourcePoolConfigurer poolConfigurer,
+            DataSourcePoolProperties poolProperties) {
+
+        HikariConfig config = DataSourcePools.baseConfig("mysql-replica-pool", driverClassName, url, username, password);
+        DataSourcePools.applyMySqlStatementCache(config);
+        config.setReadOnly(true);
+        return poolConfigurer.create(config, poolProperties.getReplica());
+    }
+
+    @Bean("replicaLagMonitor")
+    @ConditionalOnProperty(prefix = "datasource.replica", name = "enabled", havingValue = "true")
+    public ReplicaLagMonitor replicaLagMonitor(
+            @Qualifier("mysqlReplicaDataSource") DataSource replica,
+            @Value("${datasource.replica.max-lag-seconds:5}") long maxLagSeconds,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replica, maxLagSeconds);
+        meterRegistry.ifAvailable(registry -> {
+            Gauge.builder("relics.datasource.replica.lag", monitor, ReplicaLagMonitor::getLagSeconds)
+                    .description("从库复制延迟秒数，-1 表示未知或复制已停止")
+                    .baseUnit("seconds")
+                    .register(registry);
+            Gauge.builder("relics.datasource.replica.available", monitor, m -> m.isAvailable() ? 1 : 0)
+                    .description("只读查询是否路由到从库")
+                    .register(registry);
+        });
+        return monitor;
+    }
+
+    /**
+     * 业务使用的数据源：未配置从库时即主库连接池，否则为读写分离数据源
+     */
+    @Primary
+    @Bean(value = "mysqlDataSource", destroyMethod = "")
+    public DataSource mysqlDataSource(
+            @Qualifier("mysqlPrimaryDataSource") DataSource primary,
+            @Qualifier("mysqlReplicaDataSource") ObjectProvider<DataSource> replica,
+            ObjectProvider<ReplicaLagMonitor> replicaLagMonitor) {
+
+        ReplicaLagMonitor monitor = replicaLagMonitor.getIfAvailable();
+        if (monitor == null) {
+            return primary;
+        }
+        log.info("启用读写分离：只读事务路由到从库");
+        // 延迟到首条语句执行时才获取连接，此时事务的只读标记已设置，路由才能生效
+        return new LazyConnectionDataSourceProxy(
+                new ReadWriteRoutingDataSource(primary, replica.getObject(), monitor));
     }
-} 
\ No newline at end of file
+}
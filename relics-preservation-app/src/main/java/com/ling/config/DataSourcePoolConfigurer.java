@@ -0,0 +1,85 @@
+package com.ling.config;
+
+import com.ling.infrastructure.datasource.DataSourcePools;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+/**
+ * 连接池构建
+ * @Author: LingRJ
+ * @Description: 按配置创建 HikariCP 连接池。未显式配置容量时，由请求线程预留数与访问该库的后台线程池最大线程数推算；
+ *               连接等待、使用时长与活跃/空闲数经 Micrometer 导出为 hikaricp.connections.* 指标
+ * @DateTime: 2025/7/20
+ */
+@Component
+@Slf4j
+public class DataSourcePoolConfigurer {
+
+    @Autowired
+    private DataSourcePoolProperties properties;
+
+    @Autowired
+    private ListableBeanFactory beanFactory;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    /**
+     * 在基础配置上应用容量、超时、泄漏检测与指标，创建连接池
+     * @param config 已设置连接信息与驱动参数的基础配置
+     * @param pool 该连接池的配置
+     */
+    public HikariDataSource create(HikariConfig config, DataSourcePoolProperties.Pool pool) {
+        int maximumPoolSize = pool.getMaximumPoolSize() > 0 ? pool.getMaximumPoolSize() : derivePoolSize(pool);
+        config.setMaximumPoolSize(maximumPoolSize);
+        config.setMinimumIdle(pool.getMinimumIdle() >= 0 ? Math.min(pool.getMinimumIdle(), maximumPoolSize) : maximumPoolSize);
+        config.setConnectionTimeout(pool.getConnectionTimeout());
+        config.setIdleTimeout(pool.getIdleTimeout());
+        config.setMaxLifetime(pool.getMaxLifetime());
+        config.setKeepaliveTime(pool.getKeepaliveTime());
+        config.setLeakDetectionThreshold(pool.getLeakDetectionThreshold());
+        // 未引入 Actuator 时退回全局注册表
+        config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(
+                meterRegistry != null ? meterRegistry : Metrics.globalRegistry));
+
+        log.info("创建连接池 {}: 最大连接数={}, 最小空闲={}, 等待超时={}ms, 泄漏检测={}ms",
+                config.getPoolName(), config.getMaximumPoolSize(), config.getMinimumIdle(),
+                config.getConnectionTimeout(), config.getLeakDetectionThreshold());
+        return new HikariDataSource(config);
+    }
+
+    /**
+     * 由请求线程预留数与后台线程池最大线程数推算容量
+     */
+    private int derivePoolSize(DataSourcePoolProperties.Pool pool) {
+        int requestConnections = properties.getRequestConnections() > 0
+                ? properties.getRequestConnections()
+                : Runtime.getRuntime().availableProcessors() * 2;
+        int backgroundThreads = 0;
+        for (String name : pool.getExecutors()) {
+            if (!beanFactory.containsBean(name)) {
+                // 对应模块未启用（如未配置 MQTT）时不计入
+                log.debug("线程池 {} 不存在，不计入连接池容量", name);
+                continue;
+            }
+            Object executor = beanFactory.getBean(name);
+            if (executor instanceof ThreadPoolTaskExecutor taskExecutor) {
+                backgroundThreads += taskExecutor.getMaxPoolSize();
+            } else {
+                log.warn("线程池 {} 不是 ThreadPoolTaskExecutor，不计入连接池容量", name);
+            }
+        }
+        int size = DataSourcePools.derivePoolSize(requestConnections, backgroundThreads, pool.getMaximumPoolSizeLimit());
+        log.info("推算连接池容量: 请求连接={}, 后台线程={}, 上限={}, 结果={}",
+                requestConnections, backgroundThreads, pool.getMaximumPoolSizeLimit(), size);
+        return size;
+    }
+}
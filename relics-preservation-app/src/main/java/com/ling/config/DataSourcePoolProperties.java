@@ -0,0 +1,50 @@
+package com.ling.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 数据库连接池配置
+ * @Author: LingRJ
+ * @Description: MySQL 主从库与 pgvector 的 HikariCP 连接池容量、超时与泄漏检测配置
+ * @DateTime: 2025/7/20
+ */
+@Data
+@ConfigurationProperties(prefix = "datasource.pool", ignoreInvalidFields = true)
+public class DataSourcePoolProperties {
+
+    /** 请求线程预留的连接数，0表示按CPU核数*2推算 */
+    private int requestConnections = 0;
+    /** MySQL 连接池 */
+    private Pool mysql = new Pool();
+    /** pgvector 连接池 */
+    private Pool pgvector = new Pool();
+    /** MySQL 从库连接池，仅在 datasource.replica.enabled=true 时创建 */
+    private Pool replica = new Pool();
+
+    @Data
+    public static class Pool {
+        /** 最大连接数，0表示按请求连接数与 executors 中线程池的最大线程数推算 */
+        private int maximumPoolSize = 0;
+        /** 推算的最大连接数上限，默认为30 */
+        private int maximumPoolSizeLimit = 30;
+        /** 会访问该数据库的后台线程池 Bean 名称，线程数计入推算容量 */
+        private List<String> executors = new ArrayList<>();
+        /** 最小空闲连接数，-1表示与最大连接数相同（固定容量） */
+        private int minimumIdle = -1;
+        /** 借出连接的最长等待时间（单位：毫秒），超时抛出异常，默认为3000 */
+        private long connectionTimeout = 3000;
+        /** 空闲连接的回收时间（单位：毫秒），仅在最小空闲数小于最大连接数时生效，默认为600000 */
+        private long idleTimeout = 600000;
+        /** 连接的最长存活时间（单位：毫秒），需小于数据库的 wait_timeout，默认为1800000 */
+        private long maxLifetime = 1800000;
+        /** 空闲连接保活间隔（单位：毫秒），0表示关闭，默认为300000 */
+        private long keepaliveTime = 300000;
+        /** 连接借出超过该时间未归还时输出泄漏告警及借出位置的堆栈（单位：毫秒），0表示关闭，默认为30000 */
+        private long leakDetectionThreshold = 30000;
+    }
+
+}
@@ -1,14 +1,18 @@
 package com.ling.config;
 
+import lombok.extern.slf4j.Slf4j;
 import org.eclipse.paho.client.mqttv3.MqttConnectOptions;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.integration.annotation.IntegrationComponentScan;
 import org.springframework.integration.channel.DirectChannel;
+import org.springframework.integration.channel.ExecutorChannel;
 import org.springframework.integration.config.EnableIntegration;
-import org.springframework.integration.core.MessageProducer;
 import org.springframework.integration.dsl.IntegrationFlow;
+import org.springframework.integration.dsl.context.IntegrationFlowContext;
 import org.springframework.integration.mqtt.core.DefaultMqttPahoClientFactory;
 import org.springframework.integration.mqtt.core.MqttPahoClientFactory;
 import org.springframework.integration.mqtt.inbound.MqttPahoMessageDrivenChannelAdapter;
@@ -16,15 +20,19 @@ import org.springframework.integration.mqtt.outbound.MqttPahoMessageHandler;
 import org.springframework.integration.mqtt.support.DefaultPahoMessageConverter;
 import org.springframework.integration.router.HeaderValueRouter;
 import org.springframework.messaging.MessageChannel;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
+import java.net.InetAddress;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ThreadPoolExecutor;
 
 /**
  * @Author: LingRJ
  * @Description: MQTT配置类
  * @DateTime: 2025/6/28
  **/
+@Slf4j
 @Configuration
 @EnableIntegration
 @IntegrationComponentScan({"com.ling.trigger.listener", "com.ling.trigger.gateway"})
@@ -45,6 +53,37 @@ public class MqttConfig {
     @Value("${mqtt.topics}")
     private String[] sensorTopics;
 
+    /** 入站客户端数量（分片数） */
+    @Value("${mqtt.inbound.shards:1}")
+    private int inboundShards;
+
+    /** 是否使用共享订阅 $share/{group}/{topic} */
+    @Value("${mqtt.inbound.shared-enabled:false}")
+    private boolean sharedEnabled;
+
+    /** 共享订阅分组，同一分组内的客户端（含其他节点）负载均衡消费 */
+    @Value("${mqtt.inbound.shared-group:relics-ingest}")
+    private String sharedGroup;
+
+    /** 实例标识，用于区分不同节点的客户端ID，未配置时取主机名 */
+    @Value("${mqtt.inbound.instance-id:}")
+    private String instanceId;
+
+    /** 消息处理线程数 */
+    @Value("${mqtt.inbound.worker-threads:4}")
+    private int workerThreads;
+
+    /** 消息处理队列容量 */
+    @Value("${mqtt.inbound.queue-capacity:1000}")
+    private int queueCapacity;
+
+    /** 执行器回执主题，不使用共享订阅，仅由第一个分片订阅 */
+    @Value("${mqtt.actuator.ack-topic:actuator_ack}")
+    private String actuatorAckTopic;
+
+    @Autowired
+    private IntegrationFlowContext flowContext;
+
     // 传感器主题前缀列表
     private static final List<String> SENSOR_TOPIC_PREFIXES = Arrays.asList(
             "ems", "light_intensity_1", "temperature_", "humidity_",
@@ -79,9 +118,29 @@ public class MqttConfig {
         return factory;
     }
 
+    /**
+     * 入站消息处理线程池
+     * 解析、校验等处理不再占用Paho回调线程，队列满时由回调线程执行以形成背压
+     * @return 线程池执行器
+     */
+    @Bean("mqttInboundExecutor")
+    public ThreadPoolTaskExecutor mqttInboundExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workerThreads);
+        executor.setMaxPoolSize(workerThreads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("mqtt-inbound-");
+        // 拒绝策略：调用者运行
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
     @Bean
     public MessageChannel mqttInputChannel() {
-        return new DirectChannel();
+        return new ExecutorChannel(mqttInboundExecutor());
     }
 
     @Bean
@@ -89,23 +148,84 @@ public class MqttConfig {
         return new DirectChannel();
     }
     
+    @Bean
+    public MessageChannel actuatorAckChannel() {
+        return new DirectChannel();
+    }
+
     @Bean
     public MessageChannel mqttOutboundChannel() {
         return new DirectChannel();
     }
 
+    /**
+     * 注册入站客户端池
+     * 每个分片使用独立的客户端ID；开启共享订阅时由Broker在分组内分发消息，
+     * 多分片、多节点之间不会重复消费。未开启共享订阅时只允许单个客户端，避免重复处理
+     */
     @Bean
-    public MessageProducer inbound() {
-        MqttPahoMessageDrivenChannelAdapter adapter =
-                new MqttPahoMessageDrivenChannelAdapter(clientId + "_inbound", mqttClientFactory(),
-                        sensorTopics);
-        // 增加完成超时时间
-        adapter.setCompletionTimeout(10000);
-        adapter.setConverter(new DefaultPahoMessageConverter());
-        // 提高QoS级别
-        adapter.setQos(0);
-        adapter.setOutputChannel(mqttInputChannel());
-        return adapter;
+    public SmartInitializingSingleton mqttInboundShards() {
+        return () -> {
+            int shards = Math.max(1, inboundShards);
+            if (!sharedEnabled && shards > 1) {
+                log.warn("未开启MQTT共享订阅，入站分片数 {} 将降为 1 以避免重复消费", shards);
+                shards = 1;
+            }
+
+            String[] topics = resolveInboundTopics();
+            String instance = resolveInstanceId();
+            for (int i = 0; i < shards; i++) {
+                // 回执需要送达下发指令的节点，因此各节点都以普通订阅接收
+                String[] shardTopics = i == 0 ? appendTopic(topics, actuatorAckTopic) : topics;
+                String inboundClientId = shards == 1 && !sharedEnabled
+                        ? clientId + "_inbound"
+                        : clientId + "_" + instance + "_inbound_" + i;
+                MqttPahoMessageDrivenChannelAdapter adapter =
+                        new MqttPahoMessageDrivenChannelAdapter(inboundClientId, mqttClientFactory(), shardTopics);
+                // 增加完成超时时间
+                adapter.setCompletionTimeout(10000);
+                adapter.setConverter(new DefaultPahoMessageConverter());
+                adapter.setQos(0);
+
+                flowContext.registration(IntegrationFlow.from(adapter)
+                                .channel(mqttInputChannel())
+                                .get())
+                        .id("mqttInbound_" + i)
+                        .register();
+            }
+            log.info("MQTT入站客户端已注册: shards={}, shared={}, topics={}", shards, sharedEnabled, Arrays.toString(topics));
+        };
+    }
+
+    /**
+     * 计算入站订阅主题，共享订阅时加上 $share/{group}/ 前缀
+     * 接收到的 mqtt_receivedTopic 仍为原始主题，路由规则不受影响
+     */
+    private String[] resolveInboundTopics() {
+        String[] topics = new String[sensorTopics.length];
+        for (int i = 0; i < sensorTopics.length; i++) {
+            String topic = sensorTopics[i].trim();
+            topics[i] = sharedEnabled ? "$share/" + sharedGroup + "/" + topic : topic;
+        }
+        return topics;
+    }
+
+    private String[] appendTopic(String[] topics, String topic) {
+        String[] result = Arrays.copyOf(topics, topics.length + 1);
+        result[topics.length] = topic;
+        return result;
+    }
+
+    private String resolveInstanceId() {
+        if (instanceId != null && !instanceId.isEmpty()) {
+            return instanceId;
+        }
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            log.warn("获取主机名失败，使用进程号作为实例标识: {}", e.getMessage());
+            return String.valueOf(ProcessHandle.current().pid());
+        }
     }
 
     @Bean
@@ -117,6 +237,9 @@ public class MqttConfig {
             router.setChannelMapping(prefix, "sensorChannel");
         }
         
+        // 执行器回执
+        router.setChannelMapping(actuatorAckTopic, "actuatorAckChannel");
+
         // 告警主题 TODO
         return router;
     }
@@ -1,9 +1,12 @@
 package com.ling.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ling.infrastructure.cache.codec.CompactCodec;
+import com.ling.infrastructure.cache.codec.UserFavoritesSerializer;
 import jakarta.annotation.Resource;
 import org.redisson.Redisson;
 import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
 import org.redisson.codec.JsonJacksonCodec;
 import org.redisson.config.Config;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -11,6 +14,8 @@ import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.List;
+
 /**
  * Redis 客户端，使用 Redisson<a href="https://github.com/redisson/redisson"></a>
  *
@@ -26,7 +31,7 @@ public class RedisClientConfig {
     public RedissonClient redissonClient(ConfigurableApplicationContext applicationContext, RedisClientConfigProperties properties) {
         Config config = new Config();
         // 根据需要可以设定编解码器；https://github.com/redisson/redisson/wiki/4.-%E6%95%B0%E6%8D%AE%E5%BA%8F%E5%88%97%E5%8C%96
-        config.setCodec(new JsonJacksonCodec(objectMapper));
+        config.setCodec(createCodec(properties));
 
         config.useSingleServer()
                 .setAddress("redis://" + properties.getHost() + ":" + properties.getPort())
@@ -44,4 +49,17 @@ public class RedisClientConfig {
         return Redisson.create(config);
     }
 
+    /**
+     * 紧凑编解码器：收藏等热点聚合根写为二进制，其余类型仍为JSON，超过阈值时LZ4压缩
+     */
+    private Codec createCodec(RedisClientConfigProperties properties) {
+        Codec jsonCodec = new JsonJacksonCodec(objectMapper);
+        if ("json".equalsIgnoreCase(properties.getCodec())) {
+            return jsonCodec;
+        }
+        return new CompactCodec(jsonCodec,
+                List.of(new UserFavoritesSerializer()),
+                properties.getCompressThreshold());
+    }
+
 }
@@ -33,5 +33,9 @@ public class RedisClientConfigProperties {
     private int pingInterval = 0;
     /** 设置是否保持长连接，默认为true */
     private boolean keepAlive = true;
+    /** 缓存编解码器：compact（紧凑二进制，未注册类型退回JSON）或 json，默认为compact */
+    private String codec = "compact";
+    /** 编码结果达到该字节数时使用LZ4压缩，0表示不压缩，默认为1024 */
+    private int compressThreshold = 1024;
 
 }
@@ -81,6 +81,8 @@ public class SpringSecurityConfig {
                     authorize.requestMatchers("/api-docs/**").permitAll();
                     authorize.requestMatchers("/doc.html").permitAll();
                     authorize.requestMatchers("/webjars/**").permitAll();
+                    // 监控端点
+                    authorize.requestMatchers("/actuator/health/**", "/actuator/prometheus").permitAll();
 
                     // 评论审核相关权限控制 - 只有专家和管理员可以访问
                     authorize.requestMatchers("/api/v1/admin/comments/**").hasAnyRole("EXPERT", "ADMIN");
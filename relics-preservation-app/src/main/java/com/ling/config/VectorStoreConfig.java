@@ -1,5 +1,7 @@
 package com.ling.config;
 
+import com.ling.infrastructure.datasource.DataSourcePools;
+import com.zaxxer.hikari.HikariConfig;
 import org.springframework.ai.document.MetadataMode;
 import org.springframework.ai.openai.OpenAiEmbeddingModel;
 import org.springframework.ai.openai.OpenAiEmbeddingOptions;
@@ -12,7 +14,6 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.datasource.DriverManagerDataSource;
 
 import javax.sql.DataSource;
 
@@ -24,20 +25,19 @@ import javax.sql.DataSource;
 @Configuration
 public class VectorStoreConfig {
 
-    @Bean("pgVectorDataSource")
+    @Bean(value = "pgVectorDataSource", destroyMethod = "close")
     public DataSource pgVectorDataSource(
             @Value("${spring.ai.vectorstore.pgvector.url}") String url,
             @Value("${spring.ai.vectorstore.pgvector.username}") String username,
-            @Value("${spring.ai.vectorstore.pgvector.password}") String password) {
-        
-        DriverManagerDataSource dataSource = new DriverManagerDataSource();
-        dataSource.setDriverClassName("org.postgresql.Driver");
-        dataSource.setUrl(url);
-        dataSource.setUsername(username);
-        dataSource.setPassword(password);
-        return dataSource;
+            @Value("${spring.ai.vectorstore.pgvector.password}") String password,
+            DataSourcePoolConfigurer poolConfigurer,
+            DataSourcePoolProperties poolProperties) {
+
+        HikariConfig config = DataSourcePools.baseConfig("pgvector-pool", "org.postgresql.Driver", url, username, password);
+        DataSourcePools.applyPostgresStatementCache(config);
+        return poolConfigurer.create(config, poolProperties.getPgvector());
     }
-    
+
     @Bean("pgJdbcTemplate")
     public JdbcTemplate pgJdbcTemplate(@Qualifier("pgVectorDataSource") DataSource dataSource) {
         return new JdbcTemplate(dataSource);
@@ -0,0 +1,116 @@
+package com.ling.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.ling.domain.interaction.model.entity.UserFavorites;
+import com.ling.domain.interaction.model.valobj.FavoriteAction;
+import com.ling.domain.user.model.valobj.Username;
+import com.ling.infrastructure.cache.codec.CompactCodec;
+import com.ling.infrastructure.cache.codec.UserFavoritesSerializer;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.runner.IterationType;
+import org.redisson.client.codec.Codec;
+import org.redisson.codec.JsonJacksonCodec;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author: LingRJ
+ * @Description: 缓存编解码器基准（UserFavorites 的 JSON / 紧凑二进制 / 紧凑+LZ4 编解码耗时）。
+ *               单用户编码字节数作为 encode 的辅助计数 encodedBytes 与耗时一起输出
+ * @DateTime: 2025/7/20
+ **/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CacheCodecBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    private int favorites;
+
+    @Param({"json", "compact", "compact-lz4"})
+    private String codecName;
+
+    private Codec codec;
+
+    private UserFavorites userFavorites;
+
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        Codec json = new JsonJacksonCodec(mapper);
+        codec = switch (codecName) {
+            case "json" -> json;
+            case "compact" -> new CompactCodec(json, List.of(new UserFavoritesSerializer()), 0);
+            case "compact-lz4" -> new CompactCodec(json, List.of(new UserFavoritesSerializer()), 1024);
+            default -> throw new IllegalArgumentException(codecName);
+        };
+
+        // 与生产数据相近：文物ID稀疏递增，收藏时间分布在近一年内，约10%已取消
+        LocalDateTime now = LocalDateTime.now();
+        Set<FavoriteAction> actions = new HashSet<>();
+        for (int i = 1; i <= favorites; i++) {
+            long relicsId = 1000L + i * 7L + (i % 5);
+            actions.add(FavoriteAction.fromDatabase(relicsId, now.minusMinutes(i * 37L % 525_600), i % 10 == 0));
+        }
+        userFavorites = UserFavorites.fromDatabase(Username.of("bench_user"), actions, now.minusYears(1), now);
+
+        ByteBuf buf = codec.getValueEncoder().encode(userFavorites);
+        try {
+            encoded = ByteBufUtil.getBytes(buf);
+        } finally {
+            buf.release();
+        }
+    }
+
+    /**
+     * 编码字节数。EVENTS 计数按测量迭代求和（JMH 在每次迭代开始时清零），只在第一次测量迭代结束时
+     * 上报 setUp 中的编码大小，其余迭代为 0，结果中即为单用户编码后的大小
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class EncodedSize {
+        public long encodedBytes;
+
+        private boolean reported;
+
+        @TearDown(Level.Iteration)
+        public void report(CacheCodecBenchmark benchmark, IterationParams iteration) {
+            boolean measurement = iteration.getType() == IterationType.MEASUREMENT;
+            encodedBytes = measurement && !reported ? benchmark.encoded.length : 0;
+            reported |= measurement;
+        }
+    }
+
+    @Benchmark
+    public int encode(EncodedSize size) throws IOException {
+        ByteBuf buf = codec.getValueEncoder().encode(userFavorites);
+        try {
+            return buf.readableBytes();
+        } finally {
+            buf.release();
+        }
+    }
+
+    @Benchmark
+    public Object decode() throws IOException {
+        return codec.getValueDecoder().decode(Unpooled.wrappedBuffer(encoded), new org.redisson.client.handler.State());
+    }
+}
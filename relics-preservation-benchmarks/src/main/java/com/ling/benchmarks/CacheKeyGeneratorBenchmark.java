@@ -0,0 +1,50 @@
+package com.ling.benchmarks;
+
+import com.ling.domain.user.model.valobj.Username;
+import com.ling.infrastructure.cache.util.CacheKeyGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author: LingRJ
+ * @Description: 缓存键生成基准（CacheKeyGenerator）
+ * @DateTime: 2025/7/20
+ **/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CacheKeyGeneratorBenchmark {
+
+    private final Username username = Username.of("bench_user");
+
+    private final Long relicsId = 10086L;
+
+    @Benchmark
+    public String userFavoritesKey() {
+        return CacheKeyGenerator.userFavoritesKey(username);
+    }
+
+    @Benchmark
+    public String userFavoriteStatusKey() {
+        return CacheKeyGenerator.userFavoriteStatusKey(username, relicsId);
+    }
+
+    @Benchmark
+    public String relicsFavoriteCountKey() {
+        return CacheKeyGenerator.relicsFavoriteCountKey(relicsId);
+    }
+
+    @Benchmark
+    public String userCommentsPageKey() {
+        return CacheKeyGenerator.userCommentsKey(username, relicsId, 2, 20);
+    }
+
+    @Benchmark
+    public String relicsApprovedCommentsPageKey() {
+        return CacheKeyGenerator.relicsApprovedCommentsKey(relicsId, 2, 20);
+    }
+}
@@ -0,0 +1,66 @@
+package com.ling.benchmarks;
+
+import com.ling.domain.interaction.model.valobj.ChangeTracker;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author: LingRJ
+ * @Description: 变更跟踪器基准（ChangeTracker.record* / getChangesByType）
+ * @DateTime: 2025/7/20
+ **/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ChangeTrackerBenchmark {
+
+    private static final String[] ENTITY_TYPES = {"FAVORITE", "COMMENT", "GALLERY"};
+
+    @Param({"10", "1000"})
+    private int changes;
+
+    private ChangeTracker populated;
+
+    @Setup
+    public void setUp() {
+        populated = new ChangeTracker();
+        record(populated, changes);
+    }
+
+    /**
+     * 一次聚合保存周期内记录 changes 条变更（新增/修改/删除混合）
+     */
+    @Benchmark
+    public ChangeTracker recordChanges() {
+        ChangeTracker tracker = new ChangeTracker();
+        record(tracker, changes);
+        return tracker;
+    }
+
+    @Benchmark
+    public Set<ChangeTracker.ChangeRecord> getChangesByType() {
+        return populated.getChangesByType("FAVORITE");
+    }
+
+    @Benchmark
+    public int getChangeCountByType() {
+        return populated.getChangeCount("COMMENT");
+    }
+
+    private static void record(ChangeTracker tracker, int count) {
+        for (int i = 0; i < count; i++) {
+            String entityType = ENTITY_TYPES[i % ENTITY_TYPES.length];
+            Long entityId = (long) i;
+            switch (i % 3) {
+                case 0 -> tracker.recordAdd(entityType, entityId, entityId);
+                case 1 -> tracker.recordModify(entityType, entityId, entityId);
+                default -> tracker.recordDelete(entityType, entityId, entityId);
+            }
+        }
+    }
+}
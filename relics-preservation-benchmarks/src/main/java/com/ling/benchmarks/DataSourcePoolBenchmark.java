@@ -0,0 +1,91 @@
+package com.ling.benchmarks;
+
+import com.ling.infrastructure.datasource.DataSourcePools;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author: LingRJ
+ * @Description: 数据源单次查询耗时基准：driver-manager 为改造前每次查询新建连接（与 DriverManagerDataSource 相同），
+ *               hikari 为连接池 + 语句缓存。需要可访问的 MySQL，连接参数通过系统属性传入（fork 的 JVM 需经
+ *               -jvmArgsAppend 传递），默认与 application.yml 一致：
+ *               bench.jdbc.url / bench.jdbc.username / bench.jdbc.password / bench.jdbc.query
+ * @DateTime: 2025/7/20
+ **/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class DataSourcePoolBenchmark {
+
+    private static final String DEFAULT_URL = "jdbc:mysql://localhost:3309/relics?useUnicode=true&characterEncoding=utf8"
+            + "&zeroDateTimeBehavior=convertToNull&serverTimezone=Asia/Shanghai&useSSL=true";
+
+    @Param({"driver-manager", "hikari"})
+    private String dataSource;
+
+    private String url;
+
+    private String username;
+
+    private String password;
+
+    private String query;
+
+    private HikariDataSource pool;
+
+    @Setup
+    public void setUp() throws SQLException {
+        url = System.getProperty("bench.jdbc.url", DEFAULT_URL);
+        username = System.getProperty("bench.jdbc.username", "root");
+        password = System.getProperty("bench.jdbc.password", "123456");
+        query = System.getProperty("bench.jdbc.query", "SELECT 1");
+
+        if ("hikari".equals(dataSource)) {
+            HikariConfig config = DataSourcePools.baseConfig("bench-pool", "com.mysql.cj.jdbc.Driver", url, username, password);
+            DataSourcePools.applyMySqlStatementCache(config);
+            // 与基准线程数相同，测量的是连接复用与语句缓存，不含排队等待
+            config.setMaximumPoolSize(8);
+            config.setMinimumIdle(8);
+            pool = new HikariDataSource(config);
+        }
+        // 确认数据库可访问，避免以连接失败的耗时作为结果
+        try (Connection connection = connection()) {
+            connection.isValid(1);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    @Benchmark
+    public void query(Blackhole bh) throws SQLException {
+        try (Connection connection = connection();
+             PreparedStatement statement = connection.prepareStatement(query);
+             ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                bh.consume(rs.getObject(1));
+            }
+        }
+    }
+
+    private Connection connection() throws SQLException {
+        return pool != null ? pool.getConnection() : DriverManager.getConnection(url, username, password);
+    }
+}
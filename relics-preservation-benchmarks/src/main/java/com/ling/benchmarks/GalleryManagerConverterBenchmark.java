@@ -0,0 +1,69 @@
+package com.ling.benchmarks;
+
+import com.ling.domain.interaction.model.valobj.CollectionGallery;
+import com.ling.domain.user.model.valobj.Username;
+import com.ling.infrastructure.dao.po.CollectionGalleryPO;
+import com.ling.infrastructure.repository.converter.GalleryManagerConverter;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author: LingRJ
+ * @Description: 收藏馆转换基准（GalleryManagerConverter），经公开的 PO 与领域对象互转方法
+ *               覆盖文物ID串的解析与格式化
+ * @DateTime: 2025/7/20
+ **/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GalleryManagerConverterBenchmark {
+
+    @Param({"10", "200"})
+    private int relicsCount;
+
+    private final GalleryManagerConverter converter = new GalleryManagerConverter();
+
+    private final Username username = Username.of("bench_user");
+
+    private CollectionGalleryPO galleryPO;
+
+    private CollectionGallery gallery;
+
+    @Setup
+    public void setUp() {
+        StringJoiner joiner = new StringJoiner(",");
+        for (long i = 0; i < relicsCount; i++) {
+            joiner.add(String.valueOf(100000L + i * 37));
+        }
+        LocalDateTime now = LocalDateTime.now();
+        galleryPO = CollectionGalleryPO.builder()
+                .galleryId("bench_gallery")
+                .username(username.getValue())
+                .name("基准收藏馆")
+                .theme("bronze")
+                .displayStyle("grid")
+                .relicsIds(joiner.toString())
+                .isPublic(0)
+                .createTime(now)
+                .updateTime(now)
+                .status(0)
+                .build();
+        gallery = converter.convertToCollectionGallery(galleryPO);
+    }
+
+    @Benchmark
+    public CollectionGallery convertToCollectionGallery() {
+        return converter.convertToCollectionGallery(galleryPO);
+    }
+
+    @Benchmark
+    public CollectionGalleryPO convertToCollectionGalleryPO() {
+        return converter.convertToCollectionGalleryPO(username, gallery);
+    }
+}
@@ -0,0 +1,60 @@
+package com.ling.benchmarks;
+
+import com.ling.types.jwt.JwtTokenProvider;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author: LingRJ
+ * @Description: JWT校验基准（JwtTokenProvider.validateTokenWithVersion），每个请求都会经过
+ * @DateTime: 2025/7/20
+ **/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtTokenProviderBenchmark {
+
+    private JwtTokenProvider tokenProvider;
+
+    private String validToken;
+
+    private String tamperedToken;
+
+    @Setup
+    public void setUp() throws Exception {
+        tokenProvider = new JwtTokenProvider();
+        setField("jwtSecret", "relics-preservation-benchmark-secret-key-0123456789");
+        setField("jwtExpiration", 3600L);
+        tokenProvider.init();
+
+        validToken = tokenProvider.generateTokenWithVersion(
+                new UsernamePasswordAuthenticationToken("bench_user", null, List.of()), 1L);
+        // 篡改签名中的一位（避开末位的填充比特）
+        int position = validToken.length() - 5;
+        char original = validToken.charAt(position);
+        tamperedToken = validToken.substring(0, position) + (original == 'A' ? 'B' : 'A') + validToken.substring(position + 1);
+    }
+
+    @Benchmark
+    public boolean validateTokenWithVersion() {
+        return tokenProvider.validateTokenWithVersion(validToken);
+    }
+
+    @Benchmark
+    public boolean validateTamperedToken() {
+        return tokenProvider.validateTokenWithVersion(tamperedToken);
+    }
+
+    private void setField(String name, Object value) throws Exception {
+        Field field = JwtTokenProvider.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(tokenProvider, value);
+    }
+}
@@ -0,0 +1,186 @@
+package com.ling.benchmarks;
+
+import com.ling.infrastructure.dao.po.Relics;
+import com.ling.infrastructure.dao.po.RelicsSummaryPO;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author: LingRJ
+ * @Description: 文物列表查询基准：full 为改造前的 SELECT * 并映射为 Relics，summary 为列表投影并映射为 RelicsSummaryPO。
+ *               在独立的 relics_bench 表（结构与 relics 相同）中准备 bench.relics.rows 条数据（默认 100000，
+ *               描述约 2KB），覆盖按年代查询与随机推荐两类列表查询。需要可访问的 MySQL，连接参数与
+ *               DataSourcePoolBenchmark 相同：bench.jdbc.url / bench.jdbc.username / bench.jdbc.password。
+ *               配合 -prof gc 查看每次查询的分配量
+ * @DateTime: 2025/7/20
+ **/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RelicsListProjectionBenchmark {
+
+    private static final String DEFAULT_URL = "jdbc:mysql://localhost:3309/relics?useUnicode=true&characterEncoding=utf8"
+            + "&zeroDateTimeBehavior=convertToNull&serverTimezone=Asia/Shanghai&useSSL=true";
+
+    private static final String FULL_COLUMNS = "*";
+
+    private static final String SUMMARY_COLUMNS =
+            "relics_id, name, preservation, category, era, material, image_url, status, location_id";
+
+    private static final String[] ERAS = {"商代", "周代", "秦代", "汉代", "唐代", "宋代", "元代", "明代", "清代", "近代"};
+
+    private static final int INSERT_BATCH = 1000;
+
+    @Param({"full", "summary"})
+    private String projection;
+
+    @Param({"era", "random"})
+    private String query;
+
+    private Connection connection;
+
+    private PreparedStatement statement;
+
+    @Setup
+    public void setUp() throws SQLException {
+        String url = System.getProperty("bench.jdbc.url", DEFAULT_URL);
+        String username = System.getProperty("bench.jdbc.username", "root");
+        String password = System.getProperty("bench.jdbc.password", "123456");
+        int rows = Integer.getInteger("bench.relics.rows", 100_000);
+
+        connection = DriverManager.getConnection(url, username, password);
+        prepareTable(rows);
+
+        String columns = "summary".equals(projection) ? SUMMARY_COLUMNS : FULL_COLUMNS;
+        if ("random".equals(query)) {
+            statement = connection.prepareStatement(
+                    "SELECT " + columns + " FROM relics_bench WHERE status = 1 ORDER BY RAND() LIMIT 20");
+        } else {
+            statement = connection.prepareStatement("SELECT " + columns + " FROM relics_bench WHERE era = ?");
+            statement.setString(1, ERAS[0]);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        if (statement != null) {
+            statement.close();
+        }
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    @Benchmark
+    public void list(Blackhole bh) throws SQLException {
+        try (ResultSet rs = statement.executeQuery()) {
+            if ("summary".equals(projection)) {
+                List<RelicsSummaryPO> result = new ArrayList<>();
+                while (rs.next()) {
+                    result.add(toSummary(rs));
+                }
+                bh.consume(result);
+            } else {
+                List<Relics> result = new ArrayList<>();
+                while (rs.next()) {
+                    result.add(toRelics(rs));
+                }
+                bh.consume(result);
+            }
+        }
+    }
+
+    // ==================== 数据准备 ====================
+
+    /**
+     * 表中已有足够数据时复用，避免每个参数组合重复写入
+     */
+    private void prepareTable(int rows) throws SQLException {
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("CREATE TABLE IF NOT EXISTS relics_bench LIKE relics");
+            try (ResultSet rs = ddl.executeQuery("SELECT COUNT(*) FROM relics_bench")) {
+                rs.next();
+                if (rs.getInt(1) >= rows) {
+                    return;
+                }
+            }
+            ddl.execute("TRUNCATE TABLE relics_bench");
+        }
+
+        String description = "文物详细描述，包含出土信息、形制纹饰与修复记录。".repeat(60);
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO relics_bench (relics_id, name, description, preservation, category, era, material, "
+                        + "image_url, status, location_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (int i = 1; i <= rows; i++) {
+                insert.setString(1, String.valueOf(i));
+                insert.setString(2, "文物" + i);
+                insert.setString(3, description);
+                insert.setInt(4, 1 + i % 3);
+                insert.setString(5, "青铜器");
+                insert.setString(6, ERAS[i % ERAS.length]);
+                insert.setString(7, "青铜");
+                insert.setString(8, "https://img.example.com/relics/" + i + ".jpg");
+                insert.setInt(9, i % 3 == 0 ? 0 : 1);
+                insert.setInt(10, 1 + i % 50);
+                insert.addBatch();
+                if (i % INSERT_BATCH == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    // ==================== 行映射 ====================
+
+    private static Relics toRelics(ResultSet rs) throws SQLException {
+        return Relics.builder()
+                .id(rs.getInt("id"))
+                .relicsId(rs.getLong("relics_id"))
+                .name(rs.getString("name"))
+                .description(rs.getString("description"))
+                .preservation(rs.getInt("preservation"))
+                .category(rs.getString("category"))
+                .era(rs.getString("era"))
+                .material(rs.getString("material"))
+                .imageUrl(rs.getString("image_url"))
+                .status(rs.getInt("status"))
+                .locationId(rs.getInt("location_id"))
+                .createTime(rs.getTimestamp("create_time"))
+                .updateTime(rs.getTimestamp("update_time"))
+                .build();
+    }
+
+    private static RelicsSummaryPO toSummary(ResultSet rs) throws SQLException {
+        return RelicsSummaryPO.builder()
+                .relicsId(rs.getLong("relics_id"))
+                .name(rs.getString("name"))
+                .preservation(rs.getInt("preservation"))
+                .category(rs.getString("category"))
+                .era(rs.getString("era"))
+                .material(rs.getString("material"))
+                .imageUrl(rs.getString("image_url"))
+                .status(rs.getInt("status"))
+                .locationId(rs.getInt("location_id"))
+                .build();
+    }
+}
@@ -0,0 +1,47 @@
+package com.ling.benchmarks;
+
+import com.ling.domain.sensor.model.valobj.SensorMessageVO;
+import com.ling.domain.sensor.service.parser.impl.BasicMessageParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author: LingRJ
+ * @Description: 传感器报文解析基准（BasicMessageParser.parse）
+ * @DateTime: 2025/7/20
+ **/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SensorMessageParserBenchmark {
+
+    @Param({"ems", "light"})
+    private String payloadType;
+
+    private final BasicMessageParser parser = new BasicMessageParser();
+
+    private String topic;
+
+    private String payload;
+
+    @Setup
+    public void setUp() {
+        if ("ems".equals(payloadType)) {
+            topic = "ems_1";
+            payload = "{\"temp\":23.51,\"hum\":52.12,\"gas\":320.5,\"intensity\":450.25,\"stat\":0}";
+        } else {
+            topic = "light_intensity_1";
+            payload = "{\"intensity\":830.5}";
+        }
+    }
+
+    @Benchmark
+    public List<SensorMessageVO> parse() {
+        return parser.parse(topic, payload);
+    }
+}
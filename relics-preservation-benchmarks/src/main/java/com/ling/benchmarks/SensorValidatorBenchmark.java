@@ -0,0 +1,54 @@
+package com.ling.benchmarks;
+
+import com.ling.domain.sensor.service.message.validation.ISensorValidator;
+import com.ling.domain.sensor.service.message.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author: LingRJ
+ * @Description: 传感器阈值校验基准（ISensorValidator.validateStatus）
+ * @DateTime: 2025/7/20
+ **/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SensorValidatorBenchmark {
+
+    private static final int MASK = 1023;
+
+    @Param({"temp", "hum", "gas", "intensity"})
+    private String sensorType;
+
+    private ISensorValidator validator;
+
+    private final double[] readings = new double[MASK + 1];
+
+    private int index;
+
+    @Setup
+    public void setUp() {
+        validator = ValidatorFactory.getValidator(sensorType);
+        // 读数分布在阈值两侧，覆盖各个分支
+        double upper = switch (sensorType) {
+            case "temp" -> 45;
+            case "hum" -> 70;
+            case "gas" -> 700;
+            default -> 1500;
+        };
+        Random random = new Random(42);
+        for (int i = 0; i < readings.length; i++) {
+            readings[i] = random.nextDouble() * upper;
+        }
+    }
+
+    @Benchmark
+    public Integer validateStatus() {
+        return validator.validateStatus(readings[index++ & MASK]);
+    }
+}
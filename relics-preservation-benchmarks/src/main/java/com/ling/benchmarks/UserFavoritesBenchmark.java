@@ -0,0 +1,68 @@
+package com.ling.benchmarks;
+
+import com.ling.domain.interaction.model.entity.UserFavorites;
+import com.ling.domain.interaction.model.valobj.FavoriteAction;
+import com.ling.domain.user.model.valobj.Username;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author: LingRJ
+ * @Description: 用户收藏聚合根基准（UserFavorites.isFavorited / getFavoritedRelicsIds / getFavoritedRelicsIdArray）
+ * @DateTime: 2025/7/20
+ **/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserFavoritesBenchmark {
+
+    @Param({"10", "1000"})
+    private int favorites;
+
+    private UserFavorites userFavorites;
+
+    private Long hitRelicsId;
+
+    private Long missRelicsId;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        Set<FavoriteAction> actions = new HashSet<>();
+        for (long i = 1; i <= favorites; i++) {
+            // 约10%为已取消的收藏
+            actions.add(FavoriteAction.fromDatabase(i, now.minusDays(i % 30), i % 10 == 0));
+        }
+        userFavorites = UserFavorites.fromDatabase(Username.of("bench_user"), actions, now, now);
+        hitRelicsId = (long) (favorites / 2 + 1);
+        missRelicsId = (long) (favorites * 2);
+    }
+
+    @Benchmark
+    public boolean isFavoritedHit() {
+        return userFavorites.isFavorited(hitRelicsId);
+    }
+
+    @Benchmark
+    public boolean isFavoritedMiss() {
+        return userFavorites.isFavorited(missRelicsId);
+    }
+
+    @Benchmark
+    public List<Long> getFavoritedRelicsIds() {
+        return userFavorites.getFavoritedRelicsIds();
+    }
+
+    @Benchmark
+    public long[] getFavoritedRelicsIdArray() {
+        return userFavorites.getFavoritedRelicsIdArray();
+    }
+}
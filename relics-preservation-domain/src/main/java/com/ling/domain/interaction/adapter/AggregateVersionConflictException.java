@@ -0,0 +1,27 @@
+package com.ling.domain.interaction.adapter;
+
+import lombok.Getter;
+
+/**
+ * 聚合根版本冲突异常
+ * @Author: LingRJ
+ * @Description: 仓储保存聚合根时发现其版本号已被其他请求推进，本次保存未写入任何数据。
+ *               调用方应重新加载聚合根并重放操作
+ * @DateTime: 2025/7/20
+ */
+@Getter
+public class AggregateVersionConflictException extends RuntimeException {
+
+    private final String aggregateType;
+
+    private final String username;
+
+    private final long expectedVersion;
+
+    public AggregateVersionConflictException(String aggregateType, String username, long expectedVersion) {
+        super(String.format("聚合根版本冲突: %s - %s - 期望版本: %d", aggregateType, username, expectedVersion));
+        this.aggregateType = aggregateType;
+        this.username = username;
+        this.expectedVersion = expectedVersion;
+    }
+}
@@ -24,6 +24,7 @@ public interface IGalleryManagerRepository {
      * 保存收藏馆管理聚合根（增量保存）
      * @param galleryManager 收藏馆管理聚合根
      * @return 保存是否成功
+     * @throws AggregateVersionConflictException 聚合根版本号已被其他请求推进，需重新加载后重试
      */
     boolean saveIncremental(GalleryManager galleryManager);
 
@@ -31,6 +32,7 @@ public interface IGalleryManagerRepository {
      * 保存收藏馆管理聚合根（全量保存）
      * @param galleryManager 收藏馆管理聚合根
      * @return 保存是否成功
+     * @throws AggregateVersionConflictException 聚合根版本号已被其他请求推进，需重新加载后重试
      */
     boolean save(GalleryManager galleryManager);
 
@@ -20,10 +20,19 @@ public interface IUserCommentsRepository {
      */
     Optional<UserComments> findByUsername(Username username);
 
+    /**
+     * 按需加载用户评论聚合根，只读取评论数与版本号，不加载评论记录。
+     * 用于添加、删除评论及分页查询，返回的聚合根只能增量保存
+     * @param username 用户名
+     * @return 用户评论聚合根，未评论过且未保存过时为空
+     */
+    Optional<UserComments> findRootByUsername(Username username);
+
     /**
      * 保存用户评论聚合根（增量保存）
      * @param userComments 用户评论聚合根
      * @return 保存是否成功
+     * @throws AggregateVersionConflictException 聚合根版本号已被其他请求推进，需重新加载后重试
      */
     boolean saveIncremental(UserComments userComments);
 
@@ -32,6 +41,7 @@ public interface IUserCommentsRepository {
      * 保存用户评论聚合根（全量保存）
      * @param userComments 用户评论聚合根
      * @return 保存是否成功
+     * @throws AggregateVersionConflictException 聚合根版本号已被其他请求推进，需重新加载后重试
      */
     boolean save(UserComments userComments);
 
@@ -23,10 +23,19 @@ public interface IUserFavoritesRepository {
      */
     Optional<UserFavorites> findByUsername(Username username);
 
+    /**
+     * 按需加载用户收藏聚合根，只读取收藏数与版本号，不加载收藏记录。
+     * 用于收藏、取消收藏等只涉及单个文物的写操作，返回的聚合根只能增量保存
+     * @param username 用户名
+     * @return 用户收藏聚合根，未收藏过且未保存过时为空
+     */
+    Optional<UserFavorites> findRootByUsername(Username username);
+
     /**
      * 保存用户收藏聚合根（增量保存）
      * @param userFavorites 用户收藏聚合根
      * @return 保存是否成功
+     * @throws AggregateVersionConflictException 聚合根版本号已被其他请求推进，需重新加载后重试
      */
     boolean saveIncremental(UserFavorites userFavorites);
 
@@ -34,6 +43,7 @@ public interface IUserFavoritesRepository {
      * 保存用户收藏聚合根（全量保存）
      * @param userFavorites 用户收藏聚合根
      * @return 保存是否成功
+     * @throws AggregateVersionConflictException 聚合根版本号已被其他请求推进，需重新加载后重试
      */
     boolean save(UserFavorites userFavorites);
 
@@ -51,4 +61,38 @@ public interface IUserFavoritesRepository {
      */
     boolean existsByUsername(Username username);
 
+    // ==================== 收藏索引查询 ====================
+    // 以下查询不加载聚合根，开销与用户收藏总数无关
+
+    /**
+     * 检查用户是否收藏了文物
+     * @param username 用户名
+     * @param relicsId 文物ID
+     * @return 是否已收藏
+     */
+    boolean isFavorited(Username username, Long relicsId);
+
+    /**
+     * 按收藏时间倒序分页获取收藏的文物ID
+     * @param username 用户名
+     * @param offset 偏移量
+     * @param limit 限制数量
+     * @return 文物ID列表
+     */
+    List<Long> findFavoritedRelicsIds(Username username, int offset, int limit);
+
+    /**
+     * 获取用户收藏总数
+     * @param username 用户名
+     * @return 收藏总数
+     */
+    long countFavorites(Username username);
+
+    /**
+     * 获取文物被收藏次数
+     * @param relicsId 文物ID
+     * @return 收藏次数
+     */
+    long countByRelicsId(Long relicsId);
+
 }
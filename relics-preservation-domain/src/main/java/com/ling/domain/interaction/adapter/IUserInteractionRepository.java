@@ -1,12 +1,15 @@
 package com.ling.domain.interaction.adapter;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import com.ling.domain.interaction.model.valobj.CommentAction;
 import com.ling.domain.interaction.model.valobj.CommentStatus;
 import com.ling.domain.interaction.model.valobj.CommentWithUser;
 import com.ling.domain.interaction.model.valobj.RelicsComment;
+import com.ling.domain.interaction.model.valobj.RelicsInteractionSummary;
+import com.ling.domain.user.model.valobj.Username;
 
 /**
  * 用户交互仓储接口
@@ -50,4 +53,12 @@ public interface IUserInteractionRepository {
 
     boolean updateCommentStatus(Long commentId, CommentStatus status);
 
+    /**
+     * 批量获取文物交互概要（收藏状态、收藏数、评论数），用于列表页
+     * @param username 当前用户（可为null，此时收藏状态均为未收藏）
+     * @param relicsIds 文物ID列表
+     * @return 文物ID到交互概要的映射，保持入参顺序
+     */
+    Map<Long, RelicsInteractionSummary> batchGetRelicsInteractionSummaries(Username username, List<Long> relicsIds);
+
 }
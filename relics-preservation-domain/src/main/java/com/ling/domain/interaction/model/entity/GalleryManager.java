@@ -38,6 +38,11 @@ public class GalleryManager {
     private final LocalDateTime createTime;
     private LocalDateTime updateTime;
 
+    /**
+     * 已持久化的版本号，0 表示尚未保存过。保存时以此版本做比较并交换，冲突时重新加载后重试
+     */
+    private long version;
+
     // 变更跟踪器，用于增量保存
     private final ChangeTracker changeTracker;
 
@@ -374,6 +379,14 @@ public class GalleryManager {
         changeTracker.clearChanges();
     }
 
+    /**
+     * 保存成功后记录新的版本号
+     * @param version 保存后的版本号
+     */
+    public void markPersisted(long version) {
+        this.version = version;
+    }
+
     /**
      * 获取变更统计信息
      * @return 变更统计信息
@@ -24,7 +24,9 @@ import lombok.extern.slf4j.Slf4j;
 /**
  * 用户评论聚合根
  * @Author: LingRJ
- * @Description: 专门管理用户评论功能的聚合根，负责评论创建/删除、评论状态管理等
+ * @Description: 专门管理用户评论功能的聚合根，负责评论创建/删除、评论状态管理等。
+ *               支持两种加载方式：完整加载全部评论；按需加载只含评论数与版本号，
+ *               删除时按评论ID查询单条记录、分页时按页查询，变更跟踪与增量保存不受影响
  * @DateTime: 2025/7/13
  */
 @Getter
@@ -39,9 +41,24 @@ public class UserComments {
     private final LocalDateTime createTime;
     private LocalDateTime updateTime;
 
+    /**
+     * 已持久化的版本号，0 表示尚未保存过。保存时以此版本做比较并交换，冲突时重新加载后重试
+     */
+    private long version;
+
     // 变更跟踪器，用于增量保存
     private final ChangeTracker changeTracker;
 
+    /**
+     * 按需加载时的评论查询，为 null 表示已完整加载
+     */
+    private final transient CommentLookup commentLookup;
+
+    /**
+     * 按需加载时的有效评论数，随本聚合根内的评论与删除增减
+     */
+    private long commentCount;
+
     /**
      * 创建用户评论聚合根
      */
@@ -77,6 +94,29 @@ public class UserComments {
                 .build();
     }
 
+    /**
+     * 按需加载用户评论聚合根：只含评论数与版本号，评论记录按需查询
+     * @param username 用户名
+     * @param commentCount 有效评论数
+     * @param version 已持久化的版本号
+     * @param commentLookup 评论查询
+     * @return 用户评论聚合根
+     */
+    public static UserComments lazy(Username username, long commentCount, long version,
+                                    CommentLookup commentLookup) {
+        LocalDateTime now = LocalDateTime.now();
+        return UserComments.builder()
+                .username(username)
+                .comments(new ArrayList<>())
+                .createTime(now)
+                .updateTime(now)
+                .version(version)
+                .changeTracker(new ChangeTracker())
+                .commentLookup(commentLookup)
+                .commentCount(commentCount)
+                .build();
+    }
+
     /**
      * 添加评论
      * @param relicsId 文物ID
@@ -89,6 +129,7 @@ public class UserComments {
             CommentAction comment = CommentAction.create(relicsId, commentContent);
 
             comments.add(comment);
+            commentCount++;
             updateTime = LocalDateTime.now();
 
             // 记录变更
@@ -115,9 +156,7 @@ public class UserComments {
      */
     public InteractionResult deleteComment(Long commentId) {
         try {
-            Optional<CommentAction> commentOpt = comments.stream()
-                    .filter(c -> c.getId().equals(commentId))
-                    .findFirst();
+            Optional<CommentAction> commentOpt = resolveComment(commentId);
 
             if (commentOpt.isEmpty()) {
                 return InteractionResult.failure("评论不存在");
@@ -125,6 +164,7 @@ public class UserComments {
 
             CommentAction comment = commentOpt.get();
             comment.delete();
+            commentCount--;
             updateTime = LocalDateTime.now();
 
             // 记录变更
@@ -144,11 +184,12 @@ public class UserComments {
     }
 
     /**
-     * 获取用户的评论列表
+     * 获取用户的评论列表，仅完整加载的聚合根可用
      * @param relicsId 文物ID（可选，为null时返回所有评论）
      * @return 评论列表
      */
     public List<CommentAction> getComments(Long relicsId) {
+        requireFullyLoaded("获取全部评论");
         return comments.stream()
                 .filter(c -> !c.isDeleted())
                 .filter(c -> relicsId == null || c.getRelicsId().equals(relicsId))
@@ -157,10 +198,50 @@ public class UserComments {
     }
 
     /**
-     * 获取评论统计信息
+     * 按创建时间倒序分页获取评论。按需加载时直接查询已保存的评论，不含本聚合根中未保存的变更
+     * @param relicsId 文物ID（可选，为null时返回所有评论）
+     * @param offset 偏移量
+     * @param limit 限制数量
+     * @return 评论列表
+     */
+    public List<CommentAction> getComments(Long relicsId, int offset, int limit) {
+        if (isLazy()) {
+            return commentLookup.findPage(username, relicsId, offset, limit);
+        }
+        return getComments(relicsId).stream()
+                .skip(offset)
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * 统计评论数。按需加载时直接查询已保存的评论
+     * @param relicsId 文物ID（可选，为null时统计所有评论）
+     * @return 评论数
+     */
+    public long countComments(Long relicsId) {
+        if (!isLazy()) {
+            return comments.stream()
+                    .filter(c -> !c.isDeleted())
+                    .filter(c -> relicsId == null || c.getRelicsId().equals(relicsId))
+                    .count();
+        }
+        return relicsId == null ? commentCount : commentLookup.count(username, relicsId);
+    }
+
+    /**
+     * 是否为按需加载的聚合根
+     */
+    public boolean isLazy() {
+        return commentLookup != null;
+    }
+
+    /**
+     * 获取评论统计信息，仅完整加载的聚合根可用
      * @return 评论统计
      */
     public CommentStatistics getStatistics() {
+        requireFullyLoaded("统计评论");
         long commentCount = comments.stream()
                 .filter(c -> !c.isDeleted())
                 .count();
@@ -215,6 +296,14 @@ public class UserComments {
         changeTracker.clearChanges();
     }
 
+    /**
+     * 保存成功后记录新的版本号
+     * @param version 保存后的版本号
+     */
+    public void markPersisted(long version) {
+        this.version = version;
+    }
+
     /**
      * 获取变更统计信息
      * @return 变更统计信息
@@ -228,6 +317,53 @@ public class UserComments {
         return String.format("评论变更: %d", commentChanges);
     }
 
+    // ==================== 按需加载 ====================
+
+    /**
+     * 查找评论：先查已加载的评论，按需加载时未加载的再按评论ID查询并纳入聚合根
+     */
+    private Optional<CommentAction> resolveComment(Long commentId) {
+        Optional<CommentAction> loaded = comments.stream()
+                .filter(c -> c.getId().equals(commentId))
+                .findFirst();
+        if (loaded.isPresent() || !isLazy()) {
+            // 已删除的评论不可重复删除
+            return loaded.filter(c -> !c.isDeleted());
+        }
+        Optional<CommentAction> found = commentLookup.findActive(username, commentId);
+        found.ifPresent(comments::add);
+        return found;
+    }
+
+    private void requireFullyLoaded(String operation) {
+        if (isLazy()) {
+            throw new IllegalStateException(operation + "需要完整加载的用户评论聚合根");
+        }
+    }
+
+    /**
+     * 按需加载时的评论查询，均只查询该用户未删除的评论
+     */
+    public interface CommentLookup {
+
+        /**
+         * 按评论ID查询，评论不属于该用户时为空
+         */
+        Optional<CommentAction> findActive(Username username, Long commentId);
+
+        /**
+         * 按创建时间倒序分页查询
+         * @param relicsId 文物ID（可选）
+         */
+        List<CommentAction> findPage(Username username, Long relicsId, int offset, int limit);
+
+        /**
+         * 统计评论数
+         * @param relicsId 文物ID（可选）
+         */
+        long count(Username username, Long relicsId);
+    }
+
     /**
      * 评论统计值对象
      */
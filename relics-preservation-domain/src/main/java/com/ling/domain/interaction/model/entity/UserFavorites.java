@@ -1,7 +1,8 @@
 package com.ling.domain.interaction.model.entity;
 
 import java.time.LocalDateTime;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -11,9 +12,11 @@ import com.ling.domain.interaction.event.UserUnfavoritedRelicsEvent;
 import com.ling.domain.interaction.model.valobj.ChangeTracker;
 import com.ling.domain.interaction.model.valobj.FavoriteAction;
 import com.ling.domain.interaction.model.valobj.InteractionResult;
+import com.ling.domain.interaction.model.valobj.RelicsIdMap;
 import com.ling.domain.user.event.DomainEventPublisher;
 import com.ling.domain.user.model.valobj.Username;
 
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -23,7 +26,10 @@ import lombok.extern.slf4j.Slf4j;
 /**
  * 用户收藏聚合根
  * @Author: LingRJ
- * @Description: 专门管理用户收藏功能的聚合根，负责收藏/取消收藏操作、收藏列表查询等
+ * @Description: 专门管理用户收藏功能的聚合根，负责收藏/取消收藏操作、收藏列表查询等。
+ *               支持两种加载方式：完整加载全部收藏；按需加载只含收藏数与版本号，
+ *               收藏判断时才按文物ID查询单条记录并纳入聚合根，变更跟踪与增量保存不受影响。
+ *               收藏按文物ID存于开放寻址表，有效收藏与已取消收藏分表保存，收藏判断不分配对象，收藏列表按ID有序缓存
  * @DateTime: 2025/7/13
  */
 @Getter
@@ -34,13 +40,40 @@ import lombok.extern.slf4j.Slf4j;
 public class UserFavorites {
 
     private final Username username;
-    private final Set<FavoriteAction> favorites;
+
+    /**
+     * 有效收藏，文物ID -> 收藏行为
+     */
+    @Getter(AccessLevel.NONE)
+    private final RelicsIdMap<FavoriteAction> favorites;
+
+    /**
+     * 已加载但已取消的收藏，文物ID -> 收藏行为。按需加载时据此判断不再查询
+     */
+    @Getter(AccessLevel.NONE)
+    private final RelicsIdMap<FavoriteAction> removedFavorites;
+
     private final LocalDateTime createTime;
     private LocalDateTime updateTime;
 
+    /**
+     * 已持久化的版本号，0 表示尚未保存过。保存时以此版本做比较并交换，冲突时重新加载后重试
+     */
+    private long version;
+
     // 变更跟踪器，用于增量保存
     private final ChangeTracker changeTracker;
 
+    /**
+     * 按需加载时的收藏查询，为 null 表示已完整加载
+     */
+    private final transient FavoriteLookup favoriteLookup;
+
+    /**
+     * 按需加载时的有效收藏数，随本聚合根内的收藏与取消收藏增减
+     */
+    private long favoriteCount;
+
     /**
      * 创建用户收藏聚合根
      */
@@ -48,7 +81,8 @@ public class UserFavorites {
         LocalDateTime now = LocalDateTime.now();
         return UserFavorites.builder()
                 .username(username)
-                .favorites(new HashSet<>())
+                .favorites(new RelicsIdMap<>())
+                .removedFavorites(new RelicsIdMap<>())
                 .createTime(now)
                 .updateTime(now)
                 .changeTracker(new ChangeTracker())
@@ -58,24 +92,63 @@ public class UserFavorites {
     /**
      * 从数据库记录重建用户收藏聚合根
      * @param username 用户名
-     * @param favorites 收藏行为集合
+     * @param favorites 收藏行为集合，同一文物同时有有效与已取消记录时以有效记录为准
      * @param createTime 创建时间
      * @param updateTime 更新时间
      * @return 用户收藏聚合根
      */
     public static UserFavorites fromDatabase(Username username,
-                                           Set<FavoriteAction> favorites,
+                                           Collection<FavoriteAction> favorites,
                                            LocalDateTime createTime,
                                            LocalDateTime updateTime) {
+        int expectedSize = favorites != null ? favorites.size() : 0;
+        RelicsIdMap<FavoriteAction> active = new RelicsIdMap<>(expectedSize);
+        RelicsIdMap<FavoriteAction> removed = new RelicsIdMap<>();
+        if (favorites != null) {
+            for (FavoriteAction favorite : favorites) {
+                long relicsId = favorite.getRelicsId();
+                if (!favorite.isDeleted()) {
+                    active.put(relicsId, favorite);
+                    removed.remove(relicsId);
+                } else if (!active.containsKey(relicsId)) {
+                    removed.put(relicsId, favorite);
+                }
+            }
+        }
         return UserFavorites.builder()
                 .username(username)
-                .favorites(favorites != null ? favorites : new HashSet<>())
+                .favorites(active)
+                .removedFavorites(removed)
                 .createTime(createTime != null ? createTime : LocalDateTime.now())
                 .updateTime(updateTime != null ? updateTime : LocalDateTime.now())
                 .changeTracker(new ChangeTracker()) // 从数据库重建时创建新的变更跟踪器
                 .build();
     }
 
+    /**
+     * 按需加载用户收藏聚合根：只含收藏数与版本号，收藏记录在判断时按文物ID查询
+     * @param username 用户名
+     * @param favoriteCount 有效收藏数
+     * @param version 已持久化的版本号
+     * @param favoriteLookup 按文物ID查询有效收藏
+     * @return 用户收藏聚合根
+     */
+    public static UserFavorites lazy(Username username, long favoriteCount, long version,
+                                     FavoriteLookup favoriteLookup) {
+        LocalDateTime now = LocalDateTime.now();
+        return UserFavorites.builder()
+                .username(username)
+                .favorites(new RelicsIdMap<>())
+                .removedFavorites(new RelicsIdMap<>())
+                .createTime(now)
+                .updateTime(now)
+                .version(version)
+                .changeTracker(new ChangeTracker())
+                .favoriteLookup(favoriteLookup)
+                .favoriteCount(favoriteCount)
+                .build();
+    }
+
     /**
      * 添加收藏
      * @param relicsId 文物ID
@@ -83,14 +156,15 @@ public class UserFavorites {
      */
     public InteractionResult addFavorite(Long relicsId) {
         try {
-            FavoriteAction favorite = FavoriteAction.create(relicsId);
-
             // 检查是否已收藏
-            if (favorites.contains(favorite)) {
+            if (resolveFavorite(relicsId).isPresent()) {
                 return InteractionResult.failure("已经收藏过该文物");
             }
 
-            favorites.add(favorite);
+            FavoriteAction favorite = FavoriteAction.create(relicsId);
+            removedFavorites.remove(relicsId);
+            favorites.put(relicsId, favorite);
+            favoriteCount++;
             updateTime = LocalDateTime.now();
 
             // 记录变更
@@ -116,34 +190,28 @@ public class UserFavorites {
      */
     public InteractionResult removeFavorite(Long relicsId) {
         try {
-            FavoriteAction favorite = FavoriteAction.create(relicsId);
-
-            if (!favorites.contains(favorite)) {
+            // 找到实际的收藏对象并标记删除
+            Optional<FavoriteAction> existingFavorite = resolveFavorite(relicsId);
+            if (existingFavorite.isEmpty()) {
                 return InteractionResult.failure("未收藏该文物");
             }
 
-            // 找到实际的收藏对象并标记删除
-            Optional<FavoriteAction> existingFavorite = favorites.stream()
-                    .filter(f -> f.equals(favorite))
-                    .findFirst();
-
-            if (existingFavorite.isPresent()) {
-                FavoriteAction actualFavorite = existingFavorite.get();
-                actualFavorite.delete();
-                updateTime = LocalDateTime.now();
-
-                // 记录变更
-                changeTracker.recordDelete("FAVORITE", relicsId, actualFavorite);
+            FavoriteAction actualFavorite = existingFavorite.get();
+            actualFavorite.delete();
+            favorites.remove(relicsId);
+            removedFavorites.put(relicsId, actualFavorite);
+            favoriteCount--;
+            updateTime = LocalDateTime.now();
 
-                // 发布取消收藏事件
-                DomainEventPublisher.publish(new UserUnfavoritedRelicsEvent(
-                        username.getValue(), relicsId));
+            // 记录变更
+            changeTracker.recordDelete("FAVORITE", relicsId, actualFavorite);
 
-                log.info("用户 {} 取消收藏文物 {}", username.getValue(), relicsId);
-                return InteractionResult.success("取消收藏成功");
-            }
+            // 发布取消收藏事件
+            DomainEventPublisher.publish(new UserUnfavoritedRelicsEvent(
+                    username.getValue(), relicsId));
 
-            return InteractionResult.failure("取消收藏失败");
+            log.info("用户 {} 取消收藏文物 {}", username.getValue(), relicsId);
+            return InteractionResult.success("取消收藏成功");
 
         } catch (Exception e) {
             log.error("取消收藏失败: {} - {}", username.getValue(), e.getMessage(), e);
@@ -157,19 +225,46 @@ public class UserFavorites {
      * @return 是否已收藏
      */
     public boolean isFavorited(Long relicsId) {
-        return favorites.contains(FavoriteAction.create(relicsId));
+        if (favorites.containsKey(relicsId)) {
+            return true;
+        }
+        return isLazy() && resolveFavorite(relicsId).isPresent();
+    }
+
+    /**
+     * 是否为按需加载的聚合根
+     */
+    public boolean isLazy() {
+        return favoriteLookup != null;
     }
 
     /**
-     * 获取收藏的文物ID列表
-     * @return 文物ID列表
+     * 获取收藏的文物ID列表，仅完整加载的聚合根可用
+     * @return 按文物ID升序的只读列表
      */
     public List<Long> getFavoritedRelicsIds() {
-        return favorites.stream()
-                .filter(f -> !f.isDeleted())
-                .map(FavoriteAction::getRelicsId)
-                .sorted()
-                .toList();
+        requireFullyLoaded("获取全部收藏");
+        return favorites.sortedKeys().asList();
+    }
+
+    /**
+     * 获取收藏的文物ID数组，仅完整加载的聚合根可用
+     * @return 按文物ID升序的数组副本
+     */
+    public long[] getFavoritedRelicsIdArray() {
+        requireFullyLoaded("获取全部收藏");
+        return favorites.sortedKeys().toArray();
+    }
+
+    /**
+     * 获取已加载的全部收藏行为，含本聚合根内已取消的收藏
+     * @return 收藏行为集合
+     */
+    public Collection<FavoriteAction> getFavorites() {
+        List<FavoriteAction> all = new ArrayList<>(favorites.size() + removedFavorites.size());
+        all.addAll(favorites.values());
+        all.addAll(removedFavorites.values());
+        return all;
     }
 
     /**
@@ -177,12 +272,11 @@ public class UserFavorites {
      * @return 收藏统计
      */
     public FavoriteStatistics getStatistics() {
-        long favoriteCount = favorites.stream()
-                .filter(f -> !f.isDeleted())
-                .count();
+        requireFullyLoaded("统计收藏");
+        long favoriteCount = favorites.size();
 
-        long newFavoriteCount = favorites.stream()
-                .filter(f -> !f.isDeleted() && f.isNewFavorite())
+        long newFavoriteCount = favorites.values().stream()
+                .filter(FavoriteAction::isNewFavorite)
                 .count();
 
         return FavoriteStatistics.builder()
@@ -193,6 +287,17 @@ public class UserFavorites {
                 .build();
     }
 
+    /**
+     * 获取有效收藏数
+     * @return 收藏数
+     */
+    public long getFavoriteCount() {
+        if (!isLazy()) {
+            return favorites.size();
+        }
+        return favoriteCount;
+    }
+
     /**
      * 获取显示名称
      * @return 显示名称
@@ -226,6 +331,14 @@ public class UserFavorites {
         changeTracker.clearChanges();
     }
 
+    /**
+     * 保存成功后记录新的版本号
+     * @param version 保存后的版本号
+     */
+    public void markPersisted(long version) {
+        this.version = version;
+    }
+
     /**
      * 获取变更统计信息
      * @return 变更统计信息
@@ -239,6 +352,46 @@ public class UserFavorites {
         return String.format("收藏变更: %d", favoriteChanges);
     }
 
+    // ==================== 按需加载 ====================
+
+    /**
+     * 查找文物对应的收藏：先查已加载的收藏，按需加载时未加载的再按文物ID查询并纳入聚合根
+     */
+    private Optional<FavoriteAction> resolveFavorite(Long relicsId) {
+        FavoriteAction loaded = favorites.get(relicsId);
+        if (loaded != null) {
+            return Optional.of(loaded);
+        }
+        // 已加载过该文物（含本次已取消的收藏）时以聚合根内的状态为准，不再查询
+        if (!isLazy() || removedFavorites.containsKey(relicsId)) {
+            return Optional.empty();
+        }
+        Optional<FavoriteAction> found = favoriteLookup.findActive(username, relicsId);
+        found.ifPresent(favorite -> favorites.put(relicsId, favorite));
+        return found;
+    }
+
+    private void requireFullyLoaded(String operation) {
+        if (isLazy()) {
+            throw new IllegalStateException(operation + "需要完整加载的用户收藏聚合根");
+        }
+    }
+
+    /**
+     * 按需加载时的收藏查询
+     */
+    @FunctionalInterface
+    public interface FavoriteLookup {
+
+        /**
+         * 按文物ID查询用户的有效收藏
+         * @param username 用户名
+         * @param relicsId 文物ID
+         * @return 有效收藏，未收藏时为空
+         */
+        Optional<FavoriteAction> findActive(Username username, Long relicsId);
+    }
+
     /**
      * 收藏统计值对象
      */
@@ -1,21 +1,24 @@
 package com.ling.domain.interaction.model.valobj;
 
-import java.util.Collections;
-import java.util.HashSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-
-import lombok.Getter;
 
 /**
  * 变更跟踪器
  * @Author: LingRJ
- * @Description: 跟踪聚合根中的数据变更，实现增量保存
+ * @Description: 跟踪聚合根中的数据变更，实现增量保存。
+ *               变更按（实体类型, 实体ID）归并，同一实体只保留一条净变更：新增后删除抵消为无变更，
+ *               删除后重新新增视为修改，多次修改只保留最新的实体；按实体类型分组并维护计数，类型查询与计数为 O(1)。
+ *               聚合根按用户加载，写入基本来自单个线程，方法级同步只在无竞争时加锁
  * @DateTime: 2025/7/13
  */
-@Getter
 public class ChangeTracker {
-    
+
     /**
      * 变更类型枚举
      */
@@ -27,41 +30,59 @@ public class ChangeTracker {
         /** 删除 */
         DELETED
     }
-    
+
     /**
-     * 变更记录
+     * 变更记录，同一实体类型与实体ID的记录视为相等
      */
     public static class ChangeRecord {
         private final ChangeType type;
         private final String entityType;
         private final Object entityId;
         private final Object entity;
-        
+
         public ChangeRecord(ChangeType type, String entityType, Object entityId, Object entity) {
             this.type = type;
             this.entityType = entityType;
             this.entityId = entityId;
             this.entity = entity;
         }
-        
+
         public ChangeType getType() { return type; }
         public String getEntityType() { return entityType; }
         public Object getEntityId() { return entityId; }
         public Object getEntity() { return entity; }
-        
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ChangeRecord that)) {
+                return false;
+            }
+            return entityType.equals(that.entityType) && Objects.equals(entityId, that.entityId);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * entityType.hashCode() + Objects.hashCode(entityId);
+        }
+
         @Override
         public String toString() {
-            return String.format("ChangeRecord{type=%s, entityType=%s, entityId=%s}", 
+            return String.format("ChangeRecord{type=%s, entityType=%s, entityId=%s}",
                     type, entityType, entityId);
         }
     }
-    
-    // 使用线程安全的集合存储变更记录
-    private final Set<ChangeRecord> changes = Collections.synchronizedSet(new HashSet<>());
-    
-    // 标记是否有变更
-    private volatile boolean hasChanges = false;
-    
+
+    // 实体类型 -> 实体ID -> 净变更，保持记录顺序
+    private final Map<String, Map<Object, ChangeRecord>> changesByType = new HashMap<>();
+
+    // 各变更类型的记录数，按 ChangeType 序号索引
+    private final int[] countsByChangeType = new int[ChangeType.values().length];
+
+    private int changeCount = 0;
+
     /**
      * 记录新增操作
      * @param entityType 实体类型
@@ -69,11 +90,9 @@ public class ChangeTracker {
      * @param entity 实体对象
      */
     public void recordAdd(String entityType, Object entityId, Object entity) {
-        ChangeRecord record = new ChangeRecord(ChangeType.ADDED, entityType, entityId, entity);
-        changes.add(record);
-        hasChanges = true;
+        record(ChangeType.ADDED, entityType, entityId, entity);
     }
-    
+
     /**
      * 记录修改操作
      * @param entityType 实体类型
@@ -81,11 +100,9 @@ public class ChangeTracker {
      * @param entity 实体对象
      */
     public void recordModify(String entityType, Object entityId, Object entity) {
-        ChangeRecord record = new ChangeRecord(ChangeType.MODIFIED, entityType, entityId, entity);
-        changes.add(record);
-        hasChanges = true;
+        record(ChangeType.MODIFIED, entityType, entityId, entity);
     }
-    
+
     /**
      * 记录删除操作
      * @param entityType 实体类型
@@ -93,104 +110,153 @@ public class ChangeTracker {
      * @param entity 实体对象
      */
     public void recordDelete(String entityType, Object entityId, Object entity) {
-        ChangeRecord record = new ChangeRecord(ChangeType.DELETED, entityType, entityId, entity);
-        changes.add(record);
-        hasChanges = true;
+        record(ChangeType.DELETED, entityType, entityId, entity);
     }
-    
+
     /**
      * 获取指定类型的变更记录
      * @param entityType 实体类型
      * @return 变更记录集合
      */
-    public Set<ChangeRecord> getChangesByType(String entityType) {
-        return changes.stream()
-                .filter(record -> entityType.equals(record.getEntityType()))
-                .collect(HashSet::new, Set::add, Set::addAll);
+    public synchronized Set<ChangeRecord> getChangesByType(String entityType) {
+        Map<Object, ChangeRecord> records = changesByType.get(entityType);
+        return records != null ? new LinkedHashSet<>(records.values()) : new LinkedHashSet<>();
     }
-    
+
     /**
      * 获取指定变更类型的记录
      * @param changeType 变更类型
      * @return 变更记录集合
      */
-    public Set<ChangeRecord> getChangesByChangeType(ChangeType changeType) {
-        return changes.stream()
-                .filter(record -> changeType == record.getType())
-                .collect(HashSet::new, Set::add, Set::addAll);
+    public synchronized Set<ChangeRecord> getChangesByChangeType(ChangeType changeType) {
+        Set<ChangeRecord> result = new LinkedHashSet<>();
+        for (Map<Object, ChangeRecord> records : changesByType.values()) {
+            for (ChangeRecord record : records.values()) {
+                if (record.getType() == changeType) {
+                    result.add(record);
+                }
+            }
+        }
+        return result;
     }
-    
+
     /**
      * 获取指定实体类型和变更类型的记录
      * @param entityType 实体类型
      * @param changeType 变更类型
      * @return 变更记录集合
      */
-    public Set<ChangeRecord> getChanges(String entityType, ChangeType changeType) {
-        return changes.stream()
-                .filter(record -> entityType.equals(record.getEntityType()) && 
-                                changeType == record.getType())
-                .collect(HashSet::new, Set::add, Set::addAll);
+    public synchronized Set<ChangeRecord> getChanges(String entityType, ChangeType changeType) {
+        Set<ChangeRecord> result = new LinkedHashSet<>();
+        Map<Object, ChangeRecord> records = changesByType.get(entityType);
+        if (records != null) {
+            for (ChangeRecord record : records.values()) {
+                if (record.getType() == changeType) {
+                    result.add(record);
+                }
+            }
+        }
+        return result;
     }
-    
+
     /**
      * 清空变更记录
      */
-    public void clearChanges() {
-        changes.clear();
-        hasChanges = false;
+    public synchronized void clearChanges() {
+        changesByType.clear();
+        Arrays.fill(countsByChangeType, 0);
+        changeCount = 0;
     }
-    
+
+    /**
+     * 是否有未保存的变更
+     */
+    public synchronized boolean isHasChanges() {
+        return changeCount > 0;
+    }
+
     /**
      * 获取变更数量
      * @return 变更数量
      */
-    public int getChangeCount() {
-        return changes.size();
+    public synchronized int getChangeCount() {
+        return changeCount;
     }
-    
+
     /**
      * 获取指定类型的变更数量
      * @param entityType 实体类型
      * @return 变更数量
      */
-    public int getChangeCount(String entityType) {
-        return (int) changes.stream()
-                .filter(record -> entityType.equals(record.getEntityType()))
-                .count();
+    public synchronized int getChangeCount(String entityType) {
+        Map<Object, ChangeRecord> records = changesByType.get(entityType);
+        return records != null ? records.size() : 0;
     }
-    
+
     /**
      * 检查是否有指定类型的变更
      * @param entityType 实体类型
      * @return 是否有变更
      */
-    public boolean hasChanges(String entityType) {
-        return changes.stream()
-                .anyMatch(record -> entityType.equals(record.getEntityType()));
+    public synchronized boolean hasChanges(String entityType) {
+        return getChangeCount(entityType) > 0;
     }
-    
+
     /**
      * 检查是否有指定变更类型的记录
      * @param changeType 变更类型
      * @return 是否有变更
      */
-    public boolean hasChanges(ChangeType changeType) {
-        return changes.stream()
-                .anyMatch(record -> changeType == record.getType());
+    public synchronized boolean hasChanges(ChangeType changeType) {
+        return countsByChangeType[changeType.ordinal()] > 0;
     }
-    
+
     /**
      * 获取所有变更记录
      * @return 变更记录集合
      */
-    public Set<ChangeRecord> getAllChanges() {
-        return new HashSet<>(changes);
+    public synchronized Set<ChangeRecord> getAllChanges() {
+        Set<ChangeRecord> result = new LinkedHashSet<>();
+        changesByType.values().forEach(records -> result.addAll(records.values()));
+        return result;
+    }
+
+    // ==================== 变更归并 ====================
+
+    /**
+     * 与同一实体已有的变更归并后保存：
+     * 新增+修改=新增（最新实体），新增+删除=无变更，删除+新增=修改，其余组合以最新变更为准
+     */
+    private synchronized void record(ChangeType type, String entityType, Object entityId, Object entity) {
+        Map<Object, ChangeRecord> records = changesByType.computeIfAbsent(entityType, k -> new LinkedHashMap<>());
+        ChangeRecord previous = records.get(entityId);
+        ChangeType merged = type;
+        if (previous != null) {
+            ChangeType previousType = previous.getType();
+            if (previousType == ChangeType.ADDED && type == ChangeType.DELETED) {
+                records.remove(entityId);
+                adjustCount(previousType, -1);
+                return;
+            }
+            if (previousType == ChangeType.ADDED) {
+                merged = ChangeType.ADDED;
+            } else if (previousType == ChangeType.DELETED && type == ChangeType.ADDED) {
+                merged = ChangeType.MODIFIED;
+            }
+            adjustCount(previousType, -1);
+        }
+        records.put(entityId, new ChangeRecord(merged, entityType, entityId, entity));
+        adjustCount(merged, 1);
     }
-    
+
+    private void adjustCount(ChangeType type, int delta) {
+        countsByChangeType[type.ordinal()] += delta;
+        changeCount += delta;
+    }
+
     @Override
-    public String toString() {
-        return String.format("ChangeTracker{hasChanges=%s, changeCount=%d}", 
-                hasChanges, changes.size());
+    public synchronized String toString() {
+        return String.format("ChangeTracker{hasChanges=%s, changeCount=%d}",
+                changeCount > 0, changeCount);
     }
 }
@@ -10,7 +10,7 @@ import java.util.stream.Collectors;
 /**
  * 收藏馆值对象
  * @Author: LingRJ
- * @Description: 封装用户个人收藏馆的完整信息和行为
+ * @Description: 封装用户个人收藏馆的完整信息和行为。文物ID以不可变的 long[] 序列保存，包含判断不装箱
  * @DateTime: 2025/7/13
  */
 @Getter
@@ -26,7 +26,7 @@ public class CollectionGallery {
     private final String description;
     private final GalleryTheme theme;
     private final DisplayStyle displayStyle;
-    private final List<Long> relicsIds;
+    private final RelicsIds relicsIds;
     private final LocalDateTime createTime;
     private final LocalDateTime updateTime;
     private final boolean isPublic;
@@ -80,7 +80,7 @@ public class CollectionGallery {
                 .description(description != null ? description.trim() : "")
                 .theme(theme)
                 .displayStyle(displayStyle)
-                .relicsIds(new ArrayList<>())
+                .relicsIds(RelicsIds.empty())
                 .createTime(now)
                 .updateTime(now)
                 .isPublic(isPublic)
@@ -125,7 +125,7 @@ public class CollectionGallery {
                 .description(description)
                 .theme(theme)
                 .displayStyle(displayStyle)
-                .relicsIds(relicsIds != null ? new ArrayList<>(relicsIds) : new ArrayList<>())
+                .relicsIds(RelicsIds.of(relicsIds))
                 .createTime(createTime)
                 .updateTime(updateTime)
                 .isPublic(isPublic)
@@ -162,7 +162,7 @@ public class CollectionGallery {
                 .description(newDescription != null ? newDescription.trim() : "")
                 .theme(newTheme)
                 .displayStyle(newDisplayStyle)
-                .relicsIds(new ArrayList<>(this.relicsIds))
+                .relicsIds(this.relicsIds)
                 .createTime(this.createTime)
                 .updateTime(LocalDateTime.now())
                 .isPublic(newIsPublic)
@@ -185,12 +185,24 @@ public class CollectionGallery {
             throw new IllegalArgumentException("文物已在收藏馆中");
         }
         
-        List<Long> newRelicsIds = new ArrayList<>(this.relicsIds);
-        newRelicsIds.add(relicsId);
-        
-        return this.builder()
-                .relicsIds(newRelicsIds)
+        return CollectionGallery.builder()
+                .galleryId(this.galleryId)
+                .name(this.name)
+                .description(this.description)
+                .theme(this.theme)
+                .displayStyle(this.displayStyle)
+                .relicsIds(this.relicsIds.with(relicsId))
+                .createTime(this.createTime)
                 .updateTime(LocalDateTime.now())
+                .isPublic(this.isPublic)
+                .shareCode(this.shareCode)
+                .customThemeName(this.customThemeName)
+                .personalNotes(this.personalNotes)
+                .personalTags(this.personalTags)
+                .learningStats(this.learningStats)
+                .viewCount(this.viewCount)
+                .shareCount(this.shareCount)
+                .lastViewTime(this.lastViewTime)
                 .build();
     }
     
@@ -208,16 +220,13 @@ public class CollectionGallery {
             throw new IllegalArgumentException("文物不在收藏馆中");
         }
         
-        List<Long> newRelicsIds = new ArrayList<>(this.relicsIds);
-        newRelicsIds.remove(relicsId);
-        
         return CollectionGallery.builder()
                 .galleryId(this.galleryId)
                 .name(this.name)
                 .description(this.description)
                 .theme(this.theme)
                 .displayStyle(this.displayStyle)
-                .relicsIds(newRelicsIds)
+                .relicsIds(this.relicsIds.without(relicsId))
                 .createTime(this.createTime)
                 .updateTime(LocalDateTime.now())
                 .isPublic(this.isPublic)
@@ -232,7 +241,7 @@ public class CollectionGallery {
      * @return 是否包含
      */
     public boolean containsRelics(Long relicsId) {
-        return relicsIds.contains(relicsId);
+        return relicsId != null && relicsIds.contains(relicsId);
     }
     
     /**
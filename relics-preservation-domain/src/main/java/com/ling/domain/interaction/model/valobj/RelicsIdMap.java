@@ -0,0 +1,247 @@
+package com.ling.domain.interaction.model.valobj;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 文物ID映射
+ * @Author: LingRJ
+ * @Description: 以文物ID为键的开放寻址哈希表，键以 long 保存，查找、写入与删除不装箱、不分配对象。
+ *               线性探测，删除时后移回填，不留墓碑；按ID排序的键在首次读取时生成并缓存，结构变化后重建。
+ *               文物ID必须大于0，0 作为空槽标记。非线程安全，随所属聚合根在单个请求内使用
+ * @DateTime: 2025/7/20
+ */
+public class RelicsIdMap<V> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private long[] keys;
+
+    private Object[] values;
+
+    private int size;
+
+    // 排序后的键，结构变化时置空
+    private transient RelicsIds sortedKeys;
+
+    public RelicsIdMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param expectedSize 预计元素数，按最大装载因子 0.5 预分配
+     */
+    public RelicsIdMap(int expectedSize) {
+        int capacity = tableSizeFor(Math.max(DEFAULT_CAPACITY, expectedSize * 2));
+        this.keys = new long[capacity];
+        this.values = new Object[capacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(long relicsId) {
+        return relicsId > 0 && slotOf(relicsId) >= 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(long relicsId) {
+        if (relicsId <= 0) {
+            return null;
+        }
+        int slot = slotOf(relicsId);
+        return slot >= 0 ? (V) values[slot] : null;
+    }
+
+    /**
+     * 写入映射
+     * @return 原有的值，不存在时为 null
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long relicsId, V value) {
+        if (relicsId <= 0) {
+            throw new IllegalArgumentException("文物ID必须大于0");
+        }
+        int mask = keys.length - 1;
+        int slot = hash(relicsId) & mask;
+        while (keys[slot] != 0) {
+            if (keys[slot] == relicsId) {
+                V previous = (V) values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = relicsId;
+        values[slot] = value;
+        size++;
+        sortedKeys = null;
+        if (size * 2 > keys.length) {
+            resize(keys.length * 2);
+        }
+        return null;
+    }
+
+    /**
+     * 删除映射
+     * @return 被删除的值，不存在时为 null
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long relicsId) {
+        if (relicsId <= 0) {
+            return null;
+        }
+        int slot = slotOf(relicsId);
+        if (slot < 0) {
+            return null;
+        }
+        V previous = (V) values[slot];
+        shiftBack(slot);
+        size--;
+        sortedKeys = null;
+        return previous;
+    }
+
+    /**
+     * 按ID升序排列的键，结构未变化时返回同一实例
+     */
+    public RelicsIds sortedKeys() {
+        RelicsIds sorted = sortedKeys;
+        if (sorted == null) {
+            long[] ids = new long[size];
+            int i = 0;
+            for (long key : keys) {
+                if (key != 0) {
+                    ids[i++] = key;
+                }
+            }
+            Arrays.sort(ids);
+            sorted = RelicsIds.ofSorted(ids);
+            sortedKeys = sorted;
+        }
+        return sorted;
+    }
+
+    /**
+     * 只读的值视图，遍历顺序不固定
+     */
+    public Collection<V> values() {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<V> iterator() {
+                return new ValueIterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    // ==================== 开放寻址 ====================
+
+    private int slotOf(long relicsId) {
+        int mask = keys.length - 1;
+        int slot = hash(relicsId) & mask;
+        long key;
+        while ((key = keys[slot]) != 0) {
+            if (key == relicsId) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * 删除槽位后，把同一探测链上后续的元素前移填补空位，保证查找不会提前遇到空槽
+     */
+    private void shiftBack(int slot) {
+        int mask = keys.length - 1;
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        long key;
+        while ((key = keys[next]) != 0) {
+            int home = hash(key) & mask;
+            // 元素的理想槽位不在 (gap, next] 区间内时，可以前移到空位
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = key;
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[gap] = 0;
+        values[gap] = null;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new long[capacity];
+        values = new Object[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key != 0) {
+                int slot = hash(key) & mask;
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static int tableSizeFor(int capacity) {
+        return Integer.highestOneBit(capacity - 1) << 1;
+    }
+
+    private class ValueIterator implements Iterator<V> {
+
+        private int slot = nextSlot(0);
+
+        private int nextSlot(int from) {
+            while (from < keys.length && keys[from] == 0) {
+                from++;
+            }
+            return from;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return slot < keys.length;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V next() {
+            if (slot >= keys.length) {
+                throw new NoSuchElementException();
+            }
+            V value = (V) values[slot];
+            slot = nextSlot(slot + 1);
+            return value;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("RelicsIdMap{size=%d}", size);
+    }
+}
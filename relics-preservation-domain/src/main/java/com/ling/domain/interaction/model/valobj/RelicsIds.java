@@ -0,0 +1,190 @@
+package com.ling.domain.interaction.model.valobj;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * 文物ID序列值对象
+ * @Author: LingRJ
+ * @Description: 以 long[] 保存的不可变文物ID序列，保持给定顺序，不装箱。
+ *               包含判断在首次调用时建立有序副本后二分查找，不分配对象；已排序的序列直接二分查找
+ * @DateTime: 2025/7/20
+ */
+public final class RelicsIds {
+
+    private static final long[] NO_IDS = new long[0];
+
+    private static final RelicsIds EMPTY = new RelicsIds(NO_IDS, true);
+
+    private final long[] ids;
+
+    // 按ID排序的副本，用于包含判断；序列本身有序时与 ids 相同
+    private transient long[] sortedIds;
+
+    /**
+     * 供反序列化使用
+     */
+    private RelicsIds() {
+        this.ids = NO_IDS;
+    }
+
+    private RelicsIds(long[] ids, boolean sorted) {
+        this.ids = ids;
+        this.sortedIds = sorted ? ids : null;
+    }
+
+    /**
+     * 空序列
+     */
+    public static RelicsIds empty() {
+        return EMPTY;
+    }
+
+    /**
+     * 按给定顺序创建序列
+     * @param relicsIds 文物ID列表，为 null 时返回空序列
+     */
+    public static RelicsIds of(Collection<Long> relicsIds) {
+        if (relicsIds == null || relicsIds.isEmpty()) {
+            return EMPTY;
+        }
+        long[] ids = new long[relicsIds.size()];
+        int i = 0;
+        for (Long relicsId : relicsIds) {
+            ids[i++] = relicsId;
+        }
+        return new RelicsIds(ids, false);
+    }
+
+    /**
+     * 以已按升序排列的数组创建序列，数组由序列持有，调用方不得再修改
+     */
+    static RelicsIds ofSorted(long[] sortedIds) {
+        return sortedIds.length == 0 ? EMPTY : new RelicsIds(sortedIds, true);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public boolean isEmpty() {
+        return ids.length == 0;
+    }
+
+    /**
+     * 获取指定位置的文物ID
+     */
+    public long get(int index) {
+        return ids[index];
+    }
+
+    /**
+     * 是否包含文物
+     */
+    public boolean contains(long relicsId) {
+        return Arrays.binarySearch(sorted(), relicsId) >= 0;
+    }
+
+    /**
+     * 文物在序列中的位置，不存在时为 -1
+     */
+    public int indexOf(long relicsId) {
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == relicsId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 在末尾追加文物，返回新序列
+     */
+    public RelicsIds with(long relicsId) {
+        long[] next = Arrays.copyOf(ids, ids.length + 1);
+        next[ids.length] = relicsId;
+        return new RelicsIds(next, false);
+    }
+
+    /**
+     * 移除文物，返回新序列；不包含时返回自身
+     */
+    public RelicsIds without(long relicsId) {
+        int index = indexOf(relicsId);
+        if (index < 0) {
+            return this;
+        }
+        long[] next = new long[ids.length - 1];
+        System.arraycopy(ids, 0, next, 0, index);
+        System.arraycopy(ids, index + 1, next, index, ids.length - index - 1);
+        return new RelicsIds(next, false);
+    }
+
+    /**
+     * 复制为数组
+     */
+    public long[] toArray() {
+        return ids.clone();
+    }
+
+    /**
+     * 只读列表视图，元素在读取时装箱
+     */
+    public List<Long> asList() {
+        return new ListView();
+    }
+
+    private long[] sorted() {
+        long[] sorted = sortedIds;
+        if (sorted == null) {
+            sorted = ids.clone();
+            Arrays.sort(sorted);
+            sortedIds = sorted;
+        }
+        return sorted;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        return o instanceof RelicsIds that && Arrays.equals(ids, that.ids);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(ids);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(ids);
+    }
+
+    private final class ListView extends AbstractList<Long> implements RandomAccess {
+
+        @Override
+        public Long get(int index) {
+            return ids[index];
+        }
+
+        @Override
+        public int size() {
+            return ids.length;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Long relicsId && RelicsIds.this.contains(relicsId);
+        }
+
+        @Override
+        public int indexOf(Object o) {
+            return o instanceof Long relicsId ? RelicsIds.this.indexOf(relicsId) : -1;
+        }
+    }
+}
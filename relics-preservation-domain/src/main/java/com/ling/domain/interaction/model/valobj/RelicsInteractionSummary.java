@@ -0,0 +1,27 @@
+package com.ling.domain.interaction.model.valobj;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * 文物交互概要值对象
+ * @Author: LingRJ
+ * @Description: 列表页展示单个文物所需的收藏状态、收藏数与评论数
+ * @DateTime: 2025/7/20
+ */
+@Getter
+@Builder
+public class RelicsInteractionSummary {
+
+    /** 文物ID */
+    private final Long relicsId;
+
+    /** 当前用户是否已收藏 */
+    private final boolean favorited;
+
+    /** 收藏数 */
+    private final long favoriteCount;
+
+    /** 已通过审核的评论数 */
+    private final long commentCount;
+}
@@ -3,6 +3,7 @@ package com.ling.domain.interaction.service;
 import com.ling.domain.interaction.model.valobj.*;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * 用户交互服务接口
@@ -85,6 +86,16 @@ public interface IUserInteractionService {
      */
     RelicsCommentListResult getRelicsComments(Long relicsId, int page, int size);
 
+    // ==================== 列表页批量查询 ====================
+
+    /**
+     * 批量获取文物交互概要（收藏状态、收藏数、评论数）
+     * @param username 用户名（可为null，表示未登录）
+     * @param relicsIds 文物ID列表
+     * @return 文物ID到交互概要的映射，保持入参顺序
+     */
+    Map<Long, RelicsInteractionSummary> getRelicsInteractionSummaries(String username, List<Long> relicsIds);
+
     // ==================== 结果对象 ====================
     
     /**
@@ -0,0 +1,56 @@
+package com.ling.domain.interaction.service.impl;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import com.ling.domain.interaction.adapter.AggregateVersionConflictException;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 聚合根乐观并发重试
+ * @Author: LingRJ
+ * @Description: 聚合根保存时按版本号比较并交换，冲突说明同一用户的另一写入已先提交。
+ *               冲突时在本地重新加载聚合根并重放操作，不持有分布式锁。
+ *               每次尝试使用仓储自身的事务，调用方不能在外层开启事务，否则重试读到的仍是旧快照
+ * @DateTime: 2025/7/20
+ */
+@Slf4j
+final class OptimisticRetry {
+
+    /**
+     * 最大尝试次数
+     */
+    static final int MAX_ATTEMPTS = 3;
+
+    /**
+     * 重试前的随机退避上限（微秒），错开同一用户的并发重试
+     */
+    private static final long MAX_BACKOFF_MICROS = 2_000L;
+
+    private OptimisticRetry() {
+    }
+
+    /**
+     * 执行操作，版本冲突时重试
+     * @param operation 操作名称，用于日志
+     * @param username 用户名
+     * @param action 加载聚合根、执行业务操作并保存
+     * @param onExhausted 重试次数用尽时的返回值
+     */
+    static <T> T execute(String operation, String username, Supplier<T> action, T onExhausted) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (AggregateVersionConflictException e) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    log.warn("{}版本冲突，已尝试{}次: {}", operation, attempt, username);
+                    return onExhausted;
+                }
+                log.debug("{}版本冲突，重新加载后重试: {} - 第{}次", operation, username, attempt);
+                LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(MAX_BACKOFF_MICROS * attempt) * 1_000L);
+            }
+        }
+    }
+}
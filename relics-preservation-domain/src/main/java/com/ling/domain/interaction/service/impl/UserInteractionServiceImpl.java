@@ -1,5 +1,6 @@
 package com.ling.domain.interaction.service.impl;
 
+import com.ling.domain.interaction.adapter.AggregateVersionConflictException;
 import com.ling.domain.interaction.adapter.IGalleryManagerRepository;
 import com.ling.domain.interaction.adapter.IUserCommentsRepository;
 import com.ling.domain.interaction.adapter.IUserFavoritesRepository;
@@ -13,16 +14,17 @@ import com.ling.domain.user.model.valobj.Username;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
  * 用户交互服务实现（重构为门面服务）
  * @Author: LingRJ
- * @Description: 协调三个聚合根的操作，保持向后兼容性
+ * @Description: 协调三个聚合根的操作，保持向后兼容性。
+ *               写操作不开启外层事务，聚合根由仓储按版本号保存，冲突时重新加载并重试
  * @DateTime: 2025/7/13
  */
 @Service
@@ -40,12 +42,20 @@ public class UserInteractionServiceImpl implements IUserInteractionService {
 
     @Autowired
     private IGalleryManagerRepository galleryManagerRepository;
+
+    /**
+     * 版本冲突重试用尽时的返回结果
+     */
+    private static final InteractionResult CONFLICT_RESULT = InteractionResult.failure("操作冲突，请稍后重试");
     
     // ==================== 收藏相关 ====================
     
     @Override
-    @Transactional
     public InteractionResult addFavorite(String username, Long relicsId) {
+        return OptimisticRetry.execute("添加收藏", username, () -> doAddFavorite(username, relicsId), CONFLICT_RESULT);
+    }
+
+    private InteractionResult doAddFavorite(String username, Long relicsId) {
         try {
             log.info("用户 {} 尝试收藏文物 {}", username, relicsId);
 
@@ -66,6 +76,8 @@ public class UserInteractionServiceImpl implements IUserInteractionService {
 
             return result;
 
+        } catch (AggregateVersionConflictException e) {
+            throw e;
         } catch (Exception e) {
             log.error("添加收藏失败: {} - {}", username, e.getMessage(), e);
             return InteractionResult.failure("添加收藏失败: " + e.getMessage());
@@ -73,12 +85,15 @@ public class UserInteractionServiceImpl implements IUserInteractionService {
     }
     
     @Override
-    @Transactional
     public InteractionResult removeFavorite(String username, Long relicsId) {
+        return OptimisticRetry.execute("取消收藏", username, () -> doRemoveFavorite(username, relicsId), CONFLICT_RESULT);
+    }
+
+    private InteractionResult doRemoveFavorite(String username, Long relicsId) {
         try {
             log.info("用户 {} 尝试取消收藏文物 {}", username, relicsId);
 
-            Optional<UserFavorites> userFavoritesOpt = userFavoritesRepository.findByUsername(Username.of(username));
+            Optional<UserFavorites> userFavoritesOpt = userFavoritesRepository.findRootByUsername(Username.of(username));
             if (userFavoritesOpt.isEmpty()) {
                 return InteractionResult.failure("用户收藏记录不存在");
             }
@@ -99,6 +114,8 @@ public class UserInteractionServiceImpl implements IUserInteractionService {
 
             return result;
 
+        } catch (AggregateVersionConflictException e) {
+            throw e;
         } catch (Exception e) {
             log.error("取消收藏失败: {} - {}", username, e.getMessage(), e);
             return InteractionResult.failure("取消收藏失败: " + e.getMessage());
@@ -108,8 +125,7 @@ public class UserInteractionServiceImpl implements IUserInteractionService {
     @Override
     public boolean isFavorited(String username, Long relicsId) {
         try {
-            Optional<UserFavorites> userFavoritesOpt = userFavoritesRepository.findByUsername(Username.of(username));
-            return userFavoritesOpt.map(uf -> uf.isFavorited(relicsId)).orElse(false);
+            return userFavoritesRepository.isFavorited(Username.of(username), relicsId);
         } catch (Exception e) {
             log.error("检查收藏状态失败: {} - {}", username, e.getMessage(), e);
             return false;
@@ -119,25 +135,21 @@ public class UserInteractionServiceImpl implements IUserInteractionService {
     @Override
     public FavoriteListResult getUserFavorites(String username, int page, int size) {
         try {
-            Optional<UserFavorites> userFavoritesOpt = userFavoritesRepository.findByUsername(Username.of(username));
-            if (userFavoritesOpt.isEmpty()) {
+            Username user = Username.of(username);
+            long total = userFavoritesRepository.countFavorites(user);
+            if (total == 0) {
                 return new FavoriteListResult(List.of(), 0, page, size, false);
             }
 
-            UserFavorites userFavorites = userFavoritesOpt.get();
-            List<Long> favoritedRelicsIds = userFavorites.getFavoritedRelicsIds();
-
-            // 简单分页（实际应该在仓储层实现）
-            int start = (page - 1) * size;
-            int end = Math.min(start + size, favoritedRelicsIds.size());
-
-            List<FavoriteAction> favorites = favoritedRelicsIds.subList(start, end).stream()
+            // 分页在仓储层完成，无需加载全部收藏
+            int offset = Math.max(0, (page - 1) * size);
+            List<FavoriteAction> favorites = userFavoritesRepository.findFavoritedRelicsIds(user, offset, size).stream()
                     .map(FavoriteAction::create)
                     .collect(Collectors.toList());
 
-            boolean hasNext = end < favoritedRelicsIds.size();
+            boolean hasNext = (long) offset + favorites.size() < total;
 
-            return new FavoriteListResult(favorites, favoritedRelicsIds.size(), page, size, hasNext);
+            return new FavoriteListResult(favorites, total, page, size, hasNext);
 
         } catch (Exception e) {
             log.error("获取用户收藏列表失败: {} - {}", username, e.getMessage(), e);
@@ -148,8 +160,11 @@ public class UserInteractionServiceImpl implements IUserInteractionService {
     // ==================== 评论相关 ====================
     
     @Override
-    @Transactional
     public InteractionResult addComment(String username, Long relicsId, String content) {
+        return OptimisticRetry.execute("添加评论", username, () -> doAddComment(username, relicsId, content), CONFLICT_RESULT);
+    }
+
+    private InteractionResult doAddComment(String username, Long relicsId, String content) {
         try {
             log.info("用户 {} 尝试评论文物 {}: {}", username, relicsId,
                     content.length() > 50 ? content.substring(0, 50) + "..." : content);
@@ -171,6 +186,8 @@ public class UserInteractionServiceImpl implements IUserInteractionService {
 
             return result;
 
+        } catch (AggregateVersionConflictException e) {
+            throw e;
         } catch (Exception e) {
             log.error("添加评论失败: {} - {}", username, e.getMessage(), e);
             return InteractionResult.failure("添加评论失败: " + e.getMessage());
@@ -178,12 +195,15 @@ public class UserInteractionServiceImpl implements IUserInteractionService {
     }
     
     @Override
-    @Transactional
     public InteractionResult deleteComment(String username, Long commentId) {
+        return OptimisticRetry.execute("删除评论", username, () -> doDeleteComment(username, commentId), CONFLICT_RESULT);
+    }
+
+    private InteractionResult doDeleteComment(String username, Long commentId) {
         try {
             log.info("用户 {} 尝试删除评论 {}", username, commentId);
 
-            Optional<UserComments> userCommentsOpt = userCommentsRepository.findByUsername(Username.of(username));
+            Optional<UserComments> userCommentsOpt = userCommentsRepository.findRootByUsername(Username.of(username));
             if (userCommentsOpt.isEmpty()) {
                 return InteractionResult.failure("用户评论记录不存在");
             }
@@ -201,6 +221,8 @@ public class UserInteractionServiceImpl implements IUserInteractionService {
 
             return result;
 
+        } catch (AggregateVersionConflictException e) {
+            throw e;
         } catch (Exception e) {
             log.error("删除评论失败: {} - {}", username, e.getMessage(), e);
             return InteractionResult.failure("删除评论失败: " + e.getMessage());
@@ -210,22 +232,19 @@ public class UserInteractionServiceImpl implements IUserInteractionService {
     @Override
     public CommentListResult getUserComments(String username, Long relicsId, int page, int size) {
         try {
-            Optional<UserComments> userCommentsOpt = userCommentsRepository.findByUsername(Username.of(username));
+            Optional<UserComments> userCommentsOpt = userCommentsRepository.findRootByUsername(Username.of(username));
             if (userCommentsOpt.isEmpty()) {
                 return new CommentListResult(List.of(), 0, page, size, false);
             }
 
+            // 按需加载的聚合根只查询当前页与总数
             UserComments userComments = userCommentsOpt.get();
-            List<CommentAction> comments = userComments.getComments(relicsId);
-
-            // 简单分页（实际应该在仓储层实现）
-            int start = (page - 1) * size;
-            int end = Math.min(start + size, comments.size());
-
-            List<CommentAction> pageComments = comments.subList(start, end);
-            boolean hasNext = end < comments.size();
+            long total = userComments.countComments(relicsId);
+            int offset = Math.max(0, (page - 1) * size);
+            List<CommentAction> pageComments = userComments.getComments(relicsId, offset, size);
+            boolean hasNext = (long) offset + pageComments.size() < total;
 
-            return new CommentListResult(pageComments, comments.size(), page, size, hasNext);
+            return new CommentListResult(pageComments, total, page, size, hasNext);
 
         } catch (Exception e) {
             log.error("获取用户评论列表失败: {} - {}", username, e.getMessage(), e);
@@ -265,21 +284,38 @@ public class UserInteractionServiceImpl implements IUserInteractionService {
     }
 
 
+    // ==================== 列表页批量查询 ====================
+
+    @Override
+    public Map<Long, RelicsInteractionSummary> getRelicsInteractionSummaries(String username, List<Long> relicsIds) {
+        try {
+            if (relicsIds == null || relicsIds.isEmpty()) {
+                return Map.of();
+            }
+            List<Long> distinctIds = relicsIds.stream().distinct().collect(Collectors.toList());
+            Username user = username != null ? Username.of(username) : null;
+            return userInteractionRepository.batchGetRelicsInteractionSummaries(user, distinctIds);
+        } catch (Exception e) {
+            log.error("批量获取文物交互概要失败: {} - {}", relicsIds, e.getMessage(), e);
+            return Map.of();
+        }
+    }
+
     // ==================== 私有辅助方法 ====================
 
     /**
-     * 获取用户收藏聚合根，如果不存在则创建
+     * 按需加载用户收藏聚合根，如果不存在则创建
      */
     private UserFavorites getUserFavoritesOrCreate(String username) {
-        Optional<UserFavorites> userFavoritesOpt = userFavoritesRepository.findByUsername(Username.of(username));
+        Optional<UserFavorites> userFavoritesOpt = userFavoritesRepository.findRootByUsername(Username.of(username));
         return userFavoritesOpt.orElseGet(() -> createUserFavorites(username));
     }
 
     /**
-     * 获取用户评论聚合根，如果不存在则创建
+     * 按需加载用户评论聚合根，如果不存在则创建
      */
     private UserComments getUserCommentsOrCreate(String username) {
-        Optional<UserComments> userCommentsOpt = userCommentsRepository.findByUsername(Username.of(username));
+        Optional<UserComments> userCommentsOpt = userCommentsRepository.findRootByUsername(Username.of(username));
         return userCommentsOpt.orElseGet(() -> createUserComments(username));
     }
 
@@ -347,18 +383,22 @@ public class UserInteractionServiceImpl implements IUserInteractionService {
      */
     private void removeRelicsFromAllGalleries(String username, Long relicsId) {
         try {
-            Optional<GalleryManager> galleryManagerOpt = galleryManagerRepository.findByUsername(Username.of(username));
-            if (galleryManagerOpt.isPresent()) {
-                GalleryManager galleryManager = galleryManagerOpt.get();
-                // 遍历所有收藏馆，移除该文物
-                for (CollectionGallery gallery : galleryManager.getAllGalleries()) {
-                    if (gallery.containsRelics(relicsId)) {
-                        galleryManager.removeRelicsFromGallery(gallery.getGalleryId(), relicsId);
+            // 收藏已保存，收藏馆冲突单独重试，不重放取消收藏
+            OptimisticRetry.execute("从收藏馆移除文物", username, () -> {
+                Optional<GalleryManager> galleryManagerOpt = galleryManagerRepository.findByUsername(Username.of(username));
+                if (galleryManagerOpt.isPresent()) {
+                    GalleryManager galleryManager = galleryManagerOpt.get();
+                    // 遍历所有收藏馆，移除该文物
+                    for (CollectionGallery gallery : galleryManager.getAllGalleries()) {
+                        if (gallery.containsRelics(relicsId)) {
+                            galleryManager.removeRelicsFromGallery(gallery.getGalleryId(), relicsId);
+                        }
                     }
+                    // 保存变更
+                    return galleryManagerRepository.saveIncremental(galleryManager);
                 }
-                // 保存变更
-                galleryManagerRepository.saveIncremental(galleryManager);
-            }
+                return true;
+            }, false);
         } catch (Exception e) {
             log.error("从收藏馆移除文物失败: {} - {}", username, e.getMessage(), e);
             // 这里不抛出异常，因为这是一个辅助操作
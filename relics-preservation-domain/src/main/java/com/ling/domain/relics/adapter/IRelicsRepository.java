@@ -4,6 +4,7 @@ import com.ling.domain.relics.model.entity.RelicsEntity;
 import com.ling.domain.relics.model.valobj.RelicsVO;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * 文物仓储接口
@@ -46,35 +47,38 @@ public interface IRelicsRepository {
     /**
      * 根据年代查找文物
      * @param era 年代
-     * @return 文物实体列表
+     * @return 文物实体列表，只含列表字段，不含描述；详情通过 findById 获取
      */
     List<RelicsEntity> findByEra(String era);
 
     /**
      * 随机获取文物列表
      * @param limit 获取数量
-     * @return 文物实体列表
+     * @return 文物实体列表，只含列表字段，不含描述；详情通过 findById 获取
      */
     List<RelicsEntity> findRandomRelics(int limit);
 
     /**
      * 获取除指定朝代外的所有文物
      * @param excludeEras 要排除的朝代列表
-     * @return 文物实体列表
+     * @return 文物实体列表，只含列表字段，不含描述；详情通过 findById 获取
      */
     List<RelicsEntity> findRelicsExceptEras(List<String> excludeEras);
     
     /**
      * 根据名称模糊查询文物
      * @param name 文物名称关键词
-     * @return 文物实体列表
+     * @return 文物实体列表，只含列表字段，不含描述；详情通过 findById 获取
      */
     List<RelicsEntity> findByNameContaining(String name);
     
     /**
-     * 获取所有文物
-     * @return 文物实体列表
+     * 以游标逐行读取所有文物（含描述），按块回调，不在内存中保留全表
+     * 回调在读取线程上执行，回调阻塞时读取随之暂停
+     * @param chunkSize 每块文物数
+     * @param chunkConsumer 块回调，块交给回调后不再被仓储复用
+     * @return 读取的文物总数
      */
-    List<RelicsEntity> findAll();
+    long streamAll(int chunkSize, Consumer<List<RelicsEntity>> chunkConsumer);
 }
 
@@ -0,0 +1,163 @@
+package com.ling.domain.relics.service.impl;
+
+import com.ling.domain.relics.adapter.es.RelicsElasticsearchRepository;
+import com.ling.domain.relics.model.document.RelicsDocument;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 文物索引分块批量写入
+ * @Author: LingRJ
+ * @Description: 全量同步时按块写入ES，同时在途的块数不超过并发数。并发已满时 submit 阻塞，
+ *               读取端随之暂停，内存中最多保留 并发数 + 1 个块，与文物总量无关。
+ *               每块独立重试，重试用尽只记为失败块，不中断其余块。每次全量同步创建一个实例，用完关闭
+ * @DateTime: 2025/7/20
+ */
+@Slf4j
+final class RelicsBulkIndexer implements AutoCloseable {
+
+    /**
+     * 首次重试前的退避（毫秒），之后每次翻倍
+     */
+    static final long BASE_BACKOFF_MILLIS = 200L;
+
+    private final RelicsElasticsearchRepository elasticsearchRepository;
+
+    private final int concurrency;
+
+    private final int maxAttempts;
+
+    private final long baseBackoffMillis;
+
+    private final ExecutorService workers;
+
+    private final Semaphore inFlight;
+
+    private final AtomicLong indexed = new AtomicLong();
+
+    private final AtomicLong failedDocuments = new AtomicLong();
+
+    private final AtomicInteger failedChunks = new AtomicInteger();
+
+    RelicsBulkIndexer(RelicsElasticsearchRepository elasticsearchRepository, int concurrency, int maxAttempts) {
+        this(elasticsearchRepository, concurrency, maxAttempts, BASE_BACKOFF_MILLIS);
+    }
+
+    RelicsBulkIndexer(RelicsElasticsearchRepository elasticsearchRepository, int concurrency, int maxAttempts,
+                      long baseBackoffMillis) {
+        this.elasticsearchRepository = elasticsearchRepository;
+        this.concurrency = Math.max(1, concurrency);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.baseBackoffMillis = baseBackoffMillis;
+        this.inFlight = new Semaphore(this.concurrency);
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(this.concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "relics-es-sync-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 提交一块文档，并发已满时阻塞到有块完成
+     * @param documents 文档块，提交后由写入线程持有，调用方不得再修改
+     */
+    void submit(List<RelicsDocument> documents) {
+        if (documents.isEmpty()) {
+            return;
+        }
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待索引写入时被中断", e);
+        }
+        try {
+            workers.execute(() -> {
+                try {
+                    indexChunk(documents);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.release();
+            throw e;
+        }
+    }
+
+    /**
+     * 等待已提交的块全部完成
+     * @return 写入结果
+     */
+    Result awaitCompletion() {
+        try {
+            inFlight.acquire(concurrency);
+            inFlight.release(concurrency);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待索引写入完成时被中断", e);
+        }
+        return new Result(indexed.get(), failedDocuments.get(), failedChunks.get());
+    }
+
+    @Override
+    public void close() {
+        workers.shutdownNow();
+    }
+
+    private void indexChunk(List<RelicsDocument> documents) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                elasticsearchRepository.saveAll(documents);
+                indexed.addAndGet(documents.size());
+                return;
+            } catch (Exception e) {
+                if (attempt >= maxAttempts) {
+                    failedChunks.incrementAndGet();
+                    failedDocuments.addAndGet(documents.size());
+                    log.error("文物索引块写入失败，已尝试{}次，文物ID {} - {}，共 {} 条", attempt,
+                            documents.get(0).getRelicsId(), documents.get(documents.size() - 1).getRelicsId(),
+                            documents.size(), e);
+                    return;
+                }
+                log.warn("文物索引块写入失败，第{}次重试: {}", attempt, e.getMessage());
+                if (!backoff(attempt)) {
+                    failedChunks.incrementAndGet();
+                    failedDocuments.addAndGet(documents.size());
+                    return;
+                }
+            }
+        }
+    }
+
+    private boolean backoff(int attempt) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(baseBackoffMillis << (attempt - 1));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * 全量写入结果
+     * @param indexed 写入成功的文档数
+     * @param failedDocuments 重试用尽后仍失败的文档数
+     * @param failedChunks 失败的块数
+     */
+    record Result(long indexed, long failedDocuments, int failedChunks) {
+
+        boolean isSuccess() {
+            return failedChunks == 0;
+        }
+    }
+}
@@ -11,7 +11,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -21,6 +20,15 @@ public class RelicsSearchServiceImpl implements IRelicsSearchService {
 
     @Value("${elasticsearch.open:false}")
     private boolean elasticsearchEnabled;
+
+    @Value("${elasticsearch.sync.chunk-size:500}")
+    private int syncChunkSize;
+
+    @Value("${elasticsearch.sync.concurrency:2}")
+    private int syncConcurrency;
+
+    @Value("${elasticsearch.sync.max-attempts:3}")
+    private int syncMaxAttempts;
     
     @Autowired
     private RelicsElasticsearchRepository relicsElasticsearchRepository;
@@ -91,20 +99,28 @@ public class RelicsSearchServiceImpl implements IRelicsSearchService {
         try {
             // 清空当前索引中的所有数据，避免重复
             clearRelicsIndex();
-            
-            // 获取所有文物数据
-            List<RelicsEntity> allRelics = getAllRelics();
-            if (allRelics.isEmpty()) {
+
+            // 游标分块读取，每块转换为文档后交给批量写入，内存占用与文物总量无关
+            RelicsBulkIndexer.Result result;
+            long total;
+            try (RelicsBulkIndexer indexer = new RelicsBulkIndexer(
+                    relicsElasticsearchRepository, syncConcurrency, syncMaxAttempts)) {
+                total = relicsRepository.streamAll(syncChunkSize, chunk -> indexer.submit(chunk.stream()
+                        .map(this::convertToDocument)
+                        .collect(Collectors.toList())));
+                result = indexer.awaitCompletion();
+            }
+            if (total == 0) {
                 log.warn("没有文物数据可同步");
                 return false;
             }
-            
-            List<RelicsDocument> documents = allRelics.stream()
-                .map(this::convertToDocument)
-                .collect(Collectors.toList());
-            
-            relicsElasticsearchRepository.saveAll(documents);
-            log.info("所有文物数据同步到ES成功, 共 {} 条", documents.size());
+
+            if (!result.isSuccess()) {
+                log.error("文物数据同步到ES部分失败, 共 {} 条, 成功 {} 条, 失败 {} 条（{} 块）",
+                        total, result.indexed(), result.failedDocuments(), result.failedChunks());
+                return false;
+            }
+            log.info("所有文物数据同步到ES成功, 共 {} 条", result.indexed());
             return true;
         } catch (Exception e) {
             log.error("所有文物数据同步到ES失败", e);
@@ -167,16 +183,4 @@ public class RelicsSearchServiceImpl implements IRelicsSearchService {
         entity.setSuccess(true);
         return entity;
     }
-    
-    /**
-     * 获取所有文物数据
-     */
-    private List<RelicsEntity> getAllRelics() {
-        try {
-            return relicsRepository.findAll();
-        } catch (Exception e) {
-            log.error("获取所有文物数据失败", e);
-            return new ArrayList<>();
-        }
-    }
-} 
\ No newline at end of file
+}
@@ -65,6 +65,9 @@ public class RelicsServiceImpl implements IRelicsService {
 
     @Override
     public RelicsEntity getRelicsById(Long id) {
+        if (id == null || id <= 0) {
+            return null;
+        }
         try {
             RelicsEntity entity = relicsRepository.findById(id);
             if (entity != null) {
@@ -0,0 +1,17 @@
+package com.ling.domain.sensor.adapter;
+
+/**
+ * @Author: LingRJ
+ * @Description: 执行器指令下发接口
+ * @DateTime: 2025/7/20
+ **/
+public interface IActuatorCommandPublisher {
+
+    /**
+     * 异步下发指令到设备
+     * @param deviceId 设备ID
+     * @param payload 指令内容
+     * @return 是否成功提交下发
+     */
+    boolean publish(String deviceId, String payload);
+}
@@ -0,0 +1,92 @@
+package com.ling.domain.sensor.model.valobj;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * @Author: LingRJ
+ * @Description: 执行器（风扇、LED等）控制指令值对象
+ * @DateTime: 2025/7/20
+ **/
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ActuatorCommandVO {
+
+    /** 指令来源：手动控制 */
+    public static final String SOURCE_MANUAL = "MANUAL";
+    /** 指令来源：告警联动 */
+    public static final String SOURCE_CLOSED_LOOP = "CLOSED_LOOP";
+
+    /** 等待下发 */
+    public static final String STATUS_PENDING = "PENDING";
+    /** 已下发，等待设备确认 */
+    public static final String STATUS_SENT = "SENT";
+    /** 设备已确认 */
+    public static final String STATUS_ACKED = "ACKED";
+    /** 超时未确认 */
+    public static final String STATUS_TIMEOUT = "TIMEOUT";
+
+    /**
+     * 指令ID
+     */
+    private String commandId;
+
+    /**
+     * 设备ID（即下发主题）
+     */
+    private String deviceId;
+
+    /**
+     * 期望状态值
+     */
+    private String value;
+
+    /**
+     * 指令来源
+     */
+    private String source;
+
+    /**
+     * 指令状态
+     */
+    private String status;
+
+    /**
+     * 已下发次数
+     */
+    private int attempts;
+
+    /**
+     * 创建时间
+     */
+    private LocalDateTime createTime;
+
+    /**
+     * 最近一次下发时间
+     */
+    private LocalDateTime sentTime;
+
+    /**
+     * 确认时间
+     */
+    private LocalDateTime ackTime;
+
+    public static ActuatorCommandVO create(String deviceId, String value, String source) {
+        return ActuatorCommandVO.builder()
+                .commandId(UUID.randomUUID().toString())
+                .deviceId(deviceId)
+                .value(value)
+                .source(source)
+                .status(STATUS_PENDING)
+                .attempts(0)
+                .createTime(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,83 @@
+package com.ling.domain.sensor.service.actuator;
+
+import com.ling.domain.sensor.model.valobj.ActuatorCommandVO;
+import com.ling.domain.sensor.model.valobj.SensorMessageVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @Author: LingRJ
+ * @Description: 告警联动（闭环控制），根据传感器状态直接驱动风扇、LED，无需经过HTTP接口
+ * @DateTime: 2025/7/20
+ **/
+@Component
+@Slf4j
+public class ActuatorLinkageService {
+
+    /**
+     * 联动规则
+     * @param deviceType 联动设备类型
+     * @param alertValue 告警时的期望状态
+     * @param restoreValue 全部恢复正常后的期望状态，为null时不自动恢复
+     */
+    private record LinkageRule(String deviceType, String alertValue, String restoreValue) {
+    }
+
+    // 传感器类型与联动规则的映射：温湿度、气体异常开启风扇，光照过强关闭LED
+    private static final Map<String, LinkageRule> LINKAGE_RULES = Map.of(
+            "temp", new LinkageRule("fan", "1", "0"),
+            "hum", new LinkageRule("fan", "1", "0"),
+            "gas", new LinkageRule("fan", "1", "0"),
+            "intensity", new LinkageRule("led", "0", null)
+    );
+
+    @Autowired
+    private IActuatorCommandService actuatorCommandService;
+
+    @Value("${actuator.closed-loop.enabled:false}")
+    private boolean enabled;
+
+    // 设备类型 -> 当前处于告警状态的传感器
+    private final Map<String, Set<String>> activeTriggers = new ConcurrentHashMap<>();
+
+    /**
+     * 处理已完成校验的传感器数据
+     * @param message 传感器消息
+     */
+    public void onSensorData(SensorMessageVO message) {
+        if (!enabled || message.getSensorType() == null) {
+            return;
+        }
+
+        LinkageRule rule = LINKAGE_RULES.get(message.getSensorType());
+        if (rule == null) {
+            return;
+        }
+
+        String deviceId = actuatorCommandService.resolveDeviceId(rule.deviceType());
+        if (deviceId == null) {
+            return;
+        }
+
+        Set<String> triggers = activeTriggers.computeIfAbsent(rule.deviceType(), k -> ConcurrentHashMap.newKeySet());
+        String triggerKey = message.getSensorType() + ":" + message.getSensorId();
+        boolean abnormal = message.getStatus() != null && message.getStatus() > 0;
+        boolean changed = abnormal ? triggers.add(triggerKey) : triggers.remove(triggerKey);
+        if (!changed) {
+            return;
+        }
+
+        String desired = triggers.isEmpty() ? rule.restoreValue() : rule.alertValue();
+        if (desired != null) {
+            actuatorCommandService.submit(deviceId, desired, ActuatorCommandVO.SOURCE_CLOSED_LOOP);
+            log.info("告警联动: 传感器 {} {}，设备 {} 期望状态 {}",
+                    triggerKey, abnormal ? "异常" : "恢复", deviceId, desired);
+        }
+    }
+}
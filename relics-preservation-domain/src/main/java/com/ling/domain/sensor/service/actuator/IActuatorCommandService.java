@@ -0,0 +1,49 @@
+package com.ling.domain.sensor.service.actuator;
+
+import com.ling.domain.sensor.model.valobj.ActuatorCommandVO;
+
+import java.util.Optional;
+
+/**
+ * @Author: LingRJ
+ * @Description: 执行器指令服务，同一设备的连续指令合并为最新期望状态后异步下发
+ * @DateTime: 2025/7/20
+ **/
+public interface IActuatorCommandService {
+
+    /**
+     * 根据设备类型解析设备ID
+     * @param deviceType 设备类型，如 fan、led
+     * @return 设备ID，未知类型返回null
+     */
+    String resolveDeviceId(String deviceType);
+
+    /**
+     * 提交期望状态，尚未下发的旧指令会被覆盖
+     * @param deviceId 设备ID
+     * @param value 期望状态值
+     * @param source 指令来源
+     * @return 指令ID
+     */
+    String submit(String deviceId, String value, String source);
+
+    /**
+     * 处理设备确认
+     * @param deviceId 设备ID
+     * @param value 设备回报的状态值，为null时不校验
+     * @return 是否匹配到在途指令
+     */
+    boolean acknowledge(String deviceId, String value);
+
+    /**
+     * 查询设备最近的指令状态
+     * @param deviceId 设备ID
+     * @return 指令状态
+     */
+    Optional<ActuatorCommandVO> getCommandStatus(String deviceId);
+
+    /**
+     * 下发待处理指令并检查超时
+     */
+    void flush();
+}
@@ -0,0 +1,188 @@
+package com.ling.domain.sensor.service.actuator.impl;
+
+import com.ling.domain.sensor.adapter.IActuatorCommandPublisher;
+import com.ling.domain.sensor.model.valobj.ActuatorCommandVO;
+import com.ling.domain.sensor.service.actuator.IActuatorCommandService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @Author: LingRJ
+ * @Description: 执行器指令服务实现
+ * 1. 合并：未下发的指令按设备只保留最新期望状态
+ * 2. 限流：同一设备同时只有一条在途指令，全局在途数量受 max-in-flight 限制
+ * 3. 确认：在途指令等待设备回执，超时后重试，超过重试次数标记为超时
+ * @DateTime: 2025/7/20
+ **/
+@Service
+@Slf4j
+public class ActuatorCommandServiceImpl implements IActuatorCommandService {
+
+    // 设备类型与设备ID（下发主题）的映射
+    private static final Map<String, String> DEVICE_IDS = Map.of(
+            "fan", "fan_1",
+            "led", "led_1"
+    );
+
+    @Autowired
+    private IActuatorCommandPublisher commandPublisher;
+
+    @Value("${actuator.command.max-in-flight:8}")
+    private int maxInFlight = 8;
+
+    @Value("${actuator.command.ack-timeout:3000}")
+    private long ackTimeoutMs = 3000;
+
+    @Value("${actuator.command.max-retries:2}")
+    private int maxRetries = 2;
+
+    // 待下发指令（每个设备只保留最新一条）
+    private final Map<String, ActuatorCommandVO> pendingCommands = new ConcurrentHashMap<>();
+
+    // 在途指令（已下发，等待确认）
+    private final Map<String, ActuatorCommandVO> inFlightCommands = new ConcurrentHashMap<>();
+
+    // 设备最近一次完成的指令（已确认或超时）
+    private final Map<String, ActuatorCommandVO> completedCommands = new ConcurrentHashMap<>();
+
+    @Override
+    public String resolveDeviceId(String deviceType) {
+        return deviceType == null ? null : DEVICE_IDS.get(deviceType);
+    }
+
+    @Override
+    public String submit(String deviceId, String value, String source) {
+        ActuatorCommandVO command = ActuatorCommandVO.create(deviceId, value, source);
+        ActuatorCommandVO replaced = pendingCommands.put(deviceId, command);
+        if (replaced != null) {
+            log.debug("合并设备 {} 的待下发指令: {} -> {}", deviceId, replaced.getValue(), value);
+        }
+        return command.getCommandId();
+    }
+
+    @Override
+    public boolean acknowledge(String deviceId, String value) {
+        ActuatorCommandVO command = inFlightCommands.get(deviceId);
+        if (command == null || (value != null && !value.equals(command.getValue()))) {
+            log.debug("设备 {} 的回执未匹配到在途指令, value: {}", deviceId, value);
+            return false;
+        }
+        if (!inFlightCommands.remove(deviceId, command)) {
+            return false;
+        }
+
+        command.setStatus(ActuatorCommandVO.STATUS_ACKED);
+        command.setAckTime(LocalDateTime.now());
+        completedCommands.put(deviceId, command);
+        log.debug("设备 {} 确认指令 {}, value: {}", deviceId, command.getCommandId(), value);
+        return true;
+    }
+
+    @Override
+    public Optional<ActuatorCommandVO> getCommandStatus(String deviceId) {
+        ActuatorCommandVO command = pendingCommands.get(deviceId);
+        if (command == null) {
+            command = inFlightCommands.get(deviceId);
+        }
+        if (command == null) {
+            command = completedCommands.get(deviceId);
+        }
+        return Optional.ofNullable(command);
+    }
+
+    /**
+     * 定时下发待处理指令，刷新间隔即合并窗口
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${actuator.command.flush-interval:200}")
+    public synchronized void flush() {
+        try {
+            checkTimeouts();
+            dispatchPending();
+        } catch (Exception e) {
+            log.error("下发执行器指令失败: {}", e.getMessage(), e);
+        }
+    }
+
+    private void dispatchPending() {
+        if (pendingCommands.isEmpty()) {
+            return;
+        }
+
+        List<String> deviceIds = new ArrayList<>(pendingCommands.keySet());
+        for (String deviceId : deviceIds) {
+            if (inFlightCommands.size() >= maxInFlight) {
+                log.debug("在途指令已达上限 {}，剩余指令等待下次下发", maxInFlight);
+                return;
+            }
+            // 同一设备有在途指令时继续合并，等待确认或超时
+            if (inFlightCommands.containsKey(deviceId)) {
+                continue;
+            }
+
+            ActuatorCommandVO command = pendingCommands.remove(deviceId);
+            if (command == null) {
+                continue;
+            }
+
+            // 与设备已确认的状态一致，无需下发
+            ActuatorCommandVO completed = completedCommands.get(deviceId);
+            if (command.getAttempts() == 0 && completed != null
+                    && ActuatorCommandVO.STATUS_ACKED.equals(completed.getStatus())
+                    && command.getValue().equals(completed.getValue())) {
+                log.debug("设备 {} 已处于状态 {}，跳过下发", deviceId, command.getValue());
+                continue;
+            }
+
+            if (commandPublisher.publish(deviceId, command.getValue())) {
+                command.setStatus(ActuatorCommandVO.STATUS_SENT);
+                command.setSentTime(LocalDateTime.now());
+                command.setAttempts(command.getAttempts() + 1);
+                inFlightCommands.put(deviceId, command);
+            } else {
+                // 下发失败时放回，期间若有新指令则以新指令为准
+                pendingCommands.putIfAbsent(deviceId, command);
+            }
+        }
+    }
+
+    private void checkTimeouts() {
+        if (inFlightCommands.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime deadline = LocalDateTime.now().minus(Duration.ofMillis(ackTimeoutMs));
+        Iterator<Map.Entry<String, ActuatorCommandVO>> iterator = inFlightCommands.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, ActuatorCommandVO> entry = iterator.next();
+            ActuatorCommandVO command = entry.getValue();
+            if (command.getSentTime() == null || command.getSentTime().isAfter(deadline)) {
+                continue;
+            }
+            if (!inFlightCommands.remove(entry.getKey(), command)) {
+                continue;
+            }
+
+            if (command.getAttempts() <= maxRetries && pendingCommands.putIfAbsent(entry.getKey(), command) == null) {
+                log.warn("设备 {} 指令 {} 确认超时，准备第 {} 次重试", entry.getKey(), command.getCommandId(), command.getAttempts());
+                continue;
+            }
+
+            command.setStatus(ActuatorCommandVO.STATUS_TIMEOUT);
+            completedCommands.put(entry.getKey(), command);
+            log.warn("设备 {} 指令 {} 确认超时，已下发 {} 次", entry.getKey(), command.getCommandId(), command.getAttempts());
+        }
+    }
+}
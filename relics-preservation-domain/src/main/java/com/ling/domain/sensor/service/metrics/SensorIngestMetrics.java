@@ -0,0 +1,145 @@
+package com.ling.domain.sensor.service.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @Author: LingRJ
+ * @Description: 传感器数据接入指标
+ *               各处理阶段耗时（sensor.ingest.stage）、计数（sensor.ingest.*）、队列深度（sensor.ingest.queue.size），
+ *               通过 /actuator/prometheus 暴露
+ * @DateTime: 2025/7/20
+ **/
+@Component
+public class SensorIngestMetrics {
+
+    /**
+     * 处理阶段
+     */
+    public enum Stage {
+        /** MQTT消息接收到提交管道 */
+        RECEIVE,
+        /** 消息解析 */
+        PARSE,
+        /** 提交管道到开始处理的等待 */
+        DISPATCH_WAIT,
+        /** 数据校验 */
+        VALIDATE,
+        /** 告警处理 */
+        ALERT,
+        /** WebSocket推送 */
+        WEBSOCKET,
+        /** 持久化队列等待 */
+        QUEUE_WAIT,
+        /** 批量入库 */
+        DB_FLUSH
+    }
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<Stage, Timer> stageTimers = new EnumMap<>(Stage.class);
+
+    private final LongAdder received = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder parseFailures = new LongAdder();
+    private final LongAdder processFailures = new LongAdder();
+    private final LongAdder dataPoints = new LongAdder();
+    private final LongAdder alerts = new LongAdder();
+    private final LongAdder flushedRows = new LongAdder();
+    private final LongAdder flushFailures = new LongAdder();
+
+    @Autowired
+    public SensorIngestMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+
+        for (Stage stage : Stage.values()) {
+            stageTimers.put(stage, Timer.builder("sensor.ingest.stage")
+                    .description("传感器数据各处理阶段耗时")
+                    .tag("stage", stage.name().toLowerCase())
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofNanos(10_000))
+                    .maximumExpectedValue(Duration.ofSeconds(60))
+                    .register(meterRegistry));
+        }
+
+        registerCounter("sensor.ingest.messages", "接收的MQTT消息数", received);
+        registerCounter("sensor.ingest.duplicates", "忽略的重复消息数", duplicates);
+        registerCounter("sensor.ingest.parse.failures", "解析失败的消息数", parseFailures);
+        registerCounter("sensor.ingest.process.failures", "解析成功但提交处理管道失败的消息数", processFailures);
+        registerCounter("sensor.ingest.datapoints", "解析出的传感器数据条数", dataPoints);
+        registerCounter("sensor.ingest.alerts", "生成的告警数", alerts);
+        registerCounter("sensor.ingest.flushed", "批量入库的数据条数", flushedRows);
+        registerCounter("sensor.ingest.flush.failures", "批量入库失败次数", flushFailures);
+    }
+
+    private void registerCounter(String name, String description, LongAdder adder) {
+        FunctionCounter.builder(name, adder, LongAdder::sum)
+                .description(description)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 注册队列深度指标
+     * @param queue 队列名称
+     * @param collection 队列
+     */
+    public void registerQueue(String queue, Collection<?> collection) {
+        Gauge.builder("sensor.ingest.queue.size", collection, Collection::size)
+                .description("传感器数据处理队列深度")
+                .tag("queue", queue)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 记录阶段耗时
+     * @param stage 处理阶段
+     * @param startNanos 开始时间（System.nanoTime）
+     */
+    public void recordSince(Stage stage, long startNanos) {
+        stageTimers.get(stage).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void incrementReceived() {
+        received.increment();
+    }
+
+    public void incrementDuplicates() {
+        duplicates.increment();
+    }
+
+    public void incrementParseFailures() {
+        parseFailures.increment();
+    }
+
+    public void incrementProcessFailures() {
+        processFailures.increment();
+    }
+
+    public void addDataPoints(int count) {
+        dataPoints.add(count);
+    }
+
+    public void incrementAlerts() {
+        alerts.increment();
+    }
+
+    public void addFlushedRows(int count) {
+        flushedRows.add(count);
+    }
+
+    public void incrementFlushFailures() {
+        flushFailures.increment();
+    }
+}
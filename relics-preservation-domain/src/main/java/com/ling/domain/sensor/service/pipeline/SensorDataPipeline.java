@@ -2,13 +2,17 @@ package com.ling.domain.sensor.service.pipeline;
 
 import com.ling.domain.sensor.model.valobj.AlertMessageVO;
 import com.ling.domain.sensor.model.valobj.SensorMessageVO;
+import com.ling.domain.sensor.service.actuator.ActuatorLinkageService;
 import com.ling.domain.sensor.service.core.ISensorDataService;
 import com.ling.domain.sensor.service.message.validation.ISensorValidator;
 import com.ling.domain.sensor.service.message.validation.ValidatorFactory;
+import com.ling.domain.sensor.service.metrics.SensorIngestMetrics;
+import com.ling.domain.sensor.service.metrics.SensorIngestMetrics.Stage;
 import com.ling.domain.sensor.service.notification.NotificationService;
 import com.ling.domain.sensor.service.notification.model.AlertNotification;
 import com.ling.domain.sensor.service.notification.impl.WebSocketAlertNotificationService;
 import com.ling.domain.sensor.service.notification.model.SensorNotification;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -21,8 +25,9 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @Author: LingRJ
@@ -43,10 +48,23 @@ public class SensorDataPipeline {
     @Autowired
     @Qualifier("webSocketSensorDataService")
     private NotificationService<SensorNotification> sensorDataNotificationService;
+
+    @Autowired
+    private ActuatorLinkageService actuatorLinkageService;
+
+    @Autowired
+    private SensorIngestMetrics ingestMetrics;
+
+    /**
+     * 持久化队列元素，记录入队时间用于统计队列等待
+     */
+    private record QueuedData(SensorMessageVO message, long enqueuedAt) {
+    }
     
-    private final ConcurrentLinkedQueue<SensorMessageVO> dataQueue = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<QueuedData> dataQueue = new ConcurrentLinkedQueue<>();
     
-    private final ExecutorService processorPool = Executors.newFixedThreadPool(2);
+    private final ThreadPoolExecutor processorPool = new ThreadPoolExecutor(2, 2,
+            0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
     
     @Value("${sensor.data.batch.size:100}")
     private int batchSize;
@@ -54,6 +72,12 @@ public class SensorDataPipeline {
     @Value("${sensor.data.batch.interval:30000}")
     private long batchIntervalMs;
 
+    @PostConstruct
+    public void registerMetrics() {
+        ingestMetrics.registerQueue("processor", processorPool.getQueue());
+        ingestMetrics.registerQueue("persist", dataQueue);
+    }
+
     /**
      * 处理传感器数据流水线入口
      * @param messages 传感器消息列表
@@ -64,24 +88,36 @@ public class SensorDataPipeline {
         }
         
         // 异步处理数据
+        long submittedAt = System.nanoTime();
         processorPool.submit(() -> {
+            ingestMetrics.recordSince(Stage.DISPATCH_WAIT, submittedAt);
             for (SensorMessageVO message : messages) {
                 // 1. 验证数据并设置状态
+                long start = System.nanoTime();
                 validateAndEnrichData(message);
+                ingestMetrics.recordSince(Stage.VALIDATE, start);
                 
                 // 2. 处理告警
                 if (message.getStatus() != null && message.getStatus() > 0) {
+                    start = System.nanoTime();
                     processAlert(message);
+                    ingestMetrics.recordSince(Stage.ALERT, start);
+                    ingestMetrics.incrementAlerts();
                 }
+
+                // 3. 告警联动执行器
+                actuatorLinkageService.onSensorData(message);
                 
-                // 3. 发送WebSocket传感器数据通知
+                // 4. 发送WebSocket传感器数据通知
+                start = System.nanoTime();
                 sendSensorDataNotification(message);
+                ingestMetrics.recordSince(Stage.WEBSOCKET, start);
                 
-                // 4. 将数据放入持久化队列
-                dataQueue.offer(message);
+                // 5. 将数据放入持久化队列
+                dataQueue.offer(new QueuedData(message, System.nanoTime()));
             }
             
-            // 5. 达到批次大小时立即处理
+            // 6. 达到批次大小时立即处理
             if (dataQueue.size() >= batchSize) {
                 processBatch();
             }
@@ -184,13 +220,23 @@ public class SensorDataPipeline {
         }
         
         List<SensorMessageVO> batch = new ArrayList<>();
-        SensorMessageVO data;
+        QueuedData data;
         while ((data = dataQueue.poll()) != null) {
-            batch.add(data);
+            ingestMetrics.recordSince(Stage.QUEUE_WAIT, data.enqueuedAt());
+            batch.add(data.message());
         }
         
         if (!batch.isEmpty()) {
-            sensorDataService.batchSaveSensorData(batch);
+            long start = System.nanoTime();
+            try {
+                sensorDataService.batchSaveSensorData(batch);
+                ingestMetrics.addFlushedRows(batch.size());
+            } catch (RuntimeException e) {
+                ingestMetrics.incrementFlushFailures();
+                throw e;
+            } finally {
+                ingestMetrics.recordSince(Stage.DB_FLUSH, start);
+            }
             log.info("批量保存传感器数据 {} 条", batch.size());
         }
     }
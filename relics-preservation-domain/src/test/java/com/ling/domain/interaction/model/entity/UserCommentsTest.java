@@ -1,6 +1,8 @@
 package com.ling.domain.interaction.model.entity;
 
 import com.ling.domain.interaction.model.valobj.CommentAction;
+import com.ling.domain.interaction.model.valobj.CommentContent;
+import com.ling.domain.interaction.model.valobj.CommentStatus;
 import com.ling.domain.interaction.model.valobj.InteractionResult;
 import com.ling.domain.user.model.valobj.Username;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,6 +12,7 @@ import org.junit.jupiter.api.Test;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -278,4 +281,44 @@ class UserCommentsTest {
             userComments.addComment(relicsId, "很长的评论内容".repeat(10));
         });
     }
+
+    @Test
+    @DisplayName("按需加载 - 分页与计数直接查询，删除只加载目标评论")
+    void testLazyComments() {
+        // Given
+        Long relicsId = 1L;
+        CommentAction stored = CommentAction.fromDatabase(100L, relicsId, CommentContent.of("已保存的评论"),
+                LocalDateTime.now(), LocalDateTime.now(), CommentStatus.APPROVED, false);
+        UserComments lazy = UserComments.lazy(testUsername, 25, 3L, new UserComments.CommentLookup() {
+            @Override
+            public Optional<CommentAction> findActive(Username username, Long commentId) {
+                return commentId.equals(100L) ? Optional.of(stored) : Optional.empty();
+            }
+
+            @Override
+            public List<CommentAction> findPage(Username username, Long id, int offset, int limit) {
+                return offset == 0 ? List.of(stored) : List.of();
+            }
+
+            @Override
+            public long count(Username username, Long id) {
+                return 1L;
+            }
+        });
+
+        // When & Then - 分页与计数
+        assertTrue(lazy.isLazy());
+        assertEquals(1, lazy.getComments(relicsId, 0, 10).size());
+        assertTrue(lazy.getComments(relicsId, 10, 10).isEmpty());
+        assertEquals(1L, lazy.countComments(relicsId));
+        assertEquals(25L, lazy.countComments(null));
+        assertThrows(IllegalStateException.class, () -> lazy.getComments(relicsId));
+
+        // When & Then - 删除
+        assertTrue(lazy.deleteComment(100L).isSuccess());
+        assertFalse(lazy.deleteComment(100L).isSuccess());
+        assertFalse(lazy.deleteComment(999L).isSuccess());
+        assertEquals(24L, lazy.countComments(null));
+        assertEquals(1, lazy.getCommentChanges().size());
+    }
 }
@@ -1,5 +1,6 @@
 package com.ling.domain.interaction.model.entity;
 
+import com.ling.domain.interaction.model.valobj.FavoriteAction;
 import com.ling.domain.interaction.model.valobj.InteractionResult;
 import com.ling.domain.user.model.valobj.Username;
 import org.junit.jupiter.api.BeforeEach;
@@ -9,6 +10,7 @@ import org.junit.jupiter.api.Test;
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -311,4 +313,43 @@ class UserFavoritesTest {
         assertEquals(0, userFavorites.getFavoritedRelicsIds().size());
         assertFalse(userFavorites.getFavoritedRelicsIds().contains(relicsId));
     }
+
+    @Test
+    @DisplayName("按需加载 - 单条查询后取消收藏并维护收藏数")
+    void testLazyRemoveFavorite() {
+        // Given
+        Long relicsId = 1L;
+        UserFavorites lazy = UserFavorites.lazy(testUsername, 3, 5L,
+                (username, id) -> id.equals(relicsId)
+                        ? Optional.of(FavoriteAction.fromDatabase(id, LocalDateTime.now(), false))
+                        : Optional.empty());
+
+        // When
+        InteractionResult result = lazy.removeFavorite(relicsId);
+
+        // Then
+        assertTrue(lazy.isLazy());
+        assertTrue(result.isSuccess());
+        assertFalse(lazy.isFavorited(relicsId));
+        assertEquals(2, lazy.getFavoriteCount());
+        assertEquals(1, lazy.getFavoriteChanges().size());
+        assertFalse(lazy.removeFavorite(2L).isSuccess());
+    }
+
+    @Test
+    @DisplayName("按需加载 - 已收藏时不重复添加，全量读取被拒绝")
+    void testLazyAddFavorite() {
+        // Given
+        UserFavorites lazy = UserFavorites.lazy(testUsername, 1, 1L,
+                (username, id) -> Optional.of(FavoriteAction.fromDatabase(id, LocalDateTime.now(), false)));
+
+        // When
+        InteractionResult result = lazy.addFavorite(1L);
+
+        // Then
+        assertFalse(result.isSuccess());
+        assertEquals(1, lazy.getFavoriteCount());
+        assertFalse(lazy.hasChanges());
+        assertThrows(IllegalStateException.class, lazy::getFavoritedRelicsIds);
+    }
 }
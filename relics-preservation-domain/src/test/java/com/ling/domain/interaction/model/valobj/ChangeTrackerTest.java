@@ -0,0 +1,106 @@
+package com.ling.domain.interaction.model.valobj;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ChangeTracker单元测试
+ * @Author: LingRJ
+ * @Description: 测试变更跟踪器按实体归并变更与分类型计数
+ * @DateTime: 2025/7/20
+ */
+@DisplayName("变更跟踪器测试")
+class ChangeTrackerTest {
+
+    private ChangeTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new ChangeTracker();
+    }
+
+    @Test
+    @DisplayName("新增后删除 - 抵消为无变更")
+    void testAddThenDeleteCancels() {
+        // When
+        tracker.recordAdd("FAVORITE", 1L, "a");
+        tracker.recordDelete("FAVORITE", 1L, "a");
+
+        // Then
+        assertFalse(tracker.isHasChanges());
+        assertEquals(0, tracker.getChangeCount());
+        assertEquals(0, tracker.getChangeCount("FAVORITE"));
+        assertFalse(tracker.hasChanges(ChangeTracker.ChangeType.ADDED));
+        assertTrue(tracker.getChangesByType("FAVORITE").isEmpty());
+    }
+
+    @Test
+    @DisplayName("多次修改 - 只保留最新实体")
+    void testModifyKeepsLatest() {
+        // When
+        tracker.recordModify("GALLERY", "g1", "v1");
+        tracker.recordModify("GALLERY", "g1", "v2");
+
+        // Then
+        Set<ChangeTracker.ChangeRecord> changes = tracker.getChangesByType("GALLERY");
+        assertEquals(1, changes.size());
+        ChangeTracker.ChangeRecord record = changes.iterator().next();
+        assertEquals(ChangeTracker.ChangeType.MODIFIED, record.getType());
+        assertEquals("v2", record.getEntity());
+    }
+
+    @Test
+    @DisplayName("新增后修改 - 仍为新增，实体为最新")
+    void testAddThenModifyStaysAdded() {
+        // When
+        tracker.recordAdd("GALLERY", "g1", "v1");
+        tracker.recordModify("GALLERY", "g1", "v2");
+
+        // Then
+        ChangeTracker.ChangeRecord record = tracker.getChangesByType("GALLERY").iterator().next();
+        assertEquals(ChangeTracker.ChangeType.ADDED, record.getType());
+        assertEquals("v2", record.getEntity());
+        assertTrue(tracker.hasChanges(ChangeTracker.ChangeType.ADDED));
+        assertFalse(tracker.hasChanges(ChangeTracker.ChangeType.MODIFIED));
+    }
+
+    @Test
+    @DisplayName("删除后重新新增 - 归并为修改")
+    void testDeleteThenAddBecomesModify() {
+        // When
+        tracker.recordDelete("FAVORITE", 1L, "old");
+        tracker.recordAdd("FAVORITE", 1L, "new");
+
+        // Then
+        assertEquals(1, tracker.getChangeCount());
+        assertEquals(1, tracker.getChanges("FAVORITE", ChangeTracker.ChangeType.MODIFIED).size());
+        assertFalse(tracker.hasChanges(ChangeTracker.ChangeType.DELETED));
+    }
+
+    @Test
+    @DisplayName("按实体类型分组计数")
+    void testCountsByType() {
+        // When
+        tracker.recordAdd("FAVORITE", 1L, "a");
+        tracker.recordAdd("FAVORITE", 2L, "b");
+        tracker.recordAdd("COMMENT", 1L, "c");
+        tracker.recordDelete("COMMENT", 2L, "d");
+
+        // Then
+        assertEquals(4, tracker.getChangeCount());
+        assertEquals(2, tracker.getChangeCount("FAVORITE"));
+        assertEquals(2, tracker.getChangeCount("COMMENT"));
+        assertFalse(tracker.hasChanges("GALLERY"));
+        assertEquals(1, tracker.getChangesByChangeType(ChangeTracker.ChangeType.DELETED).size());
+        assertEquals(4, tracker.getAllChanges().size());
+
+        tracker.clearChanges();
+        assertFalse(tracker.isHasChanges());
+        assertFalse(tracker.hasChanges(ChangeTracker.ChangeType.ADDED));
+    }
+}
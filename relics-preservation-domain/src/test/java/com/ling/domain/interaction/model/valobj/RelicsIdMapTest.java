@@ -0,0 +1,102 @@
+package com.ling.domain.interaction.model.valobj;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * RelicsIdMap单元测试
+ * @Author: LingRJ
+ * @Description: 测试文物ID开放寻址表的读写、删除回填与有序键缓存
+ * @DateTime: 2025/7/20
+ */
+@DisplayName("文物ID映射测试")
+class RelicsIdMapTest {
+
+    @Test
+    @DisplayName("写入与查询 - 覆盖已有键返回原值")
+    void testPutAndGet() {
+        // Given
+        RelicsIdMap<String> map = new RelicsIdMap<>();
+
+        // When
+        assertNull(map.put(7L, "a"));
+        String previous = map.put(7L, "b");
+
+        // Then
+        assertEquals("a", previous);
+        assertEquals("b", map.get(7L));
+        assertEquals(1, map.size());
+        assertTrue(map.containsKey(7L));
+        assertFalse(map.containsKey(8L));
+        assertNull(map.get(0L));
+    }
+
+    @Test
+    @DisplayName("非法文物ID - 拒绝写入")
+    void testPutRejectsNonPositiveId() {
+        RelicsIdMap<String> map = new RelicsIdMap<>();
+
+        assertThrows(IllegalArgumentException.class, () -> map.put(0L, "a"));
+        assertThrows(IllegalArgumentException.class, () -> map.put(-1L, "a"));
+    }
+
+    @Test
+    @DisplayName("随机写入与删除 - 与 HashMap 结果一致")
+    void testRandomOperationsMatchHashMap() {
+        // Given
+        RelicsIdMap<Long> map = new RelicsIdMap<>();
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        // When：键集中在小范围内，触发探测链冲突、扩容与删除回填
+        for (int i = 0; i < 20000; i++) {
+            long relicsId = 1 + random.nextInt(512);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(relicsId), map.remove(relicsId));
+            } else {
+                assertEquals(expected.put(relicsId, (long) i), map.put(relicsId, (long) i));
+            }
+        }
+
+        // Then
+        assertEquals(expected.size(), map.size());
+        for (long relicsId = 1; relicsId <= 512; relicsId++) {
+            assertEquals(expected.get(relicsId), map.get(relicsId));
+        }
+        List<Long> values = new ArrayList<>(map.values());
+        assertEquals(expected.size(), values.size());
+        assertTrue(values.containsAll(expected.values()));
+    }
+
+    @Test
+    @DisplayName("有序键 - 结构不变时复用，变化后重建")
+    void testSortedKeys() {
+        // Given
+        RelicsIdMap<String> map = new RelicsIdMap<>();
+        map.put(30L, "c");
+        map.put(10L, "a");
+        map.put(20L, "b");
+
+        // When
+        RelicsIds sorted = map.sortedKeys();
+
+        // Then
+        assertEquals(List.of(10L, 20L, 30L), sorted.asList());
+        assertTrue(sorted.contains(20L));
+        assertSame(sorted, map.sortedKeys());
+
+        map.put(20L, "b2");
+        assertSame(sorted, map.sortedKeys());
+
+        map.remove(10L);
+        assertEquals(List.of(20L, 30L), map.sortedKeys().asList());
+    }
+}
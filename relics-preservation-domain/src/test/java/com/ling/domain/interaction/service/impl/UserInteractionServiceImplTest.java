@@ -1,5 +1,6 @@
 package com.ling.domain.interaction.service.impl;
 
+import com.ling.domain.interaction.adapter.AggregateVersionConflictException;
 import com.ling.domain.interaction.adapter.IGalleryManagerRepository;
 import com.ling.domain.interaction.adapter.IUserCommentsRepository;
 import com.ling.domain.interaction.adapter.IUserFavoritesRepository;
@@ -8,6 +9,8 @@ import com.ling.domain.interaction.model.entity.GalleryManager;
 import com.ling.domain.interaction.model.entity.UserComments;
 import com.ling.domain.interaction.model.entity.UserFavorites;
 import com.ling.domain.interaction.model.valobj.InteractionResult;
+import com.ling.domain.interaction.model.valobj.RelicsInteractionSummary;
+import com.ling.domain.interaction.service.IUserInteractionService;
 import com.ling.domain.user.model.valobj.Username;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -17,10 +20,14 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 /**
@@ -61,7 +68,7 @@ class UserInteractionServiceImplTest {
     @DisplayName("添加收藏成功 - 新用户")
     void testAddFavoriteSuccessNewUser() {
         // Given
-        when(userFavoritesRepository.findByUsername(any(Username.class)))
+        when(userFavoritesRepository.findRootByUsername(any(Username.class)))
                 .thenReturn(Optional.empty());
         when(userFavoritesRepository.saveIncremental(any(UserFavorites.class)))
                 .thenReturn(true);
@@ -72,7 +79,7 @@ class UserInteractionServiceImplTest {
         // Then
         assertTrue(result.isSuccess());
         assertEquals("收藏成功", result.getMessage());
-        verify(userFavoritesRepository).findByUsername(Username.of(testUsername));
+        verify(userFavoritesRepository).findRootByUsername(Username.of(testUsername));
         verify(userFavoritesRepository).saveIncremental(any(UserFavorites.class));
     }
 
@@ -81,7 +88,7 @@ class UserInteractionServiceImplTest {
     void testAddFavoriteSuccessExistingUser() {
         // Given
         UserFavorites existingFavorites = UserFavorites.create(Username.of(testUsername));
-        when(userFavoritesRepository.findByUsername(any(Username.class)))
+        when(userFavoritesRepository.findRootByUsername(any(Username.class)))
                 .thenReturn(Optional.of(existingFavorites));
         when(userFavoritesRepository.saveIncremental(any(UserFavorites.class)))
                 .thenReturn(true);
@@ -91,7 +98,7 @@ class UserInteractionServiceImplTest {
 
         // Then
         assertTrue(result.isSuccess());
-        verify(userFavoritesRepository).findByUsername(Username.of(testUsername));
+        verify(userFavoritesRepository).findRootByUsername(Username.of(testUsername));
         verify(userFavoritesRepository).saveIncremental(existingFavorites);
     }
 
@@ -99,7 +106,7 @@ class UserInteractionServiceImplTest {
     @DisplayName("添加收藏失败 - 保存失败")
     void testAddFavoriteFailureSaveError() {
         // Given
-        when(userFavoritesRepository.findByUsername(any(Username.class)))
+        when(userFavoritesRepository.findRootByUsername(any(Username.class)))
                 .thenReturn(Optional.empty());
         when(userFavoritesRepository.saveIncremental(any(UserFavorites.class)))
                 .thenReturn(false);
@@ -119,7 +126,7 @@ class UserInteractionServiceImplTest {
         UserFavorites existingFavorites = UserFavorites.create(Username.of(testUsername));
         existingFavorites.addFavorite(testRelicsId); // 先添加收藏
         
-        when(userFavoritesRepository.findByUsername(any(Username.class)))
+        when(userFavoritesRepository.findRootByUsername(any(Username.class)))
                 .thenReturn(Optional.of(existingFavorites));
         when(userFavoritesRepository.saveIncremental(any(UserFavorites.class)))
                 .thenReturn(true);
@@ -141,7 +148,7 @@ class UserInteractionServiceImplTest {
     @DisplayName("取消收藏失败 - 用户不存在")
     void testRemoveFavoriteFailureUserNotExists() {
         // Given
-        when(userFavoritesRepository.findByUsername(any(Username.class)))
+        when(userFavoritesRepository.findRootByUsername(any(Username.class)))
                 .thenReturn(Optional.empty());
 
         // When
@@ -156,25 +163,23 @@ class UserInteractionServiceImplTest {
     @DisplayName("检查收藏状态 - 已收藏")
     void testIsFavoritedTrue() {
         // Given
-        UserFavorites existingFavorites = UserFavorites.create(Username.of(testUsername));
-        existingFavorites.addFavorite(testRelicsId);
-        
-        when(userFavoritesRepository.findByUsername(any(Username.class)))
-                .thenReturn(Optional.of(existingFavorites));
+        when(userFavoritesRepository.isFavorited(Username.of(testUsername), testRelicsId))
+                .thenReturn(true);
 
         // When
         boolean result = userInteractionService.isFavorited(testUsername, testRelicsId);
 
         // Then
         assertTrue(result);
+        verify(userFavoritesRepository, never()).findByUsername(any(Username.class));
     }
 
     @Test
     @DisplayName("检查收藏状态 - 未收藏")
     void testIsFavoritedFalse() {
         // Given
-        when(userFavoritesRepository.findByUsername(any(Username.class)))
-                .thenReturn(Optional.empty());
+        when(userFavoritesRepository.isFavorited(Username.of(testUsername), testRelicsId))
+                .thenReturn(false);
 
         // When
         boolean result = userInteractionService.isFavorited(testUsername, testRelicsId);
@@ -183,12 +188,100 @@ class UserInteractionServiceImplTest {
         assertFalse(result);
     }
 
+    @Test
+    @DisplayName("获取收藏列表 - 分页在仓储层完成")
+    void testGetUserFavoritesPagedByRepository() {
+        // Given
+        when(userFavoritesRepository.countFavorites(Username.of(testUsername)))
+                .thenReturn(25L);
+        when(userFavoritesRepository.findFavoritedRelicsIds(Username.of(testUsername), 10, 10))
+                .thenReturn(List.of(15L, 14L, 13L, 12L, 11L, 10L, 9L, 8L, 7L, 6L));
+
+        // When
+        IUserInteractionService.FavoriteListResult result =
+                userInteractionService.getUserFavorites(testUsername, 2, 10);
+
+        // Then
+        assertEquals(25, result.total());
+        assertEquals(10, result.favorites().size());
+        assertEquals(15L, result.favorites().get(0).getRelicsId());
+        assertTrue(result.hasNext());
+        verify(userFavoritesRepository, never()).findByUsername(any(Username.class));
+    }
+
+    @Test
+    @DisplayName("获取收藏列表 - 最后一页")
+    void testGetUserFavoritesLastPage() {
+        // Given
+        when(userFavoritesRepository.countFavorites(Username.of(testUsername)))
+                .thenReturn(12L);
+        when(userFavoritesRepository.findFavoritedRelicsIds(Username.of(testUsername), 10, 10))
+                .thenReturn(List.of(2L, 1L));
+
+        // When
+        IUserInteractionService.FavoriteListResult result =
+                userInteractionService.getUserFavorites(testUsername, 2, 10);
+
+        // Then
+        assertEquals(12, result.total());
+        assertEquals(2, result.favorites().size());
+        assertFalse(result.hasNext());
+    }
+
+    @Test
+    @DisplayName("获取收藏列表 - 无收藏时不查询分页")
+    void testGetUserFavoritesEmpty() {
+        // Given
+        when(userFavoritesRepository.countFavorites(Username.of(testUsername)))
+                .thenReturn(0L);
+
+        // When
+        IUserInteractionService.FavoriteListResult result =
+                userInteractionService.getUserFavorites(testUsername, 1, 10);
+
+        // Then
+        assertEquals(0, result.total());
+        assertTrue(result.favorites().isEmpty());
+        verify(userFavoritesRepository, never()).findFavoritedRelicsIds(any(Username.class), anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("批量获取文物交互概要 - 去重后一次查询仓储")
+    void testGetRelicsInteractionSummariesDeduplicated() {
+        // Given
+        RelicsInteractionSummary summary = RelicsInteractionSummary.builder()
+                .relicsId(1L).favorited(true).favoriteCount(3L).commentCount(5L).build();
+        when(userInteractionRepository.batchGetRelicsInteractionSummaries(Username.of(testUsername), List.of(1L, 2L)))
+                .thenReturn(Map.of(1L, summary));
+
+        // When
+        Map<Long, RelicsInteractionSummary> result =
+                userInteractionService.getRelicsInteractionSummaries(testUsername, List.of(1L, 2L, 1L));
+
+        // Then
+        assertSame(summary, result.get(1L));
+        verify(userInteractionRepository, times(1))
+                .batchGetRelicsInteractionSummaries(any(Username.class), anyList());
+    }
+
+    @Test
+    @DisplayName("批量获取文物交互概要 - 空列表不查询")
+    void testGetRelicsInteractionSummariesEmpty() {
+        // When
+        Map<Long, RelicsInteractionSummary> result =
+                userInteractionService.getRelicsInteractionSummaries(testUsername, List.of());
+
+        // Then
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(userInteractionRepository);
+    }
+
     @Test
     @DisplayName("添加评论成功 - 新用户")
     void testAddCommentSuccessNewUser() {
         // Given
         String content = "这是一个很棒的文物！";
-        when(userCommentsRepository.findByUsername(any(Username.class)))
+        when(userCommentsRepository.findRootByUsername(any(Username.class)))
                 .thenReturn(Optional.empty());
         when(userCommentsRepository.saveIncremental(any(UserComments.class)))
                 .thenReturn(true);
@@ -199,7 +292,7 @@ class UserInteractionServiceImplTest {
         // Then
         assertTrue(result.isSuccess());
         assertEquals("评论成功", result.getMessage());
-        verify(userCommentsRepository).findByUsername(Username.of(testUsername));
+        verify(userCommentsRepository).findRootByUsername(Username.of(testUsername));
     }
 
     @Test
@@ -208,7 +301,7 @@ class UserInteractionServiceImplTest {
         // Given
         String content = "这是一个很棒的文物！";
         UserComments existingComments = UserComments.create(Username.of(testUsername));
-        when(userCommentsRepository.findByUsername(any(Username.class)))
+        when(userCommentsRepository.findRootByUsername(any(Username.class)))
                 .thenReturn(Optional.of(existingComments));
         when(userCommentsRepository.saveIncremental(any(UserComments.class)))
                 .thenReturn(true);
@@ -218,7 +311,7 @@ class UserInteractionServiceImplTest {
 
         // Then
         assertTrue(result.isSuccess());
-        verify(userCommentsRepository).findByUsername(Username.of(testUsername));
+        verify(userCommentsRepository).findRootByUsername(Username.of(testUsername));
         verify(userCommentsRepository).saveIncremental(existingComments);
     }
 
@@ -230,7 +323,7 @@ class UserInteractionServiceImplTest {
         UserComments existingComments = UserComments.create(Username.of(testUsername));
         existingComments.addComment(testRelicsId, "测试评论");
         
-        when(userCommentsRepository.findByUsername(any(Username.class)))
+        when(userCommentsRepository.findRootByUsername(any(Username.class)))
                 .thenReturn(Optional.of(existingComments));
         when(userCommentsRepository.saveIncremental(any(UserComments.class)))
                 .thenReturn(true);
@@ -248,7 +341,7 @@ class UserInteractionServiceImplTest {
     void testDeleteCommentFailureUserNotExists() {
         // Given
         Long commentId = 1L;
-        when(userCommentsRepository.findByUsername(any(Username.class)))
+        when(userCommentsRepository.findRootByUsername(any(Username.class)))
                 .thenReturn(Optional.empty());
 
         // When
@@ -263,7 +356,7 @@ class UserInteractionServiceImplTest {
     @DisplayName("服务层异常处理")
     void testServiceExceptionHandling() {
         // Given
-        when(userFavoritesRepository.findByUsername(any(Username.class)))
+        when(userFavoritesRepository.findRootByUsername(any(Username.class)))
                 .thenThrow(new RuntimeException("数据库连接失败"));
 
         // When
@@ -274,4 +367,42 @@ class UserInteractionServiceImplTest {
         assertTrue(result.getMessage().contains("添加收藏失败"));
     }
 
+    @Test
+    @DisplayName("添加收藏 - 版本冲突后重新加载并重试成功")
+    void testAddFavoriteRetriesOnVersionConflict() {
+        // Given
+        when(userFavoritesRepository.findRootByUsername(any(Username.class)))
+                .thenReturn(Optional.of(UserFavorites.create(Username.of(testUsername))),
+                        Optional.of(UserFavorites.create(Username.of(testUsername))));
+        when(userFavoritesRepository.saveIncremental(any(UserFavorites.class)))
+                .thenThrow(new AggregateVersionConflictException("favorites", testUsername, 1L))
+                .thenReturn(true);
+
+        // When
+        InteractionResult result = userInteractionService.addFavorite(testUsername, testRelicsId);
+
+        // Then
+        assertTrue(result.isSuccess());
+        verify(userFavoritesRepository, times(2)).findRootByUsername(Username.of(testUsername));
+        verify(userFavoritesRepository, times(2)).saveIncremental(any(UserFavorites.class));
+    }
+
+    @Test
+    @DisplayName("添加收藏 - 持续版本冲突时返回失败")
+    void testAddFavoriteFailsAfterRepeatedConflicts() {
+        // Given
+        when(userFavoritesRepository.findRootByUsername(any(Username.class)))
+                .thenAnswer(invocation -> Optional.of(UserFavorites.create(Username.of(testUsername))));
+        when(userFavoritesRepository.saveIncremental(any(UserFavorites.class)))
+                .thenThrow(new AggregateVersionConflictException("favorites", testUsername, 1L));
+
+        // When
+        InteractionResult result = userInteractionService.addFavorite(testUsername, testRelicsId);
+
+        // Then
+        assertFalse(result.isSuccess());
+        assertEquals("操作冲突，请稍后重试", result.getMessage());
+        verify(userFavoritesRepository, times(OptimisticRetry.MAX_ATTEMPTS)).saveIncremental(any(UserFavorites.class));
+    }
+
 }
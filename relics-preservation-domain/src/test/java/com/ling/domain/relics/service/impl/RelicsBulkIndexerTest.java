@@ -0,0 +1,126 @@
+package com.ling.domain.relics.service.impl;
+
+import com.ling.domain.relics.adapter.es.RelicsElasticsearchRepository;
+import com.ling.domain.relics.model.document.RelicsDocument;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+/**
+ * RelicsBulkIndexer单元测试
+ * @Author: LingRJ
+ * @Description: 测试文物索引分块写入的重试、失败统计与并发上限
+ * @DateTime: 2025/7/20
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("文物索引分块写入测试")
+class RelicsBulkIndexerTest {
+
+    @Mock
+    private RelicsElasticsearchRepository elasticsearchRepository;
+
+    @Test
+    @DisplayName("写入失败后重试成功 - 计入成功数")
+    void testRetryThenSuccess() {
+        // Given
+        when(elasticsearchRepository.saveAll(anyIterable()))
+                .thenThrow(new RuntimeException("es unavailable"))
+                .thenReturn(List.of());
+
+        // When
+        RelicsBulkIndexer.Result result;
+        try (RelicsBulkIndexer indexer = new RelicsBulkIndexer(elasticsearchRepository, 1, 3, 1L)) {
+            indexer.submit(documents(1, 10));
+            result = indexer.awaitCompletion();
+        }
+
+        // Then
+        assertTrue(result.isSuccess());
+        assertEquals(10, result.indexed());
+        verify(elasticsearchRepository, times(2)).saveAll(anyIterable());
+    }
+
+    @Test
+    @DisplayName("重试用尽 - 只记为失败块，不影响其余块")
+    void testExhaustedChunkDoesNotAbortOthers() {
+        // Given：第一块始终失败，第二块成功
+        List<RelicsDocument> failing = documents(1, 5);
+        List<RelicsDocument> passing = documents(6, 5);
+        when(elasticsearchRepository.saveAll(failing)).thenThrow(new RuntimeException("bulk rejected"));
+        when(elasticsearchRepository.saveAll(passing)).thenReturn(passing);
+
+        // When
+        RelicsBulkIndexer.Result result;
+        try (RelicsBulkIndexer indexer = new RelicsBulkIndexer(elasticsearchRepository, 2, 2, 1L)) {
+            indexer.submit(failing);
+            indexer.submit(passing);
+            result = indexer.awaitCompletion();
+        }
+
+        // Then
+        assertFalse(result.isSuccess());
+        assertEquals(5, result.indexed());
+        assertEquals(5, result.failedDocuments());
+        assertEquals(1, result.failedChunks());
+        verify(elasticsearchRepository, times(2)).saveAll(failing);
+    }
+
+    @Test
+    @DisplayName("在途块数不超过并发数")
+    void testConcurrencyBound() throws InterruptedException {
+        // Given
+        int concurrency = 2;
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        when(elasticsearchRepository.saveAll(anyIterable())).thenAnswer(invocation -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            release.await(5, TimeUnit.SECONDS);
+            running.decrementAndGet();
+            return List.of();
+        });
+
+        // When：提交端在并发已满时阻塞，另起线程提交后放行写入
+        RelicsBulkIndexer.Result result;
+        try (RelicsBulkIndexer indexer = new RelicsBulkIndexer(elasticsearchRepository, concurrency, 1, 1L)) {
+            Thread producer = new Thread(() -> {
+                for (int i = 0; i < 6; i++) {
+                    indexer.submit(documents(i * 10 + 1, 10));
+                }
+            });
+            producer.start();
+            TimeUnit.MILLISECONDS.sleep(100);
+            assertTrue(producer.isAlive());
+            release.countDown();
+            producer.join(5000);
+            result = indexer.awaitCompletion();
+        }
+
+        // Then
+        assertEquals(60, result.indexed());
+        assertTrue(maxRunning.get() <= concurrency);
+    }
+
+    private static List<RelicsDocument> documents(int firstId, int count) {
+        List<RelicsDocument> documents = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            documents.add(RelicsDocument.builder()
+                    .relicsId(String.valueOf(firstId + i))
+                    .name("文物" + (firstId + i))
+                    .build());
+        }
+        return documents;
+    }
+}
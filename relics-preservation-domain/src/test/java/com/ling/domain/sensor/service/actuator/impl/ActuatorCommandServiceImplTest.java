@@ -0,0 +1,126 @@
+package com.ling.domain.sensor.service.actuator.impl;
+
+import com.ling.domain.sensor.adapter.IActuatorCommandPublisher;
+import com.ling.domain.sensor.model.valobj.ActuatorCommandVO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * ActuatorCommandServiceImpl单元测试
+ * @Author: LingRJ
+ * @Description: 测试执行器指令的合并、在途限制与确认
+ * @DateTime: 2025/7/20
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("执行器指令服务测试")
+class ActuatorCommandServiceImplTest {
+
+    @Mock
+    private IActuatorCommandPublisher commandPublisher;
+
+    @InjectMocks
+    private ActuatorCommandServiceImpl actuatorCommandService;
+
+    @Test
+    @DisplayName("同一设备的连续指令合并为最新状态")
+    void testCoalesce() {
+        // Given
+        when(commandPublisher.publish(anyString(), anyString())).thenReturn(true);
+        actuatorCommandService.submit("fan_1", "1", ActuatorCommandVO.SOURCE_MANUAL);
+        actuatorCommandService.submit("fan_1", "0", ActuatorCommandVO.SOURCE_MANUAL);
+        actuatorCommandService.submit("fan_1", "1", ActuatorCommandVO.SOURCE_MANUAL);
+
+        // When
+        actuatorCommandService.flush();
+
+        // Then
+        verify(commandPublisher, times(1)).publish("fan_1", "1");
+        verifyNoMoreInteractions(commandPublisher);
+        assertEquals(ActuatorCommandVO.STATUS_SENT,
+                actuatorCommandService.getCommandStatus("fan_1").orElseThrow().getStatus());
+    }
+
+    @Test
+    @DisplayName("在途指令未确认前不下发同一设备的新指令")
+    void testSingleInFlightPerDevice() {
+        // Given
+        when(commandPublisher.publish(anyString(), anyString())).thenReturn(true);
+        actuatorCommandService.submit("fan_1", "1", ActuatorCommandVO.SOURCE_MANUAL);
+        actuatorCommandService.flush();
+
+        // When
+        actuatorCommandService.submit("fan_1", "0", ActuatorCommandVO.SOURCE_MANUAL);
+        actuatorCommandService.flush();
+
+        // Then
+        verify(commandPublisher, never()).publish("fan_1", "0");
+
+        // When - 设备确认后下发最新指令
+        assertTrue(actuatorCommandService.acknowledge("fan_1", "1"));
+        actuatorCommandService.flush();
+
+        // Then
+        verify(commandPublisher).publish("fan_1", "0");
+    }
+
+    @Test
+    @DisplayName("设备确认后记录状态，相同状态不重复下发")
+    void testAcknowledgeAndSkipSameState() {
+        // Given
+        when(commandPublisher.publish(anyString(), anyString())).thenReturn(true);
+        actuatorCommandService.submit("led_1", "0", ActuatorCommandVO.SOURCE_CLOSED_LOOP);
+        actuatorCommandService.flush();
+
+        // When
+        assertFalse(actuatorCommandService.acknowledge("led_1", "1"));
+        assertTrue(actuatorCommandService.acknowledge("led_1", "0"));
+        actuatorCommandService.submit("led_1", "0", ActuatorCommandVO.SOURCE_CLOSED_LOOP);
+        actuatorCommandService.flush();
+
+        // Then
+        verify(commandPublisher, times(1)).publish("led_1", "0");
+        ActuatorCommandVO status = actuatorCommandService.getCommandStatus("led_1").orElseThrow();
+        assertEquals(ActuatorCommandVO.STATUS_ACKED, status.getStatus());
+        assertNotNull(status.getAckTime());
+    }
+
+    @Test
+    @DisplayName("下发失败的指令保留到下次刷新")
+    void testRequeueOnPublishFailure() {
+        // Given
+        when(commandPublisher.publish("fan_1", "1")).thenReturn(false, true);
+        actuatorCommandService.submit("fan_1", "1", ActuatorCommandVO.SOURCE_MANUAL);
+
+        // When
+        actuatorCommandService.flush();
+
+        // Then
+        assertEquals(ActuatorCommandVO.STATUS_PENDING,
+                actuatorCommandService.getCommandStatus("fan_1").orElseThrow().getStatus());
+
+        // When
+        actuatorCommandService.flush();
+
+        // Then
+        verify(commandPublisher, times(2)).publish("fan_1", "1");
+        assertEquals(ActuatorCommandVO.STATUS_SENT,
+                actuatorCommandService.getCommandStatus("fan_1").orElseThrow().getStatus());
+    }
+
+    @Test
+    @DisplayName("解析设备类型")
+    void testResolveDeviceId() {
+        assertEquals("fan_1", actuatorCommandService.resolveDeviceId("fan"));
+        assertEquals("led_1", actuatorCommandService.resolveDeviceId("led"));
+        assertNull(actuatorCommandService.resolveDeviceId("unknown"));
+        assertNull(actuatorCommandService.resolveDeviceId(null));
+    }
+}
@@ -0,0 +1,32 @@
+package com.ling.infrastructure.cache.codec;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * 二进制序列化器
+ * @Author: LingRJ
+ * @Description: 为特定缓存类型提供紧凑的手写二进制格式，注册到 {@link CompactCodec} 后生效
+ * @DateTime: 2025/7/20
+ */
+public interface BinarySerializer<T> {
+
+    /**
+     * 类型标识，写入帧头用于解码时定位序列化器，取值 1~127 且全局唯一
+     */
+    byte typeId();
+
+    /**
+     * 支持的具体类型（按 getClass() 精确匹配）
+     */
+    Class<T> type();
+
+    /**
+     * 写入对象
+     */
+    void write(T value, ByteBuf out);
+
+    /**
+     * 读取对象
+     */
+    T read(ByteBuf in);
+}
@@ -0,0 +1,191 @@
+package com.ling.infrastructure.cache.codec;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.redisson.client.codec.BaseCodec;
+import org.redisson.client.codec.Codec;
+import org.redisson.client.handler.State;
+import org.redisson.client.protocol.Decoder;
+import org.redisson.client.protocol.Encoder;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import lombok.extern.slf4j.Slf4j;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+
+/**
+ * 紧凑缓存编解码器
+ * @Author: LingRJ
+ * @Description: 可插拔的 Redisson 编解码器。已注册 {@link BinarySerializer} 的类型写为紧凑二进制，
+ *               其余类型委托给后备编解码器（JSON）；编码结果超过阈值时使用 LZ4 压缩。
+ *               帧格式：[0xC7][flags][typeId][原始长度（仅压缩时）][payload]。
+ *               未压缩的后备结果不加帧头，与原 JSON 格式完全一致；解码时首字节不是 0xC7 即按 JSON 处理，
+ *               因此切换编解码器前写入的缓存仍可读取
+ * @DateTime: 2025/7/20
+ */
+@Slf4j
+public class CompactCodec extends BaseCodec {
+
+    static final byte MAGIC = (byte) 0xC7;
+
+    private static final int FLAG_LZ4 = 0x01;
+
+    private static final byte TYPE_FALLBACK = 0;
+
+    private static final int HEADER_SIZE = 3;
+
+    private final Codec fallback;
+
+    private final List<BinarySerializer<?>> serializers;
+
+    private final Map<Class<?>, BinarySerializer<?>> serializersByType = new HashMap<>();
+
+    private final BinarySerializer<?>[] serializersById = new BinarySerializer<?>[128];
+
+    /**
+     * 压缩阈值（字节），小于等于 0 表示不压缩
+     */
+    private final int compressThreshold;
+
+    private final LZ4Compressor compressor;
+
+    private final LZ4FastDecompressor decompressor;
+
+    public CompactCodec(Codec fallback, List<BinarySerializer<?>> serializers, int compressThreshold) {
+        this.fallback = fallback;
+        this.serializers = List.copyOf(serializers);
+        this.compressThreshold = compressThreshold;
+        for (BinarySerializer<?> serializer : this.serializers) {
+            byte typeId = serializer.typeId();
+            if (typeId <= TYPE_FALLBACK || serializersById[typeId] != null) {
+                throw new IllegalArgumentException("序列化器类型标识无效或重复: " + typeId);
+            }
+            serializersById[typeId] = serializer;
+            serializersByType.put(serializer.type(), serializer);
+        }
+        LZ4Factory factory = LZ4Factory.fastestInstance();
+        this.compressor = factory.fastCompressor();
+        this.decompressor = factory.fastDecompressor();
+    }
+
+    /**
+     * Redisson 按类加载器复制编解码器时使用
+     */
+    public CompactCodec(ClassLoader classLoader, CompactCodec codec) throws ReflectiveOperationException {
+        this(BaseCodec.copy(classLoader, codec.fallback), codec.serializers, codec.compressThreshold);
+    }
+
+    private final Encoder encoder = this::encode;
+
+    private final Decoder<Object> decoder = this::decode;
+
+    @Override
+    public Encoder getValueEncoder() {
+        return encoder;
+    }
+
+    @Override
+    public Decoder<Object> getValueDecoder() {
+        return decoder;
+    }
+
+    @Override
+    public ClassLoader getClassLoader() {
+        return fallback.getClassLoader() != null ? fallback.getClassLoader() : super.getClassLoader();
+    }
+
+    // ==================== 编码 ====================
+
+    @SuppressWarnings("unchecked")
+    private ByteBuf encode(Object value) throws IOException {
+        BinarySerializer<Object> serializer = value != null
+                ? (BinarySerializer<Object>) serializersByType.get(value.getClass()) : null;
+
+        if (serializer != null) {
+            ByteBuf payload = ByteBufAllocator.DEFAULT.buffer();
+            try {
+                serializer.write(value, payload);
+                return frame(serializer.typeId(), payload);
+            } catch (RuntimeException e) {
+                // 数据不符合紧凑格式的前提（如存在空ID），退回后备编码
+                log.warn("紧凑编码失败，使用后备编码: {} - {}", value.getClass().getSimpleName(), e.getMessage());
+            } finally {
+                payload.release();
+            }
+        }
+
+        ByteBuf payload = fallback.getValueEncoder().encode(value);
+        if (compressThreshold <= 0 || payload.readableBytes() < compressThreshold) {
+            return payload;
+        }
+        try {
+            return frame(TYPE_FALLBACK, payload);
+        } finally {
+            payload.release();
+        }
+    }
+
+    /**
+     * 写入帧头并按需压缩，压缩后未变小则保留原始数据
+     */
+    private ByteBuf frame(byte typeId, ByteBuf payload) {
+        int length = payload.readableBytes();
+        if (compressThreshold > 0 && length >= compressThreshold) {
+            byte[] source = ByteBufUtil.getBytes(payload);
+            byte[] compressed = compressor.compress(source);
+            if (compressed.length < length) {
+                ByteBuf out = ByteBufAllocator.DEFAULT.buffer(HEADER_SIZE + 5 + compressed.length);
+                out.writeByte(MAGIC).writeByte(FLAG_LZ4).writeByte(typeId);
+                CompactEncoding.writeVarLong(out, length);
+                out.writeBytes(compressed);
+                return out;
+            }
+        }
+        ByteBuf out = ByteBufAllocator.DEFAULT.buffer(HEADER_SIZE + length);
+        out.writeByte(MAGIC).writeByte(0).writeByte(typeId);
+        out.writeBytes(payload, payload.readerIndex(), length);
+        return out;
+    }
+
+    // ==================== 解码 ====================
+
+    private Object decode(ByteBuf buf, State state) throws IOException {
+        if (!buf.isReadable() || buf.getByte(buf.readerIndex()) != MAGIC) {
+            return fallback.getValueDecoder().decode(buf, state);
+        }
+        buf.skipBytes(1);
+        int flags = buf.readByte();
+        byte typeId = buf.readByte();
+
+        if ((flags & FLAG_LZ4) == 0) {
+            return decodePayload(typeId, buf, state);
+        }
+        int length = (int) CompactEncoding.readVarLong(buf);
+        byte[] compressed = new byte[buf.readableBytes()];
+        buf.readBytes(compressed);
+        ByteBuf payload = Unpooled.wrappedBuffer(decompressor.decompress(compressed, length));
+        try {
+            return decodePayload(typeId, payload, state);
+        } finally {
+            payload.release();
+        }
+    }
+
+    private Object decodePayload(byte typeId, ByteBuf payload, State state) throws IOException {
+        if (typeId == TYPE_FALLBACK) {
+            return fallback.getValueDecoder().decode(payload, state);
+        }
+        BinarySerializer<?> serializer = typeId > 0 ? serializersById[typeId] : null;
+        if (serializer == null) {
+            throw new IOException("未知的紧凑编码类型: " + typeId);
+        }
+        return serializer.read(payload);
+    }
+}
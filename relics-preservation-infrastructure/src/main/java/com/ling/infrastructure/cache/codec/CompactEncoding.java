@@ -0,0 +1,114 @@
+package com.ling.infrastructure.cache.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * 紧凑编码工具
+ * @Author: LingRJ
+ * @Description: 变长整数（varint/zigzag）、字符串与时间的二进制读写
+ * @DateTime: 2025/7/20
+ */
+public final class CompactEncoding {
+
+    /**
+     * 写入无符号变长整数，每字节7位有效位
+     */
+    public static void writeVarLong(ByteBuf out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    /**
+     * 读取无符号变长整数
+     */
+    public static long readVarLong(ByteBuf in) {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.readByte();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IllegalStateException("变长整数格式错误");
+    }
+
+    /**
+     * zigzag 编码，使小幅度负数也只占少量字节
+     */
+    public static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    /**
+     * zigzag 解码
+     */
+    public static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * 写入字符串：长度+1（0 表示 null）后跟 UTF-8 字节
+     */
+    public static void writeString(ByteBuf out, String value) {
+        if (value == null) {
+            writeVarLong(out, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length + 1L);
+        out.writeBytes(bytes);
+    }
+
+    /**
+     * 读取字符串
+     */
+    public static String readString(ByteBuf in) {
+        int length = (int) readVarLong(in);
+        if (length == 0) {
+            return null;
+        }
+        String value = in.toString(in.readerIndex(), length - 1, StandardCharsets.UTF_8);
+        in.skipBytes(length - 1);
+        return value;
+    }
+
+    /**
+     * 写入时间：存在标记 + UTC 秒（zigzag）+ 纳秒
+     */
+    public static void writeDateTime(ByteBuf out, LocalDateTime value) {
+        if (value == null) {
+            out.writeByte(0);
+            return;
+        }
+        out.writeByte(1);
+        writeVarLong(out, zigZag(value.toEpochSecond(ZoneOffset.UTC)));
+        writeVarLong(out, value.getNano());
+    }
+
+    /**
+     * 读取时间
+     */
+    public static LocalDateTime readDateTime(ByteBuf in) {
+        if (in.readByte() == 0) {
+            return null;
+        }
+        long epochSecond = unZigZag(readVarLong(in));
+        int nano = (int) readVarLong(in);
+        return LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC);
+    }
+
+    /**
+     * 私有构造函数，防止实例化
+     */
+    private CompactEncoding() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+}
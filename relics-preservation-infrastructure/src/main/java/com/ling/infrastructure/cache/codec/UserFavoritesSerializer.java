@@ -0,0 +1,109 @@
+package com.ling.infrastructure.cache.codec;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+import com.ling.domain.interaction.model.entity.UserFavorites;
+import com.ling.domain.interaction.model.valobj.FavoriteAction;
+import com.ling.domain.user.model.valobj.Username;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * 用户收藏聚合根二进制序列化器
+ * @Author: LingRJ
+ * @Description: 收藏按文物ID排序后差值编码，删除标记与时间存在标记并入差值低位；
+ *               收藏时间以相对聚合根创建时间的秒差存储，聚合根版本号追加在末尾。变更跟踪器不入缓存，解码时重建为空
+ * @DateTime: 2025/7/20
+ */
+public class UserFavoritesSerializer implements BinarySerializer<UserFavorites> {
+
+    public static final byte TYPE_ID = 1;
+
+    private static final int FLAG_DELETED = 1;
+    private static final int FLAG_HAS_TIME = 1 << 1;
+    private static final int FLAG_BITS = 2;
+
+    @Override
+    public byte typeId() {
+        return TYPE_ID;
+    }
+
+    @Override
+    public Class<UserFavorites> type() {
+        return UserFavorites.class;
+    }
+
+    @Override
+    public void write(UserFavorites value, ByteBuf out) {
+        CompactEncoding.writeString(out, value.getUsername() != null ? value.getUsername().getValue() : null);
+        CompactEncoding.writeDateTime(out, value.getCreateTime());
+        CompactEncoding.writeDateTime(out, value.getUpdateTime());
+
+        Collection<FavoriteAction> favorites = value.getFavorites();
+        if (favorites == null || favorites.isEmpty()) {
+            CompactEncoding.writeVarLong(out, 0);
+            CompactEncoding.writeVarLong(out, value.getVersion());
+            return;
+        }
+
+        List<FavoriteAction> sorted = new ArrayList<>(favorites);
+        sorted.sort(Comparator.comparing(FavoriteAction::getRelicsId));
+        long baseSecond = value.getCreateTime() != null
+                ? value.getCreateTime().toEpochSecond(ZoneOffset.UTC) : 0L;
+
+        CompactEncoding.writeVarLong(out, sorted.size());
+        long previousId = 0;
+        for (FavoriteAction favorite : sorted) {
+            long relicsId = favorite.getRelicsId();
+            LocalDateTime createTime = favorite.getCreateTime();
+            int flags = (favorite.isDeleted() ? FLAG_DELETED : 0) | (createTime != null ? FLAG_HAS_TIME : 0);
+
+            CompactEncoding.writeVarLong(out, (CompactEncoding.zigZag(relicsId - previousId) << FLAG_BITS) | flags);
+            if (createTime != null) {
+                CompactEncoding.writeVarLong(out,
+                        CompactEncoding.zigZag(createTime.toEpochSecond(ZoneOffset.UTC) - baseSecond));
+                CompactEncoding.writeVarLong(out, createTime.getNano());
+            }
+            previousId = relicsId;
+        }
+        CompactEncoding.writeVarLong(out, value.getVersion());
+    }
+
+    @Override
+    public UserFavorites read(ByteBuf in) {
+        String username = CompactEncoding.readString(in);
+        LocalDateTime createTime = CompactEncoding.readDateTime(in);
+        LocalDateTime updateTime = CompactEncoding.readDateTime(in);
+
+        int size = (int) CompactEncoding.readVarLong(in);
+        List<FavoriteAction> favorites = new ArrayList<>(size);
+        long baseSecond = createTime != null ? createTime.toEpochSecond(ZoneOffset.UTC) : 0L;
+
+        long relicsId = 0;
+        for (int i = 0; i < size; i++) {
+            long head = CompactEncoding.readVarLong(in);
+            relicsId += CompactEncoding.unZigZag(head >>> FLAG_BITS);
+
+            LocalDateTime favoriteTime = null;
+            if ((head & FLAG_HAS_TIME) != 0) {
+                long second = baseSecond + CompactEncoding.unZigZag(CompactEncoding.readVarLong(in));
+                int nano = (int) CompactEncoding.readVarLong(in);
+                favoriteTime = LocalDateTime.ofEpochSecond(second, nano, ZoneOffset.UTC);
+            }
+            favorites.add(FavoriteAction.fromDatabase(relicsId, favoriteTime, (head & FLAG_DELETED) != 0));
+        }
+
+        UserFavorites userFavorites = UserFavorites.fromDatabase(username != null ? Username.of(username) : null,
+                favorites, createTime, updateTime);
+        // 版本号写在末尾，未带版本号的旧缓存按 0 读取，保存时由数据库版本校验兜底
+        if (in.isReadable()) {
+            userFavorites.markPersisted(CompactEncoding.readVarLong(in));
+        }
+        return userFavorites;
+    }
+}
@@ -135,6 +135,16 @@ public final class UserInteractionCacheConfig {
      * 文物评论列表缓存过期时间（15分钟）
      */
     public static final Duration RELICS_COMMENTS_TTL = Duration.ofMinutes(15);
+
+    /**
+     * 用户收藏索引过期时间（30分钟）
+     */
+    public static final Duration FAVORITE_INDEX_TTL = Duration.ofMinutes(30);
+
+    /**
+     * 文物详情缓存过期时间（1小时）
+     */
+    public static final Duration RELICS_DETAIL_TTL = Duration.ofHours(1);
     
     // ==================== 缓存配置参数 ====================
     
@@ -159,15 +169,37 @@ public final class UserInteractionCacheConfig {
     public static final int BATCH_SIZE_LIMIT = 1000;
     
     /**
-     * 缓存预热延迟时间（毫秒）
+     * 热点统计保留的最大条目数
      */
-    public static final long CACHE_WARM_UP_DELAY = 100L;
+    public static final int HOT_KEY_CAPACITY = 1000;
+    
+    /**
+     * 热点统计过期时间（7天）- 长期无访问时整体清除
+     */
+    public static final Duration HOT_KEY_TTL = Duration.ofDays(7);
     
     /**
      * 随机过期时间范围（分钟）- 防止缓存雪崩
      */
     public static final int RANDOM_TTL_RANGE_MINUTES = 5;
-    
+
+    // ==================== 本地缓存（L1）配置 ====================
+
+    /**
+     * 本地缓存最大条目数
+     */
+    public static final long NEAR_CACHE_MAXIMUM_SIZE = 10_000L;
+
+    /**
+     * 本地缓存写入后过期时间（30秒）- 失效广播丢失时的一致性兜底
+     */
+    public static final Duration NEAR_CACHE_TTL = Duration.ofSeconds(30);
+
+    /**
+     * 本地缓存失效广播主题
+     */
+    public static final String NEAR_CACHE_INVALIDATION_TOPIC = CACHE_PREFIX + "near:invalidation";
+
     // ==================== 特殊值定义 ====================
     
     /**
@@ -192,6 +224,15 @@ public final class UserInteractionCacheConfig {
         return baseTtl.plusSeconds(randomOffset);
     }
     
+    /**
+     * 生成空值标记的过期时间，随机偏移不超过基础时间的1/4，避免同批标记同时过期
+     * @return 带随机偏移的过期时间
+     */
+    public static Duration getRandomizedNullTtl() {
+        long randomOffset = (long) (Math.random() * NULL_RESULT_TTL.toMillis() / 4);
+        return NULL_RESULT_TTL.plusMillis(randomOffset);
+    }
+
     /**
      * 获取分布式锁键
      * @param businessKey 业务键
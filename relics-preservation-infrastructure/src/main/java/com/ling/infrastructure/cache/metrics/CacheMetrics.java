@@ -0,0 +1,247 @@
+package com.ling.infrastructure.cache.metrics;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * 缓存指标
+ * @Author: LingRJ
+ * @Description: 按逻辑缓存名（favorites/comments/gallery/counts/status/relics）记录命中、未命中、回源耗时、
+ *               删除次数、载荷字节数与 Redis 操作耗时，通过 Micrometer 导出，用于依据数据调整各类缓存的 TTL。
+ *               逻辑缓存名由缓存键前缀推断，指标实例按名称与标签缓存，热点路径上不重复构建标签
+ * @DateTime: 2025/7/20
+ */
+@Component
+public class CacheMetrics {
+
+    // ==================== 逻辑缓存名 ====================
+
+    public static final String FAVORITES = "favorites";
+    public static final String COMMENTS = "comments";
+    public static final String GALLERY = "gallery";
+    public static final String COUNTS = "counts";
+    public static final String STATUS = "status";
+    public static final String RELICS = "relics";
+    public static final String VERSION = "version";
+    public static final String OTHER = "other";
+
+    // ==================== 命中层级 ====================
+
+    public static final String TIER_LOCAL = "local";
+    public static final String TIER_REMOTE = "remote";
+
+    private static final String PREFIX = "relics.cache.";
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    private final Map<String, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        if (meterRegistry == null) {
+            // 未引入 Actuator 时（如基准测试）退回全局注册表
+            meterRegistry = Metrics.globalRegistry;
+        }
+    }
+
+    /**
+     * 由缓存键推断逻辑缓存名
+     */
+    public static String cacheNameOf(String key) {
+        if (key.contains(":count:") || key.startsWith("relics:favorite:counter:")) {
+            return COUNTS;
+        }
+        if (key.startsWith("user:favorites:index:") || key.startsWith("user:favorite:")) {
+            return STATUS;
+        }
+        if (key.startsWith("user:favorites:")) {
+            return FAVORITES;
+        }
+        if (key.startsWith("user:comments:") || key.startsWith("relics:comments:")) {
+            return COMMENTS;
+        }
+        if (key.startsWith("user:galleries:") || key.startsWith("gallery:")) {
+            return GALLERY;
+        }
+        if (key.startsWith("relics:detail:")) {
+            return RELICS;
+        }
+        if (key.startsWith("cache:tag:")) {
+            return VERSION;
+        }
+        return OTHER;
+    }
+
+    // ==================== 命中统计 ====================
+
+    /**
+     * 记录命中
+     * @param tier 命中层级：local（Caffeine）/ remote（Redis）
+     */
+    public void recordHit(String cache, String tier) {
+        counter("gets", cache, "result", "hit", "tier", tier).increment();
+    }
+
+    /**
+     * 记录最终未命中（Redis 中也不存在），gets{result=miss} 只由此计数，按层级求和不会重复
+     */
+    public void recordMiss(String cache) {
+        counter("gets", cache, "result", "miss", "tier", TIER_REMOTE).increment();
+    }
+
+    /**
+     * 记录本地缓存未命中。这些键随后查 Redis，命中与否已计入 gets，因此单独记为 near.misses，
+     * 本地缓存命中率 = gets{tier=local,result=hit} / (gets{tier=local,result=hit} + near.misses)
+     */
+    public void recordLocalMiss(String cache, int count) {
+        counter("near.misses", cache).increment(count);
+    }
+
+    /**
+     * 批量读取的命中统计：local 层的未命中继续查 Redis，记为 near.misses；remote 层的未命中才是最终未命中
+     */
+    public void recordGets(String cache, String tier, int hits, int misses) {
+        if (hits > 0) {
+            counter("gets", cache, "result", "hit", "tier", tier).increment(hits);
+        }
+        if (misses <= 0) {
+            return;
+        }
+        if (TIER_LOCAL.equals(tier)) {
+            recordLocalMiss(cache, misses);
+        } else {
+            counter("gets", cache, "result", "miss", "tier", tier).increment(misses);
+        }
+    }
+
+    // ==================== 写入与删除 ====================
+
+    public void recordPut(String cache, int count) {
+        counter("puts", cache).increment(count);
+    }
+
+    public void recordEviction(String cache, int count) {
+        counter("evictions", cache).increment(count);
+    }
+
+    /**
+     * 记录缓存值编码后的字节数
+     */
+    public void recordPayload(String cache, int bytes) {
+        summaries.computeIfAbsent(cache, name -> DistributionSummary.builder(PREFIX + "payload")
+                .description("缓存值编码后的字节数")
+                .baseUnit("bytes")
+                .tag("cache", name)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry))
+                .record(bytes);
+    }
+
+    // ==================== 耗时 ====================
+
+    /**
+     * 记录一次 Redis 操作的耗时，异常照常抛出
+     * @param op 操作：get/mget/set/mset/del/eval 等
+     */
+    public <T> T timeRedis(String cache, String op, Supplier<T> operation) {
+        long start = System.nanoTime();
+        try {
+            return operation.get();
+        } finally {
+            timer("redis", cache, "op", op).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void timeRedis(String cache, String op, Runnable operation) {
+        timeRedis(cache, op, () -> {
+            operation.run();
+            return null;
+        });
+    }
+
+    /**
+     * 记录异步批次等无法包裹执行的 Redis 操作耗时
+     */
+    public void recordRedis(String cache, String op, long elapsedNanos) {
+        timer("redis", cache, "op", op).record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 记录回源加载耗时，按结果（found/empty/error）区分
+     */
+    public <T> Optional<T> timeLoad(String cache, Supplier<Optional<T>> loader) {
+        long start = System.nanoTime();
+        String result = "error";
+        try {
+            Optional<T> loaded = loader.get();
+            result = loaded.isPresent() ? "found" : "empty";
+            return loaded;
+        } finally {
+            timer("loads", cache, "result", result).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // ==================== 容量 ====================
+
+    /**
+     * 绑定 Caffeine 本地缓存的容量、淘汰数与命中率（需开启 recordStats）
+     */
+    public void monitorNearCache(Cache<?, ?> cache, String name) {
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+    }
+
+    /**
+     * 注册任意数值的观测指标
+     */
+    public <T> void gauge(String name, String description, T target, Function<T, Number> value) {
+        Gauge.builder(PREFIX + name, target, t -> value.apply(t).doubleValue())
+                .description(description)
+                .register(meterRegistry);
+    }
+
+    // ==================== 指标实例缓存 ====================
+
+    private Counter counter(String name, String cache, String... tags) {
+        String id = meterId(name, cache, tags);
+        return counters.computeIfAbsent(id, k -> Counter.builder(PREFIX + name)
+                .tag("cache", cache)
+                .tags(tags)
+                .register(meterRegistry));
+    }
+
+    private Timer timer(String name, String cache, String... tags) {
+        String id = meterId(name, cache, tags);
+        return timers.computeIfAbsent(id, k -> Timer.builder(PREFIX + name)
+                .tag("cache", cache)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    private static String meterId(String name, String cache, String... tags) {
+        return name + '|' + cache + '|' + String.join("|", tags);
+    }
+}
@@ -0,0 +1,410 @@
+package com.ling.infrastructure.cache.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.redisson.api.RBatch;
+import org.redisson.api.RBucket;
+import org.redisson.api.RFuture;
+import org.redisson.api.RScript;
+import org.redisson.api.RScriptAsync;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.LongCodec;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.ling.domain.user.model.valobj.Username;
+import com.ling.infrastructure.cache.config.UserInteractionCacheConfig;
+import com.ling.infrastructure.cache.metrics.CacheMetrics;
+import com.ling.infrastructure.cache.util.CacheKeyGenerator;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 收藏索引缓存服务
+ * @Author: LingRJ
+ * @Description: 以 Redis 原生结构维护收藏关系：每个用户一个有序集合（成员为文物ID，分值为收藏时间毫秒），
+ *               每个文物一个整数计数器。收藏判断、分页与计数各只需一次 O(1)/O(log n) 操作，与收藏总数无关。
+ *               数据库仍是权威数据源：索引缺失时由仓储从聚合根重建，写入仅在事务提交后增量应用。
+ *               有序集合中固定包含分值为 0 的哨兵成员 "0"，使“已构建但为空”的索引也能与“未构建”区分
+ * @DateTime: 2025/7/20
+ */
+@Service
+@Slf4j
+public class FavoriteIndexCacheService {
+
+    private static final String SENTINEL_MEMBER = "0";
+
+    private static final String OP_ADD = "add";
+
+    private static final String OP_REMOVE = "rem";
+
+    /**
+     * 返回 -1 表示索引未构建，1 已收藏，0 未收藏
+     */
+    private static final String IS_MEMBER_SCRIPT =
+            "if redis.call('exists', KEYS[1]) == 0 then return -1 end " +
+            "if redis.call('zscore', KEYS[1], ARGV[1]) then return 1 end " +
+            "return 0";
+
+    /**
+     * 批量判断，按参数顺序返回 1/0；索引未构建时返回 nil
+     */
+    private static final String BATCH_IS_MEMBER_SCRIPT =
+            "if redis.call('exists', KEYS[1]) == 0 then return false end " +
+            "local result = {} " +
+            "for i = 1, #ARGV do result[i] = redis.call('zscore', KEYS[1], ARGV[i]) and 1 or 0 end " +
+            "return result";
+
+    /**
+     * 按收藏时间倒序分页，哨兵分值为 0 被排除在外；索引未构建时返回 nil
+     */
+    private static final String PAGE_SCRIPT =
+            "if redis.call('exists', KEYS[1]) == 0 then return false end " +
+            "return redis.call('zrevrangebyscore', KEYS[1], '+inf', '(0', 'limit', ARGV[1], ARGV[2])";
+
+    /**
+     * 返回 -1 表示索引未构建，否则为扣除哨兵后的收藏数
+     */
+    private static final String COUNT_SCRIPT =
+            "local n = redis.call('zcard', KEYS[1]) " +
+            "if n == 0 then return -1 end " +
+            "return n - 1";
+
+    /**
+     * 代数与读取时一致才写入，避免重建期间提交的变更被旧快照覆盖
+     */
+    private static final String REBUILD_SCRIPT =
+            "if (redis.call('get', KEYS[2]) or '0') ~= ARGV[1] then return 0 end " +
+            "redis.call('del', KEYS[1]) " +
+            "redis.call('zadd', KEYS[1], 0, '" + SENTINEL_MEMBER + "') " +
+            "for i = 3, #ARGV, 2 do redis.call('zadd', KEYS[1], ARGV[i], ARGV[i + 1]) end " +
+            "redis.call('pexpire', KEYS[1], ARGV[2]) " +
+            "return 1";
+
+    /**
+     * 递增代数，索引已构建时增量更新；未构建时留待下次读取重建
+     */
+    private static final String UPDATE_SCRIPT =
+            "redis.call('incr', KEYS[2]) " +
+            "redis.call('pexpire', KEYS[2], ARGV[4]) " +
+            "if redis.call('exists', KEYS[1]) == 1 then " +
+            "  if ARGV[1] == '" + OP_ADD + "' then redis.call('zadd', KEYS[1], ARGV[3], ARGV[2]) " +
+            "  else redis.call('zrem', KEYS[1], ARGV[2]) end " +
+            "end " +
+            "return 1";
+
+    private static final String EVICT_SCRIPT =
+            "redis.call('incr', KEYS[2]) " +
+            "redis.call('pexpire', KEYS[2], ARGV[1]) " +
+            "redis.call('del', KEYS[1]) " +
+            "return 1";
+
+    /**
+     * 计数器仅在已存在时累加，缺失时由下次读取从数据库回填
+     */
+    private static final String COUNTER_INCR_SCRIPT =
+            "if redis.call('exists', KEYS[1]) == 1 then redis.call('incrby', KEYS[1], ARGV[1]) return 1 end " +
+            "return 0";
+
+    @Autowired
+    private RedissonClient redissonClient;
+
+    @Autowired
+    private CacheMetrics cacheMetrics;
+
+    // ==================== 用户收藏索引 ====================
+
+    /**
+     * 判断是否已收藏
+     * @return 索引未构建时返回空
+     */
+    public Optional<Boolean> isFavorited(Username username, Long relicsId) {
+        try {
+            Long result = cacheMetrics.timeRedis(CacheMetrics.STATUS, "eval", () -> script().<Long>eval(
+                    RScript.Mode.READ_ONLY, IS_MEMBER_SCRIPT, RScript.ReturnType.INTEGER,
+                    List.of(CacheKeyGenerator.userFavoriteIndexKey(username)), relicsId.toString()));
+            if (result == null || result < 0) {
+                cacheMetrics.recordMiss(CacheMetrics.STATUS);
+                log.debug("收藏索引未构建: {}", username.getValue());
+                return Optional.empty();
+            }
+            cacheMetrics.recordHit(CacheMetrics.STATUS, CacheMetrics.TIER_REMOTE);
+            return Optional.of(result == 1);
+        } catch (Exception e) {
+            log.error("查询收藏索引失败: {} - {} - {}", username.getValue(), relicsId, e.getMessage(), e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * 在给定批次中登记批量收藏判断，批次执行后结果按参数顺序为 1/0，索引未构建时为 null
+     */
+    public RFuture<List<Object>> isFavoritedAsync(RBatch batch, Username username, List<Long> relicsIds) {
+        Object[] members = relicsIds.stream().map(String::valueOf).toArray();
+        return batch.getScript(StringCodec.INSTANCE).evalAsync(RScript.Mode.READ_ONLY, BATCH_IS_MEMBER_SCRIPT,
+                RScript.ReturnType.MULTI, List.of(CacheKeyGenerator.userFavoriteIndexKey(username)), members);
+    }
+
+    /**
+     * 按收藏时间倒序分页获取文物ID
+     * @return 索引未构建时返回空
+     */
+    public Optional<List<Long>> getFavoritedRelicsIds(Username username, int offset, int limit) {
+        try {
+            List<Object> members = cacheMetrics.timeRedis(CacheMetrics.FAVORITES, "eval", () -> script().<List<Object>>eval(
+                    RScript.Mode.READ_ONLY, PAGE_SCRIPT, RScript.ReturnType.MULTI,
+                    List.of(CacheKeyGenerator.userFavoriteIndexKey(username)),
+                    String.valueOf(offset), String.valueOf(limit)));
+            if (members == null) {
+                cacheMetrics.recordMiss(CacheMetrics.FAVORITES);
+                log.debug("收藏索引未构建: {}", username.getValue());
+                return Optional.empty();
+            }
+            cacheMetrics.recordHit(CacheMetrics.FAVORITES, CacheMetrics.TIER_REMOTE);
+            List<Long> relicsIds = new ArrayList<>(members.size());
+            for (Object member : members) {
+                relicsIds.add(Long.valueOf(member.toString()));
+            }
+            return Optional.of(relicsIds);
+        } catch (Exception e) {
+            log.error("分页查询收藏索引失败: {} - offset:{}, limit:{} - {}",
+                    username.getValue(), offset, limit, e.getMessage(), e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * 获取用户收藏总数
+     * @return 索引未构建时返回空
+     */
+    public Optional<Long> countFavorites(Username username) {
+        try {
+            Long count = cacheMetrics.timeRedis(CacheMetrics.COUNTS, "eval", () -> script().<Long>eval(
+                    RScript.Mode.READ_ONLY, COUNT_SCRIPT, RScript.ReturnType.INTEGER,
+                    List.of(CacheKeyGenerator.userFavoriteIndexKey(username))));
+            if (count == null || count < 0) {
+                cacheMetrics.recordMiss(CacheMetrics.COUNTS);
+                return Optional.empty();
+            }
+            cacheMetrics.recordHit(CacheMetrics.COUNTS, CacheMetrics.TIER_REMOTE);
+            return Optional.of(count);
+        } catch (Exception e) {
+            log.error("查询收藏索引总数失败: {} - {}", username.getValue(), e.getMessage(), e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * 读取索引代数，重建前调用并原样传给 {@link #rebuildIndex}
+     */
+    public String getGeneration(Username username) {
+        try {
+            RBucket<String> bucket = redissonClient.getBucket(
+                    CacheKeyGenerator.userFavoriteIndexGenerationKey(username), StringCodec.INSTANCE);
+            String generation = bucket.get();
+            return generation != null ? generation : "0";
+        } catch (Exception e) {
+            log.error("读取收藏索引代数失败: {} - {}", username.getValue(), e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * 以数据库快照重建用户收藏索引
+     * @param generation 读取快照前获取的代数，期间有变更提交时放弃写入
+     * @param favoriteTimes 文物ID到收藏时间（毫秒）的映射
+     * @return 是否写入
+     */
+    public boolean rebuildIndex(Username username, String generation, Map<Long, Long> favoriteTimes) {
+        if (generation == null) {
+            return false;
+        }
+        try {
+            Duration ttl = UserInteractionCacheConfig.getRandomizedTtl(UserInteractionCacheConfig.FAVORITE_INDEX_TTL);
+            List<Object> args = new ArrayList<>(2 + favoriteTimes.size() * 2);
+            args.add(generation);
+            args.add(String.valueOf(ttl.toMillis()));
+            favoriteTimes.forEach((relicsId, time) -> {
+                // 分值 0 保留给哨兵
+                args.add(String.valueOf(Math.max(1L, time)));
+                args.add(relicsId.toString());
+            });
+
+            Long written = script().eval(RScript.Mode.READ_WRITE, REBUILD_SCRIPT, RScript.ReturnType.INTEGER,
+                    indexKeys(username), args.toArray());
+            boolean success = written != null && written == 1;
+            log.debug("重建收藏索引: {} - 收藏数: {} - {}", username.getValue(), favoriteTimes.size(),
+                    success ? "已写入" : "代数已变更，放弃写入");
+            return success;
+        } catch (Exception e) {
+            log.error("重建收藏索引失败: {} - {}", username.getValue(), e.getMessage(), e);
+            return false;
+        }
+    }
+
+    /**
+     * 增量添加收藏
+     * @param favoriteTime 收藏时间（毫秒）
+     */
+    public void addFavorite(Username username, Long relicsId, long favoriteTime) {
+        update(username, OP_ADD, relicsId, Math.max(1L, favoriteTime));
+    }
+
+    /**
+     * 增量移除收藏
+     */
+    public void removeFavorite(Username username, Long relicsId) {
+        update(username, OP_REMOVE, relicsId, 0L);
+    }
+
+    /**
+     * 删除用户收藏索引（全量变更后使用）
+     */
+    public void evictIndex(Username username) {
+        try {
+            script().eval(RScript.Mode.READ_WRITE, EVICT_SCRIPT, RScript.ReturnType.INTEGER,
+                    indexKeys(username), String.valueOf(generationTtl().toMillis()));
+            log.debug("删除收藏索引: {}", username.getValue());
+        } catch (Exception e) {
+            log.error("删除收藏索引失败: {} - {}", username.getValue(), e.getMessage(), e);
+        }
+    }
+
+    // ==================== 文物收藏计数器 ====================
+
+    /**
+     * 获取文物收藏数
+     * @return 计数器不存在时返回空
+     */
+    public Optional<Long> getRelicsFavoriteCount(Long relicsId) {
+        try {
+            RBucket<Long> counter = redissonClient.getBucket(
+                    CacheKeyGenerator.relicsFavoriteCounterKey(relicsId), LongCodec.INSTANCE);
+            Long count = cacheMetrics.timeRedis(CacheMetrics.COUNTS, "get", counter::get);
+            if (count == null) {
+                cacheMetrics.recordMiss(CacheMetrics.COUNTS);
+                return Optional.empty();
+            }
+            cacheMetrics.recordHit(CacheMetrics.COUNTS, CacheMetrics.TIER_REMOTE);
+            return Optional.of(count);
+        } catch (Exception e) {
+            log.error("获取文物收藏计数失败: {} - {}", relicsId, e.getMessage(), e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * 在给定批次中登记文物收藏数读取，批次执行后计数器不存在的为 null
+     */
+    public Map<Long, RFuture<Long>> getRelicsFavoriteCountsAsync(RBatch batch, List<Long> relicsIds) {
+        Map<Long, RFuture<Long>> futures = new HashMap<>(relicsIds.size() * 2);
+        for (Long relicsId : relicsIds) {
+            futures.put(relicsId, batch.<Long>getBucket(
+                    CacheKeyGenerator.relicsFavoriteCounterKey(relicsId), LongCodec.INSTANCE).getAsync());
+        }
+        return futures;
+    }
+
+    /**
+     * 批量回填文物收藏数，在一个批次中完成
+     */
+    public void cacheRelicsFavoriteCounts(Map<Long, Long> counts) {
+        if (counts.isEmpty()) {
+            return;
+        }
+        try {
+            RBatch batch = redissonClient.createBatch();
+            Duration ttl = UserInteractionCacheConfig.getRandomizedTtl(UserInteractionCacheConfig.COUNT_DATA_TTL);
+            counts.forEach((relicsId, count) -> batch.<Long>getBucket(
+                    CacheKeyGenerator.relicsFavoriteCounterKey(relicsId), LongCodec.INSTANCE).setIfAbsentAsync(count, ttl));
+            batch.execute();
+        } catch (Exception e) {
+            log.error("批量回填文物收藏计数失败: {} - {}", counts.keySet(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 回填文物收藏数，已存在时不覆盖（并发的增量可能已先写入）
+     */
+    public void cacheRelicsFavoriteCount(Long relicsId, long count) {
+        try {
+            RBucket<Long> counter = redissonClient.getBucket(
+                    CacheKeyGenerator.relicsFavoriteCounterKey(relicsId), LongCodec.INSTANCE);
+            counter.setIfAbsent(count,
+                    UserInteractionCacheConfig.getRandomizedTtl(UserInteractionCacheConfig.COUNT_DATA_TTL));
+        } catch (Exception e) {
+            log.error("回填文物收藏计数失败: {} - {} - {}", relicsId, count, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 累加文物收藏数（HINCRBY 语义，计数器不存在时忽略）。
+     * 回填与累加之间的竞争最多造成一次偏差，由计数器过期时间兜底
+     */
+    public void incrementRelicsFavoriteCount(Long relicsId, long delta) {
+        try {
+            script().eval(RScript.Mode.READ_WRITE, COUNTER_INCR_SCRIPT, RScript.ReturnType.INTEGER,
+                    List.of(CacheKeyGenerator.relicsFavoriteCounterKey(relicsId)), String.valueOf(delta));
+        } catch (Exception e) {
+            log.error("累加文物收藏计数失败: {} - {} - {}", relicsId, delta, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 批量累加文物收藏数，在一个批次中完成（语义同 {@link #incrementRelicsFavoriteCount}）
+     */
+    public void incrementRelicsFavoriteCounts(Collection<Long> relicsIds, long delta) {
+        if (relicsIds.isEmpty()) {
+            return;
+        }
+        try {
+            RBatch batch = redissonClient.createBatch();
+            RScriptAsync script = batch.getScript(StringCodec.INSTANCE);
+            for (Long relicsId : relicsIds) {
+                script.evalAsync(RScript.Mode.READ_WRITE, COUNTER_INCR_SCRIPT, RScript.ReturnType.INTEGER,
+                        List.of(CacheKeyGenerator.relicsFavoriteCounterKey(relicsId)), String.valueOf(delta));
+            }
+            cacheMetrics.timeRedis(CacheMetrics.COUNTS, "eval", () -> batch.execute());
+        } catch (Exception e) {
+            log.error("批量累加文物收藏计数失败: {} 个文物 - {} - {}", relicsIds.size(), delta, e.getMessage(), e);
+        }
+    }
+
+    // ==================== 私有辅助方法 ====================
+
+    private void update(Username username, String op, Long relicsId, long score) {
+        try {
+            script().eval(RScript.Mode.READ_WRITE, UPDATE_SCRIPT, RScript.ReturnType.INTEGER,
+                    indexKeys(username), op, relicsId.toString(), String.valueOf(score),
+                    String.valueOf(generationTtl().toMillis()));
+            log.debug("更新收藏索引: {} - {} {}", username.getValue(), op, relicsId);
+        } catch (Exception e) {
+            // 索引与数据库不一致时只能删除，等待下次读取重建
+            log.error("更新收藏索引失败，删除索引: {} - {} - {}", username.getValue(), relicsId, e.getMessage(), e);
+            evictIndex(username);
+        }
+    }
+
+    private RScript script() {
+        return redissonClient.getScript(StringCodec.INSTANCE);
+    }
+
+    private static List<Object> indexKeys(Username username) {
+        return List.of(CacheKeyGenerator.userFavoriteIndexKey(username),
+                CacheKeyGenerator.userFavoriteIndexGenerationKey(username));
+    }
+
+    /**
+     * 代数需比索引存活更久，否则过期重置后可能与重建前读取的值再次相等
+     */
+    private static Duration generationTtl() {
+        return UserInteractionCacheConfig.FAVORITE_INDEX_TTL.multipliedBy(2);
+    }
+}
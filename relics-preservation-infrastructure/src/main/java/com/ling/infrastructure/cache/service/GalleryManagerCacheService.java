@@ -2,10 +2,9 @@ package com.ling.infrastructure.cache.service;
 
 import java.time.Duration;
 import java.util.Optional;
-import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 import org.redisson.api.RBucket;
-import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -14,6 +13,7 @@ import com.ling.domain.interaction.model.entity.GalleryManager;
 import com.ling.domain.user.model.valobj.Username;
 import com.ling.infrastructure.cache.config.UserInteractionCacheConfig;
 import com.ling.infrastructure.cache.util.CacheKeyGenerator;
+import com.ling.infrastructure.cache.warmup.HotKeyTracker;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -29,6 +29,15 @@ public class GalleryManagerCacheService {
     
     @Autowired
     private RedissonClient redissonClient;
+
+    @Autowired
+    private TieredCacheService tieredCacheService;
+
+    @Autowired
+    private SingleFlightCacheLoader singleFlightCacheLoader;
+
+    @Autowired
+    private HotKeyTracker hotKeyTracker;
     
     // ==================== 聚合根缓存操作 ====================
     
@@ -38,8 +47,7 @@ public class GalleryManagerCacheService {
     public Optional<GalleryManager> getGalleryManager(Username username) {
         try {
             String key = CacheKeyGenerator.galleryManagerKey(username);
-            RBucket<GalleryManager> bucket = redissonClient.getBucket(key);
-            GalleryManager galleryManager = bucket.get();
+            GalleryManager galleryManager = tieredCacheService.<GalleryManager>get(key).orElse(null);
             
             if (galleryManager != null) {
                 log.debug("缓存命中 - 收藏馆管理: {}", username.getValue());
@@ -60,11 +68,9 @@ public class GalleryManagerCacheService {
     public void cacheGalleryManager(GalleryManager galleryManager) {
         try {
             String key = CacheKeyGenerator.galleryManagerKey(galleryManager.getUsername());
-            RBucket<GalleryManager> bucket = redissonClient.getBucket(key);
-            
             Duration ttl = UserInteractionCacheConfig.getRandomizedTtl(
                 UserInteractionCacheConfig.GALLERY_MANAGER_TTL);
-            bucket.set(galleryManager, ttl);
+            tieredCacheService.putIfNewer(key, galleryManager, galleryManager.getVersion(), ttl);
             
             log.debug("缓存收藏馆管理: {} - TTL: {}分钟", 
                      galleryManager.getUsername().getValue(), ttl.toMinutes());
@@ -80,13 +86,24 @@ public class GalleryManagerCacheService {
     public void evictGalleryManager(Username username) {
         try {
             String key = CacheKeyGenerator.galleryManagerKey(username);
-            redissonClient.getBucket(key).delete();
+            tieredCacheService.evict(key);
             log.debug("删除收藏馆管理缓存: {}", username.getValue());
         } catch (Exception e) {
             log.error("删除收藏馆管理缓存失败: {} - {}", username.getValue(), e.getMessage(), e);
         }
     }
     
+    /**
+     * 获取收藏馆管理聚合根缓存，未命中时单飞回源加载并写入缓存
+     * @param loader 数据库加载逻辑，返回空表示不存在
+     */
+    public Optional<GalleryManager> getOrLoadGalleryManager(Username username, Supplier<Optional<GalleryManager>> loader) {
+        hotKeyTracker.recordUser(username);
+        String key = CacheKeyGenerator.galleryManagerKey(username);
+        return singleFlightCacheLoader.getOrLoad(key, UserInteractionCacheConfig.GALLERY_MANAGER_TTL, loader,
+                GalleryManager::getVersion);
+    }
+    
     // ==================== 收藏馆统计缓存操作 ====================
     
     /**
@@ -95,8 +112,7 @@ public class GalleryManagerCacheService {
     public Optional<GalleryManager.GalleryStatistics> getGalleryStatistics(Username username) {
         try {
             String key = CacheKeyGenerator.galleryStatisticsKey(username);
-            RBucket<GalleryManager.GalleryStatistics> bucket = redissonClient.getBucket(key);
-            GalleryManager.GalleryStatistics stats = bucket.get();
+            GalleryManager.GalleryStatistics stats = tieredCacheService.<GalleryManager.GalleryStatistics>get(key).orElse(null);
             
             if (stats != null) {
                 log.debug("缓存命中 - 收藏馆统计: {}", username.getValue());
@@ -117,11 +133,9 @@ public class GalleryManagerCacheService {
     public void cacheGalleryStatistics(GalleryManager.GalleryStatistics statistics) {
         try {
             String key = CacheKeyGenerator.galleryStatisticsKey(Username.of(statistics.getUsername()));
-            RBucket<GalleryManager.GalleryStatistics> bucket = redissonClient.getBucket(key);
-            
             Duration ttl = UserInteractionCacheConfig.getRandomizedTtl(
                 UserInteractionCacheConfig.GALLERY_STATISTICS_TTL);
-            bucket.set(statistics, ttl);
+            tieredCacheService.put(key, statistics, ttl);
             
             log.debug("缓存收藏馆统计: {} - TTL: {}分钟", 
                      statistics.getUsername(), ttl.toMinutes());
@@ -137,7 +151,7 @@ public class GalleryManagerCacheService {
     public void evictGalleryStatistics(Username username) {
         try {
             String key = CacheKeyGenerator.galleryStatisticsKey(username);
-            redissonClient.getBucket(key).delete();
+            tieredCacheService.evict(key);
             log.debug("删除收藏馆统计缓存: {}", username.getValue());
         } catch (Exception e) {
             log.error("删除收藏馆统计缓存失败: {} - {}", username.getValue(), e.getMessage(), e);
@@ -152,8 +166,7 @@ public class GalleryManagerCacheService {
     public Optional<Object> getGalleryDetail(String galleryId) {
         try {
             String key = CacheKeyGenerator.galleryDetailKey(galleryId);
-            RBucket<Object> bucket = redissonClient.getBucket(key);
-            Object gallery = bucket.get();
+            Object gallery = tieredCacheService.<Object>get(key).orElse(null);
             
             if (gallery != null) {
                 log.debug("缓存命中 - 收藏馆详情: {}", galleryId);
@@ -174,11 +187,9 @@ public class GalleryManagerCacheService {
     public void cacheGalleryDetail(String galleryId, Object gallery) {
         try {
             String key = CacheKeyGenerator.galleryDetailKey(galleryId);
-            RBucket<Object> bucket = redissonClient.getBucket(key);
-            
             Duration ttl = UserInteractionCacheConfig.getRandomizedTtl(
                 UserInteractionCacheConfig.GALLERY_MANAGER_TTL);
-            bucket.set(gallery, ttl);
+            tieredCacheService.put(key, gallery, ttl);
             
             log.debug("缓存收藏馆详情: {} - TTL: {}分钟", galleryId, ttl.toMinutes());
         } catch (Exception e) {
@@ -192,7 +203,7 @@ public class GalleryManagerCacheService {
     public void evictGalleryDetailCache(String galleryId) {
         try {
             String key = CacheKeyGenerator.galleryDetailKey(galleryId);
-            redissonClient.getBucket(key).delete();
+            tieredCacheService.evict(key);
             log.debug("删除收藏馆详情缓存: {}", galleryId);
         } catch (Exception e) {
             log.error("删除收藏馆详情缓存失败: {} - {}", galleryId, e.getMessage(), e);
@@ -206,9 +217,11 @@ public class GalleryManagerCacheService {
      */
     public Optional<Object> getUserGalleryList(Username username, int page, int size) {
         try {
-            String key = CacheKeyGenerator.userGalleryListKey(username, page, size);
-            RBucket<Object> bucket = redissonClient.getBucket(key);
-            Object galleries = bucket.get();
+            String key = tieredCacheService.versionedKey(
+                CacheKeyGenerator.userGalleryListKey(username, page, size),
+                CacheKeyGenerator.userTag(username),
+                CacheKeyGenerator.userGalleryListTag(username));
+            Object galleries = tieredCacheService.<Object>get(key).orElse(null);
             
             if (galleries != null) {
                 log.debug("缓存命中 - 用户收藏馆列表: {} - 页码: {}", username.getValue(), page);
@@ -228,12 +241,13 @@ public class GalleryManagerCacheService {
      */
     public void cacheUserGalleryList(Username username, int page, int size, Object galleries) {
         try {
-            String key = CacheKeyGenerator.userGalleryListKey(username, page, size);
-            RBucket<Object> bucket = redissonClient.getBucket(key);
-            
+            String key = tieredCacheService.versionedKey(
+                CacheKeyGenerator.userGalleryListKey(username, page, size),
+                CacheKeyGenerator.userTag(username),
+                CacheKeyGenerator.userGalleryListTag(username));
             Duration ttl = UserInteractionCacheConfig.getRandomizedTtl(
                 UserInteractionCacheConfig.GALLERY_MANAGER_TTL);
-            bucket.set(galleries, ttl);
+            tieredCacheService.put(key, galleries, ttl);
             
             log.debug("缓存用户收藏馆列表: {} - 页码: {} - TTL: {}分钟", 
                      username.getValue(), page, ttl.toMinutes());
@@ -247,8 +261,7 @@ public class GalleryManagerCacheService {
      */
     public void evictGalleryListCaches(Username username) {
         try {
-            String pattern = CacheKeyGenerator.userGalleryListPattern(username);
-            redissonClient.getKeys().deleteByPattern(pattern);
+            tieredCacheService.bumpVersion(CacheKeyGenerator.userGalleryListTag(username));
             log.debug("删除用户收藏馆列表缓存: {}", username.getValue());
         } catch (Exception e) {
             log.error("删除用户收藏馆列表缓存失败: {} - {}", username.getValue(), e.getMessage(), e);
@@ -296,34 +309,6 @@ public class GalleryManagerCacheService {
         }
     }
     
-    /**
-     * 使用分布式锁执行缓存操作
-     */
-    public <T> T executeWithLock(Username username, String operation, java.util.function.Supplier<T> supplier) {
-        String lockKey = CacheKeyGenerator.galleryManagerLockKey(username, operation);
-        RLock lock = redissonClient.getLock(lockKey);
-        
-        try {
-            if (lock.tryLock(5, 30, TimeUnit.SECONDS)) {
-                try {
-                    return supplier.get();
-                } finally {
-                    lock.unlock();
-                }
-            } else {
-                log.warn("获取分布式锁失败: {} - {}", username.getValue(), operation);
-                throw new RuntimeException("获取分布式锁失败");
-            }
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            log.error("分布式锁操作被中断: {} - {}", username.getValue(), operation);
-            throw new RuntimeException("分布式锁操作被中断", e);
-        } catch (Exception e) {
-            log.error("分布式锁操作失败: {} - {} - {}", username.getValue(), operation, e.getMessage(), e);
-            throw new RuntimeException("分布式锁操作失败", e);
-        }
-    }
-    
     /**
      * 检查缓存健康状态
      */
@@ -0,0 +1,187 @@
+package com.ling.infrastructure.cache.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.redisson.api.RBloomFilter;
+import org.redisson.api.RBucket;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.LongCodec;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.ling.domain.relics.model.entity.RelicsEntity;
+import com.ling.infrastructure.cache.config.UserInteractionCacheConfig;
+import com.ling.infrastructure.cache.util.CacheKeyGenerator;
+import com.ling.infrastructure.dao.IRelicsDao;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 文物缓存服务
+ * @Author: LingRJ
+ * @Description: 文物详情经两级缓存与单飞加载读取，不存在的ID由单飞加载器写入空值标记。
+ *               可选的布隆过滤器记录全部已存在的文物ID，过滤器判定不存在的ID直接返回，不访问缓存和数据库；
+ *               过滤器只在完整构建后启用，构建前或 Redis 中丢失时一律放行，保证不会误判已存在的文物
+ * @DateTime: 2025/7/20
+ */
+@Service
+@Slf4j
+public class RelicsCacheService {
+
+    @Autowired
+    private RedissonClient redissonClient;
+
+    @Autowired
+    private SingleFlightCacheLoader singleFlightCacheLoader;
+
+    @Autowired
+    private TieredCacheService tieredCacheService;
+
+    @Autowired
+    private IRelicsDao relicsDao;
+
+    @Value("${cache.relics.bloom-filter.enabled:false}")
+    private boolean bloomFilterEnabled = false;
+
+    @Value("${cache.relics.bloom-filter.expected-insertions:1000000}")
+    private long expectedInsertions = 1_000_000L;
+
+    @Value("${cache.relics.bloom-filter.false-probability:0.01}")
+    private double falseProbability = 0.01;
+
+    /**
+     * 构建锁的租期，构建节点宕机时到期释放
+     */
+    private static final Duration BLOOM_BUILD_LEASE = Duration.ofMinutes(5);
+
+    /**
+     * 本节点确认过滤器已完整构建
+     */
+    private volatile boolean bloomFilterReady = false;
+
+    // ==================== 文物详情 ====================
+
+    /**
+     * 读取文物详情，未命中时以单飞方式回源
+     * @param loader 回源加载，返回空表示文物不存在
+     */
+    public Optional<RelicsEntity> getOrLoadRelics(Long relicsId, Supplier<Optional<RelicsEntity>> loader) {
+        if (!mightExist(relicsId)) {
+            log.debug("布隆过滤器判定文物不存在: {}", relicsId);
+            return Optional.empty();
+        }
+        return singleFlightCacheLoader.getOrLoad(CacheKeyGenerator.relicsDetailKey(relicsId),
+                UserInteractionCacheConfig.RELICS_DETAIL_TTL, loader);
+    }
+
+    /**
+     * 文物新增或变更后调用：登记到布隆过滤器并清除详情缓存（含空值标记）
+     */
+    public void onRelicsChanged(Long relicsId) {
+        try {
+            tieredCacheService.evict(CacheKeyGenerator.relicsDetailKey(relicsId));
+        } catch (Exception e) {
+            log.error("删除文物详情缓存失败: {} - {}", relicsId, e.getMessage(), e);
+        }
+        if (bloomFilterEnabled) {
+            try {
+                bloomFilter().add(relicsId);
+            } catch (Exception e) {
+                // 过滤器不可用时下次检查会重建
+                bloomFilterReady = false;
+                log.warn("登记文物ID到布隆过滤器失败: {} - {}", relicsId, e.getMessage());
+            }
+        }
+    }
+
+    // ==================== 布隆过滤器 ====================
+
+    /**
+     * 判断文物是否可能存在，过滤器未启用或未就绪时返回 true
+     */
+    public boolean mightExist(Long relicsId) {
+        if (!bloomFilterEnabled || !bloomFilterReady) {
+            return true;
+        }
+        try {
+            if (bloomFilter().contains(relicsId)) {
+                return true;
+            }
+            // 仅在判定不存在时复核就绪标记，防止其他节点重建期间据不完整的过滤器误判
+            if (!readyMarker().isExists()) {
+                bloomFilterReady = false;
+                return true;
+            }
+            return false;
+        } catch (Exception e) {
+            bloomFilterReady = false;
+            log.warn("查询布隆过滤器失败，暂时停用: {}", e.getMessage());
+            return true;
+        }
+    }
+
+    /**
+     * 检查过滤器是否完整存在，缺失时（首次启动、Redis 清空）重新构建。
+     * 构建由持有构建锁的一个节点完成，其余节点等待就绪标记；构建中断时锁到期释放，由下一次检查重建
+     */
+    @Scheduled(fixedDelayString = "${cache.relics.bloom-filter.check-interval:5m}")
+    public void ensureBloomFilter() {
+        if (!bloomFilterEnabled) {
+            return;
+        }
+        try {
+            RBucket<String> readyMarker = readyMarker();
+            if (readyMarker.isExists() && bloomFilter().isExists()) {
+                bloomFilterReady = true;
+                return;
+            }
+            bloomFilterReady = false;
+
+            RLock buildLock = redissonClient.getLock(UserInteractionCacheConfig.getLockKey("relics:bloom:build"));
+            if (!buildLock.tryLock(0, BLOOM_BUILD_LEASE.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.debug("布隆过滤器由其他节点构建中");
+                return;
+            }
+            try {
+                // 清除上次中断留下的不完整过滤器
+                readyMarker.delete();
+                RBloomFilter<Long> filter = bloomFilter();
+                filter.delete();
+                filter.tryInit(expectedInsertions, falseProbability);
+                List<Long> relicsIds = relicsDao.selectAllRelicsIds();
+                if (!relicsIds.isEmpty()) {
+                    filter.add(relicsIds);
+                }
+                readyMarker.set(String.valueOf(relicsIds.size()));
+                bloomFilterReady = true;
+                log.info("文物布隆过滤器构建完成: 文物数={}, 预期容量={}, 误判率={}",
+                        relicsIds.size(), expectedInsertions, falseProbability);
+            } finally {
+                if (buildLock.isHeldByCurrentThread()) {
+                    buildLock.unlock();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            bloomFilterReady = false;
+            log.error("构建文物布隆过滤器失败: {}", e.getMessage(), e);
+        }
+    }
+
+    private RBloomFilter<Long> bloomFilter() {
+        return redissonClient.getBloomFilter(CacheKeyGenerator.relicsBloomFilterKey(), LongCodec.INSTANCE);
+    }
+
+    private RBucket<String> readyMarker() {
+        return redissonClient.getBucket(CacheKeyGenerator.relicsBloomFilterKey() + ":ready", StringCodec.INSTANCE);
+    }
+}
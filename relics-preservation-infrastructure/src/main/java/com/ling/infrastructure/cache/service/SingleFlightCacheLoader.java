@@ -0,0 +1,280 @@
+package com.ling.infrastructure.cache.service;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.ling.infrastructure.cache.config.UserInteractionCacheConfig;
+import com.ling.infrastructure.cache.metrics.CacheMetrics;
+import com.ling.infrastructure.cache.util.CacheKeyGenerator;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 单飞缓存加载器
+ * @Author: LingRJ
+ * @Description: 缓存未命中时合并同一键的并发加载，防止缓存击穿。
+ *               本地通过在途 Future 表保证每个键只有一个加载者，其余请求等待其完成后重新读取缓存；
+ *               开启分布式模式后，加载者还需获取 Redisson 锁并二次检查缓存，保证集群内只回源一次。
+ *               缓存剩余时间低于刷新阈值时先返回旧值，再异步刷新（stale-while-revalidate）。
+ *               回源结果为空时写入空值标记（短 TTL），标记有效期内的请求直接返回空，不再穿透到数据库。
+ *               带版本号的聚合根按版本写入，避免回源读到的旧快照覆盖并发保存后写入的新版本。
+ * @DateTime: 2025/7/20
+ */
+@Service
+@Slf4j
+public class SingleFlightCacheLoader {
+
+    @Autowired
+    private RedissonClient redissonClient;
+
+    @Autowired
+    private TieredCacheService tieredCacheService;
+
+    @Autowired
+    private CacheMetrics cacheMetrics;
+
+    @Autowired
+    @Qualifier("cacheRefreshExecutor")
+    private Executor refreshExecutor;
+
+    @Value("${cache.single-flight.distributed:false}")
+    private boolean distributed = false;
+
+    @Value("${cache.single-flight.wait-timeout:3s}")
+    private Duration waitTimeout = Duration.ofSeconds(UserInteractionCacheConfig.LOCK_WAIT_SECONDS);
+
+    /**
+     * 剩余时间低于基础TTL的该比例时触发后台刷新，0 表示关闭
+     */
+    @Value("${cache.single-flight.refresh-ahead-ratio:0.2}")
+    private double refreshAheadRatio = 0.2;
+
+    /**
+     * 是否缓存空结果
+     */
+    @Value("${cache.negative.enabled:true}")
+    private boolean negativeCacheEnabled = true;
+
+    /**
+     * 在途加载：键 -> 加载结果是否存在
+     */
+    private final ConcurrentHashMap<String, CompletableFuture<Boolean>> inFlight = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        cacheMetrics.gauge("single-flight.in-flight", "在途的单飞加载数", inFlight, ConcurrentHashMap::size);
+    }
+
+    /**
+     * 读取缓存，未命中时以单飞方式回源并写入缓存
+     * @param key 缓存键
+     * @param baseTtl 基础过期时间
+     * @param loader 回源加载，返回空表示数据不存在
+     * @return 缓存值或加载结果
+     */
+    public <T> Optional<T> getOrLoad(String key, Duration baseTtl, Supplier<Optional<T>> loader) {
+        return getOrLoad(key, baseTtl, loader, null);
+    }
+
+    /**
+     * 读取带版本号的聚合根缓存，未命中或过期前刷新时按版本写入：
+     * 回源结果通过 {@link TieredCacheService#putIfNewer} 写入，空值标记在已有版本号时不写入
+     * @param versionOf 取加载结果的已持久化版本号
+     */
+    public <T> Optional<T> getOrLoad(String key, Duration baseTtl, Supplier<Optional<T>> loader,
+                                     ToLongFunction<T> versionOf) {
+        Optional<TieredCacheService.CacheEntry<T>> cached = readCache(key);
+        if (cached.isPresent()) {
+            TieredCacheService.CacheEntry<T> entry = cached.get();
+            if (UserInteractionCacheConfig.isNullValue(entry.value())) {
+                // 空值标记不做过期前刷新，到期后自然回源
+                return Optional.empty();
+            }
+            Duration refreshAhead = Duration.ofMillis((long) (baseTtl.toMillis() * refreshAheadRatio));
+            if (refreshAheadRatio > 0 && entry.expiresWithin(refreshAhead)) {
+                refreshAsync(key, baseTtl, loader, versionOf);
+            }
+            return Optional.of(entry.value());
+        }
+        return loadSingleFlight(key, baseTtl, loader, versionOf);
+    }
+
+    /**
+     * 当前在途加载数
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    // ==================== 单飞加载 ====================
+
+    private <T> Optional<T> loadSingleFlight(String key, Duration baseTtl, Supplier<Optional<T>> loader,
+                                             ToLongFunction<T> versionOf) {
+        CompletableFuture<Boolean> leader = new CompletableFuture<>();
+        CompletableFuture<Boolean> existing = inFlight.putIfAbsent(key, leader);
+        if (existing != null) {
+            return awaitLeader(key, existing, baseTtl, loader, versionOf);
+        }
+
+        try {
+            Optional<T> result = distributed
+                    ? loadWithLock(key, baseTtl, loader, versionOf)
+                    : loadAndCache(key, baseTtl, loader, versionOf);
+            leader.complete(result.isPresent());
+            return result;
+        } catch (RuntimeException e) {
+            leader.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, leader);
+        }
+    }
+
+    /**
+     * 等待加载者完成后重新读取缓存。
+     * 不直接共享加载者返回的实例，聚合根是可变对象，缓存读取会得到独立副本
+     */
+    private <T> Optional<T> awaitLeader(String key, CompletableFuture<Boolean> leader,
+                                        Duration baseTtl, Supplier<Optional<T>> loader,
+                                        ToLongFunction<T> versionOf) {
+        try {
+            boolean found = leader.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            if (!found) {
+                return Optional.empty();
+            }
+            Optional<TieredCacheService.CacheEntry<T>> cached = readCache(key);
+            if (cached.isPresent()) {
+                return valueOf(cached.get());
+            }
+            log.debug("单飞加载完成但缓存不可读，直接回源: {}", key);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("等待单飞加载被中断，直接回源: {}", key);
+        } catch (TimeoutException e) {
+            log.warn("等待单飞加载超时，直接回源: {}", key);
+        } catch (Exception e) {
+            log.warn("单飞加载失败，直接回源: {} - {}", key, e.getMessage());
+        }
+        return loadAndCache(key, baseTtl, loader, versionOf);
+    }
+
+    /**
+     * 分布式单飞：获取锁后二次检查缓存，获取失败时降级为直接回源
+     */
+    private <T> Optional<T> loadWithLock(String key, Duration baseTtl, Supplier<Optional<T>> loader,
+                                         ToLongFunction<T> versionOf) {
+        RLock lock = redissonClient.getLock(CacheKeyGenerator.loadLockKey(key));
+        boolean acquired = false;
+        try {
+            acquired = lock.tryLock(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            Optional<TieredCacheService.CacheEntry<T>> cached = readCache(key);
+            if (cached.isPresent()) {
+                log.debug("其他节点已完成加载: {}", key);
+                return valueOf(cached.get());
+            }
+            if (!acquired) {
+                log.warn("获取缓存加载锁超时，直接回源: {}", key);
+            }
+            return loadAndCache(key, baseTtl, loader, versionOf);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("获取缓存加载锁被中断，直接回源: {}", key);
+            return loadAndCache(key, baseTtl, loader, versionOf);
+        } finally {
+            if (acquired && lock.isHeldByCurrentThread()) {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * 回源并写入缓存。带版本号时按版本写入，回源期间并发保存已写入的新版本不会被旧快照或空值标记覆盖
+     */
+    private <T> Optional<T> loadAndCache(String key, Duration baseTtl, Supplier<Optional<T>> loader,
+                                         ToLongFunction<T> versionOf) {
+        Optional<T> result = cacheMetrics.timeLoad(CacheMetrics.cacheNameOf(key), loader);
+        try {
+            Duration ttl = result.isPresent()
+                    ? UserInteractionCacheConfig.getRandomizedTtl(baseTtl)
+                    : UserInteractionCacheConfig.getRandomizedNullTtl();
+            if (versionOf != null && result.isPresent()) {
+                tieredCacheService.putIfNewer(key, result.get(), versionOf.applyAsLong(result.get()), ttl);
+            } else if (result.isPresent()) {
+                tieredCacheService.put(key, result.get(), ttl);
+            } else if (negativeCacheEnabled && versionOf != null) {
+                tieredCacheService.putNullIfUnversioned(key, ttl);
+            } else if (negativeCacheEnabled) {
+                tieredCacheService.put(key, UserInteractionCacheConfig.NULL_VALUE, ttl);
+            }
+        } catch (Exception e) {
+            log.error("写入缓存失败: {} - {}", key, e.getMessage(), e);
+        }
+        return result;
+    }
+
+    /**
+     * 缓存值，空值标记视为数据不存在
+     */
+    private static <T> Optional<T> valueOf(TieredCacheService.CacheEntry<T> entry) {
+        return UserInteractionCacheConfig.isNullValue(entry.value()) ? Optional.empty() : Optional.of(entry.value());
+    }
+
+    private <T> Optional<TieredCacheService.CacheEntry<T>> readCache(String key) {
+        try {
+            return tieredCacheService.getEntry(key);
+        } catch (Exception e) {
+            log.error("读取缓存失败: {} - {}", key, e.getMessage(), e);
+            return Optional.empty();
+        }
+    }
+
+    // ==================== 过期前刷新 ====================
+
+    private <T> void refreshAsync(String key, Duration baseTtl, Supplier<Optional<T>> loader,
+                                  ToLongFunction<T> versionOf) {
+        CompletableFuture<Boolean> refresh = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(key, refresh) != null) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    // 数据已不存在时删除旧值：开启空值缓存时，未带版本号的键已被空值标记覆盖；
+                    // 带版本号的聚合根已记录版本号，空值标记不会写入，旧值需显式删除，否则会一直返回到过期
+                    Optional<T> result = loadAndCache(key, baseTtl, loader, versionOf);
+                    if (result.isEmpty() && (!negativeCacheEnabled || versionOf != null)) {
+                        tieredCacheService.evict(key);
+                    }
+                    refresh.complete(result.isPresent());
+                    log.debug("缓存过期前刷新完成: {}", key);
+                } catch (Exception e) {
+                    refresh.completeExceptionally(e);
+                    log.warn("缓存过期前刷新失败: {} - {}", key, e.getMessage());
+                } finally {
+                    inFlight.remove(key, refresh);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // 刷新是尽力而为的，线程池繁忙时放弃，等待自然过期后同步加载
+            inFlight.remove(key, refresh);
+            refresh.complete(true);
+            log.debug("缓存刷新任务被拒绝: {}", key);
+        }
+    }
+}
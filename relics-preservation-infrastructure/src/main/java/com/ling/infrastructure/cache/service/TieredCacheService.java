@@ -0,0 +1,657 @@
+package com.ling.infrastructure.cache.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.redisson.api.RBatch;
+import org.redisson.api.RBucket;
+import org.redisson.api.RBucketAsync;
+import org.redisson.api.RFuture;
+import org.redisson.api.RScript;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.ByteArrayCodec;
+import org.redisson.client.codec.Codec;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.client.handler.State;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ling.infrastructure.cache.config.UserInteractionCacheConfig;
+import com.ling.infrastructure.cache.metrics.CacheMetrics;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 两级缓存服务
+ * @Author: LingRJ
+ * @Description: Caffeine 本地缓存（L1）+ Redisson 远程缓存（L2）。
+ *               L1 按容量和较短的写入过期时间淘汰，写入/删除时通过 RTopic 通知其他节点失效本地副本，
+ *               广播丢失时由 L1 过期时间兜底，保证最终一致。
+ *               聚合根等可变对象在 L1 中以 L2 编码后的字节快照保存，每次读取反序列化出独立副本，
+ *               避免多个请求共享并修改同一实例。
+ *               各读写操作按逻辑缓存名记录命中层级、Redis 耗时、删除次数及快照字节数。
+ * @DateTime: 2025/7/20
+ */
+@Service
+@Slf4j
+public class TieredCacheService {
+
+    @Autowired
+    private RedissonClient redissonClient;
+
+    @Autowired
+    private CacheMetrics cacheMetrics;
+
+    @Value("${cache.near.enabled:true}")
+    private boolean nearCacheEnabled = true;
+
+    @Value("${cache.near.maximum-size:10000}")
+    private long maximumSize = UserInteractionCacheConfig.NEAR_CACHE_MAXIMUM_SIZE;
+
+    @Value("${cache.near.expire-after-write:30s}")
+    private Duration expireAfterWrite = UserInteractionCacheConfig.NEAR_CACHE_TTL;
+
+    /**
+     * 按版本写入：缓存值存在且已记录的版本高于新版本时返回 0；同版本重写只续期，供过期前刷新使用
+     */
+    private static final String PUT_IF_NEWER_SCRIPT =
+            "local current = tonumber(redis.call('get', KEYS[2]) or '-1') " +
+            "if redis.call('exists', KEYS[1]) == 1 and current > tonumber(ARGV[2]) then return 0 end " +
+            "redis.call('psetex', KEYS[1], ARGV[3], ARGV[1]) " +
+            "redis.call('psetex', KEYS[2], ARGV[3], ARGV[2]) " +
+            "return 1";
+
+    /**
+     * 写入空值标记：已记录版本号时说明并发保存已写入聚合根，返回 0 不覆盖
+     */
+    private static final String PUT_NULL_IF_UNVERSIONED_SCRIPT =
+            "if redis.call('exists', KEYS[2]) == 1 then return 0 end " +
+            "redis.call('psetex', KEYS[1], ARGV[2], ARGV[1]) " +
+            "return 1";
+
+    private static final int INVALIDATION_STRIPES = 64;
+
+    /**
+     * 当前节点标识，用于忽略自己发出的失效广播
+     */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    /**
+     * 按键哈希分段的失效计数，本节点写入/删除与收到失效广播时递增。
+     * 回源Redis期间同一分段发生过失效时，读到的值可能已过期，不写入本地缓存
+     */
+    private final AtomicLongArray invalidationStamps = new AtomicLongArray(INVALIDATION_STRIPES);
+
+    private Cache<String, Object> localCache;
+
+    private Codec codec;
+
+    private RTopic invalidationTopic;
+
+    private int listenerId = -1;
+
+    @PostConstruct
+    public void init() {
+        localCache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        codec = redissonClient.getConfig().getCodec();
+        cacheMetrics.monitorNearCache(localCache, "near");
+
+        if (!nearCacheEnabled) {
+            log.info("本地缓存已关闭，仅使用Redis缓存");
+            return;
+        }
+        try {
+            invalidationTopic = redissonClient.getTopic(UserInteractionCacheConfig.NEAR_CACHE_INVALIDATION_TOPIC);
+            listenerId = invalidationTopic.addListener(InvalidationMessage.class,
+                    (channel, message) -> onInvalidation(message));
+            log.info("两级缓存初始化完成 - 容量: {}, L1过期: {}s, 节点: {}",
+                    maximumSize, expireAfterWrite.toSeconds(), nodeId);
+        } catch (Exception e) {
+            // 订阅失败时无法保证跨节点一致，退化为仅使用L2
+            nearCacheEnabled = false;
+            log.error("订阅缓存失效广播失败，本地缓存已关闭: {}", e.getMessage(), e);
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (invalidationTopic != null && listenerId != -1) {
+            try {
+                invalidationTopic.removeListener(listenerId);
+            } catch (Exception e) {
+                log.warn("取消缓存失效订阅失败: {}", e.getMessage());
+            }
+        }
+    }
+
+    // ==================== 读写操作 ====================
+
+    /**
+     * 读取缓存，先查本地缓存，未命中再查Redis并回填本地缓存。
+     * 空值标记按未命中返回，调用方无需区分
+     */
+    public <T> Optional<T> get(String key) {
+        Optional<T> value = getRaw(key);
+        return value.filter(v -> !UserInteractionCacheConfig.isNullValue(v));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Optional<T> getRaw(String key) {
+        String cache = CacheMetrics.cacheNameOf(key);
+        if (nearCacheEnabled) {
+            Object local = localCache.getIfPresent(key);
+            if (local != null) {
+                T value = (T) fromLocal(local);
+                if (value != null) {
+                    cacheMetrics.recordHit(cache, CacheMetrics.TIER_LOCAL);
+                    return Optional.of(value);
+                }
+            }
+            cacheMetrics.recordLocalMiss(cache, 1);
+        }
+
+        long stamp = invalidationStamp(key);
+        RBucket<T> bucket = redissonClient.getBucket(key);
+        T value = cacheMetrics.timeRedis(cache, "get", bucket::get);
+        recordRemoteGet(cache, value != null);
+        if (value != null && nearCacheEnabled) {
+            putLocal(key, value, stamp);
+        }
+        return Optional.ofNullable(value);
+    }
+
+    /**
+     * 读取缓存及其剩余过期时间。本地缓存命中时剩余时间未知（-1）；
+     * 回源Redis时值与PTTL在同一批次中获取，不增加往返次数。
+     * 空值标记原样返回，由调用方判断是否为已缓存的空结果
+     */
+    public <T> Optional<CacheEntry<T>> getEntry(String key) {
+        String cache = CacheMetrics.cacheNameOf(key);
+        if (nearCacheEnabled) {
+            Object local = localCache.getIfPresent(key);
+            if (local != null) {
+                @SuppressWarnings("unchecked")
+                T value = (T) fromLocal(local);
+                if (value != null) {
+                    cacheMetrics.recordHit(cache, CacheMetrics.TIER_LOCAL);
+                    return Optional.of(new CacheEntry<>(value, -1L));
+                }
+            }
+            cacheMetrics.recordLocalMiss(cache, 1);
+        }
+
+        long stamp = invalidationStamp(key);
+        RBatch batch = redissonClient.createBatch();
+        RBucketAsync<T> bucket = batch.getBucket(key);
+        RFuture<T> valueFuture = bucket.getAsync();
+        RFuture<Long> ttlFuture = bucket.remainTimeToLiveAsync();
+        cacheMetrics.timeRedis(cache, "get", batch::execute);
+
+        T value = valueFuture.toCompletableFuture().join();
+        recordRemoteGet(cache, value != null);
+        if (value == null) {
+            return Optional.empty();
+        }
+        if (nearCacheEnabled) {
+            putLocal(key, value, stamp);
+        }
+        return Optional.of(new CacheEntry<>(value, ttlFuture.toCompletableFuture().join()));
+    }
+
+    /**
+     * 写入缓存并通知其他节点失效本地副本
+     */
+    public void put(String key, Object value, Duration ttl) {
+        String cache = CacheMetrics.cacheNameOf(key);
+        RBucket<Object> bucket = redissonClient.getBucket(key);
+        cacheMetrics.timeRedis(cache, "set", () -> bucket.set(value, ttl));
+        cacheMetrics.recordPut(cache, 1);
+        if (nearCacheEnabled) {
+            markInvalidated(List.of(key));
+            putLocal(key, value);
+            publish(List.of(key));
+        }
+    }
+
+    /**
+     * 按版本号写入缓存：Redis 中已有更新版本的副本时放弃写入，同版本重写视为续期。
+     * 版本号保存在 {key}:ver 中，与缓存值同一脚本内比较并写入；缓存值已被删除时任意版本均可写入
+     * @param version 缓存值对应的已持久化版本号
+     * @return 是否写入
+     */
+    public boolean putIfNewer(String key, Object value, long version, Duration ttl) {
+        String cache = CacheMetrics.cacheNameOf(key);
+        byte[] payload;
+        try {
+            payload = encode(value);
+        } catch (IOException e) {
+            log.warn("编码缓存值失败，删除旧副本: {} - {}", key, e.getMessage());
+            evict(key);
+            return false;
+        }
+
+        Long written = cacheMetrics.timeRedis(cache, "eval", () -> redissonClient.getScript(ByteArrayCodec.INSTANCE).<Long>eval(
+                RScript.Mode.READ_WRITE, PUT_IF_NEWER_SCRIPT, RScript.ReturnType.INTEGER,
+                List.of(key, versionKeyOf(key)),
+                payload, toBytes(version), toBytes(ttl.toMillis())));
+        if (written == null || written == 0) {
+            // 其他请求已写入更新的版本，本地副本可能落后
+            invalidateLocal(key);
+            log.debug("缓存已有更新版本，放弃写入: {} - 版本: {}", key, version);
+            return false;
+        }
+
+        cacheMetrics.recordPut(cache, 1);
+        cacheMetrics.recordPayload(cache, payload.length);
+        if (nearCacheEnabled) {
+            markInvalidated(List.of(key));
+            localCache.put(key, new Snapshot(payload));
+            publish(List.of(key));
+        }
+        return true;
+    }
+
+    /**
+     * 写入空值标记，{key}:ver 存在时放弃写入。
+     * 回源读到"不存在"后、写入空值标记前，其他请求可能已保存聚合根并通过 {@link #putIfNewer} 写入缓存，
+     * 此时不能用空值标记覆盖
+     * @return 是否写入
+     */
+    public boolean putNullIfUnversioned(String key, Duration ttl) {
+        String cache = CacheMetrics.cacheNameOf(key);
+        byte[] payload;
+        try {
+            payload = encode(UserInteractionCacheConfig.NULL_VALUE);
+        } catch (IOException e) {
+            log.warn("编码空值标记失败: {} - {}", key, e.getMessage());
+            return false;
+        }
+
+        Long written = cacheMetrics.timeRedis(cache, "eval", () -> redissonClient.getScript(ByteArrayCodec.INSTANCE).<Long>eval(
+                RScript.Mode.READ_WRITE, PUT_NULL_IF_UNVERSIONED_SCRIPT, RScript.ReturnType.INTEGER,
+                List.of(key, versionKeyOf(key)),
+                payload, toBytes(ttl.toMillis())));
+        if (written == null || written == 0) {
+            log.debug("缓存已有版本化的值，放弃写入空值标记: {}", key);
+            return false;
+        }
+
+        cacheMetrics.recordPut(cache, 1);
+        if (nearCacheEnabled) {
+            markInvalidated(List.of(key));
+            localCache.put(key, UserInteractionCacheConfig.NULL_VALUE);
+            publish(List.of(key));
+        }
+        return true;
+    }
+
+    /**
+     * 删除缓存并通知其他节点失效本地副本
+     */
+    public void evict(String... keys) {
+        if (keys.length == 0) {
+            return;
+        }
+        String cache = CacheMetrics.cacheNameOf(keys[0]);
+        cacheMetrics.timeRedis(cache, "del", () -> redissonClient.getKeys().delete(keys));
+        for (String key : keys) {
+            cacheMetrics.recordEviction(CacheMetrics.cacheNameOf(key), 1);
+        }
+        if (nearCacheEnabled) {
+            List<String> keyList = Arrays.asList(keys);
+            markInvalidated(keyList);
+            localCache.invalidateAll(keyList);
+            publish(keyList);
+        }
+    }
+
+    // ==================== 批量操作 ====================
+
+    /**
+     * 批量读取缓存：本地缓存命中的直接返回，其余通过一次 MGET 从Redis获取并回填本地缓存
+     * @return 仅包含命中的键，空值标记不计入
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Map<String, T> getAll(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, T> result = new HashMap<>(keys.size() * 2);
+        List<String> remoteKeys = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            Object local = nearCacheEnabled ? localCache.getIfPresent(key) : null;
+            T value = local != null ? (T) fromLocal(local) : null;
+            if (value != null) {
+                if (!UserInteractionCacheConfig.isNullValue(value)) {
+                    result.put(key, value);
+                }
+            } else {
+                remoteKeys.add(key);
+            }
+        }
+        String cache = CacheMetrics.cacheNameOf(keys.iterator().next());
+        cacheMetrics.recordGets(cache, CacheMetrics.TIER_LOCAL, result.size(), remoteKeys.size());
+        if (remoteKeys.isEmpty()) {
+            return result;
+        }
+
+        Map<String, Long> stamps = new HashMap<>(remoteKeys.size() * 2);
+        for (String key : remoteKeys) {
+            stamps.put(key, invalidationStamp(key));
+        }
+        Map<String, T> remote = cacheMetrics.timeRedis(cache, "mget",
+                () -> redissonClient.getBuckets().<T>get(remoteKeys.toArray(new String[0])));
+        int localHits = result.size();
+        remote.forEach((key, value) -> {
+            if (value != null) {
+                if (!UserInteractionCacheConfig.isNullValue(value)) {
+                    result.put(key, value);
+                }
+                if (nearCacheEnabled) {
+                    putLocal(key, value, stamps.get(key));
+                }
+            }
+        });
+        int remoteHits = result.size() - localHits;
+        cacheMetrics.recordGets(cache, CacheMetrics.TIER_REMOTE, remoteHits, remoteKeys.size() - remoteHits);
+        return result;
+    }
+
+    /**
+     * 批量写入缓存：在一个批次中写入Redis，并合并为一条失效广播
+     */
+    public void putAll(Map<String, ?> values, Duration ttl) {
+        if (values.isEmpty()) {
+            return;
+        }
+        String cache = CacheMetrics.cacheNameOf(values.keySet().iterator().next());
+        RBatch batch = redissonClient.createBatch();
+        values.forEach((key, value) -> batch.getBucket(key).setAsync(value, ttl));
+        cacheMetrics.timeRedis(cache, "mset", batch::execute);
+        cacheMetrics.recordPut(cache, values.size());
+        if (nearCacheEnabled) {
+            List<String> keys = new ArrayList<>(values.keySet());
+            markInvalidated(keys);
+            values.forEach(this::putLocal);
+            publish(keys);
+        }
+    }
+
+    // ==================== 版本号失效 ====================
+
+    /**
+     * 获取标签当前版本号，本地缓存优先
+     */
+    public long getVersion(String tagKey) {
+        if (nearCacheEnabled && localCache.getIfPresent(tagKey) instanceof Long version) {
+            return version;
+        }
+        long stamp = invalidationStamp(tagKey);
+        long version = redissonClient.getAtomicLong(tagKey).get();
+        putLocalVersion(tagKey, version, stamp);
+        return version;
+    }
+
+    /**
+     * 批量获取标签版本号，本地缓存未命中的标签通过一次 MGET 读取
+     */
+    private long[] getVersions(String... tagKeys) {
+        long[] versions = new long[tagKeys.length];
+        int[] remoteIndexes = new int[tagKeys.length];
+        int remoteCount = 0;
+        for (int i = 0; i < tagKeys.length; i++) {
+            if (nearCacheEnabled && localCache.getIfPresent(tagKeys[i]) instanceof Long version) {
+                versions[i] = version;
+            } else {
+                remoteIndexes[remoteCount++] = i;
+            }
+        }
+        if (remoteCount == 0) {
+            return versions;
+        }
+
+        String[] remoteKeys = new String[remoteCount];
+        long[] stamps = new long[remoteCount];
+        for (int j = 0; j < remoteCount; j++) {
+            remoteKeys[j] = tagKeys[remoteIndexes[j]];
+            stamps[j] = invalidationStamp(remoteKeys[j]);
+        }
+        // RAtomicLong 以十进制字符串保存，不存在的标签版本号为 0
+        Map<String, String> remote = redissonClient.getBuckets(StringCodec.INSTANCE).get(remoteKeys);
+        for (int j = 0; j < remoteCount; j++) {
+            String value = remote.get(remoteKeys[j]);
+            long version = value != null ? Long.parseLong(value) : 0L;
+            versions[remoteIndexes[j]] = version;
+            putLocalVersion(remoteKeys[j], version, stamps[j]);
+        }
+        return versions;
+    }
+
+    /**
+     * 将从Redis读到的版本号写入本地缓存。
+     * 不覆盖已有值（可能是本节点刚递增的新版本），写入后若读取期间收到过失效广播则撤回，避免旧版本号驻留到L1过期
+     */
+    private void putLocalVersion(String tagKey, long version, long stamp) {
+        if (!nearCacheEnabled) {
+            return;
+        }
+        Long boxed = version;
+        localCache.asMap().putIfAbsent(tagKey, boxed);
+        if (invalidationStamp(tagKey) != stamp) {
+            localCache.asMap().remove(tagKey, boxed);
+        }
+    }
+
+    private long invalidationStamp(String key) {
+        return invalidationStamps.get(stripeOf(key));
+    }
+
+    /**
+     * 递增失效计数，须在失效或改写本地副本之前调用，
+     * 保证并发的回源读取要么看到计数变化，要么其回填被随后的失效/改写覆盖
+     */
+    private void markInvalidated(Collection<String> keys) {
+        for (String key : keys) {
+            invalidationStamps.incrementAndGet(stripeOf(key));
+        }
+    }
+
+    private static int stripeOf(String key) {
+        return Math.floorMod(key.hashCode(), INVALIDATION_STRIPES);
+    }
+
+    /**
+     * 递增标签版本号，使所有嵌入旧版本号的缓存键在O(1)内失效。
+     * 旧键不再被访问，随各自TTL自然过期；版本号本身不设过期时间，避免重置后旧键重新生效
+     */
+    public long bumpVersion(String tagKey) {
+        long version = redissonClient.getAtomicLong(tagKey).incrementAndGet();
+        if (nearCacheEnabled) {
+            localCache.put(tagKey, version);
+            publish(List.of(tagKey));
+        }
+        return version;
+    }
+
+    /**
+     * 生成嵌入版本号的缓存键，格式：{baseKey}:v{version1}.{version2}...
+     * 本地缓存未命中的标签合并为一次 MGET，关闭本地缓存时也只需一次往返
+     */
+    public String versionedKey(String baseKey, String... tagKeys) {
+        long[] versions = getVersions(tagKeys);
+        StringBuilder key = new StringBuilder(baseKey.length() + 4 * tagKeys.length + 2).append(baseKey).append(":v");
+        for (int i = 0; i < versions.length; i++) {
+            if (i > 0) {
+                key.append('.');
+            }
+            key.append(versions[i]);
+        }
+        return key.toString();
+    }
+
+    /**
+     * 仅失效本节点的本地缓存
+     */
+    public void invalidateLocal(String key) {
+        markInvalidated(List.of(key));
+        localCache.invalidate(key);
+    }
+
+    /**
+     * 本地缓存条目数（近似值）
+     */
+    public long localSize() {
+        return localCache.estimatedSize();
+    }
+
+    private void recordRemoteGet(String cache, boolean hit) {
+        if (hit) {
+            cacheMetrics.recordHit(cache, CacheMetrics.TIER_REMOTE);
+        } else {
+            cacheMetrics.recordMiss(cache);
+        }
+    }
+
+    // ==================== 失效广播 ====================
+
+    private void publish(List<String> keys) {
+        try {
+            invalidationTopic.publish(new InvalidationMessage(nodeId, keys));
+        } catch (Exception e) {
+            // 广播失败时其他节点依赖L1过期时间兜底
+            log.warn("发布缓存失效广播失败: {} - {}", keys, e.getMessage());
+        }
+    }
+
+    private void onInvalidation(InvalidationMessage message) {
+        if (message == null || message.getKeys() == null || nodeId.equals(message.getSourceId())) {
+            return;
+        }
+        markInvalidated(message.getKeys());
+        localCache.invalidateAll(message.getKeys());
+        log.debug("收到缓存失效广播: {} - 来源: {}", message.getKeys(), message.getSourceId());
+    }
+
+    // ==================== 本地副本 ====================
+
+    /**
+     * 回填从Redis读到的值：读取前记录的失效计数已变化时放弃，写入后计数变化则撤回
+     */
+    private void putLocal(String key, Object value, long stamp) {
+        if (invalidationStamp(key) != stamp) {
+            return;
+        }
+        putLocal(key, value);
+        if (invalidationStamp(key) != stamp) {
+            localCache.invalidate(key);
+        }
+    }
+
+    private void putLocal(String key, Object value) {
+        try {
+            if (isImmutable(value)) {
+                localCache.put(key, value);
+                return;
+            }
+            // 快照字节与写入Redis的编码一致，顺带记录载荷大小
+            byte[] bytes = encode(value);
+            cacheMetrics.recordPayload(CacheMetrics.cacheNameOf(key), bytes.length);
+            localCache.put(key, new Snapshot(bytes));
+        } catch (Exception e) {
+            localCache.invalidate(key);
+            log.warn("写入本地缓存失败: {} - {}", key, e.getMessage());
+        }
+    }
+
+    private Object fromLocal(Object local) {
+        if (!(local instanceof Snapshot snapshot)) {
+            return local;
+        }
+        ByteBuf buf = Unpooled.wrappedBuffer(snapshot.bytes());
+        try {
+            return codec.getValueDecoder().decode(buf, new State());
+        } catch (IOException e) {
+            log.warn("解码本地缓存失败: {}", e.getMessage());
+            return null;
+        } finally {
+            buf.release();
+        }
+    }
+
+    private byte[] encode(Object value) throws IOException {
+        ByteBuf buf = codec.getValueEncoder().encode(value);
+        try {
+            return ByteBufUtil.getBytes(buf);
+        } finally {
+            buf.release();
+        }
+    }
+
+    private static String versionKeyOf(String key) {
+        return key + ":ver";
+    }
+
+    private static byte[] toBytes(long number) {
+        return Long.toString(number).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private boolean isImmutable(Object value) {
+        return value instanceof String || value instanceof Boolean || value instanceof Number;
+    }
+
+    /**
+     * 缓存值及读取时的剩余过期时间（毫秒，未知时为负数）
+     */
+    public record CacheEntry<T>(T value, long remainingTtlMillis) {
+
+        /**
+         * 剩余过期时间是否已知且低于给定阈值
+         */
+        public boolean expiresWithin(Duration threshold) {
+            return remainingTtlMillis >= 0 && remainingTtlMillis < threshold.toMillis();
+        }
+    }
+
+    /**
+     * 可变对象的序列化快照
+     */
+    private record Snapshot(byte[] bytes) {
+    }
+
+    /**
+     * 缓存失效广播消息
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class InvalidationMessage {
+        private String sourceId;
+        private List<String> keys;
+    }
+}
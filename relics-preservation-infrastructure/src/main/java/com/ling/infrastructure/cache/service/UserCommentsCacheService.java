@@ -2,10 +2,9 @@ package com.ling.infrastructure.cache.service;
 
 import java.time.Duration;
 import java.util.Optional;
-import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 import org.redisson.api.RBucket;
-import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -14,6 +13,7 @@ import com.ling.domain.interaction.model.entity.UserComments;
 import com.ling.domain.user.model.valobj.Username;
 import com.ling.infrastructure.cache.config.UserInteractionCacheConfig;
 import com.ling.infrastructure.cache.util.CacheKeyGenerator;
+import com.ling.infrastructure.cache.warmup.HotKeyTracker;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -29,6 +29,15 @@ public class UserCommentsCacheService {
     
     @Autowired
     private RedissonClient redissonClient;
+
+    @Autowired
+    private TieredCacheService tieredCacheService;
+
+    @Autowired
+    private SingleFlightCacheLoader singleFlightCacheLoader;
+
+    @Autowired
+    private HotKeyTracker hotKeyTracker;
     
     // ==================== 聚合根缓存操作 ====================
     
@@ -38,8 +47,7 @@ public class UserCommentsCacheService {
     public Optional<UserComments> getUserComments(Username username) {
         try {
             String key = CacheKeyGenerator.userCommentsKey(username);
-            RBucket<UserComments> bucket = redissonClient.getBucket(key);
-            UserComments userComments = bucket.get();
+            UserComments userComments = tieredCacheService.<UserComments>get(key).orElse(null);
             
             if (userComments != null) {
                 log.debug("缓存命中 - 用户评论: {}", username.getValue());
@@ -60,11 +68,9 @@ public class UserCommentsCacheService {
     public void cacheUserComments(UserComments userComments) {
         try {
             String key = CacheKeyGenerator.userCommentsKey(userComments.getUsername());
-            RBucket<UserComments> bucket = redissonClient.getBucket(key);
-            
             Duration ttl = UserInteractionCacheConfig.getRandomizedTtl(
                 UserInteractionCacheConfig.USER_COMMENTS_TTL);
-            bucket.set(userComments, ttl);
+            tieredCacheService.putIfNewer(key, userComments, userComments.getVersion(), ttl);
             
             log.debug("缓存用户评论: {} - TTL: {}分钟", 
                      userComments.getUsername().getValue(), ttl.toMinutes());
@@ -80,13 +86,24 @@ public class UserCommentsCacheService {
     public void evictUserComments(Username username) {
         try {
             String key = CacheKeyGenerator.userCommentsKey(username);
-            redissonClient.getBucket(key).delete();
+            tieredCacheService.evict(key);
             log.debug("删除用户评论缓存: {}", username.getValue());
         } catch (Exception e) {
             log.error("删除用户评论缓存失败: {} - {}", username.getValue(), e.getMessage(), e);
         }
     }
     
+    /**
+     * 获取用户评论聚合根缓存，未命中时单飞回源加载并写入缓存
+     * @param loader 数据库加载逻辑，返回空表示不存在
+     */
+    public Optional<UserComments> getOrLoadUserComments(Username username, Supplier<Optional<UserComments>> loader) {
+        hotKeyTracker.recordUser(username);
+        String key = CacheKeyGenerator.userCommentsKey(username);
+        return singleFlightCacheLoader.getOrLoad(key, UserInteractionCacheConfig.USER_COMMENTS_TTL, loader,
+                UserComments::getVersion);
+    }
+    
     // ==================== 评论统计缓存操作 ====================
     
     /**
@@ -95,8 +112,7 @@ public class UserCommentsCacheService {
     public Optional<UserComments.CommentStatistics> getCommentStatistics(Username username) {
         try {
             String key = CacheKeyGenerator.userCommentStatisticsKey(username);
-            RBucket<UserComments.CommentStatistics> bucket = redissonClient.getBucket(key);
-            UserComments.CommentStatistics stats = bucket.get();
+            UserComments.CommentStatistics stats = tieredCacheService.<UserComments.CommentStatistics>get(key).orElse(null);
             
             if (stats != null) {
                 log.debug("缓存命中 - 评论统计: {}", username.getValue());
@@ -117,11 +133,9 @@ public class UserCommentsCacheService {
     public void cacheCommentStatistics(UserComments.CommentStatistics statistics) {
         try {
             String key = CacheKeyGenerator.userCommentStatisticsKey(Username.of(statistics.getUsername()));
-            RBucket<UserComments.CommentStatistics> bucket = redissonClient.getBucket(key);
-            
             Duration ttl = UserInteractionCacheConfig.getRandomizedTtl(
                 UserInteractionCacheConfig.COMMENT_STATISTICS_TTL);
-            bucket.set(statistics, ttl);
+            tieredCacheService.put(key, statistics, ttl);
             
             log.debug("缓存评论统计: {} - TTL: {}分钟", 
                      statistics.getUsername(), ttl.toMinutes());
@@ -137,7 +151,7 @@ public class UserCommentsCacheService {
     public void evictCommentStatistics(Username username) {
         try {
             String key = CacheKeyGenerator.userCommentStatisticsKey(username);
-            redissonClient.getBucket(key).delete();
+            tieredCacheService.evict(key);
             log.debug("删除评论统计缓存: {}", username.getValue());
         } catch (Exception e) {
             log.error("删除评论统计缓存失败: {} - {}", username.getValue(), e.getMessage(), e);
@@ -151,9 +165,11 @@ public class UserCommentsCacheService {
      */
     public Optional<Object> getRelicsComments(Long relicsId, int page, int size) {
         try {
-            String key = CacheKeyGenerator.relicsCommentsKey(relicsId, page, size);
-            RBucket<Object> bucket = redissonClient.getBucket(key);
-            Object comments = bucket.get();
+            String key = tieredCacheService.versionedKey(
+                CacheKeyGenerator.relicsCommentsKey(relicsId, page, size),
+                CacheKeyGenerator.relicsTag(relicsId),
+                CacheKeyGenerator.relicsCommentsTag(relicsId));
+            Object comments = tieredCacheService.<Object>get(key).orElse(null);
             
             if (comments != null) {
                 log.debug("缓存命中 - 文物评论: {} - 页码: {}", relicsId, page);
@@ -173,12 +189,13 @@ public class UserCommentsCacheService {
      */
     public void cacheRelicsComments(Long relicsId, int page, int size, Object comments) {
         try {
-            String key = CacheKeyGenerator.relicsCommentsKey(relicsId, page, size);
-            RBucket<Object> bucket = redissonClient.getBucket(key);
-            
+            String key = tieredCacheService.versionedKey(
+                CacheKeyGenerator.relicsCommentsKey(relicsId, page, size),
+                CacheKeyGenerator.relicsTag(relicsId),
+                CacheKeyGenerator.relicsCommentsTag(relicsId));
             Duration ttl = UserInteractionCacheConfig.getRandomizedTtl(
                 UserInteractionCacheConfig.RELICS_COMMENTS_TTL);
-            bucket.set(comments, ttl);
+            tieredCacheService.put(key, comments, ttl);
             
             log.debug("缓存文物评论: {} - 页码: {} - TTL: {}分钟", 
                      relicsId, page, ttl.toMinutes());
@@ -192,8 +209,8 @@ public class UserCommentsCacheService {
      */
     public void evictRelicsCommentCaches(Long relicsId) {
         try {
-            String pattern = CacheKeyGenerator.relicsCommentsPattern(relicsId);
-            redissonClient.getKeys().deleteByPattern(pattern);
+            tieredCacheService.bumpVersion(CacheKeyGenerator.relicsCommentsTag(relicsId));
+            tieredCacheService.evict(CacheKeyGenerator.relicsCommentCountKey(relicsId));
             log.debug("删除文物评论缓存: {}", relicsId);
         } catch (Exception e) {
             log.error("删除文物评论缓存失败: {} - {}", relicsId, e.getMessage(), e);
@@ -212,9 +229,8 @@ public class UserCommentsCacheService {
             // 清除评论统计缓存
             evictCommentStatistics(username);
             
-            // 清除用户评论列表缓存（通过模式匹配）
-            String pattern = CacheKeyGenerator.userCommentsPattern(username);
-            redissonClient.getKeys().deleteByPattern(pattern);
+            // 递增版本号使用户所有评论列表缓存失效
+            tieredCacheService.bumpVersion(CacheKeyGenerator.userCommentsTag(username));
             
             log.debug("清除用户评论相关缓存完成: {}", username.getValue());
         } catch (Exception e) {
@@ -242,34 +258,6 @@ public class UserCommentsCacheService {
         }
     }
     
-    /**
-     * 使用分布式锁执行缓存操作
-     */
-    public <T> T executeWithLock(Username username, String operation, java.util.function.Supplier<T> supplier) {
-        String lockKey = CacheKeyGenerator.userCommentsLockKey(username, operation);
-        RLock lock = redissonClient.getLock(lockKey);
-        
-        try {
-            if (lock.tryLock(5, 30, TimeUnit.SECONDS)) {
-                try {
-                    return supplier.get();
-                } finally {
-                    lock.unlock();
-                }
-            } else {
-                log.warn("获取分布式锁失败: {} - {}", username.getValue(), operation);
-                throw new RuntimeException("获取分布式锁失败");
-            }
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            log.error("分布式锁操作被中断: {} - {}", username.getValue(), operation);
-            throw new RuntimeException("分布式锁操作被中断", e);
-        } catch (Exception e) {
-            log.error("分布式锁操作失败: {} - {} - {}", username.getValue(), operation, e.getMessage(), e);
-            throw new RuntimeException("分布式锁操作失败", e);
-        }
-    }
-    
     /**
      * 检查缓存健康状态
      */
@@ -2,11 +2,8 @@ package com.ling.infrastructure.cache.service;
 
 import java.time.Duration;
 import java.util.Optional;
-import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
-import org.redisson.api.RBucket;
-import org.redisson.api.RLock;
-import org.redisson.api.RedissonClient;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -14,6 +11,7 @@ import com.ling.domain.interaction.model.entity.UserFavorites;
 import com.ling.domain.user.model.valobj.Username;
 import com.ling.infrastructure.cache.config.UserInteractionCacheConfig;
 import com.ling.infrastructure.cache.util.CacheKeyGenerator;
+import com.ling.infrastructure.cache.warmup.HotKeyTracker;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -28,7 +26,13 @@ import lombok.extern.slf4j.Slf4j;
 public class UserFavoritesCacheService {
     
     @Autowired
-    private RedissonClient redissonClient;
+    private TieredCacheService tieredCacheService;
+
+    @Autowired
+    private SingleFlightCacheLoader singleFlightCacheLoader;
+
+    @Autowired
+    private HotKeyTracker hotKeyTracker;
     
     // ==================== 聚合根缓存操作 ====================
     
@@ -38,8 +42,7 @@ public class UserFavoritesCacheService {
     public Optional<UserFavorites> getUserFavorites(Username username) {
         try {
             String key = CacheKeyGenerator.userFavoritesKey(username);
-            RBucket<UserFavorites> bucket = redissonClient.getBucket(key);
-            UserFavorites userFavorites = bucket.get();
+            UserFavorites userFavorites = tieredCacheService.<UserFavorites>get(key).orElse(null);
             
             if (userFavorites != null) {
                 log.debug("缓存命中 - 用户收藏: {}", username.getValue());
@@ -60,11 +63,9 @@ public class UserFavoritesCacheService {
     public void cacheUserFavorites(UserFavorites userFavorites) {
         try {
             String key = CacheKeyGenerator.userFavoritesKey(userFavorites.getUsername());
-            RBucket<UserFavorites> bucket = redissonClient.getBucket(key);
-            
             Duration ttl = UserInteractionCacheConfig.getRandomizedTtl(
                 UserInteractionCacheConfig.USER_FAVORITES_TTL);
-            bucket.set(userFavorites, ttl);
+            tieredCacheService.putIfNewer(key, userFavorites, userFavorites.getVersion(), ttl);
             
             log.debug("缓存用户收藏: {} - TTL: {}分钟", 
                      userFavorites.getUsername().getValue(), ttl.toMinutes());
@@ -80,13 +81,24 @@ public class UserFavoritesCacheService {
     public void evictUserFavorites(Username username) {
         try {
             String key = CacheKeyGenerator.userFavoritesKey(username);
-            redissonClient.getBucket(key).delete();
+            tieredCacheService.evict(key);
             log.debug("删除用户收藏缓存: {}", username.getValue());
         } catch (Exception e) {
             log.error("删除用户收藏缓存失败: {} - {}", username.getValue(), e.getMessage(), e);
         }
     }
     
+    /**
+     * 获取用户收藏聚合根缓存，未命中时单飞回源加载并写入缓存
+     * @param loader 数据库加载逻辑，返回空表示不存在
+     */
+    public Optional<UserFavorites> getOrLoadUserFavorites(Username username, Supplier<Optional<UserFavorites>> loader) {
+        hotKeyTracker.recordUser(username);
+        String key = CacheKeyGenerator.userFavoritesKey(username);
+        return singleFlightCacheLoader.getOrLoad(key, UserInteractionCacheConfig.USER_FAVORITES_TTL, loader,
+                UserFavorites::getVersion);
+    }
+    
     // ==================== 收藏状态缓存操作 ====================
     
     /**
@@ -94,9 +106,8 @@ public class UserFavoritesCacheService {
      */
     public Optional<Boolean> getFavoriteStatus(Username username, Long relicsId) {
         try {
-            String key = CacheKeyGenerator.userFavoriteStatusKey(username, relicsId);
-            RBucket<Boolean> bucket = redissonClient.getBucket(key);
-            Boolean status = bucket.get();
+            String key = favoriteStatusKey(username, relicsId);
+            Boolean status = tieredCacheService.<Boolean>get(key).orElse(null);
             
             if (status != null) {
                 log.debug("缓存命中 - 收藏状态: {} - {}: {}", username.getValue(), relicsId, status);
@@ -116,12 +127,10 @@ public class UserFavoritesCacheService {
      */
     public void cacheFavoriteStatus(Username username, Long relicsId, boolean isFavorited) {
         try {
-            String key = CacheKeyGenerator.userFavoriteStatusKey(username, relicsId);
-            RBucket<Boolean> bucket = redissonClient.getBucket(key);
-            
+            String key = favoriteStatusKey(username, relicsId);
             Duration ttl = UserInteractionCacheConfig.getRandomizedTtl(
                 UserInteractionCacheConfig.FAVORITE_STATUS_TTL);
-            bucket.set(isFavorited, ttl);
+            tieredCacheService.put(key, isFavorited, ttl);
             
             log.debug("缓存收藏状态: {} - {}: {} - TTL: {}分钟", 
                      username.getValue(), relicsId, isFavorited, ttl.toMinutes());
@@ -136,8 +145,8 @@ public class UserFavoritesCacheService {
      */
     public void evictFavoriteStatus(Username username, Long relicsId) {
         try {
-            String key = CacheKeyGenerator.userFavoriteStatusKey(username, relicsId);
-            redissonClient.getBucket(key).delete();
+            String key = favoriteStatusKey(username, relicsId);
+            tieredCacheService.evict(key);
             log.debug("删除收藏状态缓存: {} - {}", username.getValue(), relicsId);
         } catch (Exception e) {
             log.error("删除收藏状态缓存失败: {} - {} - {}", 
@@ -145,6 +154,17 @@ public class UserFavoritesCacheService {
         }
     }
     
+    /**
+     * 收藏状态缓存键，与 UserInteractionCacheService 使用相同的版本组合
+     */
+    private String favoriteStatusKey(Username username, Long relicsId) {
+        return tieredCacheService.versionedKey(
+            CacheKeyGenerator.userFavoriteStatusKey(username, relicsId),
+            CacheKeyGenerator.userTag(username),
+            CacheKeyGenerator.relicsTag(relicsId),
+            CacheKeyGenerator.userFavoriteStatusTag(username));
+    }
+
     // ==================== 收藏统计缓存操作 ====================
     
     /**
@@ -153,8 +173,7 @@ public class UserFavoritesCacheService {
     public Optional<UserFavorites.FavoriteStatistics> getFavoriteStatistics(Username username) {
         try {
             String key = CacheKeyGenerator.userFavoriteStatisticsKey(username);
-            RBucket<UserFavorites.FavoriteStatistics> bucket = redissonClient.getBucket(key);
-            UserFavorites.FavoriteStatistics stats = bucket.get();
+            UserFavorites.FavoriteStatistics stats = tieredCacheService.<UserFavorites.FavoriteStatistics>get(key).orElse(null);
             
             if (stats != null) {
                 log.debug("缓存命中 - 收藏统计: {}", username.getValue());
@@ -175,11 +194,9 @@ public class UserFavoritesCacheService {
     public void cacheFavoriteStatistics(UserFavorites.FavoriteStatistics statistics) {
         try {
             String key = CacheKeyGenerator.userFavoriteStatisticsKey(Username.of(statistics.getUsername()));
-            RBucket<UserFavorites.FavoriteStatistics> bucket = redissonClient.getBucket(key);
-            
             Duration ttl = UserInteractionCacheConfig.getRandomizedTtl(
                 UserInteractionCacheConfig.FAVORITE_STATISTICS_TTL);
-            bucket.set(statistics, ttl);
+            tieredCacheService.put(key, statistics, ttl);
             
             log.debug("缓存收藏统计: {} - TTL: {}分钟", 
                      statistics.getUsername(), ttl.toMinutes());
@@ -195,7 +212,7 @@ public class UserFavoritesCacheService {
     public void evictFavoriteStatistics(Username username) {
         try {
             String key = CacheKeyGenerator.userFavoriteStatisticsKey(username);
-            redissonClient.getBucket(key).delete();
+            tieredCacheService.evict(key);
             log.debug("删除收藏统计缓存: {}", username.getValue());
         } catch (Exception e) {
             log.error("删除收藏统计缓存失败: {} - {}", username.getValue(), e.getMessage(), e);
@@ -211,9 +228,8 @@ public class UserFavoritesCacheService {
         try {
             log.debug("清除用户相关缓存: {}", username.getValue());
             
-            // 清除收藏状态缓存（通过模式匹配）
-            String pattern = CacheKeyGenerator.userFavoriteStatusPattern(username);
-            redissonClient.getKeys().deleteByPattern(pattern);
+            // 递增版本号使该用户所有收藏状态缓存失效
+            tieredCacheService.bumpVersion(CacheKeyGenerator.userFavoriteStatusTag(username));
             
             // 清除收藏统计缓存
             evictFavoriteStatistics(username);
@@ -223,32 +239,4 @@ public class UserFavoritesCacheService {
             log.error("清除用户相关缓存失败: {} - {}", username.getValue(), e.getMessage(), e);
         }
     }
-    
-    /**
-     * 使用分布式锁执行缓存操作
-     */
-    public <T> T executeWithLock(Username username, String operation, java.util.function.Supplier<T> supplier) {
-        String lockKey = CacheKeyGenerator.userFavoritesLockKey(username, operation);
-        RLock lock = redissonClient.getLock(lockKey);
-        
-        try {
-            if (lock.tryLock(5, 30, TimeUnit.SECONDS)) {
-                try {
-                    return supplier.get();
-                } finally {
-                    lock.unlock();
-                }
-            } else {
-                log.warn("获取分布式锁失败: {} - {}", username.getValue(), operation);
-                throw new RuntimeException("获取分布式锁失败");
-            }
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            log.error("分布式锁操作被中断: {} - {}", username.getValue(), operation);
-            throw new RuntimeException("分布式锁操作被中断", e);
-        } catch (Exception e) {
-            log.error("分布式锁操作失败: {} - {} - {}", username.getValue(), operation, e.getMessage(), e);
-            throw new RuntimeException("分布式锁操作失败", e);
-        }
-    }
 }
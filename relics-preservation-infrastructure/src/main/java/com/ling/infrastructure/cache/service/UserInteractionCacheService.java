@@ -1,12 +1,15 @@
 package com.ling.infrastructure.cache.service;
 
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.TimeUnit;
 
-import org.redisson.api.RBucket;
-import org.redisson.api.RLock;
+import org.redisson.api.BatchResult;
+import org.redisson.api.RBatch;
+import org.redisson.api.RFuture;
 import org.redisson.api.RedissonClient;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -16,7 +19,9 @@ import com.ling.domain.interaction.model.valobj.CommentAction;
 import com.ling.domain.interaction.model.valobj.RelicsComment;
 import com.ling.domain.user.model.valobj.Username;
 import com.ling.infrastructure.cache.config.UserInteractionCacheConfig;
+import com.ling.infrastructure.cache.metrics.CacheMetrics;
 import com.ling.infrastructure.cache.util.CacheKeyGenerator;
+import com.ling.infrastructure.cache.warmup.HotKeyTracker;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -32,6 +37,18 @@ public class UserInteractionCacheService {
     
     @Autowired
     private RedissonClient redissonClient;
+
+    @Autowired
+    private TieredCacheService tieredCacheService;
+
+    @Autowired
+    private FavoriteIndexCacheService favoriteIndexCacheService;
+
+    @Autowired
+    private HotKeyTracker hotKeyTracker;
+
+    @Autowired
+    private CacheMetrics cacheMetrics;
     
     // ==================== 聚合根缓存操作 ====================
     
@@ -41,8 +58,7 @@ public class UserInteractionCacheService {
     public Optional<UserInteraction> getUserInteraction(Username username) {
         try {
             String key = CacheKeyGenerator.userInteractionKey(username);
-            RBucket<UserInteraction> bucket = redissonClient.getBucket(key);
-            UserInteraction userInteraction = bucket.get();
+            UserInteraction userInteraction = tieredCacheService.<UserInteraction>get(key).orElse(null);
             
             if (userInteraction != null) {
                 log.debug("缓存命中 - 用户交互: {}", username.getValue());
@@ -63,11 +79,9 @@ public class UserInteractionCacheService {
     public void cacheUserInteraction(UserInteraction userInteraction) {
         try {
             String key = CacheKeyGenerator.userInteractionKey(userInteraction.getUsername());
-            RBucket<UserInteraction> bucket = redissonClient.getBucket(key);
-            
             Duration ttl = UserInteractionCacheConfig.getRandomizedTtl(
                 UserInteractionCacheConfig.USER_INTERACTION_TTL);
-            bucket.set(userInteraction, ttl);
+            tieredCacheService.put(key, userInteraction, ttl);
             
             log.debug("缓存用户交互: {} - TTL: {}分钟", 
                      userInteraction.getUsername().getValue(), ttl.toMinutes());
@@ -83,7 +97,7 @@ public class UserInteractionCacheService {
     public void evictUserInteraction(Username username) {
         try {
             String key = CacheKeyGenerator.userInteractionKey(username);
-            redissonClient.getBucket(key).delete();
+            tieredCacheService.evict(key);
             log.debug("删除用户交互缓存: {}", username.getValue());
         } catch (Exception e) {
             log.error("删除用户交互缓存失败: {} - {}", username.getValue(), e.getMessage(), e);
@@ -97,9 +111,8 @@ public class UserInteractionCacheService {
      */
     public Optional<Boolean> getFavoriteStatus(Username username, Long relicsId) {
         try {
-            String key = CacheKeyGenerator.userFavoriteStatusKey(username, relicsId);
-            RBucket<Boolean> bucket = redissonClient.getBucket(key);
-            Boolean status = bucket.get();
+            String key = favoriteStatusKey(username, relicsId);
+            Boolean status = tieredCacheService.<Boolean>get(key).orElse(null);
             
             if (status != null) {
                 log.debug("缓存命中 - 收藏状态: {} - {}: {}", 
@@ -121,12 +134,10 @@ public class UserInteractionCacheService {
      */
     public void cacheFavoriteStatus(Username username, Long relicsId, boolean isFavorited) {
         try {
-            String key = CacheKeyGenerator.userFavoriteStatusKey(username, relicsId);
-            RBucket<Boolean> bucket = redissonClient.getBucket(key);
-            
+            String key = favoriteStatusKey(username, relicsId);
             Duration ttl = UserInteractionCacheConfig.getRandomizedTtl(
                 UserInteractionCacheConfig.FAVORITE_STATUS_TTL);
-            bucket.set(isFavorited, ttl);
+            tieredCacheService.put(key, isFavorited, ttl);
             
             log.debug("缓存收藏状态: {} - {}: {} - TTL: {}分钟", 
                      username.getValue(), relicsId, isFavorited, ttl.toMinutes());
@@ -141,8 +152,8 @@ public class UserInteractionCacheService {
      */
     public void evictFavoriteStatus(Username username, Long relicsId) {
         try {
-            String key = CacheKeyGenerator.userFavoriteStatusKey(username, relicsId);
-            redissonClient.getBucket(key).delete();
+            String key = favoriteStatusKey(username, relicsId);
+            tieredCacheService.evict(key);
             log.debug("删除收藏状态缓存: {} - {}", username.getValue(), relicsId);
         } catch (Exception e) {
             log.error("删除收藏状态缓存失败: {} - {} - {}", 
@@ -150,6 +161,17 @@ public class UserInteractionCacheService {
         }
     }
     
+    /**
+     * 收藏状态缓存键，嵌入用户、文物及收藏状态三级版本号
+     */
+    private String favoriteStatusKey(Username username, Long relicsId) {
+        return tieredCacheService.versionedKey(
+            CacheKeyGenerator.userFavoriteStatusKey(username, relicsId),
+            CacheKeyGenerator.userTag(username),
+            CacheKeyGenerator.relicsTag(relicsId),
+            CacheKeyGenerator.userFavoriteStatusTag(username));
+    }
+
     // ==================== 收藏列表缓存操作 ====================
     
     /**
@@ -157,9 +179,11 @@ public class UserInteractionCacheService {
      */
     public Optional<List<Long>> getUserFavoritesList(Username username, int page, int size) {
         try {
-            String key = CacheKeyGenerator.userFavoritesListKey(username, page, size);
-            RBucket<List<Long>> bucket = redissonClient.getBucket(key);
-            List<Long> favoriteIds = bucket.get();
+            String key = tieredCacheService.versionedKey(
+                CacheKeyGenerator.userFavoritesListKey(username, page, size),
+                CacheKeyGenerator.userTag(username),
+                CacheKeyGenerator.userFavoritesListTag(username));
+            List<Long> favoriteIds = tieredCacheService.<List<Long>>get(key).orElse(null);
             
             if (favoriteIds != null) {
                 log.debug("缓存命中 - 用户收藏列表: {} - page:{}, size:{}, count:{}", 
@@ -182,12 +206,13 @@ public class UserInteractionCacheService {
      */
     public void cacheUserFavoritesList(Username username, int page, int size, List<Long> favoriteIds) {
         try {
-            String key = CacheKeyGenerator.userFavoritesListKey(username, page, size);
-            RBucket<List<Long>> bucket = redissonClient.getBucket(key);
-            
+            String key = tieredCacheService.versionedKey(
+                CacheKeyGenerator.userFavoritesListKey(username, page, size),
+                CacheKeyGenerator.userTag(username),
+                CacheKeyGenerator.userFavoritesListTag(username));
             Duration ttl = UserInteractionCacheConfig.getRandomizedTtl(
                 UserInteractionCacheConfig.FAVORITES_LIST_TTL);
-            bucket.set(favoriteIds, ttl);
+            tieredCacheService.put(key, favoriteIds, ttl);
             
             log.debug("缓存用户收藏列表: {} - page:{}, size:{}, count:{} - TTL: {}分钟", 
                      username.getValue(), page, size, favoriteIds.size(), ttl.toMinutes());
@@ -202,9 +227,8 @@ public class UserInteractionCacheService {
      */
     public void evictUserFavoritesList(Username username) {
         try {
-            // 删除所有分页的收藏列表缓存
-            String pattern = CacheKeyGenerator.userFavoritesListKey(username) + "*";
-            redissonClient.getKeys().deleteByPattern(pattern);
+            // 递增版本号使所有分页的收藏列表缓存失效
+            tieredCacheService.bumpVersion(CacheKeyGenerator.userFavoritesListTag(username));
             log.debug("删除用户收藏列表缓存: {}", username.getValue());
         } catch (Exception e) {
             log.error("删除用户收藏列表缓存失败: {} - {}", username.getValue(), e.getMessage(), e);
@@ -219,8 +243,7 @@ public class UserInteractionCacheService {
     public Optional<Long> getRelicsFavoriteCount(Long relicsId) {
         try {
             String key = CacheKeyGenerator.relicsFavoriteCountKey(relicsId);
-            RBucket<Long> bucket = redissonClient.getBucket(key);
-            Long count = bucket.get();
+            Long count = tieredCacheService.<Long>get(key).orElse(null);
             
             if (count != null) {
                 log.debug("缓存命中 - 文物收藏数量: {} - {}", relicsId, count);
@@ -241,11 +264,9 @@ public class UserInteractionCacheService {
     public void cacheRelicsFavoriteCount(Long relicsId, long count) {
         try {
             String key = CacheKeyGenerator.relicsFavoriteCountKey(relicsId);
-            RBucket<Long> bucket = redissonClient.getBucket(key);
-            
             Duration ttl = UserInteractionCacheConfig.getRandomizedTtl(
                 UserInteractionCacheConfig.COUNT_DATA_TTL);
-            bucket.set(count, ttl);
+            tieredCacheService.put(key, count, ttl);
             
             log.debug("缓存文物收藏数量: {} - {} - TTL: {}分钟", 
                      relicsId, count, ttl.toMinutes());
@@ -261,7 +282,7 @@ public class UserInteractionCacheService {
     public void evictRelicsFavoriteCount(Long relicsId) {
         try {
             String key = CacheKeyGenerator.relicsFavoriteCountKey(relicsId);
-            redissonClient.getBucket(key).delete();
+            tieredCacheService.evict(key);
             log.debug("删除文物收藏数量缓存: {}", relicsId);
         } catch (Exception e) {
             log.error("删除文物收藏数量缓存失败: {} - {}", relicsId, e.getMessage(), e);
@@ -276,8 +297,7 @@ public class UserInteractionCacheService {
     public Optional<Long> getUserFavoriteCount(Username username) {
         try {
             String key = CacheKeyGenerator.userFavoriteCountKey(username);
-            RBucket<Long> bucket = redissonClient.getBucket(key);
-            Long count = bucket.get();
+            Long count = tieredCacheService.<Long>get(key).orElse(null);
 
             if (count != null) {
                 log.debug("缓存命中 - 用户收藏总数: {} - {}", username.getValue(), count);
@@ -298,11 +318,9 @@ public class UserInteractionCacheService {
     public void cacheUserFavoriteCount(Username username, long count) {
         try {
             String key = CacheKeyGenerator.userFavoriteCountKey(username);
-            RBucket<Long> bucket = redissonClient.getBucket(key);
-
             Duration ttl = UserInteractionCacheConfig.getRandomizedTtl(
                 UserInteractionCacheConfig.COUNT_DATA_TTL);
-            bucket.set(count, ttl);
+            tieredCacheService.put(key, count, ttl);
 
             log.debug("缓存用户收藏总数: {} - {} - TTL: {}分钟",
                      username.getValue(), count, ttl.toMinutes());
@@ -318,7 +336,7 @@ public class UserInteractionCacheService {
     public void evictUserFavoriteCount(Username username) {
         try {
             String key = CacheKeyGenerator.userFavoriteCountKey(username);
-            redissonClient.getBucket(key).delete();
+            tieredCacheService.evict(key);
             log.debug("删除用户收藏总数缓存: {}", username.getValue());
         } catch (Exception e) {
             log.error("删除用户收藏总数缓存失败: {} - {}", username.getValue(), e.getMessage(), e);
@@ -332,9 +350,12 @@ public class UserInteractionCacheService {
      */
     public Optional<List<CommentAction>> getUserComments(Username username, Long relicsId, int page, int size) {
         try {
-            String key = CacheKeyGenerator.userCommentsKey(username, relicsId, page, size);
-            RBucket<List<CommentAction>> bucket = redissonClient.getBucket(key);
-            List<CommentAction> comments = bucket.get();
+            String key = tieredCacheService.versionedKey(
+                CacheKeyGenerator.userCommentsKey(username, relicsId, page, size),
+                CacheKeyGenerator.userTag(username),
+                CacheKeyGenerator.userCommentsTag(username),
+                CacheKeyGenerator.userCommentsTag(username, relicsId));
+            List<CommentAction> comments = tieredCacheService.<List<CommentAction>>get(key).orElse(null);
 
             if (comments != null) {
                 log.debug("缓存命中 - 用户评论列表: {} - relicsId:{}, page:{}, size:{}, count:{}",
@@ -357,12 +378,14 @@ public class UserInteractionCacheService {
      */
     public void cacheUserComments(Username username, Long relicsId, int page, int size, List<CommentAction> comments) {
         try {
-            String key = CacheKeyGenerator.userCommentsKey(username, relicsId, page, size);
-            RBucket<List<CommentAction>> bucket = redissonClient.getBucket(key);
-
+            String key = tieredCacheService.versionedKey(
+                CacheKeyGenerator.userCommentsKey(username, relicsId, page, size),
+                CacheKeyGenerator.userTag(username),
+                CacheKeyGenerator.userCommentsTag(username),
+                CacheKeyGenerator.userCommentsTag(username, relicsId));
             Duration ttl = UserInteractionCacheConfig.getRandomizedTtl(
                 UserInteractionCacheConfig.COMMENTS_LIST_TTL);
-            bucket.set(comments, ttl);
+            tieredCacheService.put(key, comments, ttl);
 
             log.debug("缓存用户评论列表: {} - relicsId:{}, page:{}, size:{}, count:{} - TTL: {}分钟",
                      username.getValue(), relicsId, page, size, comments.size(), ttl.toMinutes());
@@ -377,13 +400,7 @@ public class UserInteractionCacheService {
      */
     public void evictUserComments(Username username, Long relicsId) {
         try {
-            String pattern;
-            if (relicsId != null) {
-                pattern = CacheKeyGenerator.userCommentsKey(username, relicsId) + "*";
-            } else {
-                pattern = CacheKeyGenerator.userCommentsKey(username, null) + "*";
-            }
-            redissonClient.getKeys().deleteByPattern(pattern);
+            tieredCacheService.bumpVersion(CacheKeyGenerator.userCommentsTag(username, relicsId));
             log.debug("删除用户评论列表缓存: {} - relicsId:{}", username.getValue(), relicsId);
         } catch (Exception e) {
             log.error("删除用户评论列表缓存失败: {} - relicsId:{} - {}",
@@ -396,9 +413,11 @@ public class UserInteractionCacheService {
      */
     public Optional<List<RelicsComment>> getRelicsApprovedComments(Long relicsId, int page, int size) {
         try {
-            String key = CacheKeyGenerator.relicsApprovedCommentsKey(relicsId, page, size);
-            RBucket<List<RelicsComment>> bucket = redissonClient.getBucket(key);
-            List<RelicsComment> comments = bucket.get();
+            String key = tieredCacheService.versionedKey(
+                CacheKeyGenerator.relicsApprovedCommentsKey(relicsId, page, size),
+                CacheKeyGenerator.relicsTag(relicsId),
+                CacheKeyGenerator.relicsApprovedCommentsTag(relicsId));
+            List<RelicsComment> comments = tieredCacheService.<List<RelicsComment>>get(key).orElse(null);
 
             if (comments != null) {
                 log.debug("缓存命中 - 文物已审核评论列表: {} - page:{}, size:{}, count:{}",
@@ -421,12 +440,13 @@ public class UserInteractionCacheService {
      */
     public void cacheRelicsApprovedComments(Long relicsId, int page, int size, List<RelicsComment> comments) {
         try {
-            String key = CacheKeyGenerator.relicsApprovedCommentsKey(relicsId, page, size);
-            RBucket<List<RelicsComment>> bucket = redissonClient.getBucket(key);
-
+            String key = tieredCacheService.versionedKey(
+                CacheKeyGenerator.relicsApprovedCommentsKey(relicsId, page, size),
+                CacheKeyGenerator.relicsTag(relicsId),
+                CacheKeyGenerator.relicsApprovedCommentsTag(relicsId));
             Duration ttl = UserInteractionCacheConfig.getRandomizedTtl(
                 UserInteractionCacheConfig.COMMENTS_LIST_TTL);
-            bucket.set(comments, ttl);
+            tieredCacheService.put(key, comments, ttl);
 
             log.debug("缓存文物已审核评论列表: {} - page:{}, size:{}, count:{} - TTL: {}分钟",
                      relicsId, page, size, comments.size(), ttl.toMinutes());
@@ -441,8 +461,7 @@ public class UserInteractionCacheService {
      */
     public void evictRelicsApprovedComments(Long relicsId) {
         try {
-            String pattern = CacheKeyGenerator.relicsApprovedCommentsKey(relicsId) + "*";
-            redissonClient.getKeys().deleteByPattern(pattern);
+            tieredCacheService.bumpVersion(CacheKeyGenerator.relicsApprovedCommentsTag(relicsId));
             log.debug("删除文物已审核评论列表缓存: {}", relicsId);
         } catch (Exception e) {
             log.error("删除文物已审核评论列表缓存失败: {} - {}", relicsId, e.getMessage(), e);
@@ -455,8 +474,7 @@ public class UserInteractionCacheService {
     public Optional<Long> getRelicsCommentCount(Long relicsId) {
         try {
             String key = CacheKeyGenerator.relicsCommentCountKey(relicsId);
-            RBucket<Long> bucket = redissonClient.getBucket(key);
-            Long count = bucket.get();
+            Long count = tieredCacheService.<Long>get(key).orElse(null);
 
             if (count != null) {
                 log.debug("缓存命中 - 文物评论数量: {} - {}", relicsId, count);
@@ -477,11 +495,9 @@ public class UserInteractionCacheService {
     public void cacheRelicsCommentCount(Long relicsId, long count) {
         try {
             String key = CacheKeyGenerator.relicsCommentCountKey(relicsId);
-            RBucket<Long> bucket = redissonClient.getBucket(key);
-
             Duration ttl = UserInteractionCacheConfig.getRandomizedTtl(
                 UserInteractionCacheConfig.COUNT_DATA_TTL);
-            bucket.set(count, ttl);
+            tieredCacheService.put(key, count, ttl);
 
             log.debug("缓存文物评论数量: {} - {} - TTL: {}分钟",
                      relicsId, count, ttl.toMinutes());
@@ -497,93 +513,149 @@ public class UserInteractionCacheService {
     public void evictRelicsCommentCount(Long relicsId) {
         try {
             String key = CacheKeyGenerator.relicsCommentCountKey(relicsId);
-            redissonClient.getBucket(key).delete();
+            tieredCacheService.evict(key);
             log.debug("删除文物评论数量缓存: {}", relicsId);
         } catch (Exception e) {
             log.error("删除文物评论数量缓存失败: {} - {}", relicsId, e.getMessage(), e);
         }
     }
 
-    // ==================== 批量操作 ====================
+    // ==================== 列表页批量读取 ====================
 
     /**
-     * 删除用户相关的所有缓存
+     * 批量获取一页文物的收藏状态、收藏数与评论数。
+     * 收藏状态与收藏数在同一个 RBatch 中一次往返取回；评论数走两级缓存的批量读取（本地命中 + 一次 MGET），
+     * 与前者的批次并发执行
+     * @param username 当前用户，为空时不查询收藏状态
+     * @return 各项仅包含缓存命中的文物，未命中的由调用方回源
      */
-    public void evictUserRelatedCaches(Username username) {
+    public RelicsInteractionBatch batchGetRelicsInteractions(Username username, List<Long> relicsIds) {
+        if (relicsIds.isEmpty()) {
+            return RelicsInteractionBatch.empty();
+        }
+        hotKeyTracker.recordRelics(relicsIds);
         try {
-            String pattern = CacheKeyGenerator.userRelatedKeysPattern(username);
-            redissonClient.getKeys().deleteByPattern(pattern);
-            log.info("删除用户相关所有缓存: {}", username.getValue());
+            RBatch batch = redissonClient.createBatch();
+            RFuture<List<Object>> statusFuture = username != null
+                    ? favoriteIndexCacheService.isFavoritedAsync(batch, username, relicsIds) : null;
+            Map<Long, RFuture<Long>> favoriteCountFutures =
+                    favoriteIndexCacheService.getRelicsFavoriteCountsAsync(batch, relicsIds);
+            long batchStart = System.nanoTime();
+            RFuture<BatchResult<?>> batchFuture = batch.executeAsync();
+
+            Map<String, Long> commentKeys = new LinkedHashMap<>();
+            relicsIds.forEach(relicsId -> commentKeys.put(CacheKeyGenerator.relicsCommentCountKey(relicsId), relicsId));
+            // JSON 编码的小整数可能解码为 Integer，统一按 Number 读取
+            Map<String, Number> cachedCommentCounts = tieredCacheService.getAll(commentKeys.keySet());
+            Map<Long, Long> commentCounts = new HashMap<>(cachedCommentCounts.size() * 2);
+            cachedCommentCounts.forEach((key, count) -> commentCounts.put(commentKeys.get(key), count.longValue()));
+
+            batchFuture.toCompletableFuture().join();
+            cacheMetrics.recordRedis(CacheMetrics.COUNTS, "batch", System.nanoTime() - batchStart);
+
+            Map<Long, Boolean> favorited = null;
+            List<Object> statuses = statusFuture != null ? statusFuture.toCompletableFuture().join() : null;
+            if (statuses != null) {
+                favorited = new HashMap<>(relicsIds.size() * 2);
+                for (int i = 0; i < relicsIds.size(); i++) {
+                    favorited.put(relicsIds.get(i), ((Number) statuses.get(i)).longValue() == 1L);
+                }
+            }
+
+            Map<Long, Long> favoriteCounts = new HashMap<>(relicsIds.size() * 2);
+            favoriteCountFutures.forEach((relicsId, future) -> {
+                Long count = future.toCompletableFuture().join();
+                if (count != null) {
+                    favoriteCounts.put(relicsId, count);
+                }
+            });
+
+            if (username != null) {
+                int size = relicsIds.size();
+                cacheMetrics.recordGets(CacheMetrics.STATUS, CacheMetrics.TIER_REMOTE,
+                        favorited != null ? size : 0, favorited != null ? 0 : size);
+            }
+            cacheMetrics.recordGets(CacheMetrics.COUNTS, CacheMetrics.TIER_REMOTE,
+                    favoriteCounts.size(), relicsIds.size() - favoriteCounts.size());
+
+            log.debug("批量读取文物交互数据: 文物数={}, 收藏状态={}, 收藏数命中={}, 评论数命中={}",
+                    relicsIds.size(), favorited != null ? "命中" : "未命中", favoriteCounts.size(), commentCounts.size());
+            return new RelicsInteractionBatch(favorited, favoriteCounts, commentCounts);
         } catch (Exception e) {
-            log.error("删除用户相关缓存失败: {} - {}", username.getValue(), e.getMessage(), e);
+            log.error("批量读取文物交互数据失败: {} - {}", relicsIds, e.getMessage(), e);
+            return RelicsInteractionBatch.empty();
         }
     }
 
     /**
-     * 删除文物相关的所有缓存
+     * 批量缓存文物评论数量
      */
-    public void evictRelicsRelatedCaches(Long relicsId) {
+    public void cacheRelicsCommentCounts(Map<Long, Long> counts) {
+        if (counts.isEmpty()) {
+            return;
+        }
         try {
-            String pattern = CacheKeyGenerator.relicsRelatedKeysPattern(relicsId);
-            redissonClient.getKeys().deleteByPattern(pattern);
-            log.info("删除文物相关所有缓存: {}", relicsId);
+            Map<String, Long> values = new HashMap<>(counts.size() * 2);
+            counts.forEach((relicsId, count) -> values.put(CacheKeyGenerator.relicsCommentCountKey(relicsId), count));
+            tieredCacheService.putAll(values,
+                    UserInteractionCacheConfig.getRandomizedTtl(UserInteractionCacheConfig.COUNT_DATA_TTL));
+            log.debug("批量缓存文物评论数量: {}", counts.size());
         } catch (Exception e) {
-            log.error("删除文物相关缓存失败: {} - {}", relicsId, e.getMessage(), e);
+            log.error("批量缓存文物评论数量失败: {} - {}", counts.keySet(), e.getMessage(), e);
         }
     }
 
     /**
-     * 预热用户交互缓存
+     * 列表页批量读取结果
+     * @param favorited 收藏状态，用户收藏索引未构建或未指定用户时为 null
+     * @param favoriteCounts 命中的文物收藏数
+     * @param commentCounts 命中的文物评论数
      */
-    public void warmUpUserCache(Username username) {
-        try {
-            // 这里可以实现缓存预热逻辑
-            // 例如：预加载用户的基本交互数据
-            log.debug("预热用户缓存: {}", username.getValue());
-        } catch (Exception e) {
-            log.error("预热用户缓存失败: {} - {}", username.getValue(), e.getMessage(), e);
+    public record RelicsInteractionBatch(Map<Long, Boolean> favorited,
+                                         Map<Long, Long> favoriteCounts,
+                                         Map<Long, Long> commentCounts) {
+
+        public static RelicsInteractionBatch empty() {
+            return new RelicsInteractionBatch(null, Map.of(), Map.of());
         }
     }
 
-    // ==================== 分布式锁操作 ====================
+    // ==================== 批量操作 ====================
 
     /**
-     * 获取分布式锁
+     * 删除用户相关的所有缓存
      */
-    public RLock getLock(String businessKey) {
-        String lockKey = CacheKeyGenerator.lockKey(businessKey);
-        return redissonClient.getLock(lockKey);
+    public void evictUserRelatedCaches(Username username) {
+        try {
+            // 版本化的列表/状态缓存通过用户级版本号整体失效，固定键直接删除
+            tieredCacheService.bumpVersion(CacheKeyGenerator.userTag(username));
+            tieredCacheService.evict(
+                CacheKeyGenerator.userInteractionKey(username),
+                CacheKeyGenerator.userFavoriteCountKey(username),
+                CacheKeyGenerator.userFavoritesKey(username),
+                CacheKeyGenerator.userCommentsKey(username),
+                CacheKeyGenerator.galleryManagerKey(username),
+                CacheKeyGenerator.userFavoriteStatisticsKey(username),
+                CacheKeyGenerator.userCommentStatisticsKey(username),
+                CacheKeyGenerator.galleryStatisticsKey(username));
+            log.info("删除用户相关所有缓存: {}", username.getValue());
+        } catch (Exception e) {
+            log.error("删除用户相关缓存失败: {} - {}", username.getValue(), e.getMessage(), e);
+        }
     }
 
     /**
-     * 尝试获取锁并执行操作
+     * 删除文物相关的所有缓存
      */
-    public <T> T executeWithLock(String businessKey, java.util.function.Supplier<T> operation) {
-        RLock lock = getLock(businessKey);
+    public void evictRelicsRelatedCaches(Long relicsId) {
         try {
-            boolean acquired = lock.tryLock(
-                UserInteractionCacheConfig.LOCK_WAIT_SECONDS,
-                UserInteractionCacheConfig.LOCK_TIMEOUT_SECONDS,
-                TimeUnit.SECONDS
-            );
-
-            if (acquired) {
-                try {
-                    return operation.get();
-                } finally {
-                    lock.unlock();
-                }
-            } else {
-                log.warn("获取分布式锁失败: {}", businessKey);
-                return operation.get(); // 降级执行
-            }
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            log.error("获取分布式锁被中断: {} - {}", businessKey, e.getMessage());
-            return operation.get(); // 降级执行
+            tieredCacheService.bumpVersion(CacheKeyGenerator.relicsTag(relicsId));
+            tieredCacheService.evict(
+                CacheKeyGenerator.relicsFavoriteCountKey(relicsId),
+                CacheKeyGenerator.relicsCommentCountKey(relicsId));
+            log.info("删除文物相关所有缓存: {}", relicsId);
         } catch (Exception e) {
-            log.error("分布式锁操作失败: {} - {}", businessKey, e.getMessage(), e);
-            return operation.get(); // 降级执行
+            log.error("删除文物相关缓存失败: {} - {}", relicsId, e.getMessage(), e);
         }
     }
 }
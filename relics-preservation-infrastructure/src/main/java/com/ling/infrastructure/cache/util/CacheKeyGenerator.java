@@ -152,24 +152,6 @@ public final class CacheKeyGenerator {
         return relicsApprovedCommentsKey(relicsId) + pageKeySuffix(page, size);
     }
     
-    /**
-     * 生成用户相关的所有缓存键模式（用于批量删除）
-     * @param username 用户名
-     * @return 缓存键模式
-     */
-    public static String userRelatedKeysPattern(Username username) {
-        return String.format("*%s*", username.getValue());
-    }
-    
-    /**
-     * 生成文物相关的所有缓存键模式（用于批量删除）
-     * @param relicsId 文物ID
-     * @return 缓存键模式
-     */
-    public static String relicsRelatedKeysPattern(Long relicsId) {
-        return String.format("*%d*", relicsId);
-    }
-    
     // ==================== 新聚合根缓存键 ====================
 
     /**
@@ -226,105 +208,201 @@ public final class CacheKeyGenerator {
         return String.format("user:galleries:stats:%s", username.getValue());
     }
 
+    // ==================== 评论相关缓存键 ====================
+
     /**
-     * 生成用户收藏状态模式（用于批量删除）
-     * @param username 用户名
-     * @return 缓存键模式
+     * 生成文物评论列表缓存键
+     * @param relicsId 文物ID
+     * @param page 页码
+     * @param size 页大小
+     * @return 缓存键
      */
-    public static String userFavoriteStatusPattern(Username username) {
-        return String.format("user:favorite:status:%s:*", username.getValue());
+    public static String relicsCommentsKey(Long relicsId, int page, int size) {
+        return String.format("relics:comments:%d:page:%d:size:%d", relicsId, page, size);
     }
 
+    // ==================== 收藏馆相关缓存键 ====================
+
     /**
-     * 生成用户收藏聚合根分布式锁键
+     * 生成收藏馆详情缓存键
+     * @param galleryId 收藏馆ID
+     * @return 缓存键
+     */
+    public static String galleryDetailKey(String galleryId) {
+        return String.format("gallery:detail:%s", galleryId);
+    }
+
+    /**
+     * 生成用户收藏馆列表缓存键
      * @param username 用户名
-     * @param operation 操作类型
-     * @return 锁键
+     * @param page 页码
+     * @param size 页大小
+     * @return 缓存键
      */
-    public static String userFavoritesLockKey(Username username, String operation) {
-        return String.format("lock:user:favorites:%s:%s", username.getValue(), operation);
+    public static String userGalleryListKey(Username username, int page, int size) {
+        return String.format("user:galleries:list:%s:page:%d:size:%d", username.getValue(), page, size);
     }
 
+    // ==================== 收藏索引键 ====================
+    // 用户收藏索引与其代数计数器使用相同的哈希标签，保证集群模式下可在同一脚本中操作
+
     /**
-     * 生成用户评论聚合根分布式锁键
+     * 生成用户收藏索引键（有序集合，成员为文物ID，分值为收藏时间）
      * @param username 用户名
-     * @param operation 操作类型
-     * @return 锁键
+     * @return 缓存键
      */
-    public static String userCommentsLockKey(Username username, String operation) {
-        return String.format("lock:user:comments:%s:%s", username.getValue(), operation);
+    public static String userFavoriteIndexKey(Username username) {
+        return String.format("user:favorites:index:{%s}", username.getValue());
     }
 
     /**
-     * 生成收藏馆管理聚合根分布式锁键
+     * 生成用户收藏索引代数键（每次收藏变更递增，用于拒绝过期的索引重建）
      * @param username 用户名
-     * @param operation 操作类型
-     * @return 锁键
+     * @return 缓存键
      */
-    public static String galleryManagerLockKey(Username username, String operation) {
-        return String.format("lock:user:galleries:%s:%s", username.getValue(), operation);
+    public static String userFavoriteIndexGenerationKey(Username username) {
+        return String.format("user:favorites:index:gen:{%s}", username.getValue());
     }
 
-    // ==================== 评论相关缓存键 ====================
+    /**
+     * 生成文物收藏计数器键（整数值，可直接 INCRBY）
+     * @param relicsId 文物ID
+     * @return 缓存键
+     */
+    public static String relicsFavoriteCounterKey(Long relicsId) {
+        return String.format("relics:favorite:counter:%d", relicsId);
+    }
+
+    // ==================== 文物缓存键 ====================
 
     /**
-     * 生成文物评论列表缓存键
+     * 生成文物详情缓存键
      * @param relicsId 文物ID
-     * @param page 页码
-     * @param size 页大小
      * @return 缓存键
      */
-    public static String relicsCommentsKey(Long relicsId, int page, int size) {
-        return String.format("relics:comments:%d:page:%d:size:%d", relicsId, page, size);
+    public static String relicsDetailKey(Long relicsId) {
+        return String.format("relics:detail:%d", relicsId);
     }
 
     /**
-     * 生成文物评论缓存模式（用于批量删除）
+     * 生成已存在文物ID的布隆过滤器键
+     * @return 缓存键
+     */
+    public static String relicsBloomFilterKey() {
+        return "relics:bloom:ids";
+    }
+
+    // ==================== 缓存预热键 ====================
+
+    /**
+     * 生成热点用户统计键（有序集合，分值为衰减后的访问次数）
+     * @return 缓存键
+     */
+    public static String hotUsersKey() {
+        return "cache:warmup:hot:users";
+    }
+
+    /**
+     * 生成热点文物统计键（有序集合，分值为衰减后的访问次数）
+     * @return 缓存键
+     */
+    public static String hotRelicsKey() {
+        return "cache:warmup:hot:relics";
+    }
+
+    /**
+     * 生成预热标记键，该键丢失说明 Redis 已被清空或切换到空的副本
+     * @return 缓存键
+     */
+    public static String warmUpMarkerKey() {
+        return "cache:warmup:marker";
+    }
+
+    // ==================== 版本标签键 ====================
+    // 列表/分页等无法逐一枚举的缓存键会嵌入所属标签的版本号，递增版本号即可整体失效，无需扫描键空间
+
+    /**
+     * 生成用户级版本标签键（覆盖该用户的全部版本化缓存）
+     * @param username 用户名
+     * @return 标签键
+     */
+    public static String userTag(Username username) {
+        return String.format("cache:tag:user:%s", username.getValue());
+    }
+
+    /**
+     * 生成文物级版本标签键（覆盖该文物的全部版本化缓存）
      * @param relicsId 文物ID
-     * @return 缓存键模式
+     * @return 标签键
      */
-    public static String relicsCommentsPattern(Long relicsId) {
-        return String.format("relics:comments:%d:*", relicsId);
+    public static String relicsTag(Long relicsId) {
+        return String.format("cache:tag:relics:%d", relicsId);
     }
 
     /**
-     * 生成用户评论缓存模式（用于批量删除）
+     * 生成用户收藏列表版本标签键
      * @param username 用户名
-     * @return 缓存键模式
+     * @return 标签键
      */
-    public static String userCommentsPattern(Username username) {
-        return String.format("user:comments:%s:*", username.getValue());
+    public static String userFavoritesListTag(Username username) {
+        return String.format("cache:tag:user:favorites:list:%s", username.getValue());
     }
 
-    // ==================== 收藏馆相关缓存键 ====================
+    /**
+     * 生成用户收藏状态版本标签键
+     * @param username 用户名
+     * @return 标签键
+     */
+    public static String userFavoriteStatusTag(Username username) {
+        return String.format("cache:tag:user:favorite:status:%s", username.getValue());
+    }
 
     /**
-     * 生成收藏馆详情缓存键
-     * @param galleryId 收藏馆ID
-     * @return 缓存键
+     * 生成用户全部评论列表版本标签键
+     * @param username 用户名
+     * @return 标签键
      */
-    public static String galleryDetailKey(String galleryId) {
-        return String.format("gallery:detail:%s", galleryId);
+    public static String userCommentsTag(Username username) {
+        return String.format("cache:tag:user:comments:%s", username.getValue());
     }
 
     /**
-     * 生成用户收藏馆列表缓存键
+     * 生成用户在指定文物下的评论列表版本标签键
      * @param username 用户名
-     * @param page 页码
-     * @param size 页大小
-     * @return 缓存键
+     * @param relicsId 文物ID（可为null，表示所有评论）
+     * @return 标签键
      */
-    public static String userGalleryListKey(Username username, int page, int size) {
-        return String.format("user:galleries:list:%s:page:%d:size:%d", username.getValue(), page, size);
+    public static String userCommentsTag(Username username, Long relicsId) {
+        String relicsIdStr = relicsId != null ? relicsId.toString() : 
+                           UserInteractionCacheConfig.ALL_RELICS_MARKER;
+        return String.format("cache:tag:user:comments:%s:%s", username.getValue(), relicsIdStr);
     }
 
     /**
-     * 生成用户收藏馆列表缓存模式（用于批量删除）
+     * 生成文物已审核评论列表版本标签键
+     * @param relicsId 文物ID
+     * @return 标签键
+     */
+    public static String relicsApprovedCommentsTag(Long relicsId) {
+        return String.format("cache:tag:relics:comments:approved:%d", relicsId);
+    }
+
+    /**
+     * 生成文物评论列表版本标签键
+     * @param relicsId 文物ID
+     * @return 标签键
+     */
+    public static String relicsCommentsTag(Long relicsId) {
+        return String.format("cache:tag:relics:comments:%d", relicsId);
+    }
+
+    /**
+     * 生成用户收藏馆列表版本标签键
      * @param username 用户名
-     * @return 缓存键模式
+     * @return 标签键
      */
-    public static String userGalleryListPattern(Username username) {
-        return String.format("user:galleries:list:%s:*", username.getValue());
+    public static String userGalleryListTag(Username username) {
+        return String.format("cache:tag:user:galleries:list:%s", username.getValue());
     }
 
     /**
@@ -336,6 +414,15 @@ public final class CacheKeyGenerator {
         return UserInteractionCacheConfig.getLockKey(businessKey);
     }
 
+    /**
+     * 生成缓存回源加载锁键
+     * @param cacheKey 缓存键
+     * @return 锁键
+     */
+    public static String loadLockKey(String cacheKey) {
+        return lockKey("load:" + cacheKey);
+    }
+
     /**
      * 私有构造函数，防止实例化
      */
@@ -0,0 +1,366 @@
+package com.ling.infrastructure.cache.warmup;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.redisson.api.RBucket;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.ling.domain.interaction.adapter.IGalleryManagerRepository;
+import com.ling.domain.interaction.adapter.IUserCommentsRepository;
+import com.ling.domain.interaction.adapter.IUserFavoritesRepository;
+import com.ling.domain.interaction.adapter.IUserInteractionRepository;
+import com.ling.domain.user.model.valobj.Username;
+import com.ling.infrastructure.cache.util.CacheKeyGenerator;
+import com.ling.infrastructure.dao.IUserFavoriteDao;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 缓存预热服务
+ * @Author: LingRJ
+ * @Description: 按访问统计预加载热点用户的交互聚合与热点文物的计数。
+ *               启动时作为 ApplicationRunner 同步执行（有超时），Spring Boot 在所有 Runner 完成后才进入
+ *               ACCEPTING_TRAFFIC，因此就绪探针在预热集加载完毕后才通过；运行期通过哨兵键检测 Redis 被清空或故障切换，
+ *               由抢到哨兵的一个节点在后台重新预热。加载按批次并行提交，并按每秒加载数限速，避免冲垮数据库
+ * @DateTime: 2025/7/20
+ */
+@Service
+@Slf4j
+public class CacheWarmUpService implements ApplicationRunner {
+
+    @Autowired
+    private RedissonClient redissonClient;
+
+    @Autowired
+    private HotKeyTracker hotKeyTracker;
+
+    @Autowired
+    private IUserFavoritesRepository userFavoritesRepository;
+
+    @Autowired
+    private IUserCommentsRepository userCommentsRepository;
+
+    @Autowired
+    private IGalleryManagerRepository galleryManagerRepository;
+
+    @Autowired
+    private IUserInteractionRepository userInteractionRepository;
+
+    @Autowired
+    private IUserFavoriteDao userFavoriteDao;
+
+    @Autowired
+    @Qualifier("cacheWarmUpExecutor")
+    private Executor warmUpExecutor;
+
+    @Value("${cache.warm-up.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${cache.warm-up.users:500}")
+    private int userLimit = 500;
+
+    @Value("${cache.warm-up.relics:500}")
+    private int relicsLimit = 500;
+
+    /**
+     * 每秒最多加载的键数（一个用户或一批文物中的每个文物各计一次）
+     */
+    @Value("${cache.warm-up.rate-per-second:200}")
+    private int ratePerSecond = 200;
+
+    @Value("${cache.warm-up.batch-size:50}")
+    private int batchSize = 50;
+
+    /**
+     * 启动预热的最长等待时间，超时后照常对外服务，剩余任务在后台继续
+     */
+    @Value("${cache.warm-up.startup-timeout:120s}")
+    private Duration startupTimeout = Duration.ofSeconds(120);
+
+    /**
+     * 热点用户不足时从数据库补充的活跃时间窗口
+     */
+    private static final Duration ACTIVE_USER_WINDOW = Duration.ofDays(7);
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    private volatile WarmUpStatus status = WarmUpStatus.pending();
+
+    // ==================== 启动预热 ====================
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            status = WarmUpStatus.skipped();
+            return;
+        }
+        markWarm();
+        CompletableFuture<WarmUpStatus> future = warmUp("startup");
+        try {
+            future.get(startupTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("启动缓存预热超时({})，剩余任务在后台继续", startupTimeout);
+            status = status.timedOut();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("启动缓存预热失败: {}", e.getMessage(), e);
+            status = status.timedOut();
+        }
+    }
+
+    // ==================== 故障切换检测 ====================
+
+    /**
+     * 哨兵键丢失说明 Redis 被清空或切换到了空的从节点，抢到哨兵的节点负责重新预热。
+     * 运行期预热不影响就绪状态，避免所有节点同时下线
+     */
+    @Scheduled(fixedDelayString = "${cache.warm-up.check-interval:30s}",
+            initialDelayString = "${cache.warm-up.check-interval:30s}")
+    public void checkRedisFlushed() {
+        if (!enabled || !status.isWarm()) {
+            return;
+        }
+        try {
+            if (markWarm()) {
+                log.warn("检测到缓存哨兵丢失（Redis 清空或故障切换），开始重新预热");
+                warmUp("failover");
+            }
+        } catch (Exception e) {
+            log.warn("检查缓存哨兵失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 写入哨兵键
+     * @return 哨兵此前不存在时返回 true
+     */
+    private boolean markWarm() {
+        RBucket<String> marker = redissonClient.getBucket(CacheKeyGenerator.warmUpMarkerKey(), StringCodec.INSTANCE);
+        return marker.setIfAbsent(String.valueOf(System.currentTimeMillis()));
+    }
+
+    // ==================== 预热执行 ====================
+
+    /**
+     * 异步执行一次预热，同一时间只运行一次
+     * @param trigger 触发原因，仅用于日志
+     */
+    public CompletableFuture<WarmUpStatus> warmUp(String trigger) {
+        if (!running.compareAndSet(false, true)) {
+            log.info("缓存预热进行中，忽略本次触发: {}", trigger);
+            return CompletableFuture.completedFuture(status);
+        }
+        long start = System.currentTimeMillis();
+        try {
+            List<String> users = collectHotUsers();
+            List<Long> relicsIds = collectHotRelics();
+            log.info("开始缓存预热[{}]: 用户={}, 文物={}", trigger, users.size(), relicsIds.size());
+
+            RateGate gate = new RateGate(ratePerSecond);
+            AtomicInteger failures = new AtomicInteger();
+            List<CompletableFuture<Void>> tasks = new ArrayList<>();
+            for (List<String> batch : partition(users)) {
+                tasks.add(CompletableFuture.runAsync(() -> HotKeyTracker.runUntracked(() -> {
+                    for (String user : batch) {
+                        gate.acquire(1);
+                        if (!warmUpUser(user)) {
+                            failures.incrementAndGet();
+                        }
+                    }
+                }), warmUpExecutor));
+            }
+            for (List<Long> batch : partition(relicsIds)) {
+                tasks.add(CompletableFuture.runAsync(() -> HotKeyTracker.runUntracked(() -> {
+                    gate.acquire(batch.size());
+                    if (!warmUpRelics(batch)) {
+                        failures.addAndGet(batch.size());
+                    }
+                }), warmUpExecutor));
+            }
+
+            return CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new))
+                    .handle((ignored, e) -> {
+                        long elapsed = System.currentTimeMillis() - start;
+                        status = WarmUpStatus.completed(users.size(), relicsIds.size(), failures.get(), elapsed);
+                        running.set(false);
+                        log.info("缓存预热完成[{}]: 用户={}, 文物={}, 失败={}, 耗时={}ms",
+                                trigger, users.size(), relicsIds.size(), failures.get(), elapsed);
+                        return status;
+                    });
+        } catch (Exception e) {
+            running.set(false);
+            log.error("缓存预热失败[{}]: {}", trigger, e.getMessage(), e);
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * 通过仓储加载用户的三个交互聚合及收藏索引，未命中时由仓储回源并写入缓存
+     */
+    private boolean warmUpUser(String user) {
+        try {
+            Username username = Username.of(user);
+            userFavoritesRepository.findByUsername(username);
+            userFavoritesRepository.countFavorites(username);
+            userCommentsRepository.findByUsername(username);
+            galleryManagerRepository.findByUsername(username);
+            return true;
+        } catch (Exception e) {
+            log.warn("预热用户缓存失败: {} - {}", user, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 一批文物的收藏数与评论数，未命中部分由仓储各用一条批量SQL回源
+     */
+    private boolean warmUpRelics(List<Long> relicsIds) {
+        try {
+            userInteractionRepository.batchGetRelicsInteractionSummaries(null, relicsIds);
+            return true;
+        } catch (Exception e) {
+            log.warn("预热文物计数失败: {} - {}", relicsIds, e.getMessage());
+            return false;
+        }
+    }
+
+    // ==================== 热点收集 ====================
+
+    /**
+     * 本节点统计优先（Redis 被清空后仍可用），其次为集群汇总，仍不足时取数据库中最近活跃的用户
+     */
+    private List<String> collectHotUsers() {
+        Set<String> users = new LinkedHashSet<>(hotKeyTracker.localHotUsers(userLimit));
+        if (users.size() < userLimit) {
+            users.addAll(hotKeyTracker.sharedHotUsers(userLimit));
+        }
+        if (users.size() < userLimit) {
+            try {
+                users.addAll(userFavoriteDao.selectRecentActiveUsers(
+                        LocalDateTime.now().minus(ACTIVE_USER_WINDOW), userLimit));
+            } catch (Exception e) {
+                log.warn("查询活跃用户失败: {}", e.getMessage());
+            }
+        }
+        return users.stream().limit(userLimit).toList();
+    }
+
+    private List<Long> collectHotRelics() {
+        Set<Long> relicsIds = new LinkedHashSet<>(hotKeyTracker.localHotRelics(relicsLimit));
+        if (relicsIds.size() < relicsLimit) {
+            relicsIds.addAll(hotKeyTracker.sharedHotRelics(relicsLimit));
+        }
+        if (relicsIds.size() < relicsLimit) {
+            try {
+                relicsIds.addAll(userFavoriteDao.selectPopularRelicsIds(relicsLimit));
+            } catch (Exception e) {
+                log.warn("查询热门文物失败: {}", e.getMessage());
+            }
+        }
+        return relicsIds.stream().limit(relicsLimit).toList();
+    }
+
+    private <T> List<List<T>> partition(List<T> items) {
+        int size = Math.max(1, batchSize);
+        List<List<T>> batches = new ArrayList<>();
+        for (int i = 0; i < items.size(); i += size) {
+            batches.add(items.subList(i, Math.min(i + size, items.size())));
+        }
+        return batches;
+    }
+
+    // ==================== 状态 ====================
+
+    public WarmUpStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * 启动预热已结束（完成、超时或未启用）
+     */
+    public boolean isWarm() {
+        return status.isWarm();
+    }
+
+    /**
+     * 预热状态
+     * @param state 状态：PENDING / COMPLETED / TIMED_OUT / SKIPPED
+     * @param users 预热的用户数
+     * @param relics 预热的文物数
+     * @param failures 失败的键数
+     * @param elapsedMillis 耗时
+     */
+    public record WarmUpStatus(String state, int users, int relics, int failures, long elapsedMillis) {
+
+        static WarmUpStatus pending() {
+            return new WarmUpStatus("PENDING", 0, 0, 0, 0);
+        }
+
+        static WarmUpStatus skipped() {
+            return new WarmUpStatus("SKIPPED", 0, 0, 0, 0);
+        }
+
+        static WarmUpStatus completed(int users, int relics, int failures, long elapsedMillis) {
+            return new WarmUpStatus("COMPLETED", users, relics, failures, elapsedMillis);
+        }
+
+        WarmUpStatus timedOut() {
+            return "PENDING".equals(state) ? new WarmUpStatus("TIMED_OUT", users, relics, failures, elapsedMillis) : this;
+        }
+
+        public boolean isWarm() {
+            return !"PENDING".equals(state);
+        }
+    }
+
+    /**
+     * 按固定间隔发放许可的限速器，多个预热线程共享
+     */
+    private static final class RateGate {
+
+        private final long intervalNanos;
+
+        private long nextFreeNanos = System.nanoTime();
+
+        RateGate(int permitsPerSecond) {
+            this.intervalNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, permitsPerSecond);
+        }
+
+        void acquire(int permits) {
+            long waitNanos;
+            synchronized (this) {
+                long now = System.nanoTime();
+                long start = Math.max(now, nextFreeNanos);
+                nextFreeNanos = start + intervalNanos * permits;
+                waitNanos = start - now;
+            }
+            if (waitNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(waitNanos);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+}
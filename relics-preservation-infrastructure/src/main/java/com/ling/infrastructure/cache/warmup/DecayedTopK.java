@@ -0,0 +1,64 @@
+package com.ling.infrastructure.cache.warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 衰减的高频键排名
+ * @Author: LingRJ
+ * @Description: 每次合并一个统计周期的计数前先按衰减系数缩小历史分值，与 Redis 汇总集合的衰减方式一致，
+ *               使本节点在多个周期内保留热点排名，不随周期统计的清空而丢失。只保留分值最高的 capacity 个键
+ * @DateTime: 2025/7/20
+ */
+public class DecayedTopK<K> {
+
+    private final int capacity;
+
+    private final Map<K, Double> scores = new HashMap<>();
+
+    public DecayedTopK(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("容量必须为正数: " + capacity);
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * 衰减历史分值后累加一个周期的计数，并裁剪为固定容量
+     * @param counts 周期内的计数
+     * @param decayFactor 历史分值的保留比例
+     */
+    public synchronized void merge(Map<K, Long> counts, double decayFactor) {
+        scores.replaceAll((key, score) -> score * decayFactor);
+        counts.forEach((key, count) -> scores.merge(key, count.doubleValue(), Double::sum));
+        if (scores.size() > capacity) {
+            List<K> ranked = ranked(Map.of());
+            ranked.subList(capacity, ranked.size()).forEach(scores::remove);
+        }
+    }
+
+    /**
+     * 按分值降序返回前 limit 个键，尚未合并的当前周期计数一并计入
+     * @param limit 数量
+     * @param pending 当前周期尚未合并的计数
+     */
+    public synchronized List<K> topK(int limit, Map<K, Long> pending) {
+        List<K> keys = ranked(pending);
+        return new ArrayList<>(keys.subList(0, Math.min(limit, keys.size())));
+    }
+
+    public synchronized int size() {
+        return scores.size();
+    }
+
+    private List<K> ranked(Map<K, Long> pending) {
+        Map<K, Double> combined = new HashMap<>(scores);
+        pending.forEach((key, count) -> combined.merge(key, count.doubleValue(), Double::sum));
+        return combined.entrySet().stream()
+                .sorted(Map.Entry.<K, Double>comparingByValue().reversed())
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+}
@@ -0,0 +1,94 @@
+package com.ling.infrastructure.cache.warmup;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 高频键近似统计
+ * @Author: LingRJ
+ * @Description: 有界计数表：条目数超过容量两倍时裁剪为计数最高的 capacity 个，
+ *               低频键被持续淘汰，高频键的计数保持近似准确。记录操作无锁，裁剪均摊到每次记录为 O(log n)
+ * @DateTime: 2025/7/20
+ */
+public class HeavyHitterSketch<K> {
+
+    private final int capacity;
+
+    private final ConcurrentHashMap<K, LongAdder> counts = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean pruning = new AtomicBoolean(false);
+
+    public HeavyHitterSketch(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("容量必须为正数: " + capacity);
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * 记录一次访问
+     */
+    public void record(K key) {
+        counts.computeIfAbsent(key, k -> new LongAdder()).increment();
+        if (counts.size() > capacity * 2 && pruning.compareAndSet(false, true)) {
+            try {
+                prune();
+            } finally {
+                pruning.set(false);
+            }
+        }
+    }
+
+    /**
+     * 按计数降序返回前 limit 个键
+     */
+    public List<K> topK(int limit) {
+        List<K> keys = new ArrayList<>(Math.min(limit, counts.size()));
+        snapshotSorted().entrySet().stream().limit(limit).forEach(entry -> keys.add(entry.getKey()));
+        return keys;
+    }
+
+    /**
+     * 按计数降序返回当前全部计数，不清空
+     */
+    public Map<K, Long> snapshot() {
+        return snapshotSorted();
+    }
+
+    /**
+     * 取出当前全部计数并清空，用于周期性汇总到共享存储
+     */
+    public Map<K, Long> drain() {
+        Map<K, Long> snapshot = snapshotSorted();
+        snapshot.keySet().forEach(counts::remove);
+        return snapshot;
+    }
+
+    public int size() {
+        return counts.size();
+    }
+
+    private void prune() {
+        Map<K, Long> sorted = snapshotSorted();
+        int rank = 0;
+        for (K key : sorted.keySet()) {
+            if (++rank > capacity) {
+                counts.remove(key);
+            }
+        }
+    }
+
+    private Map<K, Long> snapshotSorted() {
+        Map<K, Long> sorted = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .map(entry -> Map.entry(entry.getKey(), entry.getValue().sum()))
+                .sorted(Map.Entry.<K, Long>comparingByValue().reversed())
+                .forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+        return sorted;
+    }
+}
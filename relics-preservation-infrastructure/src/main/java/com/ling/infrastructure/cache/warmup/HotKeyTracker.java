@@ -0,0 +1,178 @@
+package com.ling.infrastructure.cache.warmup;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.redisson.api.RBatch;
+import org.redisson.api.RScoredSortedSet;
+import org.redisson.api.RScoredSortedSetAsync;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.ling.domain.user.model.valobj.Username;
+import com.ling.infrastructure.cache.config.UserInteractionCacheConfig;
+import com.ling.infrastructure.cache.util.CacheKeyGenerator;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 热点键跟踪器
+ * @Author: LingRJ
+ * @Description: 在本节点内存中统计高频访问的用户与文物，定期汇总到 Redis 有序集合供所有节点预热使用。
+ *               汇总时按间隔对历史分值衰减，使热点随访问变化而更替；本节点同样以衰减方式保留跨周期的排名，
+ *               Redis 被清空后预热仍能依据长期热点，而不只是最近一个周期
+ * @DateTime: 2025/7/20
+ */
+@Component
+@Slf4j
+public class HotKeyTracker {
+
+    @Autowired
+    private RedissonClient redissonClient;
+
+    /**
+     * 每次汇总时历史分值的保留比例
+     */
+    @Value("${cache.warm-up.decay-factor:0.9}")
+    private double decayFactor = 0.9;
+
+    private final HeavyHitterSketch<String> users =
+            new HeavyHitterSketch<>(UserInteractionCacheConfig.HOT_KEY_CAPACITY);
+
+    private final HeavyHitterSketch<Long> relics =
+            new HeavyHitterSketch<>(UserInteractionCacheConfig.HOT_KEY_CAPACITY);
+
+    /**
+     * 本节点跨周期的衰减排名，汇总时合并周期计数，不随周期统计清空
+     */
+    private final DecayedTopK<String> decayedUsers =
+            new DecayedTopK<>(UserInteractionCacheConfig.HOT_KEY_CAPACITY);
+
+    private final DecayedTopK<Long> decayedRelics =
+            new DecayedTopK<>(UserInteractionCacheConfig.HOT_KEY_CAPACITY);
+
+    /**
+     * 预热线程的访问不计入统计，避免预热结果自我强化
+     */
+    private static final ThreadLocal<Boolean> UNTRACKED = ThreadLocal.withInitial(() -> false);
+
+    // ==================== 记录访问 ====================
+
+    public void recordUser(Username username) {
+        if (username != null && !UNTRACKED.get()) {
+            users.record(username.getValue());
+        }
+    }
+
+    public void recordRelics(Long relicsId) {
+        if (relicsId != null && !UNTRACKED.get()) {
+            relics.record(relicsId);
+        }
+    }
+
+    public void recordRelics(Collection<Long> relicsIds) {
+        relicsIds.forEach(this::recordRelics);
+    }
+
+    /**
+     * 在不记录访问的情况下执行
+     */
+    public static void runUntracked(Runnable action) {
+        UNTRACKED.set(true);
+        try {
+            action.run();
+        } finally {
+            UNTRACKED.remove();
+        }
+    }
+
+    // ==================== 查询热点 ====================
+
+    /**
+     * 本节点内存中的热点用户（历史衰减分值加当前周期计数），Redis 被清空后仍可用
+     */
+    public List<String> localHotUsers(int limit) {
+        return decayedUsers.topK(limit, users.snapshot());
+    }
+
+    /**
+     * 本节点内存中的热点文物（历史衰减分值加当前周期计数）
+     */
+    public List<Long> localHotRelics(int limit) {
+        return decayedRelics.topK(limit, relics.snapshot());
+    }
+
+    /**
+     * 全部节点汇总后的热点用户
+     */
+    public List<String> sharedHotUsers(int limit) {
+        try {
+            return new ArrayList<>(hotSet(CacheKeyGenerator.hotUsersKey()).valueRangeReversed(0, limit - 1));
+        } catch (Exception e) {
+            log.warn("读取热点用户失败: {}", e.getMessage());
+            return List.of();
+        }
+    }
+
+    /**
+     * 全部节点汇总后的热点文物
+     */
+    public List<Long> sharedHotRelics(int limit) {
+        try {
+            return hotSet(CacheKeyGenerator.hotRelicsKey()).valueRangeReversed(0, limit - 1).stream()
+                    .map(Long::valueOf)
+                    .toList();
+        } catch (Exception e) {
+            log.warn("读取热点文物失败: {}", e.getMessage());
+            return List.of();
+        }
+    }
+
+    // ==================== 定期汇总 ====================
+
+    /**
+     * 将本节点统计累加到 Redis 与本节点的衰减排名，并裁剪为固定容量；写入 Redis 失败时本节点排名仍保留本周期计数
+     */
+    @Scheduled(fixedDelayString = "${cache.warm-up.flush-interval:60s}",
+            initialDelayString = "${cache.warm-up.flush-interval:60s}")
+    public void flush() {
+        Map<String, Long> userCounts = users.drain();
+        Map<Long, Long> relicsCounts = relics.drain();
+        if (userCounts.isEmpty() && relicsCounts.isEmpty()) {
+            return;
+        }
+        decayedUsers.merge(userCounts, decayFactor);
+        decayedRelics.merge(relicsCounts, decayFactor);
+        try {
+            RBatch batch = redissonClient.createBatch();
+            merge(batch, CacheKeyGenerator.hotUsersKey(), userCounts);
+            merge(batch, CacheKeyGenerator.hotRelicsKey(), relicsCounts);
+            batch.execute();
+            log.debug("汇总热点统计: 用户={}, 文物={}", userCounts.size(), relicsCounts.size());
+        } catch (Exception e) {
+            log.warn("汇总热点统计失败: {}", e.getMessage());
+        }
+    }
+
+    private <K> void merge(RBatch batch, String key, Map<K, Long> counts) {
+        if (counts.isEmpty()) {
+            return;
+        }
+        RScoredSortedSetAsync<String> set = batch.getScoredSortedSet(key, StringCodec.INSTANCE);
+        // ZUNIONSTORE key 1 key WEIGHTS decay，对历史分值整体衰减
+        set.unionAsync(Map.of(key, decayFactor));
+        counts.forEach((member, count) -> set.addScoreAsync(String.valueOf(member), count));
+        set.removeRangeByRankAsync(0, -UserInteractionCacheConfig.HOT_KEY_CAPACITY - 1);
+        set.expireAsync(UserInteractionCacheConfig.HOT_KEY_TTL);
+    }
+
+    private RScoredSortedSet<String> hotSet(String key) {
+        return redissonClient.getScoredSortedSet(key, StringCodec.INSTANCE);
+    }
+}
@@ -0,0 +1,40 @@
+package com.ling.infrastructure.dao;
+
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+/**
+ * @Author: LingRJ
+ * @Description: 聚合根版本Dao
+ * @DateTime: 2025/7/20
+ **/
+@Mapper
+public interface IAggregateVersionDao {
+
+    /**
+     * 查询聚合根当前版本号
+     * @return 版本号，未保存过时为 null
+     */
+    @Select("SELECT version FROM user_aggregate_version WHERE username = #{username} AND aggregate_type = #{aggregateType}")
+    Long selectVersion(@Param("username") String username, @Param("aggregateType") String aggregateType);
+
+    /**
+     * 首次保存时写入版本 1，记录已存在时不写入
+     * @return 受影响行数，0 表示已被其他请求抢先保存
+     */
+    @Insert("INSERT IGNORE INTO user_aggregate_version (username, aggregate_type, version, update_time) " +
+            "VALUES (#{username}, #{aggregateType}, 1, NOW())")
+    int insertInitial(@Param("username") String username, @Param("aggregateType") String aggregateType);
+
+    /**
+     * 版本号等于期望值时递增
+     * @return 受影响行数，0 表示版本冲突
+     */
+    @Update("UPDATE user_aggregate_version SET version = version + 1, update_time = NOW() " +
+            "WHERE username = #{username} AND aggregate_type = #{aggregateType} AND version = #{expectedVersion}")
+    int compareAndIncrement(@Param("username") String username, @Param("aggregateType") String aggregateType,
+                            @Param("expectedVersion") long expectedVersion);
+}
@@ -5,6 +5,7 @@ import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -179,6 +180,13 @@ public interface ICollectionGalleryDao {
      * @return 影响行数
      */
     int batchUpdate(@Param("list") List<CollectionGalleryPO> galleries);
+
+    /**
+     * 批量写入收藏馆记录，收藏馆ID已存在时覆盖可编辑字段，保留分享码与创建时间
+     * @param galleries 收藏馆记录列表
+     * @return 影响行数
+     */
+    int batchUpsert(@Param("list") List<CollectionGalleryPO> galleries);
     
     /**
      * 批量查询收藏馆
@@ -193,6 +201,17 @@ public interface ICollectionGalleryDao {
      * @return 影响行数
      */
     int batchDeleteByGalleryIds(@Param("galleryIds") List<String> galleryIds);
+
+    /**
+     * 逻辑删除用户的一批收藏馆，用于分段删除
+     * @param username 用户名
+     * @param updateTime 更新时间
+     * @param limit 单次最多删除的记录数
+     * @return 影响行数
+     */
+    int softDeleteByUsername(@Param("username") String username,
+                             @Param("updateTime") LocalDateTime updateTime,
+                             @Param("limit") int limit);
     
     // ==================== 统计查询 ====================
     
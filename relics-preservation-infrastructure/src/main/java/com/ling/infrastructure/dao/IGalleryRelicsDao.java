@@ -0,0 +1,40 @@
+package com.ling.infrastructure.dao;
+
+import com.ling.infrastructure.dao.po.GalleryRelicsPO;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * 收藏馆文物关联DAO接口
+ * @Author: LingRJ
+ * @Description: 收藏馆与文物的关联关系，一行一个文物，按收藏馆整体替换
+ * @DateTime: 2025/7/20
+ */
+@Mapper
+@Repository
+public interface IGalleryRelicsDao {
+
+    /**
+     * 批量插入关联记录
+     * @param relics 关联记录列表
+     * @return 影响行数
+     */
+    int batchInsert(@Param("list") List<GalleryRelicsPO> relics);
+
+    /**
+     * 删除一批收藏馆的全部关联记录
+     * @param galleryIds 收藏馆ID列表
+     * @return 影响行数
+     */
+    int deleteByGalleryIds(@Param("galleryIds") List<String> galleryIds);
+
+    /**
+     * 查询一批收藏馆的关联记录，按收藏馆与顺序排列
+     * @param galleryIds 收藏馆ID列表
+     * @return 关联记录列表
+     */
+    List<GalleryRelicsPO> selectByGalleryIds(@Param("galleryIds") List<String> galleryIds);
+}
@@ -1,11 +1,13 @@
 package com.ling.infrastructure.dao;
 
 import com.ling.infrastructure.dao.po.Relics;
+import com.ling.infrastructure.dao.po.RelicsSummaryPO;
 import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 import org.apache.ibatis.annotations.SelectKey;
+import org.apache.ibatis.cursor.Cursor;
 
 import java.util.List;
 
@@ -21,34 +23,46 @@ public interface IRelicsDao {
     @SelectKey(statement = "SELECT LAST_INSERT_ID()", keyProperty = "relics.id", before = false, resultType = int.class)
     int insertRelics(@Param("relics") Relics relics);
 
-    List<Relics> selectByEra(@Param("era") String era);
+    /**
+     * 根据年代查询文物列表投影
+     * @param era 年代
+     * @return 文物列表，不含描述
+     */
+    List<RelicsSummaryPO> selectByEra(@Param("era") String era);
     
     /**
      * 随机获取指定数量的文物记录
      * @param limit 获取数量
-     * @return 文物列表
+     * @return 文物列表，不含描述
      */
-    List<Relics> selectRandomRelics(@Param("limit") int limit);
+    List<RelicsSummaryPO> selectRandomRelics(@Param("limit") int limit);
 
     Relics selectRelicById(@Param("id") Long id);
     
     /**
      * 获取除指定朝代外的所有文物
      * @param excludeEras 要排除的朝代列表
-     * @return 文物列表
+     * @return 文物列表，不含描述
      */
-    List<Relics> selectRelicsExceptEras(@Param("excludeEras") List<String> excludeEras);
+    List<RelicsSummaryPO> selectRelicsExceptEras(@Param("excludeEras") List<String> excludeEras);
     
     /**
      * 根据名称模糊查询文物
      * @param name 名称关键词
-     * @return 文物列表
+     * @return 文物列表，不含描述
      */
-    List<Relics> selectByNameContaining(@Param("name") String name);
+    List<RelicsSummaryPO> selectByNameContaining(@Param("name") String name);
     
     /**
-     * 获取所有文物
-     * @return 文物列表
+     * 以流式游标逐行读取所有文物（含描述，用于全量同步搜索索引）
+     * 游标须在事务内遍历并关闭，遍历期间所在连接不能执行其他语句
+     * @return 文物游标
+     */
+    Cursor<Relics> streamAll();
+
+    /**
+     * 获取所有文物ID（用于构建布隆过滤器）
+     * @return 文物ID列表
      */
-    List<Relics> selectAll();
+    List<Long> selectAllRelicsIds();
 }
@@ -136,6 +136,35 @@ public interface IUserCommentDao {
      * @return 影响行数
      */
     int batchInsert(@Param("list") List<UserComment> userComments);
+
+    /**
+     * 批量写入评论记录，评论ID已存在时以聚合根中的最终状态覆盖内容、审核状态、删除状态与更新时间
+     * @param userComments 评论记录列表
+     * @return 影响行数
+     */
+    int batchUpsert(@Param("list") List<UserComment> userComments);
+
+    /**
+     * 批量逻辑删除用户的评论，只更新正常状态的记录
+     * @param username 用户名
+     * @param commentIds 评论ID列表
+     * @param updateTime 更新时间
+     * @return 影响行数
+     */
+    int batchSoftDeleteByCommentIds(@Param("username") String username,
+                                    @Param("commentIds") List<Long> commentIds,
+                                    @Param("updateTime") LocalDateTime updateTime);
+
+    /**
+     * 逻辑删除用户的一批评论，用于分段删除
+     * @param username 用户名
+     * @param updateTime 更新时间
+     * @param limit 单次最多删除的记录数
+     * @return 影响行数
+     */
+    int softDeleteByUsername(@Param("username") String username,
+                             @Param("updateTime") LocalDateTime updateTime,
+                             @Param("limit") int limit);
     
     /**
      * 批量获取文物评论数量
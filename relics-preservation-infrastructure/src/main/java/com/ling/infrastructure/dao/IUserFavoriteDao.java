@@ -1,6 +1,7 @@
 package com.ling.infrastructure.dao;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 import org.apache.ibatis.annotations.Param;
@@ -103,6 +104,24 @@ public interface IUserFavoriteDao {
      * @return 影响行数
      */
     int batchInsert(@Param("list") List<UserFavorite> userFavorites);
+
+    /**
+     * 批量写入收藏记录，记录已存在（含已取消的收藏）时恢复为正常状态
+     * @param userFavorites 收藏记录列表
+     * @return 影响行数
+     */
+    int batchUpsert(@Param("list") List<UserFavorite> userFavorites);
+
+    /**
+     * 批量取消收藏，只更新正常状态的记录
+     * @param username 用户名
+     * @param relicsIds 文物ID列表
+     * @param updateTime 更新时间
+     * @return 影响行数
+     */
+    int batchSoftDeleteByRelicsIds(@Param("username") String username,
+                                   @Param("relicsIds") Collection<Long> relicsIds,
+                                   @Param("updateTime") LocalDateTime updateTime);
     
     /**
      * 批量检查收藏状态
@@ -120,6 +139,15 @@ public interface IUserFavoriteDao {
      */
     List<RelicsFavoriteCount> batchCountByRelicsIds(@Param("relicsIds") List<Long> relicsIds);
     
+    /**
+     * 查询用户一批有效收藏的文物ID，用于分段逻辑删除
+     * @param username 用户名
+     * @param limit 限制数量
+     * @return 文物ID列表
+     */
+    List<Long> selectActiveRelicsIds(@Param("username") String username,
+                                     @Param("limit") int limit);
+
     // ==================== 统计查询 ====================
     
     /**
@@ -40,7 +40,7 @@ public class CollectionGalleryPO {
     /** 展示风格代码(grid,list,timeline等) */
     private String displayStyle;
     
-    /** 文物ID列表，逗号分隔 */
+    /** 文物ID列表，逗号分隔。双写期间保留，文物关系以 gallery_relics 为准 */
     private String relicsIds;
     
     /** 是否公开(0=私有,1=公开) */
@@ -113,78 +113,6 @@ public class CollectionGalleryPO {
         this.status = 1;
     }
     
-    /**
-     * 获取文物数量
-     * @return 文物数量
-     */
-    public int getRelicsCount() {
-        if (relicsIds == null || relicsIds.trim().isEmpty()) {
-            return 0;
-        }
-        return relicsIds.split(",").length;
-    }
-    
-    /**
-     * 检查是否包含指定文物
-     * @param relicsId 文物ID
-     * @return 是否包含
-     */
-    public boolean containsRelics(Long relicsId) {
-        if (relicsIds == null || relicsIds.trim().isEmpty() || relicsId == null) {
-            return false;
-        }
-        String[] ids = relicsIds.split(",");
-        String targetId = relicsId.toString();
-        for (String id : ids) {
-            if (targetId.equals(id.trim())) {
-                return true;
-            }
-        }
-        return false;
-    }
-    
-    /**
-     * 添加文物ID
-     * @param relicsId 文物ID
-     */
-    public void addRelicsId(Long relicsId) {
-        if (relicsId == null) {
-            return;
-        }
-        
-        if (relicsIds == null || relicsIds.trim().isEmpty()) {
-            relicsIds = relicsId.toString();
-        } else if (!containsRelics(relicsId)) {
-            relicsIds = relicsIds + "," + relicsId;
-        }
-    }
-    
-    /**
-     * 移除文物ID
-     * @param relicsId 文物ID
-     */
-    public void removeRelicsId(Long relicsId) {
-        if (relicsId == null || relicsIds == null || relicsIds.trim().isEmpty()) {
-            return;
-        }
-        
-        String[] ids = relicsIds.split(",");
-        String targetId = relicsId.toString();
-        StringBuilder newIds = new StringBuilder();
-        
-        for (String id : ids) {
-            String trimmedId = id.trim();
-            if (!targetId.equals(trimmedId)) {
-                if (!newIds.isEmpty()) {
-                    newIds.append(",");
-                }
-                newIds.append(trimmedId);
-            }
-        }
-        
-        relicsIds = newIds.toString();
-    }
-    
     /**
      * 获取显示名称（用于日志和调试）
      * @return 显示名称
@@ -254,7 +182,7 @@ public class CollectionGalleryPO {
     
     @Override
     public String toString() {
-        return String.format("CollectionGalleryPO{id=%d, galleryId='%s', username='%s', name='%s', theme='%s', relicsCount=%d, isPublic=%s, status=%d}", 
-                id, galleryId, username, name, theme, getRelicsCount(), isPublicGallery(), status);
+        return String.format("CollectionGalleryPO{id=%d, galleryId='%s', username='%s', name='%s', theme='%s', isPublic=%s, status=%d}", 
+                id, galleryId, username, name, theme, isPublicGallery(), status);
     }
 }
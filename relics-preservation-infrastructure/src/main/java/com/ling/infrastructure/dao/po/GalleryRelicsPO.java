@@ -0,0 +1,33 @@
+package com.ling.infrastructure.dao.po;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 收藏馆文物关联持久化对象
+ * @Author: LingRJ
+ * @Description: 收藏馆中的一件文物，对应 gallery_relics 表的一行
+ * @DateTime: 2025/7/20
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GalleryRelicsPO {
+
+    /** 收藏馆唯一标识(UUID) */
+    private String galleryId;
+
+    /** 文物ID */
+    private Long relicsId;
+
+    /** 文物在收藏馆中的顺序，从0开始 */
+    private Integer position;
+
+    /** 创建时间 */
+    private LocalDateTime createTime;
+}
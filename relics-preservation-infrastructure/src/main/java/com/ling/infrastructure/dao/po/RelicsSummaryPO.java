@@ -0,0 +1,36 @@
+package com.ling.infrastructure.dao.po;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * @Author: LingRJ
+ * @Description: 文物列表投影，只含列表页展示与筛选所需的列，不含描述等大字段；详情通过 selectRelicById 获取
+ * @DateTime: 2025/7/20
+ **/
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class RelicsSummaryPO {
+    /** 文物业务ID */
+    private Long relicsId;
+    /** 文物名称 */
+    private String name;
+    /** 保护等级 */
+    private Integer preservation;
+    /** 类别 */
+    private String category;
+    /** 所属年代 */
+    private String era;
+    /** 主要材质 */
+    private String material;
+    /** 文物图片链接 */
+    private String imageUrl;
+    /** 状态 */
+    private Integer status;
+    /** 所在位置ID */
+    private Integer locationId;
+}
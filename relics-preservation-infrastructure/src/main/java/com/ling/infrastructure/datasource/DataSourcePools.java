@@ -0,0 +1,76 @@
+package com.ling.infrastructure.datasource;
+
+import com.zaxxer.hikari.HikariConfig;
+
+/**
+ * 连接池公共配置
+ * @Author: LingRJ
+ * @Description: MySQL 与 PostgreSQL 连接池共用的基础配置与驱动级语句缓存参数，
+ *               应用数据源与基准测试使用同一份配置，保证基准结果与线上行为一致
+ * @DateTime: 2025/7/20
+ */
+public final class DataSourcePools {
+
+    /**
+     * 推算的连接数下限
+     */
+    public static final int MIN_POOL_SIZE = 2;
+
+    private DataSourcePools() {
+    }
+
+    /**
+     * 构建基础配置：连接信息与连接池名称
+     */
+    public static HikariConfig baseConfig(String poolName, String driverClassName,
+                                          String url, String username, String password) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(poolName);
+        config.setDriverClassName(driverClassName);
+        config.setJdbcUrl(url);
+        config.setUsername(username);
+        config.setPassword(password);
+        return config;
+    }
+
+    /**
+     * MySQL Connector/J 语句缓存与批量改写。
+     * 服务端预编译语句按连接缓存，重复执行同一 SQL 时省去解析；批量插入改写为多值 INSERT，
+     * 会话状态在本地维护，避免每次借出连接时的 autocommit / 隔离级别查询
+     */
+    public static void applyMySqlStatementCache(HikariConfig config) {
+        config.addDataSourceProperty("cachePrepStmts", "true");
+        config.addDataSourceProperty("prepStmtCacheSize", "250");
+        config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+        config.addDataSourceProperty("useServerPrepStmts", "true");
+        config.addDataSourceProperty("rewriteBatchedStatements", "true");
+        config.addDataSourceProperty("cacheResultSetMetadata", "true");
+        config.addDataSourceProperty("cacheServerConfiguration", "true");
+        config.addDataSourceProperty("useLocalSessionState", "true");
+        config.addDataSourceProperty("elideSetAutoCommits", "true");
+        config.addDataSourceProperty("maintainTimeStats", "false");
+    }
+
+    /**
+     * PostgreSQL JDBC 语句缓存与批量改写。
+     * 同一 SQL 执行达到阈值次数后切换为服务端预编译，批量插入改写为多值 INSERT
+     */
+    public static void applyPostgresStatementCache(HikariConfig config) {
+        config.addDataSourceProperty("prepareThreshold", "3");
+        config.addDataSourceProperty("preparedStatementCacheQueries", "256");
+        config.addDataSourceProperty("preparedStatementCacheSizeMiB", "5");
+        config.addDataSourceProperty("reWriteBatchedInserts", "true");
+    }
+
+    /**
+     * 推算连接池容量：请求线程预留的连接数 + 各后台线程池的最大线程数，限制在 [MIN_POOL_SIZE, limit] 内。
+     * 每个线程同一时刻至多占用一个连接，按此容量借出连接不会因池满而排队
+     * @param requestConnections 请求线程预留的连接数
+     * @param backgroundThreads 会访问该数据库的后台线程数之和
+     * @param limit 容量上限，数据库 max_connections 需覆盖所有实例的上限之和
+     */
+    public static int derivePoolSize(int requestConnections, int backgroundThreads, int limit) {
+        int derived = requestConnections + backgroundThreads;
+        return Math.max(MIN_POOL_SIZE, Math.min(derived, Math.max(MIN_POOL_SIZE, limit)));
+    }
+}
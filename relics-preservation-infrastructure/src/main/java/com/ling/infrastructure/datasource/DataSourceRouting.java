@@ -0,0 +1,45 @@
+package com.ling.infrastructure.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * 读写分离路由上下文
+ * @Author: LingRJ
+ * @Description: 只读事务默认路由到从库，读己之写等不能容忍复制延迟的读取用 onPrimary 包裹后强制走主库。
+ *               强制标记绑定在当前线程上，可嵌套
+ * @DateTime: 2025/7/20
+ */
+public final class DataSourceRouting {
+
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica";
+
+    private static final ThreadLocal<Integer> PRIMARY_DEPTH = new ThreadLocal<>();
+
+    private DataSourceRouting() {
+    }
+
+    /**
+     * 在主库上执行，期间的只读事务也不路由到从库
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        Integer depth = PRIMARY_DEPTH.get();
+        PRIMARY_DEPTH.set(depth == null ? 1 : depth + 1);
+        try {
+            return action.get();
+        } finally {
+            if (depth == null) {
+                PRIMARY_DEPTH.remove();
+            } else {
+                PRIMARY_DEPTH.set(depth);
+            }
+        }
+    }
+
+    /**
+     * 当前线程是否被强制使用主库
+     */
+    public static boolean isPrimaryForced() {
+        return PRIMARY_DEPTH.get() != null;
+    }
+}
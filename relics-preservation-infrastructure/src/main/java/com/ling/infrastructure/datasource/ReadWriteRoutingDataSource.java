@@ -0,0 +1,72 @@
+package com.ling.infrastructure.datasource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 读写分离数据源
+ * @Author: LingRJ
+ * @Description: 只读事务（@Transactional(readOnly = true)）路由到从库，其余一律走主库。
+ *               从库因复制延迟被停用、当前线程强制主库或获取从库连接失败时回退到主库。
+ *               需由 LazyConnectionDataSourceProxy 包裹，使连接在事务的只读标记设置之后才真正获取；
+ *               加入读写事务的只读方法沿用外层事务的主库连接，事务内的读取总能看到本事务的写入
+ * @DateTime: 2025/7/20
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final DataSource primary;
+
+    private final ReplicaLagMonitor replicaLagMonitor;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor replicaLagMonitor) {
+        this.primary = primary;
+        this.replicaLagMonitor = replicaLagMonitor;
+        setTargetDataSources(Map.of(DataSourceRouting.PRIMARY, primary, DataSourceRouting.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && !DataSourceRouting.isPrimaryForced()
+                && replicaLagMonitor.isAvailable()) {
+            return DataSourceRouting.REPLICA;
+        }
+        return DataSourceRouting.PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        DataSource target = determineTargetDataSource();
+        if (target == primary) {
+            return primary.getConnection();
+        }
+        try {
+            return target.getConnection();
+        } catch (SQLException e) {
+            replicaLagMonitor.markUnavailable(e);
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        DataSource target = determineTargetDataSource();
+        if (target == primary) {
+            return primary.getConnection(username, password);
+        }
+        try {
+            return target.getConnection(username, password);
+        } catch (SQLException e) {
+            replicaLagMonitor.markUnavailable(e);
+            return primary.getConnection(username, password);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.ling.infrastructure.datasource;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 读己之写保护
+ * @Author: LingRJ
+ * @Description: 写入后在 Redis 中为实体登记一个短期标记，有效期不短于从库允许的最大复制延迟。
+ *               标记有效期间该实体的回源读取强制走主库，避免从库的旧数据被重新写入缓存；
+ *               标记保存在 Redis 中，其他节点的回源同样可见。未启用从库时不做任何操作
+ * @DateTime: 2025/7/20
+ */
+@Component
+@Slf4j
+public class RecentWriteGuard {
+
+    private static final String KEY_PREFIX = "datasource:recent-write:";
+
+    @Autowired
+    private RedissonClient redissonClient;
+
+    @Value("${datasource.replica.enabled:false}")
+    private boolean replicaEnabled = false;
+
+    @Value("${datasource.replica.read-your-writes-window:10s}")
+    private Duration window = Duration.ofSeconds(10);
+
+    /**
+     * 登记实体刚被写入
+     * @param entityKey 实体标识，如 relics:1001
+     */
+    public void markWritten(String entityKey) {
+        if (!replicaEnabled) {
+            return;
+        }
+        try {
+            redissonClient.getBucket(KEY_PREFIX + entityKey, StringCodec.INSTANCE)
+                    .set("1", window.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            log.error("登记写入标记失败: {} - {}", entityKey, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 回源读取：实体近期被写入时强制走主库，否则按事务的只读标记路由
+     */
+    public <T> Optional<T> read(String entityKey, Supplier<Optional<T>> loader) {
+        if (!replicaEnabled) {
+            return loader.get();
+        }
+        boolean recentlyWritten;
+        try {
+            recentlyWritten = redissonClient.getBucket(KEY_PREFIX + entityKey, StringCodec.INSTANCE).isExists();
+        } catch (Exception e) {
+            // 无法确认时按近期写入处理
+            log.warn("查询写入标记失败，改走主库: {} - {}", entityKey, e.getMessage());
+            recentlyWritten = true;
+        }
+        return recentlyWritten ? DataSourceRouting.onPrimary(loader) : loader.get();
+    }
+}
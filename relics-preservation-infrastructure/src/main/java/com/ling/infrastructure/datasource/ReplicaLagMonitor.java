@@ -0,0 +1,123 @@
+package com.ling.infrastructure.datasource;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 从库复制延迟监控
+ * @Author: LingRJ
+ * @Description: 定期查询从库的复制状态，延迟超过阈值、复制线程停止或从库无法连接时标记为不可用，
+ *               只读事务随即回退到主库，恢复后自动切回。
+ *               从库未配置复制（如测试环境以本地另一个库代替）时视为无延迟
+ * @DateTime: 2025/7/20
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private static final String[] LAG_COLUMNS = {"Seconds_Behind_Source", "Seconds_Behind_Master"};
+
+    private final DataSource replica;
+
+    private final long maxLagSeconds;
+
+    /**
+     * 从库是否可用，首次检查完成前不路由到从库
+     */
+    private volatile boolean available = false;
+
+    /**
+     * 最近一次检查得到的延迟秒数，-1 表示未知
+     */
+    private volatile long lagSeconds = -1;
+
+    public ReplicaLagMonitor(DataSource replica, long maxLagSeconds) {
+        this.replica = replica;
+        this.maxLagSeconds = maxLagSeconds;
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    public long getLagSeconds() {
+        return lagSeconds;
+    }
+
+    /**
+     * 获取从库连接失败时调用，立即停用从库，等待下一次检查恢复
+     */
+    public void markUnavailable(Exception cause) {
+        if (available) {
+            log.warn("从库连接失败，只读查询回退到主库: {}", cause.getMessage());
+        }
+        available = false;
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.check-interval:5000}")
+    public void check() {
+        boolean wasAvailable = available;
+        try (Connection connection = replica.getConnection()) {
+            lagSeconds = queryLagSeconds(connection);
+            available = lagSeconds >= 0 && lagSeconds <= maxLagSeconds;
+            if (!available) {
+                log.warn("从库复制延迟超过阈值或复制已停止，只读查询回退到主库: 延迟={}s, 阈值={}s", lagSeconds, maxLagSeconds);
+            } else if (!wasAvailable) {
+                log.info("从库可用，只读查询路由到从库: 延迟={}s", lagSeconds);
+            }
+        } catch (Exception e) {
+            lagSeconds = -1;
+            available = false;
+            if (wasAvailable) {
+                log.warn("检查从库复制状态失败，只读查询回退到主库: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 查询复制延迟秒数：未配置复制时为 0，复制线程停止时为 -1
+     */
+    private long queryLagSeconds(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = replicaStatus(statement)) {
+            if (!rs.next()) {
+                return 0;
+            }
+            String column = lagColumn(rs.getMetaData());
+            if (column == null) {
+                return -1;
+            }
+            long lag = rs.getLong(column);
+            return rs.wasNull() ? -1 : lag;
+        }
+    }
+
+    private static ResultSet replicaStatus(Statement statement) throws SQLException {
+        try {
+            return statement.executeQuery("SHOW REPLICA STATUS");
+        } catch (SQLException e) {
+            // MySQL 8.0.22 之前的版本
+            return statement.executeQuery("SHOW SLAVE STATUS");
+        }
+    }
+
+    private static String lagColumn(ResultSetMetaData metaData) throws SQLException {
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            String name = metaData.getColumnLabel(i);
+            for (String candidate : LAG_COLUMNS) {
+                if (candidate.equalsIgnoreCase(name)) {
+                    return name;
+                }
+            }
+        }
+        return null;
+    }
+}
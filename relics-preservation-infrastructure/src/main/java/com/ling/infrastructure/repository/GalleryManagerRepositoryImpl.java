@@ -1,6 +1,9 @@
 package com.ling.infrastructure.repository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -8,23 +11,34 @@ import java.util.Set;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.ling.domain.interaction.adapter.AggregateVersionConflictException;
 import com.ling.domain.interaction.adapter.IGalleryManagerRepository;
 import com.ling.domain.interaction.model.entity.GalleryManager;
 import com.ling.domain.interaction.model.valobj.ChangeTracker;
 import com.ling.domain.interaction.model.valobj.CollectionGallery;
+import com.ling.domain.interaction.model.valobj.GalleryId;
 import com.ling.domain.user.model.valobj.Username;
 import com.ling.infrastructure.cache.service.GalleryManagerCacheService;
 import com.ling.infrastructure.dao.ICollectionGalleryDao;
+import com.ling.infrastructure.dao.IGalleryRelicsDao;
 import com.ling.infrastructure.dao.po.CollectionGalleryPO;
+import com.ling.infrastructure.dao.po.GalleryRelicsPO;
 import com.ling.infrastructure.repository.converter.GalleryManagerConverter;
+import com.ling.infrastructure.repository.support.AggregateVersionStore;
+import com.ling.infrastructure.repository.support.ChangeBatch;
+import com.ling.infrastructure.repository.support.RepositoryTransactions;
 
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * 收藏馆管理仓储实现
  * @Author: LingRJ
- * @Description: 实现收藏馆管理聚合根的数据访问逻辑
+ * @Description: 实现收藏馆管理聚合根的数据访问逻辑。
+ *               保存时按聚合根版本号做比较并交换，版本冲突抛出异常由领域服务重试。
+ *               收藏馆的文物读写 gallery_relics 关联表，双写期间 relics_ids 列随收藏馆记录一并写入
  * @DateTime: 2025/7/13
  */
 @Repository
@@ -34,49 +48,69 @@ public class GalleryManagerRepositoryImpl implements IGalleryManagerRepository {
     @Autowired
     private ICollectionGalleryDao collectionGalleryDao;
 
+    @Autowired
+    private IGalleryRelicsDao galleryRelicsDao;
+
     @Autowired
     private GalleryManagerConverter converter;
 
     @Autowired
     private GalleryManagerCacheService cacheService;
 
+    @Autowired
+    private AggregateVersionStore aggregateVersionStore;
+
     @Override
     public Optional<GalleryManager> findByUsername(Username username) {
         try {
             log.debug("查找收藏馆管理聚合根: {}", username.getValue());
 
-            // 先尝试从缓存获取
-            Optional<GalleryManager> cachedResult = cacheService.getGalleryManager(username);
-            if (cachedResult.isPresent()) {
-                log.debug("缓存命中 - 收藏馆管理: {}", username.getValue());
-                return cachedResult;
-            }
+            // 先查缓存，未命中时同一用户的并发请求只回源一次
+            return cacheService.getOrLoadGalleryManager(username, () -> loadFromDatabase(username));
+
+        } catch (Exception e) {
+            log.error("查找收藏馆管理聚合根失败: {} - {}", username.getValue(), e.getMessage(), e);
+            return Optional.empty();
+        }
+    }
 
-            // 缓存未命中，从数据库查询
-            log.debug("缓存未命中，从数据库查询收藏馆管理: {}", username.getValue());
-            List<CollectionGalleryPO> galleries = collectionGalleryDao.selectByUsername(username.getValue());
+    /**
+     * 从数据库加载收藏馆管理聚合根
+     */
+    private Optional<GalleryManager> loadFromDatabase(Username username) {
+        log.debug("缓存未命中，从数据库查询收藏馆管理: {}", username.getValue());
+        // 先读版本号再读记录，期间有提交时版本号偏旧，保存时冲突重试而不会覆盖新数据
+        long version = aggregateVersionStore.currentVersion(username, AggregateVersionStore.GALLERIES);
+        List<CollectionGalleryPO> galleries = collectionGalleryDao.selectByUsername(username.getValue());
 
-            // 过滤有效的收藏馆记录
-            galleries = converter.filterValidGalleryPOs(galleries);
+        // 过滤有效的收藏馆记录
+        galleries = converter.filterValidGalleryPOs(galleries);
 
-            if (galleries.isEmpty()) {
+        if (galleries.isEmpty()) {
+            if (version == 0) {
                 log.debug("收藏馆管理记录不存在: {}", username.getValue());
                 return Optional.empty();
             }
+            // 保存过但已无记录，保留版本号供下次保存比较
+            GalleryManager emptyGalleryManager = GalleryManager.fromDatabase(username, new ArrayList<>(), null, null);
+            emptyGalleryManager.markPersisted(version);
+            return Optional.of(emptyGalleryManager);
+        }
 
-            // 转换为聚合根
-            GalleryManager galleryManager = converter.buildGalleryManager(username, galleries);
+        // 一次查出全部收藏馆的文物，按收藏馆分组
+        List<String> galleryIds = galleries.stream().map(CollectionGalleryPO::getGalleryId).toList();
+        List<GalleryRelicsPO> relics = new ArrayList<>();
+        for (List<String> chunk : ChangeBatch.chunks(galleryIds)) {
+            relics.addAll(galleryRelicsDao.selectByGalleryIds(chunk));
+        }
 
-            // 缓存结果
-            cacheService.cacheGalleryManager(galleryManager);
-            log.debug("缓存收藏馆管理: {} - 收藏馆数: {}", username.getValue(), galleries.size());
+        // 转换为聚合根
+        GalleryManager galleryManager = converter.buildGalleryManager(username, galleries, relics);
+        galleryManager.markPersisted(version);
 
-            return Optional.of(galleryManager);
+        log.debug("加载收藏馆管理: {} - 收藏馆数: {}", username.getValue(), galleries.size());
 
-        } catch (Exception e) {
-            log.error("查找收藏馆管理聚合根失败: {} - {}", username.getValue(), e.getMessage(), e);
-            return Optional.empty();
-        }
+        return Optional.of(galleryManager);
     }
 
     @Override
@@ -91,34 +125,35 @@ public class GalleryManagerRepositoryImpl implements IGalleryManagerRepository {
             log.info("增量保存收藏馆管理: {} - {}",
                     galleryManager.getUsername().getValue(), galleryManager.getChangesSummary());
 
-            boolean success = true;
+            // 先推进版本号，冲突时不写入任何记录；版本行锁持有到提交，同一用户的保存在此串行
+            long nextVersion = aggregateVersionStore.advance(galleryManager.getUsername(),
+                    AggregateVersionStore.GALLERIES, galleryManager.getVersion());
 
-            // 处理收藏馆变更
-            Set<ChangeTracker.ChangeRecord> galleryChanges = galleryManager.getGalleryChanges();
-            for (ChangeTracker.ChangeRecord change : galleryChanges) {
-                success &= processGalleryChange(galleryManager.getUsername(), change);
-            }
+            // 按收藏馆归并变更，以集合语句写入
+            flushGalleryChanges(galleryManager);
 
-            if (success) {
-                // 清空变更记录
-                galleryManager.clearChanges();
+            // 清空变更记录
+            galleryManager.clearChanges();
+            galleryManager.markPersisted(nextVersion);
 
-                // 更新缓存
-                cacheService.cacheGalleryManager(galleryManager);
+            // 提交后按版本号更新缓存，不会被较旧的并发写入覆盖
+            runAfterCommit(() -> cacheService.cacheGalleryManager(galleryManager));
 
-                // 清除相关缓存
-                cacheService.evictRelatedCaches(galleryManager.getUsername());
+            // 提交后清除相关缓存，避免提交前的读取以旧数据重新填充
+            runAfterCommit(() -> cacheService.evictRelatedCaches(galleryManager.getUsername()));
 
-                log.info("收藏馆管理增量保存成功: {}", galleryManager.getUsername().getValue());
-            } else {
-                log.error("收藏馆管理增量保存失败: {}", galleryManager.getUsername().getValue());
-            }
+            log.info("收藏馆管理增量保存成功: {}", galleryManager.getUsername().getValue());
 
-            return success;
+            return true;
 
+        } catch (AggregateVersionConflictException e) {
+            // 本地持有的聚合根已过期，删除缓存后由调用方重新加载
+            cacheService.evictGalleryManager(galleryManager.getUsername());
+            throw e;
         } catch (Exception e) {
             log.error("收藏馆管理增量保存异常: {} - {}",
                     galleryManager.getUsername().getValue(), e.getMessage(), e);
+            RepositoryTransactions.markRollbackOnly();
             return false;
         }
     }
@@ -130,34 +165,44 @@ public class GalleryManagerRepositoryImpl implements IGalleryManagerRepository {
             log.info("全量保存收藏馆管理: {} - 收藏馆数: {}",
                     galleryManager.getUsername().getValue(), galleryManager.getAllGalleries().size());
 
+            long nextVersion = aggregateVersionStore.advance(galleryManager.getUsername(),
+                    AggregateVersionStore.GALLERIES, galleryManager.getVersion());
+
             // 先删除现有记录
-            deleteByUsername(galleryManager.getUsername());
+            if (!deleteByUsername(galleryManager.getUsername())) {
+                throw new IllegalStateException("删除现有收藏馆记录失败");
+            }
 
             // 批量插入新记录
             List<CollectionGalleryPO> galleries = converter.convertToCollectionGalleries(galleryManager);
             if (!galleries.isEmpty()) {
-                int insertCount = collectionGalleryDao.batchInsert(galleries);
-                if (insertCount != galleries.size()) {
-                    log.error("批量插入收藏馆记录数量不匹配: 期望={}, 实际={}", galleries.size(), insertCount);
-                    return false;
-                }
+                int affected = collectionGalleryDao.batchInsert(galleries);
+                RepositoryTransactions.requireAffected("批量插入收藏馆记录", galleries.size(), affected, false);
             }
+            List<CollectionGallery> allGalleries = galleryManager.getAllGalleries();
+            replaceGalleryRelics(allGalleries,
+                    allGalleries.stream().map(gallery -> gallery.getGalleryId().getValue()).toList());
 
             // 清空变更记录
             galleryManager.clearChanges();
+            galleryManager.markPersisted(nextVersion);
 
-            // 更新缓存
-            cacheService.cacheGalleryManager(galleryManager);
+            // 提交后按版本号更新缓存
+            runAfterCommit(() -> cacheService.cacheGalleryManager(galleryManager));
 
-            // 清除相关缓存
-            cacheService.evictRelatedCaches(galleryManager.getUsername());
+            // 提交后清除相关缓存，避免提交前的读取以旧数据重新填充
+            runAfterCommit(() -> cacheService.evictRelatedCaches(galleryManager.getUsername()));
 
             log.info("收藏馆管理全量保存成功: {}", galleryManager.getUsername().getValue());
             return true;
 
+        } catch (AggregateVersionConflictException e) {
+            cacheService.evictGalleryManager(galleryManager.getUsername());
+            throw e;
         } catch (Exception e) {
             log.error("收藏馆管理全量保存失败: {} - {}",
                     galleryManager.getUsername().getValue(), e.getMessage(), e);
+            RepositoryTransactions.markRollbackOnly();
             return false;
         }
     }
@@ -168,25 +213,27 @@ public class GalleryManagerRepositoryImpl implements IGalleryManagerRepository {
         try {
             log.info("删除收藏馆管理: {}", username.getValue());
 
-            // 逻辑删除所有收藏馆记录
-            List<CollectionGalleryPO> galleries = collectionGalleryDao.selectByUsername(username.getValue());
-            for (CollectionGalleryPO gallery : galleries) {
-                if (gallery.getStatus() == 0) { // 只删除正常状态的记录
-                    gallery.setStatus(1);
-                    gallery.setUpdateTime(LocalDateTime.now());
-                    collectionGalleryDao.update(gallery);
-                }
-            }
-
-            // 清除缓存
-            cacheService.evictGalleryManager(username);
-            cacheService.evictRelatedCaches(username);
-
-            log.info("删除收藏馆管理成功（仅缓存）: {}", username.getValue());
+            // 分段逻辑删除，不读取收藏馆记录
+            LocalDateTime now = LocalDateTime.now();
+            int deleted = 0;
+            int affected;
+            do {
+                affected = collectionGalleryDao.softDeleteByUsername(username.getValue(), now, ChangeBatch.MAX_STATEMENT_ROWS);
+                deleted += affected;
+            } while (affected == ChangeBatch.MAX_STATEMENT_ROWS);
+
+            // 提交后统一清除缓存
+            runAfterCommit(() -> {
+                cacheService.evictGalleryManager(username);
+                cacheService.evictRelatedCaches(username);
+            });
+
+            log.info("删除收藏馆管理成功: {} - 删除数: {}", username.getValue(), deleted);
             return true;
 
         } catch (Exception e) {
             log.error("删除收藏馆管理失败: {} - {}", username.getValue(), e.getMessage(), e);
+            RepositoryTransactions.markRollbackOnly();
             return false;
         }
     }
@@ -205,99 +252,90 @@ public class GalleryManagerRepositoryImpl implements IGalleryManagerRepository {
     // ==================== 私有辅助方法 ====================
 
     /**
-     * 处理收藏馆变更
+     * 写入收藏馆变更：仍存在的收藏馆按聚合根中的最终状态以一条多行 upsert 写入（新建或修改），
+     * 删除的已有收藏馆以一条 UPDATE … IN 逻辑删除，本次新建后又删除的收藏馆不写入
      */
-    private boolean processGalleryChange(Username username, ChangeTracker.ChangeRecord change) {
-        try {
-            CollectionGallery gallery = (CollectionGallery) change.getEntity();
-            String galleryId = (String) change.getEntityId();
-
-            switch (change.getType()) {
-                case ADDED:
-                    return addGalleryRecord(username, gallery);
-                case DELETED:
-                    return deleteGalleryRecord(username, galleryId);
-                case MODIFIED:
-                    return updateGalleryRecord(username, gallery);
-                default:
-                    log.warn("未知的变更类型: {}", change.getType());
-                    return false;
+    private void flushGalleryChanges(GalleryManager galleryManager) {
+        Username username = galleryManager.getUsername();
+        Set<ChangeTracker.ChangeRecord> changes = galleryManager.getGalleryChanges();
+
+        // 收藏馆ID不会重复使用，有新增记录的收藏馆在保存前不存在
+        Set<String> created = new HashSet<>();
+        for (ChangeTracker.ChangeRecord change : changes) {
+            if (change.getType() == ChangeTracker.ChangeType.ADDED) {
+                created.add((String) change.getEntityId());
             }
-        } catch (Exception e) {
-            log.error("处理收藏馆变更失败: {} - {}", username.getValue(), e.getMessage(), e);
-            return false;
         }
-    }
 
-    /**
-     * 添加收藏馆记录
-     */
-    private boolean addGalleryRecord(Username username, CollectionGallery gallery) {
-        CollectionGalleryPO galleryPO = converter.convertToCollectionGalleryPO(username, gallery);
-        int result = collectionGalleryDao.insert(galleryPO);
+        // 同一收藏馆的多次修改各自产生新的值对象，以聚合根中当前的收藏馆为准
+        ChangeBatch<String, CollectionGallery> batch = ChangeBatch.of(changes, String.class,
+                galleryId -> galleryManager.getGallery(GalleryId.of(galleryId)));
+        List<String> deleted = batch.getDeletes().stream().filter(galleryId -> !created.contains(galleryId)).toList();
+
+        List<CollectionGalleryPO> upserts = batch.getUpserts().values().stream()
+                .map(gallery -> converter.convertToCollectionGalleryPO(username, gallery))
+                .toList();
+        for (List<CollectionGalleryPO> chunk : ChangeBatch.chunks(upserts)) {
+            int affected = collectionGalleryDao.batchUpsert(chunk);
+            RepositoryTransactions.requireAffected("批量写入收藏馆记录", chunk.size(), affected, true);
+        }
+        for (List<String> chunk : ChangeBatch.chunks(deleted)) {
+            int affected = collectionGalleryDao.batchDeleteByGalleryIds(chunk);
+            RepositoryTransactions.requireAffected("批量删除收藏馆记录", chunk.size(), affected, false);
+        }
+
+        // 写入的收藏馆整体替换文物关联；新建的收藏馆没有旧关联，无需删除
+        List<String> existing = batch.getUpserts().keySet().stream()
+                .filter(galleryId -> !created.contains(galleryId))
+                .toList();
+        replaceGalleryRelics(batch.getUpserts().values(), existing);
 
-        if (result > 0) {
-            // 清除相关缓存
+        // 提交后清除列表缓存与已有收藏馆的详情缓存
+        List<String> evicted = new ArrayList<>(existing);
+        evicted.addAll(deleted);
+        runAfterCommit(() -> {
             cacheService.evictGalleryListCaches(username);
-            log.debug("添加收藏馆记录成功: {} - {}", username.getValue(), gallery.getName());
-            return true;
-        } else {
-            log.error("添加收藏馆记录失败: {} - {}", username.getValue(), gallery.getName());
-            return false;
-        }
+            evicted.forEach(cacheService::evictGalleryDetailCache);
+        });
+
+        log.debug("写入收藏馆变更: {} - 变更记录数: {}, 写入: {}, 删除: {}",
+                username.getValue(), changes.size(), upserts.size(), deleted.size());
     }
 
     /**
-     * 删除收藏馆记录
+     * 以集合语句替换收藏馆的文物关联：先按收藏馆ID删除旧关联，再多行插入当前文物。
+     * 已删除收藏馆的关联保留，查询时按收藏馆状态过滤
+     * @param galleries 需要写入关联的收藏馆
+     * @param existingGalleryIds 可能已有关联的收藏馆ID
      */
-    private boolean deleteGalleryRecord(Username username, String galleryId) {
-        CollectionGalleryPO existing = collectionGalleryDao.selectByGalleryId(galleryId);
-        if (existing != null && existing.getStatus() == 0) {
-            existing.setStatus(1);
-            existing.setUpdateTime(LocalDateTime.now());
-            int result = collectionGalleryDao.update(existing);
-
-            if (result > 0) {
-                // 清除相关缓存
-                cacheService.evictGalleryListCaches(username);
-                cacheService.evictGalleryDetailCache(galleryId);
-                log.debug("删除收藏馆记录成功: {} - {}", username.getValue(), galleryId);
-                return true;
-            }
+    private void replaceGalleryRelics(Collection<CollectionGallery> galleries, List<String> existingGalleryIds) {
+        for (List<String> chunk : ChangeBatch.chunks(existingGalleryIds)) {
+            galleryRelicsDao.deleteByGalleryIds(chunk);
         }
 
-        log.error("删除收藏馆记录失败: {} - {}", username.getValue(), galleryId);
-        return false;
+        List<GalleryRelicsPO> relics = new ArrayList<>();
+        for (CollectionGallery gallery : galleries) {
+            relics.addAll(converter.convertToGalleryRelicsPOs(gallery));
+        }
+        for (List<GalleryRelicsPO> chunk : ChangeBatch.chunks(relics)) {
+            int affected = galleryRelicsDao.batchInsert(chunk);
+            RepositoryTransactions.requireAffected("批量写入收藏馆文物关联", chunk.size(), affected, false);
+        }
     }
 
     /**
-     * 更新收藏馆记录
+     * 事务提交后执行，避免回滚的写入进入 Redis；无事务时立即执行
      */
-    private boolean updateGalleryRecord(Username username, CollectionGallery gallery) {
-        CollectionGalleryPO existing = collectionGalleryDao.selectByGalleryId(gallery.getGalleryId().getValue());
-        if (existing != null) {
-            // 更新收藏馆信息
-            existing.setName(gallery.getName());
-            existing.setDescription(gallery.getDescription());
-            existing.setTheme(gallery.getTheme().getCode());
-            existing.setDisplayStyle(gallery.getDisplayStyle().getCode());
-            existing.setIsPublic(gallery.isPublic() ? 1 : 0);
-            existing.setCustomThemeName(gallery.getCustomThemeName());
-            existing.setRelicsIds(String.join(",", gallery.getRelicsIds().stream().map(String::valueOf).toList()));
-            existing.setUpdateTime(LocalDateTime.now());
-
-            int result = collectionGalleryDao.update(existing);
-
-            if (result > 0) {
-                // 清除相关缓存
-                cacheService.evictGalleryListCaches(username);
-                cacheService.evictGalleryDetailCache(gallery.getGalleryId().getValue());
-                log.debug("更新收藏馆记录成功: {} - {}", username.getValue(), gallery.getName());
-                return true;
-            }
+    private void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
         }
-
-        log.error("更新收藏馆记录失败: {} - {}", username.getValue(), gallery.getName());
-        return false;
     }
 }
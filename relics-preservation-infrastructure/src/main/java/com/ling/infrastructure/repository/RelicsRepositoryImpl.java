@@ -3,13 +3,22 @@ package com.ling.infrastructure.repository;
 import com.ling.domain.relics.adapter.IRelicsRepository;
 import com.ling.domain.relics.model.entity.RelicsEntity;
 import com.ling.domain.relics.model.valobj.RelicsVO;
+import com.ling.infrastructure.cache.service.RelicsCacheService;
 import com.ling.infrastructure.dao.IRelicsDao;
 import com.ling.infrastructure.dao.po.Relics;
+import com.ling.infrastructure.dao.po.RelicsSummaryPO;
+import com.ling.infrastructure.datasource.RecentWriteGuard;
+import org.apache.ibatis.cursor.Cursor;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Repository
@@ -17,22 +26,49 @@ public class RelicsRepositoryImpl implements IRelicsRepository {
     @Autowired
     private IRelicsDao relicsDao;
 
+    @Autowired
+    private RelicsCacheService relicsCacheService;
+
+    @Autowired
+    private RecentWriteGuard recentWriteGuard;
+
     @Override
     public void uploadRelics(RelicsVO relicsVO) {
         Relics relics = new Relics();
         BeanUtils.copyProperties(relicsVO, relics);
         relicsDao.insertRelics(relics);
+        onRelicsWritten(relics.getRelicsId());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public RelicsEntity findById(Long id) {
+        // 返回null表示文物不存在；不存在的ID由布隆过滤器或空值缓存拦截，不反复查询数据库
+        // 刚写入的文物从主库回源，避免从库的旧数据被写入缓存
+        return relicsCacheService.getOrLoadRelics(id,
+                () -> recentWriteGuard.read(recentWriteKey(id), () -> loadFromDatabase(id))).orElse(null);
+    }
+
+    /**
+     * 写入后先登记写入标记再清除缓存，清除后的回源不会读到从库的旧数据
+     */
+    private void onRelicsWritten(Long relicsId) {
+        recentWriteGuard.markWritten(recentWriteKey(relicsId));
+        relicsCacheService.onRelicsChanged(relicsId);
+    }
+
+    private static String recentWriteKey(Long relicsId) {
+        return "relics:" + relicsId;
+    }
+
+    private Optional<RelicsEntity> loadFromDatabase(Long id) {
         Relics relics = relicsDao.selectRelicById(id);
         if (relics == null) {
-            return null; // 返回null表示文物不存在
+            return Optional.empty();
         }
         RelicsEntity relicsEntity = new RelicsEntity();
         BeanUtils.copyProperties(relics, relicsEntity);
-        return relicsEntity;
+        return Optional.of(relicsEntity);
     }
 
     @Override
@@ -45,7 +81,11 @@ public class RelicsRepositoryImpl implements IRelicsRepository {
     public boolean save(RelicsEntity relicsEntity) {
         Relics relics = new Relics();
         BeanUtils.copyProperties(relicsEntity, relics);
-        return relicsDao.insertRelics(relics) > 0;
+        boolean saved = relicsDao.insertRelics(relics) > 0;
+        if (saved) {
+            onRelicsWritten(relics.getRelicsId());
+        }
+        return saved;
     }
 
     @Override
@@ -55,57 +95,76 @@ public class RelicsRepositoryImpl implements IRelicsRepository {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<RelicsEntity> findByEra(String era) {
-        List<Relics> relicsList = relicsDao.selectByEra(era);
-        return relicsList.stream().map(relics -> {
-            RelicsEntity relicsEntity = new RelicsEntity();
-            BeanUtils.copyProperties(relics, relicsEntity);
-            relicsEntity.setSuccess(true);
-            return relicsEntity;
-        }).collect(Collectors.toList());
+        List<RelicsSummaryPO> relicsList = relicsDao.selectByEra(era);
+        return relicsList.stream().map(RelicsRepositoryImpl::toListEntity).collect(Collectors.toList());
     }
     
     @Override
+    @Transactional(readOnly = true)
     public List<RelicsEntity> findRandomRelics(int limit) {
-        List<Relics> relicsList = relicsDao.selectRandomRelics(limit);
-        return relicsList.stream().map(relics -> {
-            RelicsEntity relicsEntity = new RelicsEntity();
-            BeanUtils.copyProperties(relics, relicsEntity);
-            relicsEntity.setSuccess(true);
-            return relicsEntity;
-        }).collect(Collectors.toList());
+        List<RelicsSummaryPO> relicsList = relicsDao.selectRandomRelics(limit);
+        return relicsList.stream().map(RelicsRepositoryImpl::toListEntity).collect(Collectors.toList());
     }
     
     @Override
+    @Transactional(readOnly = true)
     public List<RelicsEntity> findRelicsExceptEras(List<String> excludeEras) {
-        List<Relics> relicsList = relicsDao.selectRelicsExceptEras(excludeEras);
-        return relicsList.stream().map(relics -> {
-            RelicsEntity relicsEntity = new RelicsEntity();
-            BeanUtils.copyProperties(relics, relicsEntity);
-            relicsEntity.setSuccess(true);
-            return relicsEntity;
-        }).collect(Collectors.toList());
+        List<RelicsSummaryPO> relicsList = relicsDao.selectRelicsExceptEras(excludeEras);
+        return relicsList.stream().map(RelicsRepositoryImpl::toListEntity).collect(Collectors.toList());
     }
     
     @Override
+    @Transactional(readOnly = true)
     public List<RelicsEntity> findByNameContaining(String name) {
-        List<Relics> relicsList = relicsDao.selectByNameContaining(name);
-        return relicsList.stream().map(relics -> {
-            RelicsEntity relicsEntity = new RelicsEntity();
-            BeanUtils.copyProperties(relics, relicsEntity);
-            relicsEntity.setSuccess(true);
-            return relicsEntity;
-        }).collect(Collectors.toList());
+        List<RelicsSummaryPO> relicsList = relicsDao.selectByNameContaining(name);
+        return relicsList.stream().map(RelicsRepositoryImpl::toListEntity).collect(Collectors.toList());
     }
     
     @Override
-    public List<RelicsEntity> findAll() {
-        List<Relics> relicsList = relicsDao.selectAll();
-        return relicsList.stream().map(relics -> {
-            RelicsEntity relicsEntity = new RelicsEntity();
-            BeanUtils.copyProperties(relics, relicsEntity);
-            relicsEntity.setSuccess(true);
-            return relicsEntity;
-        }).collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public long streamAll(int chunkSize, Consumer<List<RelicsEntity>> chunkConsumer) {
+        // 游标依赖事务内的 SqlSession，方法返回前必须遍历完毕
+        long total = 0;
+        List<RelicsEntity> chunk = new ArrayList<>(chunkSize);
+        try (Cursor<Relics> cursor = relicsDao.streamAll()) {
+            for (Relics relics : cursor) {
+                RelicsEntity relicsEntity = new RelicsEntity();
+                BeanUtils.copyProperties(relics, relicsEntity);
+                relicsEntity.setSuccess(true);
+                chunk.add(relicsEntity);
+                if (chunk.size() >= chunkSize) {
+                    total += chunk.size();
+                    chunkConsumer.accept(chunk);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("关闭文物游标失败", e);
+        }
+        if (!chunk.isEmpty()) {
+            total += chunk.size();
+            chunkConsumer.accept(chunk);
+        }
+        return total;
+    }
+
+    /**
+     * 列表投影转换为实体，不含描述；逐字段赋值，不经反射复制
+     */
+    private static RelicsEntity toListEntity(RelicsSummaryPO summary) {
+        return RelicsEntity.builder()
+                .relicsId(summary.getRelicsId())
+                .name(summary.getName())
+                .preservation(summary.getPreservation())
+                .category(summary.getCategory())
+                .era(summary.getEra())
+                .material(summary.getMaterial())
+                .imageUrl(summary.getImageUrl())
+                .status(summary.getStatus())
+                .locationId(summary.getLocationId())
+                .success(true)
+                .build();
     }
 }
@@ -8,6 +8,7 @@ import com.ling.infrastructure.dao.po.SensorData;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
@@ -49,7 +50,7 @@ public class SensorDataRepositoryImpl implements ISensorDataRepository {
     public int batchSaveSensorData(List<SensorMessageVO> sensorMessages) {
         try {
             List<SensorData> dataList = sensorMessages.stream()
-                    .map(message -> convertToSensorData(message, !message.getStatus().equals(0)))
+                    .map(message -> convertToSensorData(message, message.getStatus() != null && message.getStatus() != 0))
                     .collect(Collectors.toList());
             return sensorDataDao.batchInsert(dataList);
         } catch (Exception e) {
@@ -59,6 +60,7 @@ public class SensorDataRepositoryImpl implements ISensorDataRepository {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<SensorMessageVO> querySensorData(
             String sensorId, 
             String sensorType, 
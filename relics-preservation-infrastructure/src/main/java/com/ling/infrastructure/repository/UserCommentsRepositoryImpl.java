@@ -2,14 +2,20 @@ package com.ling.infrastructure.repository;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.ling.domain.interaction.adapter.AggregateVersionConflictException;
 import com.ling.domain.interaction.adapter.IUserCommentsRepository;
 import com.ling.domain.interaction.model.entity.UserComments;
 import com.ling.domain.interaction.model.valobj.ChangeTracker;
@@ -19,13 +25,18 @@ import com.ling.infrastructure.cache.service.UserCommentsCacheService;
 import com.ling.infrastructure.dao.IUserCommentDao;
 import com.ling.infrastructure.dao.po.UserComment;
 import com.ling.infrastructure.repository.converter.UserCommentsConverter;
+import com.ling.infrastructure.repository.support.AggregateVersionStore;
+import com.ling.infrastructure.repository.support.ChangeBatch;
+import com.ling.infrastructure.repository.support.RepositoryTransactions;
 
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * 用户评论仓储实现
  * @Author: LingRJ
- * @Description: 实现用户评论聚合根的数据访问逻辑
+ * @Description: 实现用户评论聚合根的数据访问逻辑。
+ *               写操作与分页查询使用按需加载的聚合根，只读取评论数与版本号，评论记录按评论ID或按页查询。
+ *               保存时按聚合根版本号做比较并交换，版本冲突抛出异常由领域服务重试
  * @DateTime: 2025/7/13
  */
 @Repository
@@ -41,40 +52,92 @@ public class UserCommentsRepositoryImpl implements IUserCommentsRepository {
     @Autowired
     private UserCommentsCacheService cacheService;
 
+    @Autowired
+    private AggregateVersionStore aggregateVersionStore;
+
+    /**
+     * 按需加载聚合根使用的评论查询
+     */
+    private final UserComments.CommentLookup commentLookup = new UserComments.CommentLookup() {
+
+        @Override
+        public Optional<CommentAction> findActive(Username username, Long commentId) {
+            UserComment comment = userCommentDao.selectByCommentId(commentId);
+            if (comment == null || !username.getValue().equals(comment.getUsername())) {
+                return Optional.empty();
+            }
+            return Optional.of(converter.convertToCommentAction(comment));
+        }
+
+        @Override
+        public List<CommentAction> findPage(Username username, Long relicsId, int offset, int limit) {
+            return converter.convertComments(userCommentDao.selectByUsername(username.getValue(), relicsId, offset, limit));
+        }
+
+        @Override
+        public long count(Username username, Long relicsId) {
+            return userCommentDao.countByUsername(username.getValue(), relicsId);
+        }
+    };
+
     @Override
     public Optional<UserComments> findByUsername(Username username) {
         try {
             log.debug("查找用户评论聚合根: {}", username.getValue());
 
-            // 先尝试从缓存获取
-            Optional<UserComments> cachedResult = cacheService.getUserComments(username);
-            if (cachedResult.isPresent()) {
-                log.debug("缓存命中 - 用户评论: {}", username.getValue());
-                return cachedResult;
-            }
+            // 先查缓存，未命中时同一用户的并发请求只回源一次
+            return cacheService.getOrLoadUserComments(username, () -> loadFromDatabase(username));
 
-            // 缓存未命中，从数据库查询
-            log.debug("缓存未命中，从数据库查询用户评论: {}", username.getValue());
-            List<UserComment> comments = userCommentDao.selectByUsername(username.getValue(), null, 0, Integer.MAX_VALUE);
+        } catch (Exception e) {
+            log.error("查找用户评论聚合根失败: {} - {}", username.getValue(), e.getMessage(), e);
+            return Optional.empty();
+        }
+    }
 
-            if (comments.isEmpty()) {
+    @Override
+    public Optional<UserComments> findRootByUsername(Username username) {
+        try {
+            // 先读版本号，之后的按需查询读到较新数据时保存冲突重试，不会覆盖
+            long version = aggregateVersionStore.currentVersion(username, AggregateVersionStore.COMMENTS);
+            long commentCount = userCommentDao.countByUsername(username.getValue(), null);
+            if (version == 0 && commentCount == 0) {
                 log.debug("用户评论记录不存在: {}", username.getValue());
                 return Optional.empty();
             }
+            return Optional.of(UserComments.lazy(username, commentCount, version, commentLookup));
+        } catch (Exception e) {
+            log.error("按需加载用户评论聚合根失败: {} - {}", username.getValue(), e.getMessage(), e);
+            return Optional.empty();
+        }
+    }
 
-            // 转换为聚合根
-            UserComments userComments = converter.buildUserComments(username, comments);
+    /**
+     * 从数据库加载用户评论聚合根
+     */
+    private Optional<UserComments> loadFromDatabase(Username username) {
+        log.debug("缓存未命中，从数据库查询用户评论: {}", username.getValue());
+        // 先读版本号再读记录，期间有提交时版本号偏旧，保存时冲突重试而不会覆盖新数据
+        long version = aggregateVersionStore.currentVersion(username, AggregateVersionStore.COMMENTS);
+        List<UserComment> comments = userCommentDao.selectByUsername(username.getValue(), null, 0, Integer.MAX_VALUE);
+
+        if (comments.isEmpty()) {
+            if (version == 0) {
+                log.debug("用户评论记录不存在: {}", username.getValue());
+                return Optional.empty();
+            }
+            // 保存过但已无记录，保留版本号供下次保存比较
+            UserComments emptyUserComments = UserComments.fromDatabase(username, new ArrayList<>(), null, null);
+            emptyUserComments.markPersisted(version);
+            return Optional.of(emptyUserComments);
+        }
 
-            // 缓存结果
-            cacheService.cacheUserComments(userComments);
-            log.debug("缓存用户评论: {} - 评论数: {}", username.getValue(), comments.size());
+        // 转换为聚合根
+        UserComments userComments = converter.buildUserComments(username, comments);
+        userComments.markPersisted(version);
 
-            return Optional.of(userComments);
+        log.debug("加载用户评论: {} - 评论数: {}", username.getValue(), comments.size());
 
-        } catch (Exception e) {
-            log.error("查找用户评论聚合根失败: {} - {}", username.getValue(), e.getMessage(), e);
-            return Optional.empty();
-        }
+        return Optional.of(userComments);
     }
 
     @Override
@@ -89,34 +152,40 @@ public class UserCommentsRepositoryImpl implements IUserCommentsRepository {
             log.info("增量保存用户评论: {} - {}", 
                     userComments.getUsername().getValue(), userComments.getChangesSummary());
 
-            boolean success = true;
+            // 先推进版本号，冲突时不写入任何记录；版本行锁持有到提交，同一用户的保存在此串行
+            long nextVersion = aggregateVersionStore.advance(userComments.getUsername(),
+                    AggregateVersionStore.COMMENTS, userComments.getVersion());
 
-            // 处理评论变更
-            Set<ChangeTracker.ChangeRecord> commentChanges = userComments.getCommentChanges();
-            for (ChangeTracker.ChangeRecord change : commentChanges) {
-                success &= processCommentChange(userComments.getUsername(), change);
-            }
+            // 按评论归并变更，以集合语句写入
+            flushCommentChanges(userComments);
 
-            if (success) {
-                // 清空变更记录
-                userComments.clearChanges();
-                
-                // 更新缓存
-                cacheService.cacheUserComments(userComments);
-                
-                // 清除相关缓存
-                cacheService.evictRelatedCaches(userComments.getUsername());
-                
-                log.info("用户评论增量保存成功: {}", userComments.getUsername().getValue());
+            // 清空变更记录
+            userComments.clearChanges();
+            userComments.markPersisted(nextVersion);
+            
+            if (userComments.isLazy()) {
+                // 按需加载的聚合根不完整，不写入缓存；提交后删除旧的完整聚合根
+                runAfterCommit(() -> cacheService.evictUserComments(userComments.getUsername()));
             } else {
-                log.error("用户评论增量保存失败: {}", userComments.getUsername().getValue());
+                // 提交后按版本号更新缓存，不会被较旧的并发写入覆盖
+                runAfterCommit(() -> cacheService.cacheUserComments(userComments));
             }
+            
+            // 提交后清除相关缓存，避免提交前的读取以旧数据重新填充
+            runAfterCommit(() -> cacheService.evictRelatedCaches(userComments.getUsername()));
+            
+            log.info("用户评论增量保存成功: {}", userComments.getUsername().getValue());
 
-            return success;
+            return true;
 
+        } catch (AggregateVersionConflictException e) {
+            // 本地持有的聚合根已过期，删除缓存后由调用方重新加载
+            cacheService.evictUserComments(userComments.getUsername());
+            throw e;
         } catch (Exception e) {
             log.error("用户评论增量保存异常: {} - {}", 
                     userComments.getUsername().getValue(), e.getMessage(), e);
+            RepositoryTransactions.markRollbackOnly();
             return false;
         }
     }
@@ -124,38 +193,49 @@ public class UserCommentsRepositoryImpl implements IUserCommentsRepository {
     @Override
     @Transactional
     public boolean save(UserComments userComments) {
+        if (userComments.isLazy()) {
+            log.error("按需加载的用户评论聚合根不支持全量保存: {}", userComments.getUsername().getValue());
+            return false;
+        }
         try {
             log.info("全量保存用户评论: {} - 评论数: {}", 
                     userComments.getUsername().getValue(), userComments.getComments(null).size());
 
+            long nextVersion = aggregateVersionStore.advance(userComments.getUsername(),
+                    AggregateVersionStore.COMMENTS, userComments.getVersion());
+
             // 先删除现有记录
-            deleteByUsername(userComments.getUsername());
+            if (!deleteByUsername(userComments.getUsername())) {
+                throw new IllegalStateException("删除现有评论记录失败");
+            }
 
             // 批量插入新记录
             List<UserComment> comments = converter.convertToUserComments(userComments);
             if (!comments.isEmpty()) {
-                int insertCount = userCommentDao.batchInsert(comments);
-                if (insertCount != comments.size()) {
-                    log.error("批量插入评论记录数量不匹配: 期望={}, 实际={}", comments.size(), insertCount);
-                    return false;
-                }
+                int affected = userCommentDao.batchInsert(comments);
+                RepositoryTransactions.requireAffected("批量插入评论记录", comments.size(), affected, false);
             }
 
             // 清空变更记录
             userComments.clearChanges();
+            userComments.markPersisted(nextVersion);
             
-            // 更新缓存
-            cacheService.cacheUserComments(userComments);
+            // 提交后按版本号更新缓存
+            runAfterCommit(() -> cacheService.cacheUserComments(userComments));
             
-            // 清除相关缓存
-            cacheService.evictRelatedCaches(userComments.getUsername());
+            // 提交后清除相关缓存，避免提交前的读取以旧数据重新填充
+            runAfterCommit(() -> cacheService.evictRelatedCaches(userComments.getUsername()));
 
             log.info("用户评论全量保存成功: {}", userComments.getUsername().getValue());
             return true;
 
+        } catch (AggregateVersionConflictException e) {
+            cacheService.evictUserComments(userComments.getUsername());
+            throw e;
         } catch (Exception e) {
             log.error("用户评论全量保存失败: {} - {}", 
                     userComments.getUsername().getValue(), e.getMessage(), e);
+            RepositoryTransactions.markRollbackOnly();
             return false;
         }
     }
@@ -166,25 +246,27 @@ public class UserCommentsRepositoryImpl implements IUserCommentsRepository {
         try {
             log.info("删除用户评论: {}", username.getValue());
 
-            // 逻辑删除所有评论记录
-            List<UserComment> comments = userCommentDao.selectByUsername(username.getValue(), null, 0, Integer.MAX_VALUE);
-            for (UserComment comment : comments) {
-                if (comment.getStatus() == 0) { // 只删除正常状态的记录
-                    comment.setStatus(1);
-                    comment.setUpdateTime(LocalDateTime.now());
-                    userCommentDao.update(comment);
-                }
-            }
-
-            // 清除缓存
-            cacheService.evictUserComments(username);
-            cacheService.evictRelatedCaches(username);
-
-            log.info("删除用户评论成功: {}", username.getValue());
+            // 分段逻辑删除，不读取评论记录
+            LocalDateTime now = LocalDateTime.now();
+            int deleted = 0;
+            int affected;
+            do {
+                affected = userCommentDao.softDeleteByUsername(username.getValue(), now, ChangeBatch.MAX_STATEMENT_ROWS);
+                deleted += affected;
+            } while (affected == ChangeBatch.MAX_STATEMENT_ROWS);
+
+            // 提交后统一清除缓存
+            runAfterCommit(() -> {
+                cacheService.evictUserComments(username);
+                cacheService.evictRelatedCaches(username);
+            });
+
+            log.info("删除用户评论成功: {} - 删除数: {}", username.getValue(), deleted);
             return true;
 
         } catch (Exception e) {
             log.error("删除用户评论失败: {} - {}", username.getValue(), e.getMessage(), e);
+            RepositoryTransactions.markRollbackOnly();
             return false;
         }
     }
@@ -203,90 +285,64 @@ public class UserCommentsRepositoryImpl implements IUserCommentsRepository {
     // ==================== 私有辅助方法 ====================
 
     /**
-     * 处理评论变更
+     * 写入评论变更：新增或修改（含删除后恢复）的评论以一条多行 upsert 写入，删除的已有评论以一条 UPDATE … IN 逻辑删除，
+     * 本次新增后又删除的评论不写入
      */
-    private boolean processCommentChange(Username username, ChangeTracker.ChangeRecord change) {
-        try {
-            CommentAction commentAction = (CommentAction) change.getEntity();
-            Long commentId = (Long) change.getEntityId();
-
-            switch (change.getType()) {
-                case ADDED:
-                    return addCommentRecord(username, commentAction);
-                case DELETED:
-                    return deleteCommentRecord(username, commentId);
-                case MODIFIED:
-                    return updateCommentRecord(username, commentAction);
-                default:
-                    log.warn("未知的变更类型: {}", change.getType());
-                    return false;
+    private void flushCommentChanges(UserComments userComments) {
+        Username username = userComments.getUsername();
+        Set<ChangeTracker.ChangeRecord> changes = userComments.getCommentChanges();
+
+        // 评论ID不会重复使用，有新增记录的评论在保存前不存在
+        Map<Long, CommentAction> comments = new HashMap<>();
+        Set<Long> created = new HashSet<>();
+        for (ChangeTracker.ChangeRecord change : changes) {
+            CommentAction comment = (CommentAction) change.getEntity();
+            comments.put(comment.getId(), comment);
+            if (change.getType() == ChangeTracker.ChangeType.ADDED) {
+                created.add(comment.getId());
             }
-        } catch (Exception e) {
-            log.error("处理评论变更失败: {} - {}", username.getValue(), e.getMessage(), e);
-            return false;
         }
-    }
 
-    /**
-     * 添加评论记录
-     */
-    private boolean addCommentRecord(Username username, CommentAction commentAction) {
-        UserComment userComment = converter.convertToUserComment(username, commentAction);
-        int result = userCommentDao.insert(userComment);
-        
-        if (result > 0) {
-            // 清除相关缓存
-            cacheService.evictRelicsCommentCaches(commentAction.getRelicsId());
-            log.debug("添加评论记录成功: {} - {}", username.getValue(), commentAction.getId());
-            return true;
-        } else {
-            log.error("添加评论记录失败: {} - {}", username.getValue(), commentAction.getId());
-            return false;
-        }
-    }
+        ChangeBatch<Long, CommentAction> batch = ChangeBatch.of(changes, Long.class,
+                commentId -> Optional.ofNullable(comments.get(commentId)).filter(c -> !c.isDeleted()));
+        List<Long> deleted = batch.getDeletes().stream().filter(commentId -> !created.contains(commentId)).toList();
 
-    /**
-     * 删除评论记录
-     */
-    private boolean deleteCommentRecord(Username username, Long commentId) {
-        UserComment existing = userCommentDao.selectByCommentId(commentId);
-        if (existing != null && existing.getStatus() == 0) {
-            existing.setStatus(1);
-            existing.setUpdateTime(LocalDateTime.now());
-            int result = userCommentDao.update(existing);
-            
-            if (result > 0) {
-                // 清除相关缓存
-                cacheService.evictRelicsCommentCaches(existing.getRelicsId());
-                log.debug("删除评论记录成功: {} - {}", username.getValue(), commentId);
-                return true;
-            }
+        List<UserComment> upserts = batch.getUpserts().values().stream()
+                .map(comment -> converter.convertToUserComment(username, comment))
+                .toList();
+        for (List<UserComment> chunk : ChangeBatch.chunks(upserts)) {
+            int affected = userCommentDao.batchUpsert(chunk);
+            RepositoryTransactions.requireAffected("批量写入评论记录", chunk.size(), affected, true);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (List<Long> chunk : ChangeBatch.chunks(deleted)) {
+            int affected = userCommentDao.batchSoftDeleteByCommentIds(username.getValue(), chunk, now);
+            RepositoryTransactions.requireAffected("批量删除评论记录", chunk.size(), affected, false);
         }
-        
-        log.error("删除评论记录失败: {} - {}", username.getValue(), commentId);
-        return false;
+
+        // 提交后每个涉及的文物只清除一次评论缓存
+        Set<Long> relicsIds = new HashSet<>();
+        batch.getUpserts().values().forEach(comment -> relicsIds.add(comment.getRelicsId()));
+        deleted.forEach(commentId -> relicsIds.add(comments.get(commentId).getRelicsId()));
+        runAfterCommit(() -> relicsIds.forEach(cacheService::evictRelicsCommentCaches));
+
+        log.debug("写入评论变更: {} - 变更记录数: {}, 写入: {}, 删除: {}",
+                username.getValue(), changes.size(), upserts.size(), deleted.size());
     }
 
     /**
-     * 更新评论记录
+     * 事务提交后执行，避免回滚的写入进入 Redis；无事务时立即执行
      */
-    private boolean updateCommentRecord(Username username, CommentAction commentAction) {
-        UserComment existing = userCommentDao.selectByCommentId(commentAction.getId());
-        if (existing != null) {
-            existing.setUpdateTime(LocalDateTime.now());
-            existing.setStatus(commentAction.isDeleted() ? 1 : 0);
-            existing.setCommentStatus(commentAction.getStatus().getCode());
-            int result = userCommentDao.update(existing);
-            
-            if (result > 0) {
-                // 清除相关缓存
-                cacheService.evictRelicsCommentCaches(commentAction.getRelicsId());
-                log.debug("更新评论记录成功: {} - {}", username.getValue(), commentAction.getId());
-                return true;
-            }
+    private void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
         }
-        
-        log.error("更新评论记录失败: {} - {}", username.getValue(), commentAction.getId());
-        return false;
     }
 }
@@ -1,30 +1,47 @@
 package com.ling.infrastructure.repository;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.ling.domain.interaction.adapter.AggregateVersionConflictException;
 import com.ling.domain.interaction.adapter.IUserFavoritesRepository;
 import com.ling.domain.interaction.model.entity.UserFavorites;
 import com.ling.domain.interaction.model.valobj.ChangeTracker;
 import com.ling.domain.interaction.model.valobj.FavoriteAction;
 import com.ling.domain.user.model.valobj.Username;
+import com.ling.infrastructure.cache.service.FavoriteIndexCacheService;
 import com.ling.infrastructure.cache.service.UserFavoritesCacheService;
 import com.ling.infrastructure.dao.IUserFavoriteDao;
 import com.ling.infrastructure.dao.po.UserFavorite;
+import com.ling.infrastructure.datasource.DataSourceRouting;
 import com.ling.infrastructure.repository.converter.UserFavoritesConverter;
+import com.ling.infrastructure.repository.support.AggregateVersionStore;
+import com.ling.infrastructure.repository.support.ChangeBatch;
+import com.ling.infrastructure.repository.support.RepositoryTransactions;
 
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * 用户收藏仓储实现
  * @Author: LingRJ
- * @Description: 实现用户收藏聚合根的数据访问逻辑
+ * @Description: 实现用户收藏聚合根的数据访问逻辑。数据库为权威数据源，
+ *               收藏判断、分页与计数走 Redis 收藏索引，索引在事务提交后按变更增量更新。
+ *               写操作使用按需加载的聚合根，只读取收藏数与版本号，收藏判断按文物ID查询单条记录。
+ *               保存时按聚合根版本号做比较并交换，版本冲突抛出异常由领域服务重试
  * @DateTime: 2025/7/13
  */
 @Repository
@@ -40,40 +57,80 @@ public class UserFavoritesRepositoryImpl implements IUserFavoritesRepository {
     @Autowired
     private UserFavoritesCacheService cacheService;
 
+    @Autowired
+    private FavoriteIndexCacheService favoriteIndexCacheService;
+
+    @Autowired
+    private AggregateVersionStore aggregateVersionStore;
+
     @Override
     public Optional<UserFavorites> findByUsername(Username username) {
         try {
             log.debug("查找用户收藏聚合根: {}", username.getValue());
 
-            // 先尝试从缓存获取
-            Optional<UserFavorites> cachedResult = cacheService.getUserFavorites(username);
-            if (cachedResult.isPresent()) {
-                log.debug("缓存命中 - 用户收藏: {}", username.getValue());
-                return cachedResult;
-            }
+            // 先查缓存，未命中时同一用户的并发请求只回源一次
+            return cacheService.getOrLoadUserFavorites(username, () -> loadFromDatabase(username));
 
-            // 缓存未命中，从数据库查询
-            log.debug("缓存未命中，从数据库查询用户收藏: {}", username.getValue());
-            List<UserFavorite> favorites = userFavoriteDao.selectByUsername(username.getValue(), 0, Integer.MAX_VALUE);
+        } catch (Exception e) {
+            log.error("查找用户收藏聚合根失败: {} - {}", username.getValue(), e.getMessage(), e);
+            return Optional.empty();
+        }
+    }
 
-            if (favorites.isEmpty()) {
+    @Override
+    public Optional<UserFavorites> findRootByUsername(Username username) {
+        try {
+            // 先读版本号，之后的按需查询读到较新数据时保存冲突重试，不会覆盖
+            long version = aggregateVersionStore.currentVersion(username, AggregateVersionStore.FAVORITES);
+            long favoriteCount = favoriteIndexCacheService.countFavorites(username)
+                    .orElseGet(() -> userFavoriteDao.countByUsername(username.getValue()));
+            if (version == 0 && favoriteCount == 0) {
                 log.debug("用户收藏记录不存在: {}", username.getValue());
                 return Optional.empty();
             }
+            return Optional.of(UserFavorites.lazy(username, favoriteCount, version, this::findActiveFavorite));
+        } catch (Exception e) {
+            log.error("按需加载用户收藏聚合根失败: {} - {}", username.getValue(), e.getMessage(), e);
+            return Optional.empty();
+        }
+    }
 
-            // 转换为聚合根
-            UserFavorites userFavorites = converter.buildUserFavorites(username, favorites);
+    /**
+     * 按文物ID查询用户的有效收藏
+     */
+    private Optional<FavoriteAction> findActiveFavorite(Username username, Long relicsId) {
+        return userFavoriteDao.batchSelectByUsernameAndRelicsIds(username.getValue(), List.of(relicsId)).stream()
+                .findFirst()
+                .map(converter::convertToFavoriteAction);
+    }
+
+    /**
+     * 从数据库加载用户收藏聚合根
+     */
+    private Optional<UserFavorites> loadFromDatabase(Username username) {
+        log.debug("缓存未命中，从数据库查询用户收藏: {}", username.getValue());
+        // 先读版本号再读记录，期间有提交时版本号偏旧，保存时冲突重试而不会覆盖新数据
+        long version = aggregateVersionStore.currentVersion(username, AggregateVersionStore.FAVORITES);
+        List<UserFavorite> favorites = userFavoriteDao.selectByUsername(username.getValue(), 0, Integer.MAX_VALUE);
+
+        if (favorites.isEmpty()) {
+            if (version == 0) {
+                log.debug("用户收藏记录不存在: {}", username.getValue());
+                return Optional.empty();
+            }
+            // 保存过但已无收藏记录，保留版本号供下次保存比较
+            UserFavorites emptyFavorites = UserFavorites.fromDatabase(username, new HashSet<>(), null, null);
+            emptyFavorites.markPersisted(version);
+            return Optional.of(emptyFavorites);
+        }
 
-            // 缓存结果
-            cacheService.cacheUserFavorites(userFavorites);
-            log.debug("缓存用户收藏: {} - 收藏数: {}", username.getValue(), favorites.size());
+        // 转换为聚合根
+        UserFavorites userFavorites = converter.buildUserFavorites(username, favorites);
+        userFavorites.markPersisted(version);
 
-            return Optional.of(userFavorites);
+        log.debug("加载用户收藏: {} - 收藏数: {}", username.getValue(), favorites.size());
 
-        } catch (Exception e) {
-            log.error("查找用户收藏聚合根失败: {} - {}", username.getValue(), e.getMessage(), e);
-            return Optional.empty();
-        }
+        return Optional.of(userFavorites);
     }
 
     @Override
@@ -88,34 +145,40 @@ public class UserFavoritesRepositoryImpl implements IUserFavoritesRepository {
             log.info("增量保存用户收藏: {} - {}", 
                     userFavorites.getUsername().getValue(), userFavorites.getChangesSummary());
 
-            boolean success = true;
+            // 先推进版本号，冲突时不写入任何记录；版本行锁持有到提交，同一用户的保存在此串行
+            long nextVersion = aggregateVersionStore.advance(userFavorites.getUsername(),
+                    AggregateVersionStore.FAVORITES, userFavorites.getVersion());
 
-            // 处理收藏变更
-            Set<ChangeTracker.ChangeRecord> favoriteChanges = userFavorites.getFavoriteChanges();
-            for (ChangeTracker.ChangeRecord change : favoriteChanges) {
-                success &= processFavoriteChange(userFavorites.getUsername(), change);
-            }
+            // 按文物归并收藏变更，以集合语句写入
+            flushFavoriteChanges(userFavorites);
 
-            if (success) {
-                // 清空变更记录
-                userFavorites.clearChanges();
-                
-                // 更新缓存
-                cacheService.cacheUserFavorites(userFavorites);
-                
-                // 清除相关缓存
-                cacheService.evictRelatedCaches(userFavorites.getUsername());
-                
-                log.info("用户收藏增量保存成功: {}", userFavorites.getUsername().getValue());
+            // 清空变更记录
+            userFavorites.clearChanges();
+            userFavorites.markPersisted(nextVersion);
+            
+            if (userFavorites.isLazy()) {
+                // 按需加载的聚合根不完整，不写入缓存；提交后删除旧的完整聚合根
+                runAfterCommit(() -> cacheService.evictUserFavorites(userFavorites.getUsername()));
             } else {
-                log.error("用户收藏增量保存失败: {}", userFavorites.getUsername().getValue());
+                // 提交后按版本号更新缓存，不会被较旧的并发写入覆盖
+                runAfterCommit(() -> cacheService.cacheUserFavorites(userFavorites));
             }
+            
+            // 提交后清除相关缓存，避免提交前的读取以旧数据重新填充
+            runAfterCommit(() -> cacheService.evictRelatedCaches(userFavorites.getUsername()));
+            
+            log.info("用户收藏增量保存成功: {}", userFavorites.getUsername().getValue());
 
-            return success;
+            return true;
 
+        } catch (AggregateVersionConflictException e) {
+            // 本地持有的聚合根已过期，删除缓存后由调用方重新加载
+            cacheService.evictUserFavorites(userFavorites.getUsername());
+            throw e;
         } catch (Exception e) {
             log.error("用户收藏增量保存异常: {} - {}", 
                     userFavorites.getUsername().getValue(), e.getMessage(), e);
+            RepositoryTransactions.markRollbackOnly();
             return false;
         }
     }
@@ -123,38 +186,55 @@ public class UserFavoritesRepositoryImpl implements IUserFavoritesRepository {
     @Override
     @Transactional
     public boolean save(UserFavorites userFavorites) {
+        if (userFavorites.isLazy()) {
+            log.error("按需加载的用户收藏聚合根不支持全量保存: {}", userFavorites.getUsername().getValue());
+            return false;
+        }
         try {
             log.info("全量保存用户收藏: {} - 收藏数: {}", 
                     userFavorites.getUsername().getValue(), userFavorites.getFavoritedRelicsIds().size());
 
+            long nextVersion = aggregateVersionStore.advance(userFavorites.getUsername(),
+                    AggregateVersionStore.FAVORITES, userFavorites.getVersion());
+
             // 先删除现有记录
-            deleteByUsername(userFavorites.getUsername());
+            if (!deleteByUsername(userFavorites.getUsername())) {
+                throw new IllegalStateException("删除现有收藏记录失败");
+            }
 
             // 批量插入新记录
             List<UserFavorite> favorites = converter.convertToUserFavorites(userFavorites);
             if (!favorites.isEmpty()) {
-                int insertCount = userFavoriteDao.batchInsert(favorites);
-                if (insertCount != favorites.size()) {
-                    log.error("批量插入收藏记录数量不匹配: 期望={}, 实际={}", favorites.size(), insertCount);
-                    return false;
-                }
+                int affected = userFavoriteDao.batchInsert(favorites);
+                RepositoryTransactions.requireAffected("批量插入收藏记录", favorites.size(), affected, false);
+                List<Long> insertedRelicsIds = favorites.stream()
+                        .filter(favorite -> favorite.getStatus() == 0)
+                        .map(UserFavorite::getRelicsId)
+                        .toList();
+                runAfterCommit(() -> insertedRelicsIds.forEach(
+                        relicsId -> favoriteIndexCacheService.incrementRelicsFavoriteCount(relicsId, 1)));
             }
 
             // 清空变更记录
             userFavorites.clearChanges();
+            userFavorites.markPersisted(nextVersion);
             
-            // 更新缓存
-            cacheService.cacheUserFavorites(userFavorites);
+            // 提交后按版本号更新缓存
+            runAfterCommit(() -> cacheService.cacheUserFavorites(userFavorites));
             
-            // 清除相关缓存
-            cacheService.evictRelatedCaches(userFavorites.getUsername());
+            // 提交后清除相关缓存，避免提交前的读取以旧数据重新填充
+            runAfterCommit(() -> cacheService.evictRelatedCaches(userFavorites.getUsername()));
 
             log.info("用户收藏全量保存成功: {}", userFavorites.getUsername().getValue());
             return true;
 
+        } catch (AggregateVersionConflictException e) {
+            cacheService.evictUserFavorites(userFavorites.getUsername());
+            throw e;
         } catch (Exception e) {
             log.error("用户收藏全量保存失败: {} - {}", 
                     userFavorites.getUsername().getValue(), e.getMessage(), e);
+            RepositoryTransactions.markRollbackOnly();
             return false;
         }
     }
@@ -165,25 +245,32 @@ public class UserFavoritesRepositoryImpl implements IUserFavoritesRepository {
         try {
             log.info("删除用户收藏: {}", username.getValue());
 
-            // 逻辑删除所有收藏记录
-            List<UserFavorite> favorites = userFavoriteDao.selectByUsername(username.getValue(), 0, Integer.MAX_VALUE);
-            for (UserFavorite favorite : favorites) {
-                if (favorite.getStatus() == 0) { // 只删除正常状态的记录
-                    favorite.setStatus(1);
-                    favorite.setUpdateTime(LocalDateTime.now());
-                    userFavoriteDao.update(favorite);
+            // 分段逻辑删除：每段只读取文物ID（计数器需要），再以一条 UPDATE … IN 删除
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> deletedRelicsIds = new ArrayList<>();
+            List<Long> chunk;
+            do {
+                chunk = userFavoriteDao.selectActiveRelicsIds(username.getValue(), ChangeBatch.MAX_STATEMENT_ROWS);
+                if (!chunk.isEmpty()) {
+                    userFavoriteDao.batchSoftDeleteByRelicsIds(username.getValue(), chunk, now);
+                    deletedRelicsIds.addAll(chunk);
                 }
-            }
+            } while (chunk.size() == ChangeBatch.MAX_STATEMENT_ROWS);
 
-            // 清除缓存
-            cacheService.evictUserFavorites(username);
-            cacheService.evictRelatedCaches(username);
+            // 提交后统一清除缓存
+            runAfterCommit(() -> {
+                cacheService.evictUserFavorites(username);
+                cacheService.evictRelatedCaches(username);
+                favoriteIndexCacheService.evictIndex(username);
+                favoriteIndexCacheService.incrementRelicsFavoriteCounts(deletedRelicsIds, -1);
+            });
 
-            log.info("删除用户收藏成功: {}", username.getValue());
+            log.info("删除用户收藏成功: {} - 删除数: {}", username.getValue(), deletedRelicsIds.size());
             return true;
 
         } catch (Exception e) {
             log.error("删除用户收藏失败: {} - {}", username.getValue(), e.getMessage(), e);
+            RepositoryTransactions.markRollbackOnly();
             return false;
         }
     }
@@ -199,92 +286,173 @@ public class UserFavoritesRepositoryImpl implements IUserFavoritesRepository {
         }
     }
 
-    // ==================== 私有辅助方法 ====================
+    // ==================== 收藏索引查询 ====================
 
-    /**
-     * 处理收藏变更
-     */
-    private boolean processFavoriteChange(Username username, ChangeTracker.ChangeRecord change) {
+    @Override
+    public boolean isFavorited(Username username, Long relicsId) {
         try {
-            FavoriteAction favoriteAction = (FavoriteAction) change.getEntity();
-            Long relicsId = (Long) change.getEntityId();
-
-            switch (change.getType()) {
-                case ADDED:
-                    return addFavoriteRecord(username, favoriteAction);
-                case DELETED:
-                    return deleteFavoriteRecord(username, relicsId);
-                case MODIFIED:
-                    return updateFavoriteRecord(username, favoriteAction);
-                default:
-                    log.warn("未知的变更类型: {}", change.getType());
-                    return false;
+            Optional<Boolean> indexed = favoriteIndexCacheService.isFavorited(username, relicsId);
+            if (indexed.isPresent()) {
+                return indexed.get();
             }
+            return rebuildIndex(username).containsKey(relicsId);
         } catch (Exception e) {
-            log.error("处理收藏变更失败: {} - {}", username.getValue(), e.getMessage(), e);
+            log.error("检查收藏状态失败: {} - {} - {}", username.getValue(), relicsId, e.getMessage(), e);
             return false;
         }
     }
 
-    /**
-     * 添加收藏记录
-     */
-    private boolean addFavoriteRecord(Username username, FavoriteAction favoriteAction) {
-        UserFavorite userFavorite = converter.convertToUserFavorite(username, favoriteAction);
-        int result = userFavoriteDao.insert(userFavorite);
-        
-        if (result > 0) {
-            // 清除收藏状态缓存
-            cacheService.evictFavoriteStatus(username, favoriteAction.getRelicsId());
-            log.debug("添加收藏记录成功: {} - {}", username.getValue(), favoriteAction.getRelicsId());
-            return true;
-        } else {
-            log.error("添加收藏记录失败: {} - {}", username.getValue(), favoriteAction.getRelicsId());
-            return false;
+    @Override
+    public List<Long> findFavoritedRelicsIds(Username username, int offset, int limit) {
+        try {
+            Optional<List<Long>> indexed = favoriteIndexCacheService.getFavoritedRelicsIds(username, offset, limit);
+            if (indexed.isPresent()) {
+                return indexed.get();
+            }
+
+            // 索引不可用时按相同顺序（收藏时间倒序）在快照上分页
+            return rebuildIndex(username).entrySet().stream()
+                    .sorted(Map.Entry.<Long, Long>comparingByValue(Comparator.reverseOrder())
+                            .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())))
+                    .skip(offset)
+                    .limit(limit)
+                    .map(Map.Entry::getKey)
+                    .toList();
+        } catch (Exception e) {
+            log.error("分页查询用户收藏失败: {} - offset:{}, limit:{} - {}",
+                    username.getValue(), offset, limit, e.getMessage(), e);
+            return List.of();
         }
     }
 
+    @Override
+    public long countFavorites(Username username) {
+        try {
+            Optional<Long> indexed = favoriteIndexCacheService.countFavorites(username);
+            if (indexed.isPresent()) {
+                return indexed.get();
+            }
+            return rebuildIndex(username).size();
+        } catch (Exception e) {
+            log.error("获取用户收藏总数失败: {} - {}", username.getValue(), e.getMessage(), e);
+            return 0L;
+        }
+    }
+
+    @Override
+    public long countByRelicsId(Long relicsId) {
+        try {
+            Optional<Long> cached = favoriteIndexCacheService.getRelicsFavoriteCount(relicsId);
+            if (cached.isPresent()) {
+                return cached.get();
+            }
+            long count = userFavoriteDao.countByRelicsId(relicsId);
+            favoriteIndexCacheService.cacheRelicsFavoriteCount(relicsId, count);
+            return count;
+        } catch (Exception e) {
+            log.error("获取文物收藏次数失败: {} - {}", relicsId, e.getMessage(), e);
+            return 0L;
+        }
+    }
+
+    // ==================== 私有辅助方法 ====================
+
     /**
-     * 删除收藏记录
+     * 写入收藏变更：新收藏的文物以一条多行 upsert 写入（含早先取消后重新收藏），已取消的文物以一条 UPDATE … IN 逻辑删除。
+     * 本次新增后又取消、或取消后又重新收藏的文物净状态不变，不写入。收藏索引与文物计数器在提交后按净变化更新
      */
-    private boolean deleteFavoriteRecord(Username username, Long relicsId) {
-        UserFavorite existing = userFavoriteDao.selectByUsernameAndRelicsId(username.getValue(), relicsId);
-        if (existing != null && existing.getStatus() == 0) {
-            existing.setStatus(1);
-            existing.setUpdateTime(LocalDateTime.now());
-            int result = userFavoriteDao.update(existing);
-            
-            if (result > 0) {
-                // 清除收藏状态缓存
-                cacheService.evictFavoriteStatus(username, relicsId);
-                log.debug("删除收藏记录成功: {} - {}", username.getValue(), relicsId);
-                return true;
+    private void flushFavoriteChanges(UserFavorites userFavorites) {
+        Username username = userFavorites.getUsername();
+        Set<ChangeTracker.ChangeRecord> changes = userFavorites.getFavoriteChanges();
+
+        // 变更已按文物归并：新增表示保存前没有有效收藏，修改（取消后重新收藏）与删除表示保存前已收藏
+        Map<Long, FavoriteAction> active = new HashMap<>();
+        Set<Long> persisted = new HashSet<>();
+        for (ChangeTracker.ChangeRecord change : changes) {
+            FavoriteAction favorite = (FavoriteAction) change.getEntity();
+            if (!favorite.isDeleted()) {
+                active.put(favorite.getRelicsId(), favorite);
             }
+            if (change.getType() != ChangeTracker.ChangeType.ADDED) {
+                persisted.add((Long) change.getEntityId());
+            }
+        }
+
+        ChangeBatch<Long, FavoriteAction> batch = ChangeBatch.of(changes, Long.class,
+                relicsId -> Optional.ofNullable(active.get(relicsId)));
+        Map<Long, FavoriteAction> favorited = new HashMap<>(batch.getUpserts());
+        favorited.keySet().removeAll(persisted);
+        List<Long> removed = batch.getDeletes().stream().filter(persisted::contains).toList();
+
+        List<UserFavorite> upserts = favorited.values().stream()
+                .map(favorite -> converter.convertToUserFavorite(username, favorite))
+                .toList();
+        for (List<UserFavorite> chunk : ChangeBatch.chunks(upserts)) {
+            // 新插入计 1 行，已存在的记录更新计 2 行
+            int affected = userFavoriteDao.batchUpsert(chunk);
+            RepositoryTransactions.requireAffected("批量写入收藏记录", chunk.size(), affected, true);
         }
-        
-        log.error("删除收藏记录失败: {} - {}", username.getValue(), relicsId);
-        return false;
+        LocalDateTime now = LocalDateTime.now();
+        for (List<Long> chunk : ChangeBatch.chunks(removed)) {
+            int affected = userFavoriteDao.batchSoftDeleteByRelicsIds(username.getValue(), chunk, now);
+            RepositoryTransactions.requireAffected("批量取消收藏", chunk.size(), affected, false);
+        }
+
+        runAfterCommit(() -> {
+            // 提交前删除的状态缓存可能被并发读取按未提交前的数据回填，因此放在提交后
+            favorited.keySet().forEach(relicsId -> cacheService.evictFavoriteStatus(username, relicsId));
+            removed.forEach(relicsId -> cacheService.evictFavoriteStatus(username, relicsId));
+            favorited.forEach((relicsId, favorite) -> {
+                favoriteIndexCacheService.addFavorite(username, relicsId, toEpochMilli(favorite.getCreateTime()));
+                favoriteIndexCacheService.incrementRelicsFavoriteCount(relicsId, 1);
+            });
+            removed.forEach(relicsId -> {
+                favoriteIndexCacheService.removeFavorite(username, relicsId);
+                favoriteIndexCacheService.incrementRelicsFavoriteCount(relicsId, -1);
+            });
+        });
+
+        log.debug("写入收藏变更: {} - 变更记录数: {}, 写入: {}, 取消: {}",
+                username.getValue(), changes.size(), upserts.size(), removed.size());
     }
 
     /**
-     * 更新收藏记录
+     * 从主库读取收藏记录重建收藏索引。
+     * 不经过聚合根缓存，也不读从库：缓存副本或有复制延迟的从库可能落后于已提交的变更，会把旧状态写进新一代索引
+     * @return 文物ID到收藏时间（毫秒）的映射，索引写入失败时调用方仍可据此作答
      */
-    private boolean updateFavoriteRecord(Username username, FavoriteAction favoriteAction) {
-        UserFavorite existing = userFavoriteDao.selectByUsernameAndRelicsId(username.getValue(), favoriteAction.getRelicsId());
-        if (existing != null) {
-            existing.setUpdateTime(LocalDateTime.now());
-            existing.setStatus(favoriteAction.isDeleted() ? 1 : 0);
-            int result = userFavoriteDao.update(existing);
-            
-            if (result > 0) {
-                // 清除收藏状态缓存
-                cacheService.evictFavoriteStatus(username, favoriteAction.getRelicsId());
-                log.debug("更新收藏记录成功: {} - {}", username.getValue(), favoriteAction.getRelicsId());
-                return true;
-            }
+    private Map<Long, Long> rebuildIndex(Username username) {
+        // 先取代数再读快照，期间有变更提交时放弃写入
+        String generation = favoriteIndexCacheService.getGeneration(username);
+
+        Map<Long, Long> favoriteTimes = new HashMap<>();
+        DataSourceRouting.onPrimary(() -> loadFromDatabase(username))
+                .ifPresent(userFavorites -> userFavorites.getFavorites().stream()
+                        .filter(favorite -> !favorite.isDeleted())
+                        .forEach(favorite -> favoriteTimes.put(favorite.getRelicsId(),
+                                toEpochMilli(favorite.getCreateTime()))));
+
+        favoriteIndexCacheService.rebuildIndex(username, generation, favoriteTimes);
+        return favoriteTimes;
+    }
+
+    private static long toEpochMilli(LocalDateTime time) {
+        return time != null ? time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : 1L;
+    }
+
+    /**
+     * 事务提交后执行，避免回滚的写入进入 Redis；无事务时立即执行
+     */
+    private void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
         }
-        
-        log.error("更新收藏记录失败: {} - {}", username.getValue(), favoriteAction.getRelicsId());
-        return false;
     }
 }
@@ -1,11 +1,18 @@
 package com.ling.infrastructure.repository;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.ling.domain.interaction.adapter.IUserInteractionRepository;
 import com.ling.domain.interaction.model.valobj.CommentAction;
@@ -13,10 +20,14 @@ import com.ling.domain.interaction.model.valobj.CommentContent;
 import com.ling.domain.interaction.model.valobj.CommentStatus;
 import com.ling.domain.interaction.model.valobj.CommentWithUser;
 import com.ling.domain.interaction.model.valobj.RelicsComment;
+import com.ling.domain.interaction.model.valobj.RelicsInteractionSummary;
+import com.ling.domain.user.model.valobj.Username;
 import com.ling.infrastructure.dao.IUserCommentDao;
 import com.ling.infrastructure.dao.IUserFavoriteDao;
 import com.ling.infrastructure.dao.po.UserComment;
+import com.ling.infrastructure.dao.po.UserFavorite;
 import com.ling.infrastructure.repository.converter.UserInteractionConverter;
+import com.ling.infrastructure.cache.service.FavoriteIndexCacheService;
 import com.ling.infrastructure.cache.service.UserInteractionCacheService;
 
 import lombok.extern.slf4j.Slf4j;
@@ -42,6 +53,9 @@ public class UserInteractionRepositoryImpl implements IUserInteractionRepository
 
     @Autowired
     private UserInteractionCacheService cacheService;
+
+    @Autowired
+    private FavoriteIndexCacheService favoriteIndexCacheService;
     
     // ==================== 聚合根操作 ====================
 
@@ -73,6 +87,7 @@ public class UserInteractionRepositoryImpl implements IUserInteractionRepository
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<RelicsComment> getApprovedCommentsByRelicsId(Long relicsId, int page, int size) {
         try {
             // 先尝试从缓存获取
@@ -108,6 +123,7 @@ public class UserInteractionRepositoryImpl implements IUserInteractionRepository
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Long countApprovedCommentsByRelicsId(Long relicsId) {
         try {
             // 统计已通过审核的评论数量
@@ -120,13 +136,124 @@ public class UserInteractionRepositoryImpl implements IUserInteractionRepository
 
     @Override
     public boolean updateCommentStatus(Long commentId, CommentStatus status) {
-        return userCommentDao.updateStatusByCommentId(commentId, status.getCode());
+        boolean updated = userCommentDao.updateStatusByCommentId(commentId, status.getCode());
+        if (updated) {
+            // 审核状态变化会改变文物已通过评论数
+            UserComment comment = userCommentDao.selectByCommentId(commentId);
+            if (comment != null) {
+                cacheService.evictRelicsCommentCount(comment.getRelicsId());
+            }
+        }
+        return updated;
+    }
+
+    @Override
+    public Map<Long, RelicsInteractionSummary> batchGetRelicsInteractionSummaries(Username username, List<Long> relicsIds) {
+        // 一次批量读取缓存，只对未命中的部分各发一条批量SQL
+        UserInteractionCacheService.RelicsInteractionBatch cached =
+                cacheService.batchGetRelicsInteractions(username, relicsIds);
+
+        Map<Long, Boolean> favorited = resolveFavoriteStatus(username, relicsIds, cached.favorited());
+        Map<Long, Long> favoriteCounts = resolveFavoriteCounts(relicsIds, cached.favoriteCounts());
+        Map<Long, Long> commentCounts = resolveCommentCounts(relicsIds, cached.commentCounts());
+
+        Map<Long, RelicsInteractionSummary> summaries = new LinkedHashMap<>(relicsIds.size() * 2);
+        for (Long relicsId : relicsIds) {
+            summaries.put(relicsId, RelicsInteractionSummary.builder()
+                    .relicsId(relicsId)
+                    .favorited(favorited.getOrDefault(relicsId, false))
+                    .favoriteCount(favoriteCounts.getOrDefault(relicsId, 0L))
+                    .commentCount(commentCounts.getOrDefault(relicsId, 0L))
+                    .build());
+        }
+        return summaries;
     }
 
     // 统计查询、批量操作、时间范围查询方法已移至对应的应用服务
     
     // ==================== 私有辅助方法 ====================
 
+    /**
+     * 收藏状态：收藏索引未构建时按本页文物ID查询一次数据库
+     */
+    private Map<Long, Boolean> resolveFavoriteStatus(Username username, List<Long> relicsIds, Map<Long, Boolean> cached) {
+        if (username == null) {
+            return Map.of();
+        }
+        if (cached != null) {
+            return cached;
+        }
+        try {
+            List<UserFavorite> favorites =
+                    userFavoriteDao.batchSelectByUsernameAndRelicsIds(username.getValue(), relicsIds);
+            Map<Long, Boolean> favorited = new HashMap<>(favorites.size() * 2);
+            favorites.forEach(favorite -> favorited.put(favorite.getRelicsId(), true));
+            return favorited;
+        } catch (Exception e) {
+            log.error("批量查询收藏状态失败: {} - {}", username.getValue(), e.getMessage(), e);
+            return Map.of();
+        }
+    }
+
+    /**
+     * 文物收藏数：仅对未命中的文物批量统计，并回填计数器（无收藏的文物回填0）
+     */
+    private Map<Long, Long> resolveFavoriteCounts(List<Long> relicsIds, Map<Long, Long> cached) {
+        List<Long> misses = missingIds(relicsIds, cached.keySet());
+        if (misses.isEmpty()) {
+            return cached;
+        }
+        try {
+            Map<Long, Long> loaded = new HashMap<>(misses.size() * 2);
+            misses.forEach(relicsId -> loaded.put(relicsId, 0L));
+            userFavoriteDao.batchCountByRelicsIds(misses)
+                    .forEach(count -> loaded.put(count.relicsId(), count.favoriteCount()));
+            favoriteIndexCacheService.cacheRelicsFavoriteCounts(loaded);
+
+            Map<Long, Long> counts = new HashMap<>(cached);
+            counts.putAll(loaded);
+            return counts;
+        } catch (Exception e) {
+            log.error("批量统计文物收藏数失败: {} - {}", misses, e.getMessage(), e);
+            return cached;
+        }
+    }
+
+    /**
+     * 文物评论数：仅对未命中的文物批量统计，并批量回填缓存（无评论的文物回填0）
+     */
+    private Map<Long, Long> resolveCommentCounts(List<Long> relicsIds, Map<Long, Long> cached) {
+        List<Long> misses = missingIds(relicsIds, cached.keySet());
+        if (misses.isEmpty()) {
+            return cached;
+        }
+        try {
+            Map<Long, Long> loaded = new HashMap<>(misses.size() * 2);
+            misses.forEach(relicsId -> loaded.put(relicsId, 0L));
+            userCommentDao.batchCountByRelicsIds(misses)
+                    .forEach(count -> loaded.put(count.relicsId(), count.commentCount()));
+            cacheService.cacheRelicsCommentCounts(loaded);
+
+            Map<Long, Long> counts = new HashMap<>(cached);
+            counts.putAll(loaded);
+            return counts;
+        } catch (Exception e) {
+            log.error("批量统计文物评论数失败: {} - {}", misses, e.getMessage(), e);
+            return cached;
+        }
+    }
+
+    private static List<Long> missingIds(List<Long> relicsIds, Set<Long> hits) {
+        List<Long> misses = new ArrayList<>();
+        Set<Long> seen = new HashSet<>(hits);
+        for (Long relicsId : relicsIds) {
+            if (seen.add(relicsId)) {
+                misses.add(relicsId);
+            }
+        }
+        return misses;
+    }
+
     
     /**
      * 转换为评论行为值对象
@@ -3,7 +3,10 @@ package com.ling.infrastructure.repository.converter;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Component;
@@ -13,15 +16,18 @@ import com.ling.domain.interaction.model.valobj.CollectionGallery;
 import com.ling.domain.interaction.model.valobj.DisplayStyle;
 import com.ling.domain.interaction.model.valobj.GalleryId;
 import com.ling.domain.interaction.model.valobj.GalleryTheme;
+import com.ling.domain.interaction.model.valobj.RelicsIds;
 import com.ling.domain.user.model.valobj.Username;
 import com.ling.infrastructure.dao.po.CollectionGalleryPO;
+import com.ling.infrastructure.dao.po.GalleryRelicsPO;
 
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * 收藏馆管理数据转换器
  * @Author: LingRJ
- * @Description: 负责收藏馆管理聚合根与数据库记录之间的转换
+ * @Description: 负责收藏馆管理聚合根与数据库记录之间的转换。
+ *               收藏馆的文物以 gallery_relics 关联记录为准，relics_ids 列在双写期间仍按相同顺序写入
  * @DateTime: 2025/7/13
  */
 @Slf4j
@@ -35,8 +41,22 @@ public class GalleryManagerConverter {
      * @return 收藏馆管理聚合根
      */
     public GalleryManager buildGalleryManager(Username username, List<CollectionGalleryPO> galleryPOs) {
+        return buildGalleryManager(username, galleryPOs, null);
+    }
+
+    /**
+     * 构建收藏馆管理聚合根，收藏馆的文物取自关联记录
+     * @param username 用户名
+     * @param galleryPOs 收藏馆PO列表
+     * @param relicsPOs 这些收藏馆的文物关联记录，为 null 时从 relics_ids 列解析
+     * @return 收藏馆管理聚合根
+     */
+    public GalleryManager buildGalleryManager(Username username, List<CollectionGalleryPO> galleryPOs,
+                                              List<GalleryRelicsPO> relicsPOs) {
         try {
-            List<CollectionGallery> galleries = convertToCollectionGalleries(galleryPOs);
+            List<CollectionGallery> galleries = relicsPOs != null
+                    ? convertToCollectionGalleries(galleryPOs, groupRelicsIds(relicsPOs))
+                    : convertToCollectionGalleries(galleryPOs);
             
             // 计算创建时间和更新时间
             LocalDateTime createTime = galleryPOs.stream()
@@ -63,11 +83,25 @@ public class GalleryManagerConverter {
      * @return 收藏馆领域对象列表
      */
     public List<CollectionGallery> convertToCollectionGalleries(List<CollectionGalleryPO> galleryPOs) {
+        return convertToCollectionGalleries(galleryPOs, null);
+    }
+
+    /**
+     * 转换收藏馆PO列表为领域对象列表
+     * @param galleryPOs 收藏馆PO列表
+     * @param relicsByGallery 收藏馆ID -> 按顺序排列的文物ID，为 null 时从 relics_ids 列解析
+     * @return 收藏馆领域对象列表
+     */
+    private List<CollectionGallery> convertToCollectionGalleries(List<CollectionGalleryPO> galleryPOs,
+                                                                 Map<String, List<Long>> relicsByGallery) {
         List<CollectionGallery> galleries = new ArrayList<>();
         
         for (CollectionGalleryPO galleryPO : galleryPOs) {
             try {
-                CollectionGallery gallery = convertToCollectionGallery(galleryPO);
+                CollectionGallery gallery = relicsByGallery != null
+                        ? convertToCollectionGallery(galleryPO,
+                                relicsByGallery.getOrDefault(galleryPO.getGalleryId(), List.of()))
+                        : convertToCollectionGallery(galleryPO);
                 galleries.add(gallery);
             } catch (Exception e) {
                 log.warn("转换收藏馆记录失败: {} - {}", galleryPO.getGalleryId(), e.getMessage());
@@ -86,10 +120,20 @@ public class GalleryManagerConverter {
         if (galleryPO == null) {
             throw new IllegalArgumentException("收藏馆PO不能为空");
         }
+        return convertToCollectionGallery(galleryPO, parseRelicsIds(galleryPO.getRelicsIds()));
+    }
+
+    /**
+     * 转换收藏馆PO为领域对象
+     * @param galleryPO 收藏馆PO
+     * @param relicsIds 按顺序排列的文物ID
+     * @return 收藏馆领域对象
+     */
+    public CollectionGallery convertToCollectionGallery(CollectionGalleryPO galleryPO, List<Long> relicsIds) {
+        if (galleryPO == null) {
+            throw new IllegalArgumentException("收藏馆PO不能为空");
+        }
 
-        // 转换文物ID列表
-        List<Long> relicsIds = parseRelicsIds(galleryPO.getRelicsIds());
-        
         // 转换主题
         GalleryTheme theme = GalleryTheme.fromCode(galleryPO.getTheme());
         
@@ -144,8 +188,8 @@ public class GalleryManagerConverter {
             throw new IllegalArgumentException("收藏馆领域对象不能为空");
         }
 
-        // 转换文物ID列表为字符串
-        String relicsIds = formatRelicsIds(gallery.getRelicsIds());
+        // 转换文物ID列表为字符串，双写期间与关联记录保持一致
+        String relicsIds = formatRelicsIds(gallery.getRelicsIds().asList());
         
         return CollectionGalleryPO.builder()
                 .galleryId(gallery.getGalleryId().getValue())
@@ -164,6 +208,43 @@ public class GalleryManagerConverter {
                 .build();
     }
 
+    /**
+     * 转换收藏馆的文物为关联记录，position 为文物在收藏馆中的顺序
+     * @param gallery 收藏馆领域对象
+     * @return 关联记录列表
+     */
+    public List<GalleryRelicsPO> convertToGalleryRelicsPOs(CollectionGallery gallery) {
+        String galleryId = gallery.getGalleryId().getValue();
+        RelicsIds relicsIds = gallery.getRelicsIds();
+        LocalDateTime now = LocalDateTime.now();
+        List<GalleryRelicsPO> relicsPOs = new ArrayList<>(relicsIds.size());
+        for (int i = 0; i < relicsIds.size(); i++) {
+            relicsPOs.add(GalleryRelicsPO.builder()
+                    .galleryId(galleryId)
+                    .relicsId(relicsIds.get(i))
+                    .position(i)
+                    .createTime(now)
+                    .build());
+        }
+        return relicsPOs;
+    }
+
+    /**
+     * 按收藏馆分组关联记录，组内按 position 排列，不依赖查询的返回顺序
+     * @param relicsPOs 关联记录
+     * @return 收藏馆ID -> 按顺序排列的文物ID
+     */
+    Map<String, List<Long>> groupRelicsIds(List<GalleryRelicsPO> relicsPOs) {
+        List<GalleryRelicsPO> ordered = new ArrayList<>(relicsPOs);
+        ordered.sort(Comparator.comparing(GalleryRelicsPO::getPosition));
+        Map<String, List<Long>> relicsByGallery = new HashMap<>();
+        for (GalleryRelicsPO relicsPO : ordered) {
+            relicsByGallery.computeIfAbsent(relicsPO.getGalleryId(), k -> new ArrayList<>())
+                    .add(relicsPO.getRelicsId());
+        }
+        return relicsByGallery;
+    }
+
     /**
      * 解析文物ID字符串为列表
      * @param relicsIdsStr 文物ID字符串（逗号分隔）
@@ -215,10 +296,6 @@ public class GalleryManagerConverter {
                 .count();
         long privateGalleries = totalGalleries - publicGalleries;
         
-        long totalRelics = galleryPOs.stream()
-                .mapToLong(CollectionGalleryPO::getRelicsCount)
-                .sum();
-        
         // 找出最常用的主题
         String mostUsedTheme = galleryPOs.stream()
                 .collect(Collectors.groupingBy(CollectionGalleryPO::getTheme, Collectors.counting()))
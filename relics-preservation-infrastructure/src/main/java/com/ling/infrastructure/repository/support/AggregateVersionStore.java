@@ -0,0 +1,55 @@
+package com.ling.infrastructure.repository.support;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.ling.domain.interaction.adapter.AggregateVersionConflictException;
+import com.ling.domain.user.model.valobj.Username;
+import com.ling.infrastructure.dao.IAggregateVersionDao;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 聚合根版本存储
+ * @Author: LingRJ
+ * @Description: 以数据库版本号实现聚合根的乐观并发控制，取代按用户加分布式锁。
+ *               保存聚合根前在同一事务中比较并递增版本号，冲突时抛出异常且不写入任何数据；
+ *               行锁持有到事务提交，同一用户的并发保存在数据库中串行，无冲突的保存没有额外的 Redis 往返
+ * @DateTime: 2025/7/20
+ */
+@Component
+@Slf4j
+public class AggregateVersionStore {
+
+    public static final String FAVORITES = "favorites";
+    public static final String COMMENTS = "comments";
+    public static final String GALLERIES = "galleries";
+
+    @Autowired
+    private IAggregateVersionDao aggregateVersionDao;
+
+    /**
+     * 查询当前版本号，未保存过时为 0
+     */
+    public long currentVersion(Username username, String aggregateType) {
+        Long version = aggregateVersionDao.selectVersion(username.getValue(), aggregateType);
+        return version != null ? version : 0L;
+    }
+
+    /**
+     * 版本号等于期望值时递增，须在保存聚合根的事务内调用
+     * @param expectedVersion 聚合根加载时的版本号
+     * @return 递增后的版本号
+     * @throws AggregateVersionConflictException 版本号已被其他请求推进
+     */
+    public long advance(Username username, String aggregateType, long expectedVersion) {
+        int updated = expectedVersion == 0
+                ? aggregateVersionDao.insertInitial(username.getValue(), aggregateType)
+                : aggregateVersionDao.compareAndIncrement(username.getValue(), aggregateType, expectedVersion);
+        if (updated == 0) {
+            log.info("聚合根版本冲突: {} - {} - 期望版本: {}", aggregateType, username.getValue(), expectedVersion);
+            throw new AggregateVersionConflictException(aggregateType, username.getValue(), expectedVersion);
+        }
+        return expectedVersion + 1;
+    }
+}
@@ -0,0 +1,90 @@
+package com.ling.infrastructure.repository.support;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+import com.ling.domain.interaction.model.valobj.ChangeTracker;
+
+/**
+ * 变更批次
+ * @Author: LingRJ
+ * @Description: 按聚合根中各变更实体的最终状态划分写入集合，供增量保存按集合写入：
+ *               仍存在的实体以一条多行 INSERT … ON DUPLICATE KEY UPDATE 写入，已移除的实体以一条 UPDATE … IN 逻辑删除。
+ *               同一实体的多次变更只写一次，语句数与变更条数无关；超过单条语句上限时按 {@link #MAX_STATEMENT_ROWS} 分段
+ * @DateTime: 2025/7/20
+ */
+public final class ChangeBatch<K, E> {
+
+    /**
+     * 单条语句最多携带的行数，避免超出 max_allowed_packet
+     */
+    public static final int MAX_STATEMENT_ROWS = 500;
+
+    private final Map<K, E> upserts = new LinkedHashMap<>();
+
+    private final Set<K> deletes = new LinkedHashSet<>();
+
+    private ChangeBatch() {
+    }
+
+    /**
+     * 归并变更记录
+     * @param changes 同一实体类型的变更记录
+     * @param idType 实体ID类型
+     * @param finalState 按实体ID查询聚合根中的最终状态，为空表示实体已移除
+     */
+    public static <K, E> ChangeBatch<K, E> of(Collection<ChangeTracker.ChangeRecord> changes, Class<K> idType,
+                                              Function<K, Optional<E>> finalState) {
+        ChangeBatch<K, E> batch = new ChangeBatch<>();
+        Set<K> entityIds = new LinkedHashSet<>();
+        for (ChangeTracker.ChangeRecord change : changes) {
+            entityIds.add(idType.cast(change.getEntityId()));
+        }
+        for (K entityId : entityIds) {
+            Optional<E> entity = finalState.apply(entityId);
+            if (entity.isPresent()) {
+                batch.upserts.put(entityId, entity.get());
+            } else {
+                batch.deletes.add(entityId);
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * 最终仍存在的实体（新增或修改）
+     */
+    public Map<K, E> getUpserts() {
+        return upserts;
+    }
+
+    /**
+     * 最终已移除的实体ID。逻辑删除语句只作用于未删除的记录，本批次新增后又移除的实体不会写入数据库
+     */
+    public Set<K> getDeletes() {
+        return deletes;
+    }
+
+    public boolean isEmpty() {
+        return upserts.isEmpty() && deletes.isEmpty();
+    }
+
+    /**
+     * 按单条语句上限分段
+     */
+    public static <T> List<List<T>> chunks(Collection<T> items) {
+        List<T> list = items instanceof List<T> l ? l : new ArrayList<>(items);
+        List<List<T>> chunks = new ArrayList<>();
+        for (int i = 0; i < list.size(); i += MAX_STATEMENT_ROWS) {
+            chunks.add(list.subList(i, Math.min(i + MAX_STATEMENT_ROWS, list.size())));
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,47 @@
+package com.ling.infrastructure.repository.support;
+
+import org.springframework.dao.IncorrectUpdateSemanticsDataAccessException;
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 仓储事务辅助
+ * @Author: LingRJ
+ * @Description: 仓储写方法捕获异常后返回 false，异常不会传出事务切面，必须显式标记回滚，
+ *               否则已执行的分段语句会与版本号递增一起提交，而提交后的缓存与索引更新不会执行
+ * @DateTime: 2025/7/20
+ */
+public final class RepositoryTransactions {
+
+    private RepositoryTransactions() {
+    }
+
+    /**
+     * 校验分段语句的影响行数，不符时抛出异常
+     * @param statement 语句说明，用于异常信息
+     * @param expected 期望行数
+     * @param actual 实际行数
+     * @param atLeast 为 true 时实际行数不少于期望即可（upsert 更新已有记录计 2 行）
+     */
+    public static void requireAffected(String statement, int expected, int actual, boolean atLeast) {
+        if (atLeast ? actual < expected : actual != expected) {
+            throw new IncorrectUpdateSemanticsDataAccessException(
+                    String.format("%s影响行数不符: 期望=%d, 实际=%d", statement, expected, actual));
+        }
+    }
+
+    /**
+     * 将当前事务标记为只回滚；不在事务切面内时不做处理
+     */
+    public static void markRollbackOnly() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return;
+        }
+        try {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+        } catch (NoTransactionException e) {
+            // 编程式事务由调用方自行处理回滚
+        }
+    }
+}
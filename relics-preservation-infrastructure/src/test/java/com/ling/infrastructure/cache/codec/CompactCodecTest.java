@@ -0,0 +1,200 @@
+package com.ling.infrastructure.cache.codec;
+
+import com.ling.domain.interaction.model.entity.UserFavorites;
+import com.ling.domain.interaction.model.valobj.FavoriteAction;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.redisson.client.codec.Codec;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.client.handler.State;
+import org.redisson.codec.JsonJacksonCodec;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CompactCodec单元测试
+ * @Author: LingRJ
+ * @Description: 测试紧凑编解码器的帧格式、LZ4 压缩阈值与后备 JSON 编码的兼容
+ * @DateTime: 2025/7/20
+ */
+@DisplayName("紧凑编解码器测试")
+class CompactCodecTest {
+
+    private static final int THRESHOLD = 64;
+
+    private static final int FLAG_LZ4 = 0x01;
+
+    @Test
+    @DisplayName("已注册类型 - 写为紧凑帧并往返一致")
+    void testSerializerFrame() throws IOException {
+        // Given
+        CompactCodec codec = codec(new StringCodec(), 0);
+        UserFavorites userFavorites = UserFavoritesSerializerTest.userFavorites(favorites(3), 2L);
+
+        // When
+        byte[] encoded = encode(codec, userFavorites);
+
+        // Then
+        assertEquals(CompactCodec.MAGIC, encoded[0]);
+        assertEquals(0, encoded[1]);
+        assertEquals(UserFavoritesSerializer.TYPE_ID, encoded[2]);
+        UserFavoritesSerializerTest.assertSameAggregate(userFavorites, (UserFavorites) decode(codec, encoded));
+    }
+
+    @Test
+    @DisplayName("一万条收藏 - 压缩后往返一致")
+    void testCompressedRoundTrip() throws IOException {
+        // Given
+        CompactCodec codec = codec(new StringCodec(), 1024);
+        UserFavorites userFavorites = UserFavoritesSerializerTest.userFavorites(favorites(10_000), 9L);
+
+        // When
+        byte[] encoded = encode(codec, userFavorites);
+
+        // Then
+        assertEquals(FLAG_LZ4, encoded[1]);
+        assertTrue(encoded.length < encode(codec(new StringCodec(), 0), userFavorites).length);
+        UserFavoritesSerializerTest.assertSameAggregate(userFavorites, (UserFavorites) decode(codec, encoded));
+    }
+
+    @Test
+    @DisplayName("紧凑帧压缩阈值边界 - 载荷等于阈值时压缩，小于阈值时不压缩")
+    void testSerializerThresholdBoundary() throws IOException {
+        // Given：不压缩时帧头 3 字节之后即为载荷
+        UserFavorites userFavorites = UserFavoritesSerializerTest.userFavorites(favorites(200), 1L);
+        int payloadLength = encode(codec(new StringCodec(), 0), userFavorites).length - 3;
+
+        // When
+        byte[] atThreshold = encode(codec(new StringCodec(), payloadLength), userFavorites);
+        byte[] belowThreshold = encode(codec(new StringCodec(), payloadLength + 1), userFavorites);
+
+        // Then
+        assertEquals(FLAG_LZ4, atThreshold[1]);
+        assertEquals(0, belowThreshold[1]);
+        assertEquals(payloadLength + 3, belowThreshold.length);
+        UserFavoritesSerializerTest.assertSameAggregate(userFavorites,
+                (UserFavorites) decode(codec(new StringCodec(), payloadLength), atThreshold));
+        UserFavoritesSerializerTest.assertSameAggregate(userFavorites,
+                (UserFavorites) decode(codec(new StringCodec(), payloadLength + 1), belowThreshold));
+    }
+
+    @Test
+    @DisplayName("后备编码阈值边界 - 低于阈值不加帧头，达到阈值压缩成帧")
+    void testFallbackThresholdBoundary() throws IOException {
+        // Given
+        CompactCodec codec = codec(new StringCodec(), THRESHOLD);
+        String below = "a".repeat(THRESHOLD - 1);
+        String atThreshold = "a".repeat(THRESHOLD);
+
+        // When
+        byte[] belowEncoded = encode(codec, below);
+        byte[] atEncoded = encode(codec, atThreshold);
+
+        // Then
+        assertArrayEquals(below.getBytes(StandardCharsets.UTF_8), belowEncoded);
+        assertEquals(CompactCodec.MAGIC, atEncoded[0]);
+        assertEquals(FLAG_LZ4, atEncoded[1]);
+        assertEquals(0, atEncoded[2]);
+        assertEquals(below, decode(codec, belowEncoded));
+        assertEquals(atThreshold, decode(codec, atEncoded));
+    }
+
+    @Test
+    @DisplayName("压缩后未变小 - 保留原始数据")
+    void testIncompressiblePayload() throws IOException {
+        // Given
+        CompactCodec codec = codec(new StringCodec(), THRESHOLD);
+        Random random = new Random(42);
+        StringBuilder value = new StringBuilder();
+        for (int i = 0; i < THRESHOLD * 4; i++) {
+            value.append((char) ('!' + random.nextInt(94)));
+        }
+
+        // When
+        byte[] encoded = encode(codec, value.toString());
+
+        // Then
+        assertEquals(CompactCodec.MAGIC, encoded[0]);
+        assertEquals(0, encoded[1]);
+        assertEquals(value.length() + 3, encoded.length);
+        assertEquals(value.toString(), decode(codec, encoded));
+    }
+
+    @Test
+    @DisplayName("未注册类型 - 与后备 JSON 编码逐字节一致，旧 JSON 缓存可直接读取")
+    void testUnframedJsonFallback() throws IOException {
+        // Given
+        JsonJacksonCodec json = new JsonJacksonCodec();
+        CompactCodec codec = codec(json, 1024);
+        Map<String, String> value = new HashMap<>();
+        value.put("relicsId", "42");
+        value.put("name", "青铜鼎");
+        byte[] legacy = encode(json, value);
+
+        // When
+        byte[] encoded = encode(codec, value);
+
+        // Then
+        assertNotEquals(CompactCodec.MAGIC, encoded[0]);
+        assertArrayEquals(legacy, encoded);
+        assertEquals(value, decode(codec, legacy));
+    }
+
+    @Test
+    @DisplayName("未知的类型标识 - 解码失败")
+    void testUnknownTypeId() {
+        CompactCodec codec = codec(new StringCodec(), 0);
+
+        assertThrows(IOException.class, () -> decode(codec, new byte[]{CompactCodec.MAGIC, 0, 9, 1}));
+    }
+
+    @Test
+    @DisplayName("类型标识重复 - 构造失败")
+    void testDuplicateTypeId() {
+        assertThrows(IllegalArgumentException.class, () -> new CompactCodec(new StringCodec(),
+                List.of(new UserFavoritesSerializer(), new UserFavoritesSerializer()), 0));
+    }
+
+    private static CompactCodec codec(Codec fallback, int threshold) {
+        return new CompactCodec(fallback, List.of(new UserFavoritesSerializer()), threshold);
+    }
+
+    private static List<FavoriteAction> favorites(int count) {
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 0, 0);
+        List<FavoriteAction> favorites = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            favorites.add(FavoriteAction.fromDatabase(1000L + i * 7L, base.plusMinutes(i * 37L), i % 10 == 0));
+        }
+        return favorites;
+    }
+
+    private static byte[] encode(Codec codec, Object value) throws IOException {
+        ByteBuf buf = codec.getValueEncoder().encode(value);
+        try {
+            return ByteBufUtil.getBytes(buf);
+        } finally {
+            buf.release();
+        }
+    }
+
+    private static Object decode(Codec codec, byte[] bytes) throws IOException {
+        ByteBuf buf = Unpooled.wrappedBuffer(bytes);
+        try {
+            return codec.getValueDecoder().decode(buf, new State());
+        } finally {
+            buf.release();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.ling.infrastructure.cache.codec;
+
+import com.ling.domain.interaction.model.entity.UserFavorites;
+import com.ling.domain.interaction.model.valobj.FavoriteAction;
+import com.ling.domain.user.model.valobj.Username;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * UserFavoritesSerializer单元测试
+ * @Author: LingRJ
+ * @Description: 测试用户收藏聚合根二进制格式的往返一致性与旧格式兼容
+ * @DateTime: 2025/7/20
+ */
+@DisplayName("用户收藏序列化器测试")
+class UserFavoritesSerializerTest {
+
+    private static final LocalDateTime CREATE_TIME = LocalDateTime.of(2024, 7, 20, 8, 30, 15, 123_000_000);
+    private static final LocalDateTime UPDATE_TIME = LocalDateTime.of(2025, 7, 20, 9, 0);
+
+    private final UserFavoritesSerializer serializer = new UserFavoritesSerializer();
+
+    @Test
+    @DisplayName("无收藏 - 往返一致")
+    void testRoundTripEmpty() {
+        // Given
+        UserFavorites userFavorites = userFavorites(List.of(), 3L);
+
+        // When
+        UserFavorites decoded = roundTrip(userFavorites);
+
+        // Then
+        assertSameAggregate(userFavorites, decoded);
+        assertEquals(0, decoded.getFavoriteCount());
+    }
+
+    @Test
+    @DisplayName("单条收藏 - 往返一致")
+    void testRoundTripSingle() {
+        // Given
+        UserFavorites userFavorites = userFavorites(
+                List.of(FavoriteAction.fromDatabase(42L, CREATE_TIME.plusDays(1), false)), 1L);
+
+        // When
+        UserFavorites decoded = roundTrip(userFavorites);
+
+        // Then
+        assertSameAggregate(userFavorites, decoded);
+        assertTrue(decoded.isFavorited(42L));
+    }
+
+    @Test
+    @DisplayName("一万条收藏（含已取消、早于聚合根创建时间） - 往返一致")
+    void testRoundTripTenThousand() {
+        // Given
+        List<FavoriteAction> favorites = new ArrayList<>();
+        for (int i = 1; i <= 10_000; i++) {
+            long relicsId = 1000L + i * 7L + (i % 5);
+            LocalDateTime time = CREATE_TIME.plusSeconds(i * 37L - 5_000).withNano(i % 1000);
+            favorites.add(FavoriteAction.fromDatabase(relicsId, time, i % 10 == 0));
+        }
+        UserFavorites userFavorites = userFavorites(favorites, Long.MAX_VALUE);
+
+        // When
+        UserFavorites decoded = roundTrip(userFavorites);
+
+        // Then
+        assertSameAggregate(userFavorites, decoded);
+        assertEquals(9_000, decoded.getFavoriteCount());
+    }
+
+    @Test
+    @DisplayName("旧格式缓存不含版本号 - 按 0 读取")
+    void testLegacyWithoutVersion() {
+        // Given：版本号小于 128 时末尾只占 1 字节，去掉后即为旧格式
+        UserFavorites userFavorites = userFavorites(
+                List.of(FavoriteAction.fromDatabase(7L, CREATE_TIME, false)), 5L);
+        ByteBuf buf = Unpooled.buffer();
+        serializer.write(userFavorites, buf);
+        assertEquals(5, buf.getByte(buf.writerIndex() - 1));
+        buf.writerIndex(buf.writerIndex() - 1);
+
+        // When
+        UserFavorites decoded = serializer.read(buf);
+
+        // Then
+        assertEquals(0L, decoded.getVersion());
+        assertTrue(decoded.isFavorited(7L));
+        assertFalse(decoded.hasChanges());
+    }
+
+    private UserFavorites roundTrip(UserFavorites userFavorites) {
+        ByteBuf buf = Unpooled.buffer();
+        try {
+            serializer.write(userFavorites, buf);
+            UserFavorites decoded = serializer.read(buf);
+            assertFalse(buf.isReadable());
+            return decoded;
+        } finally {
+            buf.release();
+        }
+    }
+
+    static UserFavorites userFavorites(List<FavoriteAction> favorites, long version) {
+        UserFavorites userFavorites = UserFavorites.fromDatabase(Username.of("testuser"), favorites,
+                CREATE_TIME, UPDATE_TIME);
+        userFavorites.markPersisted(version);
+        return userFavorites;
+    }
+
+    static void assertSameAggregate(UserFavorites expected, UserFavorites actual) {
+        assertEquals(expected.getUsername(), actual.getUsername());
+        assertEquals(expected.getCreateTime(), actual.getCreateTime());
+        assertEquals(expected.getUpdateTime(), actual.getUpdateTime());
+        assertEquals(expected.getVersion(), actual.getVersion());
+        assertEquals(describe(expected), describe(actual));
+    }
+
+    /**
+     * FavoriteAction 只按文物ID与删除标记判等，逐项比较时带上收藏时间
+     */
+    private static List<String> describe(UserFavorites userFavorites) {
+        return userFavorites.getFavorites().stream()
+                .sorted(Comparator.comparing(FavoriteAction::getRelicsId))
+                .map(favorite -> favorite.getRelicsId() + ":" + favorite.isDeleted() + ":" + favorite.getCreateTime())
+                .toList();
+    }
+}
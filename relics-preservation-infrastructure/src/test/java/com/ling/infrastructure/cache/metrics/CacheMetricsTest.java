@@ -0,0 +1,70 @@
+package com.ling.infrastructure.cache.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CacheMetrics单元测试
+ * @Author: LingRJ
+ * @Description: 测试两级读取的命中统计：本地未命中不计入最终未命中
+ * @DateTime: 2025/7/20
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("缓存指标测试")
+class CacheMetricsTest {
+
+    @Spy
+    private MeterRegistry registry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private CacheMetrics cacheMetrics;
+
+    @BeforeEach
+    void setUp() {
+        cacheMetrics.init();
+    }
+
+    @Test
+    @DisplayName("批量读取 - 本地未命中记为 near.misses，gets 的未命中只含 Redis 未命中")
+    void testLocalMissesRecordedSeparately() {
+        // Given：10 个键本地命中 4 个，其余 6 个查 Redis 命中 5 个
+        cacheMetrics.recordGets(CacheMetrics.STATUS, CacheMetrics.TIER_LOCAL, 4, 6);
+        cacheMetrics.recordGets(CacheMetrics.STATUS, CacheMetrics.TIER_REMOTE, 5, 1);
+
+        // When
+        double misses = registry.find("relics.cache.gets").tag("result", "miss").counters().stream()
+                .mapToDouble(c -> c.count()).sum();
+        double hits = registry.find("relics.cache.gets").tag("result", "hit").counters().stream()
+                .mapToDouble(c -> c.count()).sum();
+
+        // Then
+        assertEquals(1.0, misses);
+        assertEquals(9.0, hits);
+        assertEquals(6.0, registry.get("relics.cache.near.misses").tag("cache", CacheMetrics.STATUS).counter().count());
+    }
+
+    @Test
+    @DisplayName("单键读取 - 本地未命中后 Redis 未命中，最终未命中只记一次")
+    void testSingleGetMiss() {
+        // Given
+        cacheMetrics.recordLocalMiss(CacheMetrics.FAVORITES, 1);
+        cacheMetrics.recordMiss(CacheMetrics.FAVORITES);
+
+        // When
+        double misses = registry.find("relics.cache.gets").tag("result", "miss").counters().stream()
+                .mapToDouble(c -> c.count()).sum();
+
+        // Then
+        assertEquals(1.0, misses);
+        assertEquals(1.0, registry.get("relics.cache.near.misses").counter().count());
+    }
+}
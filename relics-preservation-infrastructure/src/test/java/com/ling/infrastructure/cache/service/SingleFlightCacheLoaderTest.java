@@ -0,0 +1,257 @@
+package com.ling.infrastructure.cache.service;
+
+import com.ling.infrastructure.cache.metrics.CacheMetrics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.lang.reflect.Field;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * SingleFlightCacheLoader单元测试
+ * @Author: LingRJ
+ * @Description: 测试并发未命中只回源一次、加载者失败与等待超时时的降级回源，以及过期前刷新发现数据已删除时的处理
+ * @DateTime: 2025/7/20
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("单飞缓存加载器测试")
+class SingleFlightCacheLoaderTest {
+
+    private static final String KEY = "user:favorites:testuser";
+
+    private static final Duration TTL = Duration.ofMinutes(10);
+
+    private static final int THREADS = 8;
+
+    @Mock
+    private TieredCacheService tieredCacheService;
+
+    @Mock
+    private CacheMetrics cacheMetrics;
+
+    @InjectMocks
+    private SingleFlightCacheLoader loader;
+
+    /**
+     * 代替 Redis 的缓存内容
+     */
+    private final Map<String, Object> cache = new ConcurrentHashMap<>();
+
+    private final AtomicInteger cacheReads = new AtomicInteger();
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        setField("refreshExecutor", (Executor) Runnable::run);
+        setField("waitTimeout", Duration.ofSeconds(5));
+        when(cacheMetrics.timeLoad(anyString(), any(Supplier.class)))
+                .thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(1)).get());
+        when(tieredCacheService.getEntry(KEY)).thenAnswer(invocation -> {
+            cacheReads.incrementAndGet();
+            Object value = cache.get(KEY);
+            return value == null ? Optional.empty() : Optional.of(new TieredCacheService.CacheEntry<>(value, TTL.toMillis()));
+        });
+        doAnswer(invocation -> cache.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(tieredCacheService).put(anyString(), any(), any());
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("并发未命中 - 只回源一次，其余请求读取加载者写入的缓存")
+    void testConcurrentMissesLoadOnce() throws Exception {
+        // Given：加载者阻塞到所有请求都已读过缓存
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<Optional<String>> source = () -> {
+            loads.incrementAndGet();
+            await(release);
+            return Optional.of("value");
+        };
+
+        // When
+        List<Future<Optional<String>>> results = submit(() -> loader.getOrLoad(KEY, TTL, source));
+        awaitCacheReads(THREADS);
+        release.countDown();
+
+        // Then
+        for (Future<Optional<String>> result : results) {
+            assertEquals(Optional.of("value"), result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        verify(tieredCacheService, times(1)).put(eq(KEY), eq("value"), any());
+        assertEquals(0, loader.inFlightCount());
+    }
+
+    @Test
+    @DisplayName("加载者失败 - 加载者抛出异常，等待者各自回源")
+    void testLeaderFailureFallback() throws Exception {
+        // Given：第一次回源阻塞后失败，之后的回源成功
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<Optional<String>> source = () -> {
+            if (loads.getAndIncrement() == 0) {
+                await(release);
+                throw new IllegalStateException("数据库不可用");
+            }
+            return Optional.of("value");
+        };
+
+        // When
+        List<Future<Optional<String>>> results = submit(() -> loader.getOrLoad(KEY, TTL, source));
+        awaitCacheReads(THREADS);
+        release.countDown();
+
+        // Then
+        int failures = 0;
+        for (Future<Optional<String>> result : results) {
+            try {
+                assertEquals(Optional.of("value"), result.get(5, TimeUnit.SECONDS));
+            } catch (ExecutionException e) {
+                assertInstanceOf(IllegalStateException.class, e.getCause());
+                failures++;
+            }
+        }
+        assertEquals(1, failures);
+        assertEquals(THREADS, loads.get());
+        assertEquals(0, loader.inFlightCount());
+    }
+
+    @Test
+    @DisplayName("等待加载者超时 - 等待者直接回源，不等加载者完成")
+    void testWaitTimeoutFallback() throws Exception {
+        // Given：加载者一直阻塞
+        setField("waitTimeout", Duration.ofMillis(100));
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<Optional<String>> source = () -> {
+            if (loads.getAndIncrement() == 0) {
+                await(release);
+            }
+            return Optional.of("value");
+        };
+        Future<Optional<String>> leader = executor.submit(() -> loader.getOrLoad(KEY, TTL, source));
+        awaitCacheReads(1);
+        while (loader.inFlightCount() == 0) {
+            Thread.onSpinWait();
+        }
+
+        try {
+            // When
+            Optional<String> follower = executor.submit(() -> loader.getOrLoad(KEY, TTL, source)).get(5, TimeUnit.SECONDS);
+
+            // Then
+            assertEquals(Optional.of("value"), follower);
+            assertEquals(2, loads.get());
+            assertFalse(leader.isDone());
+        } finally {
+            release.countDown();
+        }
+        assertEquals(Optional.of("value"), leader.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("过期前刷新发现带版本号的聚合根已删除 - 删除旧值，不再返回到过期")
+    void testRefreshEvictsDeletedVersionedAggregate() {
+        // Given：缓存即将过期，刷新时数据已不存在；已记录版本号，空值标记不会写入
+        when(tieredCacheService.getEntry(KEY))
+                .thenReturn(Optional.of(new TieredCacheService.CacheEntry<>("stale", 1_000L)));
+        when(tieredCacheService.putNullIfUnversioned(eq(KEY), any())).thenReturn(false);
+
+        // When
+        Optional<String> result = loader.getOrLoad(KEY, TTL, Optional::<String>empty, value -> 3L);
+
+        // Then：本次仍返回旧值，刷新删除缓存
+        assertEquals(Optional.of("stale"), result);
+        verify(tieredCacheService).putNullIfUnversioned(eq(KEY), any());
+        verify(tieredCacheService).evict(KEY);
+    }
+
+    @Test
+    @DisplayName("过期前刷新发现未带版本号的数据已删除 - 由空值标记覆盖，不额外删除")
+    void testRefreshOverwritesDeletedUnversionedValue() {
+        // Given
+        when(tieredCacheService.getEntry(KEY))
+                .thenReturn(Optional.of(new TieredCacheService.CacheEntry<>("stale", 1_000L)));
+
+        // When
+        loader.getOrLoad(KEY, TTL, Optional::<String>empty);
+
+        // Then
+        verify(tieredCacheService).put(eq(KEY), any(), any());
+        verify(tieredCacheService, never()).evict(any(String[].class));
+    }
+
+    private List<Future<Optional<String>>> submit(Callable<Optional<String>> task) {
+        List<Future<Optional<String>>> results = new ArrayList<>(THREADS);
+        for (int i = 0; i < THREADS; i++) {
+            results.add(executor.submit(task));
+        }
+        return results;
+    }
+
+    /**
+     * 等待所有请求都已读过一次缓存，再给未命中的请求留出进入单飞等待的时间
+     */
+    private void awaitCacheReads(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (cacheReads.get() < count && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        Thread.sleep(100);
+    }
+
+    /**
+     * 设置由 Spring 注入的私有配置字段
+     */
+    private void setField(String name, Object value) {
+        try {
+            Field field = SingleFlightCacheLoader.class.getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(loader, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.ling.infrastructure.cache.service;
+
+import com.ling.infrastructure.cache.metrics.CacheMetrics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.redisson.api.RBatch;
+import org.redisson.api.RBucket;
+import org.redisson.api.RBucketAsync;
+import org.redisson.api.RBuckets;
+import org.redisson.api.RFuture;
+import org.redisson.api.RKeys;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.listener.MessageListener;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.config.Config;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * TieredCacheService单元测试
+ * @Author: LingRJ
+ * @Description: 测试两级缓存的读取路径：Redis 命中回填本地缓存，回源期间发生失效时不回填
+ * @DateTime: 2025/7/20
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("两级缓存读取路径测试")
+class TieredCacheServiceTest {
+
+    // 两个键落在不同的失效计数分段
+    private static final String KEY = "user:comments:alice";
+    private static final String OTHER_KEY = "user:comments:bob";
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private CacheMetrics cacheMetrics;
+
+    @Mock
+    private RTopic invalidationTopic;
+
+    @Mock
+    private RBucket<Object> bucket;
+
+    @Mock
+    private RKeys keys;
+
+    @InjectMocks
+    private TieredCacheService tieredCacheService;
+
+    private MessageListener<TieredCacheService.InvalidationMessage> invalidationListener;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        Config config = new Config();
+        config.setCodec(StringCodec.INSTANCE);
+        when(redissonClient.getConfig()).thenReturn(config);
+        when(redissonClient.getTopic(anyString())).thenReturn(invalidationTopic);
+        when(redissonClient.getBucket(anyString())).thenReturn((RBucket) mock(RBucket.class));
+        when(redissonClient.getBucket(KEY)).thenReturn((RBucket) bucket);
+        when(redissonClient.getKeys()).thenReturn(keys);
+        when(cacheMetrics.timeRedis(anyString(), anyString(), any(Supplier.class)))
+                .thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(2)).get());
+        ArgumentCaptor<MessageListener<TieredCacheService.InvalidationMessage>> listener =
+                ArgumentCaptor.forClass(MessageListener.class);
+        when(invalidationTopic.addListener(eq(TieredCacheService.InvalidationMessage.class), listener.capture()))
+                .thenReturn(1);
+
+        tieredCacheService.init();
+        invalidationListener = listener.getValue();
+    }
+
+    @Test
+    @DisplayName("Redis 命中 - 回填本地缓存，再次读取不访问 Redis")
+    void testRemoteHitFillsLocal() {
+        // Given
+        when(bucket.get()).thenReturn("v1");
+
+        // When
+        Optional<String> first = tieredCacheService.get(KEY);
+        Optional<String> second = tieredCacheService.get(KEY);
+
+        // Then
+        assertEquals(Optional.of("v1"), first);
+        assertEquals(Optional.of("v1"), second);
+        verify(bucket, times(1)).get();
+    }
+
+    @Test
+    @DisplayName("回源期间收到其他节点的失效广播 - 不回填本地缓存")
+    void testRemoteInvalidationDuringGet() {
+        // Given：Redis 返回旧值的同时，其他节点已更新并广播失效
+        when(bucket.get()).thenAnswer(invocation -> {
+            invalidationListener.onMessage("topic", new TieredCacheService.InvalidationMessage("other-node", List.of(KEY)));
+            return "stale";
+        }).thenReturn("fresh");
+
+        // When
+        Optional<String> first = tieredCacheService.get(KEY);
+        Optional<String> second = tieredCacheService.get(KEY);
+
+        // Then
+        assertEquals(Optional.of("stale"), first);
+        assertEquals(Optional.of("fresh"), second);
+        verify(bucket, times(2)).get();
+    }
+
+    @Test
+    @DisplayName("回源期间本节点删除缓存 - 不回填本地缓存")
+    void testLocalEvictDuringGet() {
+        // Given
+        when(bucket.get()).thenAnswer(invocation -> {
+            tieredCacheService.evict(KEY);
+            return "stale";
+        }).thenReturn("fresh");
+
+        // When
+        tieredCacheService.get(KEY);
+        Optional<String> second = tieredCacheService.get(KEY);
+
+        // Then
+        assertEquals(Optional.of("fresh"), second);
+        verify(bucket, times(2)).get();
+    }
+
+    @Test
+    @DisplayName("回源期间本节点写入新值 - 读到的旧值不覆盖本地副本")
+    void testLocalPutDuringGet() {
+        // Given
+        when(bucket.get()).thenAnswer(invocation -> {
+            tieredCacheService.put(KEY, "fresh", Duration.ofMinutes(1));
+            return "stale";
+        });
+
+        // When
+        tieredCacheService.get(KEY);
+        Optional<String> second = tieredCacheService.get(KEY);
+
+        // Then：本地副本保持新写入的值
+        assertEquals(Optional.of("fresh"), second);
+        verify(bucket, times(1)).get();
+    }
+
+    @Test
+    @DisplayName("带过期时间读取期间收到失效广播 - 不回填本地缓存")
+    @SuppressWarnings("unchecked")
+    void testInvalidationDuringGetEntry() {
+        // Given
+        RBatch batch = mock(RBatch.class);
+        RBucketAsync<Object> asyncBucket = mock(RBucketAsync.class);
+        RFuture<Object> valueFuture = mock(RFuture.class);
+        RFuture<Long> ttlFuture = mock(RFuture.class);
+        when(redissonClient.createBatch()).thenReturn(batch);
+        when(batch.getBucket(KEY)).thenReturn((RBucketAsync) asyncBucket);
+        when(asyncBucket.getAsync()).thenReturn(valueFuture);
+        when(asyncBucket.remainTimeToLiveAsync()).thenReturn(ttlFuture);
+        when(valueFuture.toCompletableFuture()).thenReturn(CompletableFuture.completedFuture("stale"));
+        when(ttlFuture.toCompletableFuture()).thenReturn(CompletableFuture.completedFuture(60_000L));
+        when(batch.execute()).thenAnswer(invocation -> {
+            invalidationListener.onMessage("topic", new TieredCacheService.InvalidationMessage("other-node", List.of(KEY)));
+            return null;
+        });
+
+        // When
+        Optional<TieredCacheService.CacheEntry<String>> entry = tieredCacheService.getEntry(KEY);
+
+        // Then
+        assertTrue(entry.isPresent());
+        assertEquals(60_000L, entry.get().remainingTtlMillis());
+        assertEquals(0, tieredCacheService.localSize());
+    }
+
+    @Test
+    @DisplayName("批量读取期间部分键失效 - 只回填未失效的键")
+    @SuppressWarnings("unchecked")
+    void testInvalidationDuringGetAll() {
+        // Given
+        RBuckets buckets = mock(RBuckets.class);
+        when(redissonClient.getBuckets()).thenReturn(buckets);
+        when(buckets.get(any(String[].class))).thenAnswer(invocation -> {
+            invalidationListener.onMessage("topic", new TieredCacheService.InvalidationMessage("other-node", List.of(KEY)));
+            return Map.of(KEY, "stale", OTHER_KEY, "v2");
+        }).thenReturn(Map.of(KEY, "fresh"));
+
+        // When
+        Map<String, String> first = tieredCacheService.getAll(List.of(KEY, OTHER_KEY));
+        Map<String, String> second = tieredCacheService.getAll(List.of(KEY, OTHER_KEY));
+
+        // Then
+        assertEquals(Map.of(KEY, "stale", OTHER_KEY, "v2"), first);
+        assertEquals(Map.of(KEY, "fresh", OTHER_KEY, "v2"), second);
+        ArgumentCaptor<String[]> mget = ArgumentCaptor.forClass(String[].class);
+        verify(buckets, times(2)).get(mget.capture());
+        assertArrayEquals(new String[]{KEY}, mget.getAllValues().get(1));
+    }
+
+    @Test
+    @DisplayName("自己发出的失效广播 - 忽略")
+    void testOwnInvalidationIgnored() {
+        // Given
+        when(bucket.get()).thenReturn("v1");
+        tieredCacheService.get(KEY);
+        ArgumentCaptor<TieredCacheService.InvalidationMessage> published =
+                ArgumentCaptor.forClass(TieredCacheService.InvalidationMessage.class);
+        tieredCacheService.put(OTHER_KEY, "v2", Duration.ofMinutes(1));
+        verify(invalidationTopic).publish(published.capture());
+
+        // When
+        invalidationListener.onMessage("topic",
+                new TieredCacheService.InvalidationMessage(published.getValue().getSourceId(), List.of(KEY)));
+        tieredCacheService.get(KEY);
+
+        // Then
+        verify(bucket, times(1)).get();
+    }
+}
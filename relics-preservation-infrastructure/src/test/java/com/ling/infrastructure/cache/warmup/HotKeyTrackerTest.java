@@ -0,0 +1,119 @@
+package com.ling.infrastructure.cache.warmup;
+
+import com.ling.domain.user.model.valobj.Username;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.redisson.api.RBatch;
+import org.redisson.api.RScoredSortedSetAsync;
+import org.redisson.api.RedissonClient;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * HotKeyTracker单元测试
+ * @Author: LingRJ
+ * @Description: 测试本节点热点排名跨汇总周期保留并按衰减系数更替，Redis 写入失败时不丢失
+ * @DateTime: 2025/7/20
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("热点键跟踪器测试")
+class HotKeyTrackerTest {
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RBatch batch;
+
+    @Mock
+    private RScoredSortedSetAsync<Object> hotSet;
+
+    @InjectMocks
+    private HotKeyTracker hotKeyTracker;
+
+    @BeforeEach
+    void setUp() {
+        when(redissonClient.createBatch()).thenReturn(batch);
+        when(batch.getScoredSortedSet(anyString(), any())).thenReturn(hotSet);
+    }
+
+    @Test
+    @DisplayName("汇总后本节点热点仍保留 - 与当前周期计数合并排名")
+    void testLocalHotKeysSurviveFlush() {
+        // Given
+        record("alice", 5);
+        record("bob", 2);
+        hotKeyTracker.recordRelics(List.of(1001L, 1001L, 1002L));
+
+        // When
+        hotKeyTracker.flush();
+        record("carol", 3);
+
+        // Then
+        assertEquals(List.of("alice", "carol", "bob"), hotKeyTracker.localHotUsers(10));
+        assertEquals(List.of(1001L, 1002L), hotKeyTracker.localHotRelics(10));
+        assertEquals(List.of("alice"), hotKeyTracker.localHotUsers(1));
+    }
+
+    @Test
+    @DisplayName("历史分值按衰减系数缩小 - 持续访问的键超过不再访问的旧热点")
+    void testHistoryDecays() {
+        // Given：alice 只在第一个周期访问，bob 每个周期访问
+        record("alice", 10);
+        record("bob", 3);
+        hotKeyTracker.flush();
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            record("bob", 3);
+            hotKeyTracker.flush();
+        }
+
+        // Then：alice 衰减到 10 * 0.9^10 ≈ 3.5，bob 累计约 20
+        assertEquals(List.of("bob", "alice"), hotKeyTracker.localHotUsers(10));
+    }
+
+    @Test
+    @DisplayName("写入 Redis 失败 - 本节点排名仍保留本周期计数")
+    void testLocalRankingKeptWhenRedisFails() {
+        // Given
+        when(batch.execute()).thenThrow(new IllegalStateException("Redis 不可用"));
+        record("alice", 2);
+
+        // When
+        hotKeyTracker.flush();
+
+        // Then
+        assertEquals(List.of("alice"), hotKeyTracker.localHotUsers(10));
+    }
+
+    @Test
+    @DisplayName("预热线程的访问 - 不计入统计")
+    void testUntrackedAccessIgnored() {
+        // When
+        HotKeyTracker.runUntracked(() -> record("alice", 3));
+        hotKeyTracker.flush();
+
+        // Then
+        assertTrue(hotKeyTracker.localHotUsers(10).isEmpty());
+        verify(redissonClient, never()).createBatch();
+    }
+
+    private void record(String username, int times) {
+        for (int i = 0; i < times; i++) {
+            hotKeyTracker.recordUser(Username.of(username));
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package com.ling.infrastructure.datasource;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.redisson.api.RBucket;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Field;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * ReadWriteRoutingDataSource单元测试
+ * @Author: LingRJ
+ * @Description: 以本地 H2 的两个 schema 分别代替主库与从库，测试只读事务的路由、读己之写强制主库、
+ *               复制延迟超过阈值与从库连接失败时回退主库。H2 不支持 SHOW REPLICA STATUS，复制状态由模拟的连接返回
+ * @DateTime: 2025/7/20
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("读写分离数据源路由测试")
+class ReadWriteRoutingDataSourceTest {
+
+    private static final String URL = "jdbc:h2:mem:routing;DB_CLOSE_DELAY=-1";
+
+    private static final long MAX_LAG_SECONDS = 5;
+
+    @Mock
+    private DataSource statusSource;
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RBucket<String> writeMark;
+
+    private DataSource replica;
+
+    private ReplicaLagMonitor monitor;
+
+    private DataSource routing;
+
+    private TransactionTemplate readOnly;
+
+    private TransactionTemplate readWrite;
+
+    /**
+     * 模拟的从库复制延迟秒数，null 表示复制线程已停止
+     */
+    private Long replicaLag = 0L;
+
+    @BeforeAll
+    static void createSchemas() throws SQLException {
+        DataSource bootstrap = new DriverManagerDataSource(URL, "sa", "");
+        try (Connection connection = bootstrap.getConnection();
+             Statement statement = connection.createStatement()) {
+            for (String schema : new String[]{"PRIMARY_DB", "REPLICA_DB"}) {
+                statement.execute("CREATE SCHEMA IF NOT EXISTS " + schema);
+                statement.execute("CREATE TABLE IF NOT EXISTS " + schema + ".node (name VARCHAR(16))");
+                statement.execute("DELETE FROM " + schema + ".node");
+                statement.execute("INSERT INTO " + schema + ".node VALUES ('" + schema + "')");
+            }
+        }
+    }
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        DataSource primary = new DriverManagerDataSource(URL + ";SCHEMA=PRIMARY_DB", "sa", "");
+        replica = spy(new DriverManagerDataSource(URL + ";SCHEMA=REPLICA_DB", "sa", ""));
+        mockReplicaStatus();
+        monitor = new ReplicaLagMonitor(statusSource, MAX_LAG_SECONDS);
+        routing = new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, replica, monitor));
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+
+        AtomicBoolean written = new AtomicBoolean();
+        when(redissonClient.<String>getBucket(anyString(), eq(StringCodec.INSTANCE))).thenReturn(writeMark);
+        doAnswer(invocation -> {
+            written.set(true);
+            return null;
+        }).when(writeMark).set(anyString(), anyLong(), any());
+        when(writeMark.isExists()).thenAnswer(invocation -> written.get());
+    }
+
+    @Test
+    @DisplayName("从库可用 - 只读事务路由到从库，读写事务走主库")
+    void testReadOnlyRoutedToReplica() {
+        // Given
+        monitor.check();
+
+        // When & Then
+        assertTrue(monitor.isAvailable());
+        assertEquals("REPLICA_DB", readOnly.execute(status -> node()));
+        assertEquals("PRIMARY_DB", readWrite.execute(status -> node()));
+    }
+
+    @Test
+    @DisplayName("首次检查完成前 - 只读事务走主库")
+    void testPrimaryBeforeFirstCheck() throws SQLException {
+        // When & Then
+        assertFalse(monitor.isAvailable());
+        assertEquals("PRIMARY_DB", readOnly.execute(status -> node()));
+        verify(replica, never()).getConnection();
+    }
+
+    @Test
+    @DisplayName("读写事务内调用只读方法 - 沿用外层事务的主库连接")
+    void testReadOnlyJoiningReadWriteStaysOnPrimary() throws SQLException {
+        // Given
+        monitor.check();
+
+        // When
+        String node = readWrite.execute(status -> readOnly.execute(inner -> node()));
+
+        // Then
+        assertEquals("PRIMARY_DB", node);
+        verify(replica, never()).getConnection();
+    }
+
+    @Test
+    @DisplayName("写入后立即回源 - 写入标记有效期间只读事务强制走主库")
+    void testReadAfterWriteStaysOnPrimary() {
+        // Given
+        monitor.check();
+        RecentWriteGuard guard = recentWriteGuard();
+        assertEquals(Optional.of("REPLICA_DB"), guard.read("relics:1001", () -> readOnly.execute(status -> Optional.of(node()))));
+
+        // When
+        guard.markWritten("relics:1001");
+        Optional<String> node = guard.read("relics:1001", () -> readOnly.execute(status -> Optional.of(node())));
+
+        // Then
+        assertEquals(Optional.of("PRIMARY_DB"), node);
+        assertFalse(DataSourceRouting.isPrimaryForced());
+    }
+
+    @Test
+    @DisplayName("强制主库可嵌套 - 退出最外层后恢复按只读标记路由")
+    void testNestedOnPrimary() {
+        // Given
+        monitor.check();
+
+        // When
+        String inner = DataSourceRouting.onPrimary(() -> DataSourceRouting.onPrimary(() -> readOnly.execute(status -> node())));
+        String afterInner = DataSourceRouting.onPrimary(() -> {
+            DataSourceRouting.onPrimary(() -> null);
+            return readOnly.execute(status -> node());
+        });
+
+        // Then
+        assertEquals("PRIMARY_DB", inner);
+        assertEquals("PRIMARY_DB", afterInner);
+        assertEquals("REPLICA_DB", readOnly.execute(status -> node()));
+    }
+
+    @Test
+    @DisplayName("复制延迟超过阈值或复制停止 - 只读事务回退主库，恢复后切回从库")
+    void testLagBeyondThresholdFallsBackToPrimary() {
+        // Given
+        monitor.check();
+        assertEquals("REPLICA_DB", readOnly.execute(status -> node()));
+
+        // When：延迟超过阈值
+        replicaLag = MAX_LAG_SECONDS + 25;
+        monitor.check();
+
+        // Then
+        assertFalse(monitor.isAvailable());
+        assertEquals(MAX_LAG_SECONDS + 25, monitor.getLagSeconds());
+        assertEquals("PRIMARY_DB", readOnly.execute(status -> node()));
+
+        // When：复制线程停止
+        replicaLag = null;
+        monitor.check();
+
+        // Then
+        assertFalse(monitor.isAvailable());
+        assertEquals("PRIMARY_DB", readOnly.execute(status -> node()));
+
+        // When：延迟恢复到阈值以内
+        replicaLag = MAX_LAG_SECONDS;
+        monitor.check();
+
+        // Then
+        assertTrue(monitor.isAvailable());
+        assertEquals("REPLICA_DB", readOnly.execute(status -> node()));
+    }
+
+    @Test
+    @DisplayName("获取从库连接失败 - 本次回退主库并停用从库，之后不再尝试从库")
+    void testReplicaConnectionFailureFallsBackToPrimary() throws SQLException {
+        // Given
+        monitor.check();
+        doThrow(new SQLException("Connection refused")).when(replica).getConnection();
+
+        // When
+        String first = readOnly.execute(status -> node());
+        String second = readOnly.execute(status -> node());
+
+        // Then
+        assertEquals("PRIMARY_DB", first);
+        assertEquals("PRIMARY_DB", second);
+        assertFalse(monitor.isAvailable());
+        verify(replica, times(1)).getConnection();
+    }
+
+    @Test
+    @DisplayName("复制状态检查失败 - 停用从库")
+    void testStatusCheckFailureDisablesReplica() throws SQLException {
+        // Given
+        monitor.check();
+        when(statusSource.getConnection()).thenThrow(new SQLException("Connection refused"));
+
+        // When
+        monitor.check();
+
+        // Then
+        assertFalse(monitor.isAvailable());
+        assertEquals(-1, monitor.getLagSeconds());
+        assertEquals("PRIMARY_DB", readOnly.execute(status -> node()));
+    }
+
+    /**
+     * 在当前事务的连接上查询所在的库
+     */
+    private String node() {
+        Connection connection = DataSourceUtils.getConnection(routing);
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT name FROM node")) {
+            rs.next();
+            return rs.getString(1);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, routing);
+        }
+    }
+
+    private void mockReplicaStatus() throws SQLException {
+        Connection connection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        ResultSet rs = mock(ResultSet.class);
+        ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        when(statusSource.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery("SHOW REPLICA STATUS")).thenReturn(rs);
+        when(rs.next()).thenReturn(true);
+        when(rs.getMetaData()).thenReturn(metaData);
+        when(metaData.getColumnCount()).thenReturn(1);
+        when(metaData.getColumnLabel(1)).thenReturn("Seconds_Behind_Source");
+        when(rs.getLong("Seconds_Behind_Source")).thenAnswer(invocation -> replicaLag == null ? 0L : replicaLag);
+        when(rs.wasNull()).thenAnswer(invocation -> replicaLag == null);
+    }
+
+    /**
+     * 启用从库的读己之写保护，私有字段由 Spring 注入
+     */
+    private RecentWriteGuard recentWriteGuard() {
+        RecentWriteGuard guard = new RecentWriteGuard();
+        setField(guard, "redissonClient", redissonClient);
+        setField(guard, "replicaEnabled", true);
+        return guard;
+    }
+
+    private static void setField(Object target, String name, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.ling.infrastructure.repository;
+
+import com.ling.domain.interaction.model.entity.GalleryManager;
+import com.ling.domain.interaction.model.valobj.CollectionGallery;
+import com.ling.domain.interaction.model.valobj.DisplayStyle;
+import com.ling.domain.interaction.model.valobj.GalleryId;
+import com.ling.domain.interaction.model.valobj.GalleryTheme;
+import com.ling.domain.user.model.valobj.Username;
+import com.ling.infrastructure.cache.service.GalleryManagerCacheService;
+import com.ling.infrastructure.dao.ICollectionGalleryDao;
+import com.ling.infrastructure.dao.IGalleryRelicsDao;
+import com.ling.infrastructure.dao.po.GalleryRelicsPO;
+import com.ling.infrastructure.repository.converter.GalleryManagerConverter;
+import com.ling.infrastructure.repository.support.AggregateVersionStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * GalleryManagerRepositoryImpl单元测试
+ * @Author: LingRJ
+ * @Description: 测试增量保存时收藏馆变更的写入与提交后的缓存清除
+ * @DateTime: 2025/7/20
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("收藏馆管理仓储增量保存测试")
+class GalleryManagerRepositoryImplTest {
+
+    private static final Username USERNAME = Username.of("testuser");
+
+    @Mock
+    private ICollectionGalleryDao collectionGalleryDao;
+
+    @Mock
+    private IGalleryRelicsDao galleryRelicsDao;
+
+    @Spy
+    private GalleryManagerConverter converter;
+
+    @Mock
+    private GalleryManagerCacheService cacheService;
+
+    @Mock
+    private AggregateVersionStore aggregateVersionStore;
+
+    @InjectMocks
+    private GalleryManagerRepositoryImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        when(aggregateVersionStore.advance(eq(USERNAME), eq(AggregateVersionStore.GALLERIES), anyLong()))
+                .thenAnswer(invocation -> (long) invocation.getArgument(2) + 1);
+        when(collectionGalleryDao.batchUpsert(anyList())).thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+        when(collectionGalleryDao.batchDeleteByGalleryIds(anyList()))
+                .thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+        when(galleryRelicsDao.batchInsert(anyList())).thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+    }
+
+    @Test
+    @DisplayName("提交前不清除收藏馆缓存 - 提交后清除列表与已有收藏馆的详情缓存")
+    void testEvictCachesAfterCommit() {
+        // Given
+        CollectionGallery kept = gallery("青铜器馆", 1L, 2L);
+        CollectionGallery removed = gallery("瓷器馆", 3L);
+        GalleryManager galleryManager = persisted(1L, kept, removed);
+        galleryManager.addRelicsToGallery(kept.getGalleryId(), 4L);
+        galleryManager.deleteGallery(removed.getGalleryId());
+        galleryManager.createGallery("玉器馆", "新建", GalleryTheme.JADE, DisplayStyle.GRID, false, null);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When
+            assertTrue(repository.saveIncremental(galleryManager));
+
+            // Then
+            verify(cacheService, never()).evictGalleryListCaches(any());
+            verify(cacheService, never()).evictGalleryDetailCache(anyString());
+            verify(cacheService, never()).evictRelatedCaches(any());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(cacheService).evictGalleryListCaches(USERNAME);
+            verify(cacheService).evictGalleryDetailCache(kept.getGalleryId().getValue());
+            verify(cacheService).evictGalleryDetailCache(removed.getGalleryId().getValue());
+            verify(cacheService, times(2)).evictGalleryDetailCache(anyString());
+            verify(cacheService).evictRelatedCaches(USERNAME);
+            verify(cacheService).cacheGalleryManager(galleryManager);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("增量保存 - 只替换写入的收藏馆的文物关联，新建收藏馆只插入不删除")
+    void testReplaceOnlyTouchedGalleryRelics() {
+        // Given
+        CollectionGallery modified = gallery("青铜器馆", 1L, 2L);
+        CollectionGallery untouched = gallery("瓷器馆", 3L);
+        GalleryManager galleryManager = persisted(1L, modified, untouched);
+        galleryManager.addRelicsToGallery(modified.getGalleryId(), 4L);
+        galleryManager.createGallery("玉器馆", "新建", GalleryTheme.JADE, DisplayStyle.GRID, false, null);
+        CollectionGallery created = galleryManager.getAllGalleries().stream()
+                .filter(gallery -> gallery.getName().equals("玉器馆"))
+                .findFirst()
+                .orElseThrow();
+        galleryManager.addRelicsToGallery(created.getGalleryId(), 5L);
+
+        // When
+        boolean saved = repository.saveIncremental(galleryManager);
+
+        // Then：旧关联只按修改的已有收藏馆删除
+        assertTrue(saved);
+        String modifiedId = modified.getGalleryId().getValue();
+        String createdId = created.getGalleryId().getValue();
+        verify(galleryRelicsDao).deleteByGalleryIds(List.of(modifiedId));
+        ArgumentCaptor<List<GalleryRelicsPO>> inserts = insertCaptor();
+        verify(galleryRelicsDao).batchInsert(inserts.capture());
+        Map<String, List<Long>> relicsByGallery = new HashMap<>();
+        for (GalleryRelicsPO row : inserts.getValue()) {
+            relicsByGallery.computeIfAbsent(row.getGalleryId(), k -> new ArrayList<>()).add(row.getRelicsId());
+        }
+        assertEquals(Map.of(modifiedId, List.of(1L, 2L, 4L), createdId, List.of(5L)), relicsByGallery);
+        assertFalse(relicsByGallery.containsKey(untouched.getGalleryId().getValue()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<List<GalleryRelicsPO>> insertCaptor() {
+        return ArgumentCaptor.forClass(List.class);
+    }
+
+    static CollectionGallery gallery(String name, Long... relicsIds) {
+        LocalDateTime time = LocalDateTime.now().minusDays(1);
+        return CollectionGallery.fromDatabase(GalleryId.generate(), name, "描述", GalleryTheme.BRONZE, DisplayStyle.GRID,
+                List.of(relicsIds), time, time, false, "share" + name.hashCode(), null);
+    }
+
+    private static GalleryManager persisted(long version, CollectionGallery... galleries) {
+        GalleryManager galleryManager = GalleryManager.fromDatabase(USERNAME, new ArrayList<>(List.of(galleries)), null, null);
+        galleryManager.markPersisted(version);
+        return galleryManager;
+    }
+}
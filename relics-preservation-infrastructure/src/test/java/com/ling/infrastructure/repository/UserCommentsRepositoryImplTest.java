@@ -0,0 +1,169 @@
+package com.ling.infrastructure.repository;
+
+import com.ling.domain.interaction.model.entity.UserComments;
+import com.ling.domain.interaction.model.valobj.ChangeTracker;
+import com.ling.domain.interaction.model.valobj.CommentAction;
+import com.ling.domain.interaction.model.valobj.CommentContent;
+import com.ling.domain.interaction.model.valobj.CommentStatus;
+import com.ling.domain.user.model.valobj.Username;
+import com.ling.infrastructure.cache.service.UserCommentsCacheService;
+import com.ling.infrastructure.dao.IUserCommentDao;
+import com.ling.infrastructure.dao.po.UserComment;
+import com.ling.infrastructure.repository.converter.UserCommentsConverter;
+import com.ling.infrastructure.repository.support.AggregateVersionStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * UserCommentsRepositoryImpl单元测试
+ * @Author: LingRJ
+ * @Description: 测试增量保存时评论变更（新增、删除、删除后恢复）的写入与提交后的缓存清除
+ * @DateTime: 2025/7/20
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("用户评论仓储增量保存测试")
+class UserCommentsRepositoryImplTest {
+
+    private static final Username USERNAME = Username.of("testuser");
+
+    @Mock
+    private IUserCommentDao userCommentDao;
+
+    @Spy
+    private UserCommentsConverter converter;
+
+    @Mock
+    private UserCommentsCacheService cacheService;
+
+    @Mock
+    private AggregateVersionStore aggregateVersionStore;
+
+    @InjectMocks
+    private UserCommentsRepositoryImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        when(aggregateVersionStore.advance(eq(USERNAME), eq(AggregateVersionStore.COMMENTS), anyLong()))
+                .thenAnswer(invocation -> (long) invocation.getArgument(2) + 1);
+        when(userCommentDao.batchUpsert(anyList())).thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+        when(userCommentDao.batchSoftDeleteByCommentIds(anyString(), anyList(), any()))
+                .thenAnswer(invocation -> ((List<?>) invocation.getArgument(1)).size());
+    }
+
+    @Test
+    @DisplayName("提交前不清除评论缓存 - 提交后按文物与用户清除")
+    void testEvictCachesAfterCommit() {
+        // Given
+        UserComments userComments = persisted(1L, comment(1001L, 10L, "已有评论"));
+        userComments.addComment(20L, "新增评论");
+        userComments.deleteComment(1001L);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When
+            assertTrue(repository.saveIncremental(userComments));
+
+            // Then
+            verify(cacheService, never()).evictRelicsCommentCaches(anyLong());
+            verify(cacheService, never()).evictRelatedCaches(any());
+            verify(cacheService, never()).cacheUserComments(any());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(cacheService).evictRelicsCommentCaches(10L);
+            verify(cacheService).evictRelicsCommentCaches(20L);
+            verify(cacheService).evictRelatedCaches(USERNAME);
+            verify(cacheService).cacheUserComments(userComments);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("删除后恢复的评论归并为修改 - 以最终内容与审核状态 upsert，不逻辑删除")
+    void testModifiedCommentUpserted() {
+        // Given：已有评论被删除后以新的审核状态恢复，变更跟踪器归并为一条修改
+        CommentAction original = comment(1001L, 10L, "原始评论");
+        UserComments userComments = persisted(1L, original);
+        userComments.deleteComment(1001L);
+        LocalDateTime time = LocalDateTime.now();
+        CommentAction restored = CommentAction.fromDatabase(1001L, 10L, CommentContent.of("修改后的评论"),
+                original.getCreateTime(), time, CommentStatus.REJECTED, false);
+        userComments.getChangeTracker().recordAdd("COMMENT", 1001L, restored);
+        assertEquals(ChangeTracker.ChangeType.MODIFIED,
+                userComments.getCommentChanges().iterator().next().getType());
+
+        // When
+        boolean saved = repository.saveIncremental(userComments);
+
+        // Then
+        assertTrue(saved);
+        ArgumentCaptor<List<UserComment>> upserts = upsertCaptor();
+        verify(userCommentDao).batchUpsert(upserts.capture());
+        UserComment row = upserts.getValue().get(0);
+        assertEquals(1, upserts.getValue().size());
+        assertEquals(1001L, row.getCommentId());
+        assertEquals("修改后的评论", row.getContent());
+        assertEquals(CommentStatus.REJECTED.getCode(), row.getCommentStatus());
+        assertEquals(0, row.getStatus());
+        verify(userCommentDao, never()).batchSoftDeleteByCommentIds(anyString(), anyList(), any());
+        verify(cacheService).evictRelicsCommentCaches(10L);
+        assertEquals(2L, userComments.getVersion());
+    }
+
+    @Test
+    @DisplayName("写入失败 - 不清除缓存")
+    void testNoEvictionOnFailure() {
+        // Given
+        UserComments userComments = persisted(1L);
+        userComments.addComment(20L, "新增评论");
+        when(userCommentDao.batchUpsert(anyList())).thenReturn(0);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When
+            boolean saved = repository.saveIncremental(userComments);
+
+            // Then
+            assertFalse(saved);
+            assertTrue(TransactionSynchronizationManager.getSynchronizations().isEmpty());
+            verify(cacheService, never()).evictRelicsCommentCaches(anyLong());
+            verify(cacheService, never()).evictRelatedCaches(any());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    static CommentAction comment(long commentId, long relicsId, String content) {
+        LocalDateTime time = LocalDateTime.now().minusDays(1);
+        return CommentAction.fromDatabase(commentId, relicsId, CommentContent.of(content),
+                time, time, CommentStatus.APPROVED, false);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<List<UserComment>> upsertCaptor() {
+        return ArgumentCaptor.forClass(List.class);
+    }
+
+    private static UserComments persisted(long version, CommentAction... comments) {
+        UserComments userComments = UserComments.fromDatabase(USERNAME, new ArrayList<>(List.of(comments)), null, null);
+        userComments.markPersisted(version);
+        return userComments;
+    }
+}
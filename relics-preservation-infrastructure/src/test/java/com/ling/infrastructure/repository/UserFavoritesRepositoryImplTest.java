@@ -0,0 +1,269 @@
+package com.ling.infrastructure.repository;
+
+import com.ling.domain.interaction.model.entity.UserFavorites;
+import com.ling.domain.interaction.model.valobj.FavoriteAction;
+import com.ling.domain.user.model.valobj.Username;
+import com.ling.infrastructure.cache.service.FavoriteIndexCacheService;
+import com.ling.infrastructure.cache.service.UserFavoritesCacheService;
+import com.ling.infrastructure.dao.IUserFavoriteDao;
+import com.ling.infrastructure.dao.po.UserFavorite;
+import com.ling.infrastructure.repository.converter.UserFavoritesConverter;
+import com.ling.infrastructure.repository.support.AggregateVersionStore;
+import com.ling.infrastructure.repository.support.ChangeBatch;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * UserFavoritesRepositoryImpl单元测试
+ * @Author: LingRJ
+ * @Description: 测试增量保存时收藏变更的归并、分段写入、写入失败的处理与收藏索引重建
+ * @DateTime: 2025/7/20
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("用户收藏仓储增量保存测试")
+class UserFavoritesRepositoryImplTest {
+
+    private static final Username USERNAME = Username.of("testuser");
+
+    @Mock
+    private IUserFavoriteDao userFavoriteDao;
+
+    @Spy
+    private UserFavoritesConverter converter;
+
+    @Mock
+    private UserFavoritesCacheService cacheService;
+
+    @Mock
+    private FavoriteIndexCacheService favoriteIndexCacheService;
+
+    @Mock
+    private AggregateVersionStore aggregateVersionStore;
+
+    @InjectMocks
+    private UserFavoritesRepositoryImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        when(aggregateVersionStore.advance(eq(USERNAME), eq(AggregateVersionStore.FAVORITES), anyLong()))
+                .thenAnswer(invocation -> (long) invocation.getArgument(2) + 1);
+        when(userFavoriteDao.batchUpsert(anyList())).thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+        when(userFavoriteDao.batchSoftDeleteByRelicsIds(anyString(), anyList(), any()))
+                .thenAnswer(invocation -> ((List<?>) invocation.getArgument(1)).size());
+    }
+
+    @Test
+    @DisplayName("新增后又取消 - 不写入该文物")
+    void testAddedThenDeletedIsNotWritten() {
+        // Given
+        UserFavorites userFavorites = persisted(1L);
+        userFavorites.addFavorite(20L);
+        userFavorites.removeFavorite(20L);
+        userFavorites.addFavorite(21L);
+
+        // When
+        boolean saved = repository.saveIncremental(userFavorites);
+
+        // Then
+        assertTrue(saved);
+        ArgumentCaptor<List<UserFavorite>> upserts = upsertCaptor();
+        verify(userFavoriteDao).batchUpsert(upserts.capture());
+        assertEquals(List.of(21L), upserts.getValue().stream().map(UserFavorite::getRelicsId).toList());
+        verify(userFavoriteDao, never()).batchSoftDeleteByRelicsIds(anyString(), anyList(), any());
+        verify(favoriteIndexCacheService).addFavorite(eq(USERNAME), eq(21L), anyLong());
+        verify(favoriteIndexCacheService, never()).addFavorite(eq(USERNAME), eq(20L), anyLong());
+        verify(favoriteIndexCacheService, never()).removeFavorite(any(), anyLong());
+        assertFalse(userFavorites.hasChanges());
+        assertEquals(2L, userFavorites.getVersion());
+    }
+
+    @Test
+    @DisplayName("取消后重新收藏 - 净状态不变，不写入也不更新计数")
+    void testDeletedThenAddedIsNetNoOp() {
+        // Given
+        UserFavorites userFavorites = persisted(1L, 10L);
+        userFavorites.removeFavorite(10L);
+        userFavorites.addFavorite(10L);
+
+        // When
+        boolean saved = repository.saveIncremental(userFavorites);
+
+        // Then
+        assertTrue(saved);
+        verify(userFavoriteDao, never()).batchUpsert(anyList());
+        verify(userFavoriteDao, never()).batchSoftDeleteByRelicsIds(anyString(), anyList(), any());
+        verify(favoriteIndexCacheService, never()).incrementRelicsFavoriteCount(anyLong(), anyLong());
+        assertTrue(userFavorites.isFavorited(10L));
+    }
+
+    @Test
+    @DisplayName("取消已有收藏 - 逻辑删除并更新索引")
+    void testDeletePersistedFavorite() {
+        // Given
+        UserFavorites userFavorites = persisted(1L, 10L, 11L);
+        userFavorites.removeFavorite(11L);
+
+        // When
+        boolean saved = repository.saveIncremental(userFavorites);
+
+        // Then
+        assertTrue(saved);
+        verify(userFavoriteDao).batchSoftDeleteByRelicsIds(eq(USERNAME.getValue()), eq(List.of(11L)), any());
+        verify(userFavoriteDao, never()).batchUpsert(anyList());
+        verify(favoriteIndexCacheService).removeFavorite(USERNAME, 11L);
+        verify(favoriteIndexCacheService).incrementRelicsFavoriteCount(11L, -1);
+    }
+
+    @Test
+    @DisplayName("超过单条语句上限 - 分段写入")
+    void testMultiChunkUpsert() {
+        // Given
+        int count = ChangeBatch.MAX_STATEMENT_ROWS * 2 + 1;
+        UserFavorites userFavorites = persisted(1L);
+        for (long relicsId = 1; relicsId <= count; relicsId++) {
+            userFavorites.addFavorite(relicsId);
+        }
+
+        // When
+        boolean saved = repository.saveIncremental(userFavorites);
+
+        // Then
+        assertTrue(saved);
+        ArgumentCaptor<List<UserFavorite>> upserts = upsertCaptor();
+        verify(userFavoriteDao, times(3)).batchUpsert(upserts.capture());
+        assertEquals(List.of(ChangeBatch.MAX_STATEMENT_ROWS, ChangeBatch.MAX_STATEMENT_ROWS, 1),
+                upserts.getAllValues().stream().map(List::size).toList());
+        verify(favoriteIndexCacheService, times(count)).addFavorite(eq(USERNAME), anyLong(), anyLong());
+    }
+
+    @Test
+    @DisplayName("后续分段写入失败 - 返回失败，不更新索引，保留变更与版本号")
+    void testLaterChunkFailure() {
+        // Given：第二段只写入一部分
+        int count = ChangeBatch.MAX_STATEMENT_ROWS * 2;
+        UserFavorites userFavorites = persisted(1L);
+        for (long relicsId = 1; relicsId <= count; relicsId++) {
+            userFavorites.addFavorite(relicsId);
+        }
+        when(userFavoriteDao.batchUpsert(anyList()))
+                .thenReturn(ChangeBatch.MAX_STATEMENT_ROWS)
+                .thenReturn(ChangeBatch.MAX_STATEMENT_ROWS - 1);
+
+        // When
+        boolean saved = repository.saveIncremental(userFavorites);
+
+        // Then
+        assertFalse(saved);
+        verify(favoriteIndexCacheService, never()).addFavorite(any(), anyLong(), anyLong());
+        verify(favoriteIndexCacheService, never()).incrementRelicsFavoriteCount(anyLong(), anyLong());
+        verify(cacheService, never()).cacheUserFavorites(any());
+        assertTrue(userFavorites.hasChanges());
+        assertEquals(1L, userFavorites.getVersion());
+    }
+
+    @Test
+    @DisplayName("提交前不清除收藏状态与统计缓存 - 提交后才清除")
+    void testEvictFavoriteStatusAfterCommit() {
+        // Given
+        UserFavorites userFavorites = persisted(1L, 10L);
+        userFavorites.addFavorite(20L);
+        userFavorites.removeFavorite(10L);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When
+            assertTrue(repository.saveIncremental(userFavorites));
+
+            // Then
+            verify(cacheService, never()).evictFavoriteStatus(any(), anyLong());
+            verify(cacheService, never()).evictRelatedCaches(any());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(cacheService).evictFavoriteStatus(USERNAME, 20L);
+            verify(cacheService).evictFavoriteStatus(USERNAME, 10L);
+            verify(cacheService).evictRelatedCaches(USERNAME);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("全量保存 - 提交后才清除相关缓存")
+    void testSaveEvictsRelatedCachesAfterCommit() {
+        // Given
+        UserFavorites userFavorites = persisted(1L, 10L);
+        when(userFavoriteDao.batchInsert(anyList())).thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When
+            assertTrue(repository.save(userFavorites));
+
+            // Then
+            verify(cacheService, never()).evictRelatedCaches(any());
+            verify(cacheService, never()).cacheUserFavorites(any());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(cacheService, atLeastOnce()).evictRelatedCaches(USERNAME);
+            verify(cacheService).cacheUserFavorites(userFavorites);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("收藏索引不可用 - 直接读库重建，不经过聚合根缓存")
+    void testRebuildIndexFromDatabase() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        when(userFavoriteDao.selectByUsername(USERNAME.getValue(), 0, Integer.MAX_VALUE)).thenReturn(List.of(
+                UserFavorite.builder().username(USERNAME.getValue()).relicsId(10L)
+                        .createTime(now).updateTime(now).status(0).build(),
+                UserFavorite.builder().username(USERNAME.getValue()).relicsId(11L)
+                        .createTime(now).updateTime(now).status(1).build()));
+
+        // When
+        boolean favorited = repository.isFavorited(USERNAME, 10L);
+
+        // Then
+        assertTrue(favorited);
+        assertFalse(repository.isFavorited(USERNAME, 11L));
+        verify(cacheService, never()).getOrLoadUserFavorites(any(), any());
+        verify(favoriteIndexCacheService, times(2)).rebuildIndex(eq(USERNAME), any(), eq(Map.of(10L,
+                now.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli())));
+    }
+
+    private static UserFavorites persisted(long version, Long... relicsIds) {
+        LocalDateTime now = LocalDateTime.now();
+        Set<FavoriteAction> favorites = new java.util.HashSet<>();
+        for (Long relicsId : relicsIds) {
+            favorites.add(FavoriteAction.fromDatabase(relicsId, now.minusDays(1), false));
+        }
+        UserFavorites userFavorites = UserFavorites.fromDatabase(USERNAME, favorites, now, now);
+        userFavorites.markPersisted(version);
+        return userFavorites;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<List<UserFavorite>> upsertCaptor() {
+        return ArgumentCaptor.forClass(List.class);
+    }
+}
@@ -0,0 +1,123 @@
+package com.ling.infrastructure.repository.converter;
+
+import com.ling.domain.interaction.model.entity.GalleryManager;
+import com.ling.domain.interaction.model.valobj.CollectionGallery;
+import com.ling.domain.interaction.model.valobj.GalleryId;
+import com.ling.domain.user.model.valobj.Username;
+import com.ling.infrastructure.dao.po.CollectionGalleryPO;
+import com.ling.infrastructure.dao.po.GalleryRelicsPO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * GalleryManagerConverter单元测试
+ * @Author: LingRJ
+ * @Description: 测试以 gallery_relics 关联记录构建收藏馆管理聚合根时文物的顺序与空收藏馆
+ * @DateTime: 2025/7/20
+ */
+@DisplayName("收藏馆管理数据转换器测试")
+class GalleryManagerConverterTest {
+
+    private static final Username USERNAME = Username.of("testuser");
+
+    private final GalleryManagerConverter converter = new GalleryManagerConverter();
+
+    @Test
+    @DisplayName("关联记录乱序返回 - 文物按 position 排列")
+    void testRelicsOrderedByPosition() {
+        // Given
+        String bronze = GalleryId.generate().getValue();
+        String porcelain = GalleryId.generate().getValue();
+        List<GalleryRelicsPO> relics = List.of(
+                relics(porcelain, 31L, 1),
+                relics(bronze, 12L, 2),
+                relics(bronze, 10L, 0),
+                relics(porcelain, 30L, 0),
+                relics(bronze, 11L, 1));
+
+        // When
+        GalleryManager galleryManager = converter.buildGalleryManager(USERNAME,
+                List.of(gallery(bronze, "青铜器馆", "10,11,12"), gallery(porcelain, "瓷器馆", "30,31")), relics);
+
+        // Then
+        assertEquals(List.of(10L, 11L, 12L), relicsOf(galleryManager, bronze));
+        assertEquals(List.of(30L, 31L), relicsOf(galleryManager, porcelain));
+    }
+
+    @Test
+    @DisplayName("收藏馆没有关联记录 - 文物为空，不回退到 relics_ids 列")
+    void testGalleryWithoutRelicsIsEmpty() {
+        // Given
+        String bronze = GalleryId.generate().getValue();
+        String empty = GalleryId.generate().getValue();
+
+        // When
+        GalleryManager galleryManager = converter.buildGalleryManager(USERNAME,
+                List.of(gallery(bronze, "青铜器馆", "10"), gallery(empty, "空馆", "20,21")),
+                List.of(relics(bronze, 10L, 0)));
+
+        // Then
+        assertEquals(2, galleryManager.getAllGalleries().size());
+        assertEquals(List.of(10L), relicsOf(galleryManager, bronze));
+        assertTrue(relicsOf(galleryManager, empty).isEmpty());
+    }
+
+    @Test
+    @DisplayName("关联记录按 position 写出 - 读回后顺序不变")
+    void testRelicsPositionRoundTrip() {
+        // Given
+        String bronze = GalleryId.generate().getValue();
+        GalleryManager original = converter.buildGalleryManager(USERNAME,
+                List.of(gallery(bronze, "青铜器馆", "12,10,11")));
+        CollectionGallery gallery = original.getGallery(GalleryId.of(bronze)).orElseThrow();
+
+        // When
+        List<GalleryRelicsPO> relics = converter.convertToGalleryRelicsPOs(gallery);
+        List<GalleryRelicsPO> reversed = new ArrayList<>(relics);
+        Collections.reverse(reversed);
+        GalleryManager reloaded = converter.buildGalleryManager(USERNAME,
+                List.of(gallery(bronze, "青铜器馆", "")), reversed);
+
+        // Then
+        assertEquals(List.of(0, 1, 2), relics.stream().map(GalleryRelicsPO::getPosition).toList());
+        assertEquals(List.of(12L, 10L, 11L), relicsOf(reloaded, bronze));
+    }
+
+    private static List<Long> relicsOf(GalleryManager galleryManager, String galleryId) {
+        return galleryManager.getGallery(GalleryId.of(galleryId)).orElseThrow().getRelicsIds().asList();
+    }
+
+    private static CollectionGalleryPO gallery(String galleryId, String name, String relicsIds) {
+        LocalDateTime time = LocalDateTime.now().minusDays(1);
+        return CollectionGalleryPO.builder()
+                .galleryId(galleryId)
+                .username(USERNAME.getValue())
+                .name(name)
+                .description("描述")
+                .theme("bronze")
+                .displayStyle("grid")
+                .relicsIds(relicsIds)
+                .isPublic(0)
+                .shareCode("share" + name.hashCode())
+                .createTime(time)
+                .updateTime(time)
+                .status(0)
+                .build();
+    }
+
+    private static GalleryRelicsPO relics(String galleryId, Long relicsId, int position) {
+        return GalleryRelicsPO.builder()
+                .galleryId(galleryId)
+                .relicsId(relicsId)
+                .position(position)
+                .createTime(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,112 @@
+package com.ling.infrastructure.repository.support;
+
+import com.ling.domain.interaction.model.valobj.ChangeTracker.ChangeRecord;
+import com.ling.domain.interaction.model.valobj.ChangeTracker.ChangeType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ChangeBatch单元测试
+ * @Author: LingRJ
+ * @Description: 测试变更记录按最终状态划分写入集合与按语句上限分段
+ * @DateTime: 2025/7/20
+ */
+@DisplayName("变更批次测试")
+class ChangeBatchTest {
+
+    @Test
+    @DisplayName("按最终状态划分 - 仍存在的写入，已移除的删除")
+    void testSplitByFinalState() {
+        // Given：1 新增、2 修改、3 删除；最终状态中只剩 1 与 2
+        List<ChangeRecord> changes = List.of(
+                new ChangeRecord(ChangeType.ADDED, "FAVORITE", 1L, "a"),
+                new ChangeRecord(ChangeType.MODIFIED, "FAVORITE", 2L, "b"),
+                new ChangeRecord(ChangeType.DELETED, "FAVORITE", 3L, "c"));
+        Map<Long, String> finalState = Map.of(1L, "a1", 2L, "b1");
+
+        // When
+        ChangeBatch<Long, String> batch = ChangeBatch.of(changes, Long.class,
+                id -> Optional.ofNullable(finalState.get(id)));
+
+        // Then：写入的是最终状态而不是变更记录中的实体
+        assertEquals(Map.of(1L, "a1", 2L, "b1"), batch.getUpserts());
+        assertEquals(Set.of(3L), batch.getDeletes());
+        assertFalse(batch.isEmpty());
+    }
+
+    @Test
+    @DisplayName("同一实体的多条变更只写一次，保持记录顺序")
+    void testDeduplicateEntityIds() {
+        // Given
+        List<ChangeRecord> changes = new ArrayList<>();
+        changes.add(new ChangeRecord(ChangeType.ADDED, "FAVORITE", 5L, "x"));
+        changes.add(new ChangeRecord(ChangeType.ADDED, "FAVORITE", 4L, "y"));
+        changes.add(new ChangeRecord(ChangeType.MODIFIED, "FAVORITE", 5L, "x2"));
+        List<Long> lookups = new ArrayList<>();
+
+        // When
+        ChangeBatch<Long, String> batch = ChangeBatch.of(changes, Long.class, id -> {
+            lookups.add(id);
+            return Optional.of("v" + id);
+        });
+
+        // Then
+        assertEquals(List.of(5L, 4L), lookups);
+        assertEquals(List.of(5L, 4L), new ArrayList<>(batch.getUpserts().keySet()));
+        assertTrue(batch.getDeletes().isEmpty());
+    }
+
+    @Test
+    @DisplayName("无变更记录 - 批次为空")
+    void testEmpty() {
+        ChangeBatch<Long, String> batch = ChangeBatch.of(List.of(), Long.class, id -> Optional.of("v"));
+
+        assertTrue(batch.isEmpty());
+    }
+
+    @Test
+    @DisplayName("实体ID类型不符 - 抛出异常")
+    void testIdTypeMismatch() {
+        List<ChangeRecord> changes = List.of(new ChangeRecord(ChangeType.ADDED, "GALLERY", "g-1", "g"));
+
+        assertThrows(ClassCastException.class,
+                () -> ChangeBatch.of(changes, Long.class, id -> Optional.of("v")));
+    }
+
+    @Test
+    @DisplayName("按语句上限分段 - 边界与非列表集合")
+    void testChunks() {
+        assertTrue(ChangeBatch.chunks(List.of()).isEmpty());
+        assertEquals(1, ChangeBatch.chunks(ids(ChangeBatch.MAX_STATEMENT_ROWS)).size());
+
+        // Given
+        List<Long> items = ids(ChangeBatch.MAX_STATEMENT_ROWS * 2 + 1);
+
+        // When
+        List<List<Long>> chunks = ChangeBatch.chunks(items);
+
+        // Then
+        assertEquals(3, chunks.size());
+        assertEquals(ChangeBatch.MAX_STATEMENT_ROWS, chunks.get(0).size());
+        assertEquals(ChangeBatch.MAX_STATEMENT_ROWS, chunks.get(1).size());
+        assertEquals(List.of((long) ChangeBatch.MAX_STATEMENT_ROWS * 2 + 1), chunks.get(2));
+
+        // 非列表集合按迭代顺序分段
+        List<List<Long>> fromSet = ChangeBatch.chunks(new LinkedHashSet<>(items));
+        assertEquals(chunks, fromSet);
+    }
+
+    private static List<Long> ids(int count) {
+        return LongStream.rangeClosed(1, count).boxed().toList();
+    }
+}
@@ -0,0 +1,38 @@
+package com.ling.loadtest;
+
+import io.moquette.broker.Server;
+import io.moquette.broker.config.MemoryConfig;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.Properties;
+
+/**
+ * @Author: LingRJ
+ * @Description: 内嵌Moquette Broker，压测时替代外部MQTT服务
+ * @DateTime: 2025/7/20
+ **/
+@Slf4j
+public class EmbeddedMqttBroker implements AutoCloseable {
+
+    private final Server server = new Server();
+
+    public static EmbeddedMqttBroker start(int port) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("host", "127.0.0.1");
+        properties.setProperty("port", String.valueOf(port));
+        properties.setProperty("allow_anonymous", "true");
+        properties.setProperty("persistence_enabled", "false");
+        properties.setProperty("telemetry_enabled", "false");
+
+        EmbeddedMqttBroker broker = new EmbeddedMqttBroker();
+        broker.server.startServer(new MemoryConfig(properties));
+        log.info("内嵌MQTT Broker已启动, port: {}", port);
+        return broker;
+    }
+
+    @Override
+    public void close() {
+        server.stopServer();
+    }
+}
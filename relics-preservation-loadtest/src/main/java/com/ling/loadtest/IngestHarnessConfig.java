@@ -0,0 +1,195 @@
+package com.ling.loadtest;
+
+import com.ling.domain.sensor.adapter.IActuatorCommandPublisher;
+import com.ling.domain.sensor.service.actuator.ActuatorLinkageService;
+import com.ling.domain.sensor.service.actuator.impl.ActuatorCommandServiceImpl;
+import com.ling.domain.sensor.service.core.impl.SensorDataServiceImpl;
+import com.ling.domain.sensor.service.metrics.SensorIngestMetrics;
+import com.ling.domain.sensor.service.notification.NotificationService;
+import com.ling.domain.sensor.service.notification.impl.WebSocketAlertNotificationService;
+import com.ling.domain.sensor.service.notification.impl.WebSocketSensorDataService;
+import com.ling.domain.sensor.service.notification.model.SensorNotification;
+import com.ling.domain.sensor.service.parser.MessageParserManager;
+import com.ling.domain.sensor.service.parser.impl.BasicMessageParser;
+import com.ling.domain.sensor.service.pipeline.SensorDataPipeline;
+import com.ling.infrastructure.dao.IAlertRecordDao;
+import com.ling.infrastructure.dao.ISensorDataAggregationDao;
+import com.ling.infrastructure.dao.ISensorDataDao;
+import com.ling.infrastructure.repository.AlertRecordRepositoryImpl;
+import com.ling.infrastructure.repository.SensorDataRepositoryImpl;
+import com.ling.trigger.listener.SensorDataListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.mybatis.spring.SqlSessionFactoryBean;
+import org.mybatis.spring.mapper.MapperFactoryBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.context.support.PropertySourcesPlaceholderConfigurer;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.integration.channel.ExecutorChannel;
+import org.springframework.integration.config.EnableIntegration;
+import org.springframework.integration.core.MessageProducer;
+import org.springframework.integration.mqtt.inbound.MqttPahoMessageDrivenChannelAdapter;
+import org.springframework.integration.mqtt.support.DefaultPahoMessageConverter;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import javax.sql.DataSource;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * @Author: LingRJ
+ * @Description: 压测用的最小Spring上下文
+ *               只装配 MQTT入站 -> SensorDataListener -> SensorDataPipeline -> 仓库 -> 内嵌数据库 这条链路，
+ *               WebSocket推送经过真实的消息转换后丢弃
+ * @DateTime: 2025/7/20
+ **/
+@Configuration
+@EnableIntegration
+@EnableScheduling
+@PropertySource("classpath:loadtest.properties")
+@ComponentScan(
+        basePackages = {"com.ling.domain.sensor", "com.ling.trigger.listener", "com.ling.infrastructure.repository"},
+        useDefaultFilters = false,
+        includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = {
+                SensorDataListener.class,
+                MessageParserManager.class,
+                BasicMessageParser.class,
+                SensorDataPipeline.class,
+                SensorDataServiceImpl.class,
+                SensorDataRepositoryImpl.class,
+                AlertRecordRepositoryImpl.class,
+                WebSocketAlertNotificationService.class,
+                SensorIngestMetrics.class,
+                ActuatorLinkageService.class,
+                ActuatorCommandServiceImpl.class
+        }))
+public class IngestHarnessConfig {
+
+    @Value("${loadtest.broker.url}")
+    private String brokerUrl;
+
+    @Value("${loadtest.qos:0}")
+    private int qos;
+
+    @Value("${loadtest.workers:4}")
+    private int workers;
+
+    @Bean
+    public static PropertySourcesPlaceholderConfigurer propertySourcesPlaceholderConfigurer() {
+        return new PropertySourcesPlaceholderConfigurer();
+    }
+
+    @Bean
+    public MeterRegistry meterRegistry() {
+        return new SimpleMeterRegistry();
+    }
+
+    // ==================== 数据库 ====================
+
+    @Bean
+    public DataSource dataSource() {
+        return new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .setName("loadtest;MODE=MySQL;NON_KEYWORDS=VALUE")
+                .addScript("classpath:schema.sql")
+                .build();
+    }
+
+    @Bean
+    public SqlSessionFactory sqlSessionFactory(DataSource dataSource) throws Exception {
+        SqlSessionFactoryBean factoryBean = new SqlSessionFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setMapperLocations(
+                new PathMatchingResourcePatternResolver().getResources("classpath:/mybatis/*.xml"));
+        org.apache.ibatis.session.Configuration configuration = new org.apache.ibatis.session.Configuration();
+        configuration.setMapUnderscoreToCamelCase(true);
+        factoryBean.setConfiguration(configuration);
+        return factoryBean.getObject();
+    }
+
+    @Bean
+    public MapperFactoryBean<ISensorDataDao> sensorDataDao(SqlSessionFactory sqlSessionFactory) {
+        return mapper(ISensorDataDao.class, sqlSessionFactory);
+    }
+
+    @Bean
+    public MapperFactoryBean<ISensorDataAggregationDao> sensorDataAggregationDao(SqlSessionFactory sqlSessionFactory) {
+        return mapper(ISensorDataAggregationDao.class, sqlSessionFactory);
+    }
+
+    @Bean
+    public MapperFactoryBean<IAlertRecordDao> alertRecordDao(SqlSessionFactory sqlSessionFactory) {
+        return mapper(IAlertRecordDao.class, sqlSessionFactory);
+    }
+
+    private <T> MapperFactoryBean<T> mapper(Class<T> mapperInterface, SqlSessionFactory sqlSessionFactory) {
+        MapperFactoryBean<T> factoryBean = new MapperFactoryBean<>(mapperInterface);
+        factoryBean.setSqlSessionFactory(sqlSessionFactory);
+        return factoryBean;
+    }
+
+    // ==================== 推送 ====================
+
+    /**
+     * 消息经过Jackson转换后丢弃，保留序列化开销
+     */
+    @Bean
+    public SimpMessagingTemplate simpMessagingTemplate() {
+        MessageChannel discardChannel = (message, timeout) -> true;
+        SimpMessagingTemplate template = new SimpMessagingTemplate(discardChannel);
+        template.setMessageConverter(new MappingJackson2MessageConverter());
+        return template;
+    }
+
+    @Bean("webSocketSensorDataService")
+    public LatencyProbe webSocketSensorDataService(SimpMessagingTemplate simpMessagingTemplate, MeterRegistry meterRegistry) {
+        NotificationService<SensorNotification> delegate = new WebSocketSensorDataService(simpMessagingTemplate);
+        return new LatencyProbe(delegate, meterRegistry);
+    }
+
+    @Bean
+    public IActuatorCommandPublisher actuatorCommandPublisher() {
+        return (deviceId, payload) -> true;
+    }
+
+    // ==================== MQTT入站 ====================
+
+    @Bean
+    public ThreadPoolTaskExecutor mqttInboundExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(10000);
+        executor.setThreadNamePrefix("mqtt-inbound-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean
+    public MessageChannel sensorChannel() {
+        return new ExecutorChannel(mqttInboundExecutor());
+    }
+
+    @Bean
+    public MessageProducer inbound() {
+        MqttPahoMessageDrivenChannelAdapter adapter =
+                new MqttPahoMessageDrivenChannelAdapter(brokerUrl, "loadtest_inbound", SensorLoadGenerator.TOPIC_FILTER);
+        adapter.setCompletionTimeout(10000);
+        adapter.setConverter(new DefaultPahoMessageConverter());
+        adapter.setQos(qos);
+        adapter.setOutputChannel(sensorChannel());
+        return adapter;
+    }
+}
@@ -0,0 +1,143 @@
+package com.ling.loadtest;
+
+import com.ling.domain.sensor.service.pipeline.SensorDataPipeline;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author: LingRJ
+ * @Description: 传感器数据接入端到端压测
+ *               启动内嵌Broker与最小化应用上下文，按目标速率发布报文，输出吞吐、延迟分位与内存分配速率。
+ *               运行方式：mvn -P perf -pl relics-preservation-loadtest -am install -DskipTests
+ *               然后 mvn -P perf -pl relics-preservation-loadtest exec:java -Dexec.args="--rate=5000 --duration=60"
+ * @DateTime: 2025/7/20
+ **/
+@Slf4j
+public class IngestLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        log.info("压测参数: {}", options);
+
+        try (EmbeddedMqttBroker ignored = EmbeddedMqttBroker.start(options.getPort());
+             AnnotationConfigApplicationContext context = createContext(options);
+             SensorLoadGenerator generator = new SensorLoadGenerator(options)) {
+
+            LatencyProbe probe = context.getBean(LatencyProbe.class);
+            generator.connect();
+
+            // 1. 预热
+            if (options.getWarmupSeconds() > 0) {
+                long warmup = generator.run(options.getWarmupSeconds());
+                probe.awaitReceived(warmup, Duration.ofSeconds(options.getDrainTimeoutSeconds()));
+                log.info("预热完成, 发布 {} 条", warmup);
+            }
+
+            // 2. 正式压测
+            long receivedBefore = probe.getReceived();
+            long allocatedBefore = totalAllocatedBytes();
+            long start = System.nanoTime();
+            probe.startMeasuring();
+
+            long published = generator.run(options.getDurationSeconds());
+            long publishEnd = System.nanoTime();
+            boolean drained = probe.awaitReceived(receivedBefore + published,
+                    Duration.ofSeconds(options.getDrainTimeoutSeconds()));
+
+            probe.stopMeasuring();
+            long end = Math.max(probe.getLastReceivedAt(), publishEnd);
+            long allocatedAfter = totalAllocatedBytes();
+
+            // 3. 落库剩余数据
+            context.getBean(SensorDataPipeline.class).processBatch();
+
+            report(options, context, probe, generator, published, drained, end - start, publishEnd - start,
+                    allocatedBefore < 0 ? -1 : allocatedAfter - allocatedBefore);
+        }
+    }
+
+    private static AnnotationConfigApplicationContext createContext(LoadTestOptions options) {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources()
+                .addFirst(new MapPropertySource("loadtest", options.toProperties()));
+        context.register(IngestHarnessConfig.class);
+        context.refresh();
+        return context;
+    }
+
+    private static void report(LoadTestOptions options, AnnotationConfigApplicationContext context, LatencyProbe probe,
+                               SensorLoadGenerator generator, long published, boolean drained,
+                               long elapsedNanos, long publishNanos, long allocatedBytes) {
+        double seconds = elapsedNanos / 1e9;
+        long measured = probe.getMeasured();
+        Long rows = new JdbcTemplate(context.getBean(DataSource.class))
+                .queryForObject("SELECT COUNT(*) FROM sensor_data", Long.class);
+
+        StringBuilder report = new StringBuilder(1024);
+        report.append("\n==================== 传感器接入压测报告 ====================\n");
+        report.append(String.format("参数              : %s%n", options));
+        report.append(String.format("发布              : %d 条, 发送速率 %.0f 条/秒, 发送失败 %d 条%n",
+                published, published / (publishNanos / 1e9), generator.getDropped()));
+        report.append(String.format("处理              : %d 条%s, 持续吞吐 %.0f 条/秒%n",
+                measured, drained ? "" : "（未全部处理完成）", measured / seconds));
+        report.append(String.format("端到端延迟        : %s%n", percentiles(probe.getEndToEnd())));
+        if (allocatedBytes >= 0) {
+            report.append(String.format("内存分配          : %.1f MB/秒, %.1f KB/条（含Broker与发送端）%n",
+                    allocatedBytes / seconds / (1024 * 1024),
+                    measured > 0 ? allocatedBytes / 1024.0 / measured : 0));
+        }
+        report.append(String.format("sensor_data 行数  : %d%n", rows));
+
+        report.append("各阶段耗时:\n");
+        MeterRegistry registry = context.getBean(MeterRegistry.class);
+        for (Timer timer : registry.find("sensor.ingest.stage").timers()) {
+            report.append(String.format("  %-14s  count=%-9d %s%n",
+                    timer.getId().getTag("stage"), timer.count(), percentiles(timer)));
+        }
+        report.append("============================================================");
+        System.out.println(report);
+    }
+
+    private static String percentiles(Timer timer) {
+        HistogramSnapshot snapshot = timer.takeSnapshot();
+        StringBuilder builder = new StringBuilder();
+        for (ValueAtPercentile value : snapshot.percentileValues()) {
+            builder.append(String.format("p%s=%.3fms ", trimPercentile(value.percentile() * 100),
+                    value.value(TimeUnit.MILLISECONDS)));
+        }
+        builder.append(String.format("max=%.3fms", snapshot.max(TimeUnit.MILLISECONDS)));
+        return builder.toString();
+    }
+
+    private static String trimPercentile(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+    }
+
+    /**
+     * 统计所有存活线程累计分配的字节数，JVM不支持时返回 -1
+     */
+    private static long totalAllocatedBytes() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threadMXBean)
+                || !threadMXBean.isThreadAllocatedMemorySupported()) {
+            return -1;
+        }
+        long total = 0;
+        for (long bytes : threadMXBean.getThreadAllocatedBytes(threadMXBean.getAllThreadIds())) {
+            if (bytes > 0) {
+                total += bytes;
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,104 @@
+package com.ling.loadtest;
+
+import com.ling.domain.sensor.service.notification.NotificationService;
+import com.ling.domain.sensor.service.notification.model.SensorNotification;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @Author: LingRJ
+ * @Description: 端到端延迟探针
+ *               包装传感器数据推送服务，识别发送端附带的 probe_ns 字段（发送时的System.nanoTime），
+ *               记录从发布到管道完成推送的耗时
+ * @DateTime: 2025/7/20
+ **/
+public class LatencyProbe implements NotificationService<SensorNotification> {
+
+    /** 发送端附带的探针字段 */
+    public static final String PROBE_FIELD = "probe_ns";
+
+    private final NotificationService<SensorNotification> delegate;
+
+    private final Timer endToEnd;
+
+    private final LongAdder received = new LongAdder();
+
+    private final LongAdder measured = new LongAdder();
+
+    private final AtomicLong lastReceivedAt = new AtomicLong();
+
+    private volatile boolean measuring;
+
+    public LatencyProbe(NotificationService<SensorNotification> delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.endToEnd = Timer.builder("loadtest.e2e")
+                .description("发布到管道处理完成的端到端延迟")
+                .publishPercentiles(0.5, 0.9, 0.99, 0.999)
+                // 统计窗口覆盖整个压测过程
+                .distributionStatisticExpiry(Duration.ofHours(1))
+                .distributionStatisticBufferLength(1)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void send(SensorNotification notification) {
+        if (!PROBE_FIELD.equals(notification.getSensorType())) {
+            delegate.send(notification);
+            return;
+        }
+
+        long now = System.nanoTime();
+        received.increment();
+        lastReceivedAt.set(now);
+        if (measuring) {
+            measured.increment();
+            endToEnd.record(now - notification.getValue().longValue(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void startMeasuring() {
+        measuring = true;
+    }
+
+    public void stopMeasuring() {
+        measuring = false;
+    }
+
+    public long getReceived() {
+        return received.sum();
+    }
+
+    public long getMeasured() {
+        return measured.sum();
+    }
+
+    public long getLastReceivedAt() {
+        return lastReceivedAt.get();
+    }
+
+    public Timer getEndToEnd() {
+        return endToEnd;
+    }
+
+    /**
+     * 等待已发布的消息全部处理完成
+     * @param expected 期望接收的探针数量
+     * @param timeout 超时时间
+     * @return 是否全部接收
+     */
+    public boolean awaitReceived(long expected, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (received.sum() < expected) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(10);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,92 @@
+package com.ling.loadtest;
+
+import lombok.Getter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @Author: LingRJ
+ * @Description: 压测参数，命令行格式 --key=value
+ * @DateTime: 2025/7/20
+ **/
+@Getter
+public class LoadTestOptions {
+
+    /** 目标发送速率（条/秒），0 表示不限速 */
+    private int rate = 2000;
+
+    /** 压测时长（秒） */
+    private int durationSeconds = 30;
+
+    /** 预热时长（秒），不计入统计 */
+    private int warmupSeconds = 5;
+
+    /** 模拟传感器数量，对应主题 ems_1 ~ ems_N */
+    private int sensors = 16;
+
+    /** 异常读数比例 */
+    private double anomalyRatio = 0.01;
+
+    /** 发送QoS */
+    private int qos = 0;
+
+    /** 内嵌Broker端口 */
+    private int port = 18830;
+
+    /** 消息处理线程数 */
+    private int workers = 4;
+
+    /** 回放文件（每行 topic\tpayload 或 payload），为空时使用合成数据 */
+    private String replay;
+
+    /** 等待消息处理完成的超时时间（秒） */
+    private int drainTimeoutSeconds = 30;
+
+    public static LoadTestOptions parse(String[] args) {
+        LoadTestOptions options = new LoadTestOptions();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("参数格式错误: " + arg + "，应为 --key=value");
+            }
+            String key = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            switch (key) {
+                case "rate" -> options.rate = Integer.parseInt(value);
+                case "duration" -> options.durationSeconds = Integer.parseInt(value);
+                case "warmup" -> options.warmupSeconds = Integer.parseInt(value);
+                case "sensors" -> options.sensors = Integer.parseInt(value);
+                case "anomaly-ratio" -> options.anomalyRatio = Double.parseDouble(value);
+                case "qos" -> options.qos = Integer.parseInt(value);
+                case "port" -> options.port = Integer.parseInt(value);
+                case "workers" -> options.workers = Integer.parseInt(value);
+                case "replay" -> options.replay = value;
+                case "drain-timeout" -> options.drainTimeoutSeconds = Integer.parseInt(value);
+                default -> throw new IllegalArgumentException("未知参数: " + key);
+            }
+        }
+        return options;
+    }
+
+    public String getBrokerUrl() {
+        return "tcp://127.0.0.1:" + port;
+    }
+
+    /**
+     * 注入到Spring环境中的属性
+     */
+    public Map<String, Object> toProperties() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("loadtest.broker.url", getBrokerUrl());
+        properties.put("loadtest.qos", qos);
+        properties.put("loadtest.workers", workers);
+        return properties;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("rate=%s, duration=%ds, warmup=%ds, sensors=%d, anomalyRatio=%.4f, qos=%d, workers=%d, replay=%s",
+                rate == 0 ? "unlimited" : rate + "/s", durationSeconds, warmupSeconds, sensors, anomalyRatio, qos, workers,
+                replay == null ? "-" : replay);
+    }
+}
@@ -0,0 +1,174 @@
+package com.ling.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.paho.client.mqttv3.MqttAsyncClient;
+import org.eclipse.paho.client.mqttv3.MqttConnectOptions;
+import org.eclipse.paho.client.mqttv3.MqttException;
+import org.eclipse.paho.client.mqttv3.MqttMessage;
+import org.eclipse.paho.client.mqttv3.persist.MemoryPersistence;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * @Author: LingRJ
+ * @Description: 传感器消息发生器
+ *               按目标速率向 ems_{n} 主题发布合成读数或回放文件中的报文，
+ *               每条报文附带 probe_ns 字段用于统计端到端延迟
+ * @DateTime: 2025/7/20
+ **/
+@Slf4j
+public class SensorLoadGenerator implements AutoCloseable {
+
+    /** 入站订阅的主题过滤器，回放文件中的主题均可被接收 */
+    public static final String TOPIC_FILTER = "#";
+
+    private static final String TOPIC_PREFIX = "ems_";
+
+    private final LoadTestOptions options;
+
+    private final MqttAsyncClient client;
+
+    private final List<String[]> replayMessages;
+
+    private long dropped;
+
+    public SensorLoadGenerator(LoadTestOptions options) throws MqttException, IOException {
+        this.options = options;
+        this.client = new MqttAsyncClient(options.getBrokerUrl(), "loadtest_publisher", new MemoryPersistence());
+        this.replayMessages = options.getReplay() == null ? List.of() : loadReplay(Path.of(options.getReplay()));
+    }
+
+    public void connect() throws MqttException {
+        MqttConnectOptions connectOptions = new MqttConnectOptions();
+        connectOptions.setCleanSession(true);
+        connectOptions.setMaxInflight(65535);
+        client.connect(connectOptions).waitForCompletion(10000);
+    }
+
+    /**
+     * 按目标速率发布消息
+     * @param seconds 发布时长
+     * @return 成功提交发布的消息数
+     */
+    public long run(int seconds) {
+        long start = System.nanoTime();
+        long end = start + seconds * 1_000_000_000L;
+        long intervalNanos = options.getRate() > 0 ? 1_000_000_000L / options.getRate() : 0;
+        long sequence = 0;
+        long published = 0;
+
+        while (true) {
+            long now = System.nanoTime();
+            if (now >= end) {
+                break;
+            }
+
+            // 补发所有已到期的消息，避免 parkNanos 精度不足导致速率偏低
+            long due = intervalNanos > 0 ? (now - start) / intervalNanos + 1 : sequence + 1000;
+            while (sequence < due) {
+                if (publish(sequence++)) {
+                    published++;
+                }
+            }
+
+            if (intervalNanos > 0) {
+                LockSupport.parkNanos(Math.min(intervalNanos, 1_000_000L));
+            }
+        }
+        return published;
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+
+    private boolean publish(long sequence) {
+        String topic;
+        String payload;
+        if (replayMessages.isEmpty()) {
+            topic = TOPIC_PREFIX + (sequence % options.getSensors() + 1);
+            payload = syntheticPayload();
+        } else {
+            String[] replay = replayMessages.get((int) (sequence % replayMessages.size()));
+            topic = replay[0];
+            payload = withProbe(replay[1]);
+        }
+
+        try {
+            MqttMessage message = new MqttMessage(payload.getBytes(StandardCharsets.UTF_8));
+            message.setQos(options.getQos());
+            client.publish(topic, message);
+            return true;
+        } catch (MqttException e) {
+            dropped++;
+            return false;
+        }
+    }
+
+    /**
+     * 生成与现场设备格式一致的读数，按比例注入越限值
+     */
+    private String syntheticPayload() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        boolean anomaly = random.nextDouble() < options.getAnomalyRatio();
+        double temp = anomaly ? 40 + random.nextDouble(5) : 18 + random.nextDouble(10);
+        double hum = 40 + random.nextDouble(10);
+        double gas = 100 + random.nextDouble(300);
+        double intensity = 200 + random.nextDouble(600);
+
+        return new StringBuilder(128)
+                .append("{\"temp\":").append(round(temp))
+                .append(",\"hum\":").append(round(hum))
+                .append(",\"gas\":").append(round(gas))
+                .append(",\"intensity\":").append(round(intensity))
+                .append(",\"stat\":").append(anomaly ? 1 : 0)
+                .append(",\"").append(LatencyProbe.PROBE_FIELD).append("\":").append(System.nanoTime())
+                .append('}')
+                .toString();
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    private String withProbe(String payload) {
+        int end = payload.lastIndexOf('}');
+        return payload.substring(0, end) + ",\"" + LatencyProbe.PROBE_FIELD + "\":" + System.nanoTime() + "}";
+    }
+
+    /**
+     * 读取回放文件，每行为 topic\tpayload 或仅 payload（使用 ems_1 主题）
+     */
+    private static List<String[]> loadReplay(Path path) throws IOException {
+        List<String[]> messages = new ArrayList<>();
+        for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            int tab = line.indexOf('\t');
+            messages.add(tab > 0
+                    ? new String[]{line.substring(0, tab), line.substring(tab + 1).trim()}
+                    : new String[]{TOPIC_PREFIX + "1", line.trim()});
+        }
+        if (messages.isEmpty()) {
+            throw new IllegalArgumentException("回放文件为空: " + path);
+        }
+        log.info("已加载回放报文 {} 条", messages.size());
+        return messages;
+    }
+
+    @Override
+    public void close() throws MqttException {
+        if (client.isConnected()) {
+            client.disconnect().waitForCompletion(5000);
+        }
+        client.close();
+    }
+}
@@ -0,0 +1,35 @@
+-- 压测用内嵌数据库表结构（H2 MySQL模式），与 docs/mysql/sql/last_version.sql 保持一致，去掉分区定义
+CREATE TABLE sensor_data (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    sensor_id VARCHAR(64) NOT NULL,
+    type VARCHAR(32) NOT NULL,
+    value DOUBLE NOT NULL,
+    unit VARCHAR(16) NULL DEFAULT NULL,
+    location_id INT NULL DEFAULT NULL,
+    relic_id INT NULL DEFAULT NULL,
+    timestamp DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    is_abnormal TINYINT NOT NULL DEFAULT 0,
+    create_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id, timestamp)
+);
+CREATE INDEX idx_sensor_data_sensor_id ON sensor_data (sensor_id);
+CREATE INDEX idx_sensor_data_timestamp ON sensor_data (timestamp);
+
+CREATE TABLE alert_record (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    alert_id VARCHAR(64) NOT NULL,
+    sensor_id VARCHAR(64) NOT NULL,
+    alert_type VARCHAR(32) NOT NULL,
+    severity VARCHAR(16) NOT NULL,
+    message VARCHAR(255) NOT NULL,
+    relics_id BIGINT DEFAULT NULL,
+    location_id BIGINT DEFAULT NULL,
+    current_value DOUBLE DEFAULT NULL,
+    threshold DOUBLE DEFAULT NULL,
+    status VARCHAR(16) NOT NULL DEFAULT 'ACTIVE',
+    timestamp DATETIME NOT NULL,
+    resolved_time DATETIME DEFAULT NULL,
+    create_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id),
+    UNIQUE (alert_id)
+);
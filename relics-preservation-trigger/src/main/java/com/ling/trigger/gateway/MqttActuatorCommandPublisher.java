@@ -0,0 +1,33 @@
+package com.ling.trigger.gateway;
+
+import com.ling.domain.sensor.adapter.IActuatorCommandPublisher;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * @Author: LingRJ
+ * @Description: 基于MQTT的执行器指令下发实现
+ * @DateTime: 2025/7/20
+ **/
+@Component
+@Slf4j
+public class MqttActuatorCommandPublisher implements IActuatorCommandPublisher {
+
+    // 指令需要设备确认，使用QoS 1
+    private static final int COMMAND_QOS = 1;
+
+    @Autowired
+    private MqttGateway mqttGateway;
+
+    @Override
+    public boolean publish(String deviceId, String payload) {
+        try {
+            mqttGateway.sendToMqtt(payload, deviceId, COMMAND_QOS);
+            return true;
+        } catch (Exception e) {
+            log.error("下发执行器指令失败, device: {}, payload: {}, 错误: {}", deviceId, payload, e.getMessage(), e);
+            return false;
+        }
+    }
+}
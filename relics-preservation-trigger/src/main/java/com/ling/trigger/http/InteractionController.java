@@ -285,6 +285,41 @@ public class InteractionController {
         }
     }
 
+    // ==================== 列表页批量查询 ====================
+
+    @Operation(summary = "批量获取文物交互概要", description = "列表页一次获取多件文物的收藏状态、收藏数与评论数")
+    @GetMapping("/summaries")
+    public Response<Map<Long, RelicsInteractionSummary>> getRelicsInteractionSummaries(
+            @Parameter(description = "文物ID列表（最多100个）") @RequestParam List<Long> relicsIds) {
+
+        String currentUsername = getCurrentUsername();
+
+        if (relicsIds.size() > 100) {
+            return Response.<Map<Long, RelicsInteractionSummary>>builder()
+                    .code(ResponseCode.UN_ERROR.getCode())
+                    .info("文物ID数量不能超过100")
+                    .build();
+        }
+
+        try {
+            Map<Long, RelicsInteractionSummary> summaries =
+                    userInteractionService.getRelicsInteractionSummaries(currentUsername, relicsIds);
+
+            return Response.<Map<Long, RelicsInteractionSummary>>builder()
+                    .code(ResponseCode.SUCCESS.getCode())
+                    .info("查询成功")
+                    .data(summaries)
+                    .build();
+
+        } catch (Exception e) {
+            log.error("批量获取文物交互概要失败: {} - {}", currentUsername, e.getMessage(), e);
+            return Response.<Map<Long, RelicsInteractionSummary>>builder()
+                    .code(ResponseCode.UN_ERROR.getCode())
+                    .info("查询失败")
+                    .build();
+        }
+    }
+
     // ==================== 私有辅助方法 ====================
     
     /**
@@ -1,7 +1,8 @@
 package com.ling.trigger.http;
 
 import com.ling.api.dto.request.SensorControlRequestDTO;
-import com.ling.trigger.gateway.MqttGateway;
+import com.ling.domain.sensor.model.valobj.ActuatorCommandVO;
+import com.ling.domain.sensor.service.actuator.IActuatorCommandService;
 import com.ling.types.common.Response;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,21 +21,23 @@ import org.springframework.web.bind.annotation.RestController;
 @Slf4j
 public class SensorController {
     @Autowired
-    private MqttGateway mqttGateway;
+    private IActuatorCommandService actuatorCommandService;
 
+    /**
+     * 提交设备期望状态，由指令服务合并后异步下发
+     */
     @PostMapping
     public Response<Void> sendSensorValue(@RequestBody SensorControlRequestDTO requestDTO) {
 
         try {
-            String type = requestDTO.getSensorType();
-            if ("fan".equals(type)) {
-                mqttGateway.sendToMqtt(String.valueOf(requestDTO.getValue()), "fan_1");
-            }
-            if ("led".equals(type)) {
-                mqttGateway.sendToMqtt(String.valueOf(requestDTO.getValue()), "led_1");
+            String deviceId = actuatorCommandService.resolveDeviceId(requestDTO.getSensorType());
+            if (deviceId != null) {
+                actuatorCommandService.submit(deviceId, String.valueOf(requestDTO.getValue()),
+                        ActuatorCommandVO.SOURCE_MANUAL);
             }
             return Response.success(null);
         } catch (Exception e) {
+            log.error("提交设备控制指令失败: {}", e.getMessage(), e);
             return Response.error(null);
 
         }
@@ -0,0 +1,41 @@
+package com.ling.trigger.listener;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONObject;
+import com.ling.domain.sensor.service.actuator.IActuatorCommandService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.integration.annotation.ServiceActivator;
+import org.springframework.messaging.Message;
+import org.springframework.stereotype.Component;
+
+/**
+ * @Author: LingRJ
+ * @Description: 执行器回执MQTT监听器，回执格式：{"device":"fan_1","value":"1"}
+ * @DateTime: 2025/7/20
+ **/
+@Component
+@Slf4j
+public class ActuatorAckListener {
+
+    @Autowired
+    private IActuatorCommandService actuatorCommandService;
+
+    @ServiceActivator(inputChannel = "actuatorAckChannel")
+    public void handleMessage(Message<?> message) {
+        String payload = message.getPayload().toString();
+        log.debug("接收到执行器回执: {}", payload);
+
+        try {
+            JSONObject ack = JSON.parseObject(payload);
+            String deviceId = ack.getString("device");
+            if (deviceId == null || deviceId.isEmpty()) {
+                log.warn("执行器回执缺少设备ID: {}", payload);
+                return;
+            }
+            actuatorCommandService.acknowledge(deviceId, ack.getString("value"));
+        } catch (Exception e) {
+            log.error("处理执行器回执失败: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -1,16 +1,20 @@
 package com.ling.trigger.listener;
 
 import com.ling.domain.sensor.model.valobj.SensorMessageVO;
+import com.ling.domain.sensor.service.metrics.SensorIngestMetrics;
+import com.ling.domain.sensor.service.metrics.SensorIngestMetrics.Stage;
 import com.ling.domain.sensor.service.parser.MessageParserManager;
 import com.ling.domain.sensor.service.pipeline.SensorDataPipeline;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.integration.annotation.ServiceActivator;
 import org.springframework.messaging.Message;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @Author: LingRJ
@@ -26,12 +30,23 @@ public class SensorDataListener {
     
     @Autowired
     private SensorDataPipeline sensorDataPipeline;
-    
-    // 消息统计
-    private final AtomicInteger messageCounter = new AtomicInteger(0);
-    private volatile long lastLogTime = System.currentTimeMillis();
-    // 每分钟记录一次统计日志
-    private static final long LOG_INTERVAL_MS = 60000;
+
+    @Autowired
+    private SensorIngestMetrics ingestMetrics;
+
+    /**
+     * MQTT入站线程池，消息经其队列到达本监听器
+     */
+    @Autowired(required = false)
+    @Qualifier("mqttInboundExecutor")
+    private ThreadPoolTaskExecutor mqttInboundExecutor;
+
+    @PostConstruct
+    public void registerMetrics() {
+        if (mqttInboundExecutor != null) {
+            ingestMetrics.registerQueue("inbound", mqttInboundExecutor.getThreadPoolExecutor().getQueue());
+        }
+    }
 
     /**
      * 监听传感器MQTT消息
@@ -39,6 +54,8 @@ public class SensorDataListener {
      */
     @ServiceActivator(inputChannel = "sensorChannel")
     public void handleMessage(Message<?> message) {
+        long receivedAt = System.nanoTime();
+        ingestMetrics.incrementReceived();
         String topic = message.getHeaders().get("mqtt_receivedTopic").toString();
         String payload = message.getPayload().toString();
 
@@ -47,6 +64,7 @@ public class SensorDataListener {
             Object duplicate =  message.getHeaders().get("mqtt_duplicate");
             if (Boolean.TRUE.equals(duplicate)) {
                 log.debug("重复消息，忽略处理");
+                ingestMetrics.incrementDuplicates();
                 return;
             }
         }
@@ -54,44 +72,34 @@ public class SensorDataListener {
             log.warn("无法判断消息是否重复：{}，错误信息：{}", message.getHeaders().get("mqtt_duplicate"), e.getMessage(), e);
         }
 
-        // 增加消息计数
-        int count = messageCounter.incrementAndGet();
-
         // 仅在DEBUG级别记录详细消息内容
         log.debug("接收到传感器消息，主题: {}, 内容: {}", topic, payload);
 
         try {
             // 解析消息
-            List<SensorMessageVO> sensorMessages = messageParser.parse(topic, payload);
+            long parseStart = System.nanoTime();
+            List<SensorMessageVO> sensorMessages;
+            try {
+                sensorMessages = messageParser.parse(topic, payload);
+            } catch (Exception e) {
+                ingestMetrics.incrementParseFailures();
+                log.error("解析传感器消息失败: {}", e.getMessage(), e);
+                return;
+            }
+            ingestMetrics.recordSince(Stage.PARSE, parseStart);
             
             // 通过管道处理消息
             if (!sensorMessages.isEmpty()) {
+                ingestMetrics.addDataPoints(sensorMessages.size());
                 sensorDataPipeline.process(sensorMessages);
                 log.debug("成功提交{}个传感器数据字段到处理管道", sensorMessages.size());
             }
             
-            // 定期记录统计信息
-            logMessageStats();
-            
         } catch (Exception e) {
+            ingestMetrics.incrementProcessFailures();
             log.error("处理传感器消息失败: {}", e.getMessage(), e);
-        }
-    }
-    
-    /**
-     * 定期记录消息统计信息
-     */
-    private void logMessageStats() {
-        long currentTime = System.currentTimeMillis();
-        long timePassed = currentTime - lastLogTime;
-        
-        // 每分钟记录一次统计信息
-        if (timePassed >= LOG_INTERVAL_MS) {
-            int count = messageCounter.getAndSet(0);
-            double messagesPerSecond = count * 1000.0 / timePassed;
-            log.info("传感器消息统计: 最近{}秒接收{}条消息, 平均每秒{}条", 
-                    timePassed/1000, count, String.format("%.2f", messagesPerSecond));
-            lastLogTime = currentTime;
+        } finally {
+            ingestMetrics.recordSince(Stage.RECEIVE, receivedAt);
         }
     }
 }